@@ -0,0 +1,39 @@
+package org.example.benchmarks;
+
+import org.example.clustering.HierarchicalClustering;
+import org.example.metrics.CouplingMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'une fusion du clustering hiérarchique. Le projet synthétique est en anneau,
+ * donc connexe : le clustering jusqu'à un module effectue exactement CLASS_COUNT - 1 fusions,
+ * et les résultats (dont gc.alloc.rate.norm avec -prof gc) sont rapportés par fusion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClusteringAllocationBenchmark {
+    private static final int CLASS_COUNT = 120;
+
+    private HierarchicalClustering clustering;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticProject.silenceStandardOutput();
+        CouplingMetrics metrics = new CouplingMetrics(new SyntheticProject(CLASS_COUNT, 3, 0.0, 42L).toCallGraph());
+        metrics.calculateNormalizedCoupling();
+        clustering = new HierarchicalClustering(metrics.getNormalizedCoupling());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASS_COUNT - 1)
+    public int mergeAll() {
+        clustering.performClustering(0.0, 1);
+        return clustering.getClusteringHistory().size();
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.benchmarks;
+
+import org.example.clustering.HierarchicalClustering;
+import org.example.graph.Pair;
+import org.example.metrics.CouplingMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clustering hiérarchique complet (jusqu'à un seul module) sur une matrice de couplage synthétique.
+ * La construction de {@link HierarchicalClustering} (matrice dense) est incluse dans la mesure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClusteringBenchmark {
+    @Param({"50", "150"})
+    public int classCount;
+
+    @Param({"0.01", "0.05"})
+    public double density;
+
+    private Map<Pair<String, String>, Double> couplingMatrix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticProject.silenceStandardOutput();
+        CouplingMetrics metrics = new CouplingMetrics(new SyntheticProject(classCount, 5, density, 42L).toCallGraph());
+        metrics.calculateNormalizedCoupling();
+        couplingMatrix = metrics.getNormalizedCoupling();
+    }
+
+    @Benchmark
+    public List<HierarchicalClustering.Cluster> performClustering() {
+        HierarchicalClustering clustering = new HierarchicalClustering(couplingMatrix);
+        return clustering.performClustering(0.0, 1);
+    }
+}
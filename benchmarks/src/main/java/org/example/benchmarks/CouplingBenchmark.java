@@ -0,0 +1,48 @@
+package org.example.benchmarks;
+
+import org.example.graph.CallGraph;
+import org.example.graph.Pair;
+import org.example.metrics.CouplingCalculator;
+import org.example.metrics.CouplingMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul du couplage sur un graphe d'appels synthétique :
+ * matrice des appels ({@link CouplingCalculator}) et couplage normalisé ({@link CouplingMetrics}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouplingBenchmark {
+    @Param({"100", "300"})
+    public int classCount;
+
+    @Param({"0.01", "0.05"})
+    public double density;
+
+    private CallGraph callGraph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticProject.silenceStandardOutput();
+        callGraph = new SyntheticProject(classCount, 5, density, 42L).toCallGraph();
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Integer>> calculateCoupling() {
+        return CouplingCalculator.calculateCoupling(callGraph);
+    }
+
+    @Benchmark
+    public Map<Pair<String, String>, Double> calculateNormalizedCoupling() {
+        CouplingMetrics metrics = new CouplingMetrics(callGraph);
+        metrics.calculateNormalizedCoupling();
+        return metrics.getNormalizedCoupling();
+    }
+}
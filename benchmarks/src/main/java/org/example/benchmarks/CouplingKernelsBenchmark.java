@@ -0,0 +1,65 @@
+package org.example.benchmarks;
+
+import org.example.clustering.CouplingKernels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Noyaux numériques du clustering sur une ligne dense (combinaison de lignes, maximum d'un
+ * rapport, sommes en ignorant les NaN).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CouplingKernelsBenchmark {
+    @Param({"1000", "10000"})
+    public int rowLength;
+
+    private double[] sums;
+    private double[] counts;
+    private double[] weights;
+    private double[] target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42L);
+        sums = new double[rowLength];
+        counts = new double[rowLength];
+        weights = new double[rowLength];
+        target = new double[rowLength];
+        for (int i = 0; i < rowLength; i++) {
+            // Lignes creuses, comme les matrices de couplage : une relation sur dix
+            boolean related = random.nextInt(10) == 0;
+            counts[i] = related ? 1 + random.nextInt(4) : 0;
+            sums[i] = related ? random.nextDouble() * counts[i] * 1e-3 : 0;
+            weights[i] = related ? random.nextDouble() * 1e-3 : Double.NaN;
+        }
+    }
+
+    @Benchmark
+    public double[] combineRows() {
+        CouplingKernels.add(target, 0, sums, 0, rowLength);
+        return target;
+    }
+
+    @Benchmark
+    public int argMaxRatio() {
+        return CouplingKernels.argMaxRatio(sums, counts, 0, 0, rowLength, 0);
+    }
+
+    @Benchmark
+    public double sumFinite() {
+        return CouplingKernels.sumFinite(weights, 0, rowLength);
+    }
+
+    @Benchmark
+    public double[] addFinite() {
+        CouplingKernels.addFinite(target, 0, weights, 0, rowLength);
+        return target;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.benchmarks;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import org.example.graph.CallGraph;
+import org.example.parser.MethodCallCollector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collecte des appels de méthodes sur des unités de compilation synthétiques.
+ * {@link #collect} mesure uniquement la visite (unités analysées à l'avance) ;
+ * {@link #parseAndCollect} inclut l'analyse syntaxique par JavaParser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MethodCallCollectorBenchmark {
+    @Param({"200", "1000"})
+    public int classCount;
+
+    @Param({"0.01", "0.05"})
+    public double density;
+
+    private List<String> sources;
+    private List<CompilationUnit> units;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticProject.silenceStandardOutput();
+        sources = new SyntheticProject(classCount, 5, density, 42L).toSources();
+        JavaParser parser = new JavaParser();
+        units = new ArrayList<>(sources.size());
+        for (String source : sources) {
+            units.add(parser.parse(source).getResult().orElseThrow());
+        }
+    }
+
+    @Benchmark
+    public CallGraph collect() {
+        CallGraph graph = new CallGraph();
+        MethodCallCollector collector = new MethodCallCollector(graph);
+        for (CompilationUnit unit : units) {
+            unit.accept(collector, null);
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public CallGraph parseAndCollect() {
+        CallGraph graph = new CallGraph();
+        MethodCallCollector collector = new MethodCallCollector(graph);
+        JavaParser parser = new JavaParser();
+        for (String source : sources) {
+            parser.parse(source).getResult().orElseThrow().accept(collector, null);
+        }
+        return graph;
+    }
+}
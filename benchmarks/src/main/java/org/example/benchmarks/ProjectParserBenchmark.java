@@ -0,0 +1,61 @@
+package org.example.benchmarks;
+
+import org.example.graph.CallGraph;
+import org.example.parser.ProjectParser;
+import org.example.synthetic.SyntheticProjectGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Analyse JavaParser d'un projet écrit sur disque par {@link SyntheticProjectGenerator},
+ * lecture des fichiers comprise, selon le nombre de threads d'analyse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ProjectParserBenchmark {
+    @Param({"1000"})
+    public int classCount;
+
+    @Param({"3"})
+    public double meanFanOut;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private Path projectDirectory;
+    private List<File> javaFiles;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SyntheticProject.silenceStandardOutput();
+        projectDirectory = Files.createTempDirectory("synthetic-project");
+        new SyntheticProjectGenerator(classCount, 5, Math.max(classCount / 50, 1), meanFanOut,
+                SyntheticProjectGenerator.FanOutDistribution.POWER_LAW, 0.8, 42L)
+                .generate(projectDirectory.toFile());
+        javaFiles = ProjectParser.listJavaFiles(projectDirectory.resolve("src").toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(projectDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public CallGraph parse() {
+        return new ProjectParser(parallelism).parse(javaFiles);
+    }
+}
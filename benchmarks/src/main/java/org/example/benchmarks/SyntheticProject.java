@@ -0,0 +1,99 @@
+package org.example.benchmarks;
+
+import org.example.graph.CallGraph;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Projet synthétique déterministe utilisé par les benchmarks.
+ * La classe Ci définit les méthodes mi_0 ... mi_(k-1) ; chacune appelle une
+ * méthode de la classe suivante (anneau, pour que toutes les classes soient couplées)
+ * puis environ {@code density * classCount} méthodes de classes tirées au hasard.
+ * Les noms de méthodes étant uniques, le couplage par nom est exact.
+ */
+final class SyntheticProject {
+    private final int classCount;
+    private final int methodsPerClass;
+    // calls[i][j] : classes appelées par la méthode j de la classe i
+    private final int[][][] calls;
+
+    SyntheticProject(int classCount, int methodsPerClass, double density, long seed) {
+        this.classCount = classCount;
+        this.methodsPerClass = methodsPerClass;
+        this.calls = new int[classCount][methodsPerClass][];
+        Random random = new Random(seed);
+        int fanOut = Math.max(1, (int) Math.round(density * classCount));
+        for (int i = 0; i < classCount; i++) {
+            for (int j = 0; j < methodsPerClass; j++) {
+                int[] targets = new int[fanOut];
+                targets[0] = (i + 1) % classCount;
+                for (int t = 1; t < fanOut; t++) {
+                    targets[t] = random.nextInt(classCount);
+                }
+                calls[i][j] = targets;
+            }
+        }
+    }
+
+    private static String className(int i) {
+        return "C" + i;
+    }
+
+    private String methodName(int classIndex, int target) {
+        return "m" + target + "_" + (classIndex * 31 + target) % methodsPerClass;
+    }
+
+    /**
+     * Construit directement le graphe d'appels, sans passer par l'analyse du code
+     */
+    CallGraph toCallGraph() {
+        CallGraph graph = new CallGraph();
+        for (int i = 0; i < classCount; i++) {
+            graph.addClass(className(i));
+            for (int j = 0; j < methodsPerClass; j++) {
+                graph.addMethod(className(i), "m" + i + "_" + j);
+            }
+        }
+        for (int i = 0; i < classCount; i++) {
+            for (int j = 0; j < methodsPerClass; j++) {
+                for (int target : calls[i][j]) {
+                    graph.addMethodCall(className(i), methodName(i, target));
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Génère le code source de chaque classe (une unité de compilation par classe)
+     */
+    List<String> toSources() {
+        List<String> sources = new ArrayList<>(classCount);
+        for (int i = 0; i < classCount; i++) {
+            StringBuilder source = new StringBuilder();
+            source.append("package synthetic;\n\npublic class ").append(className(i)).append(" {\n");
+            for (int j = 0; j < methodsPerClass; j++) {
+                source.append("    public void m").append(i).append('_').append(j).append("() {\n");
+                for (int target : calls[i][j]) {
+                    source.append("        ").append(methodName(i, target)).append("();\n");
+                }
+                source.append("    }\n");
+            }
+            source.append("}\n");
+            sources.add(source.toString());
+        }
+        return sources;
+    }
+
+    /**
+     * Redirige la sortie standard vers un flux vide : les messages de l'analyseur
+     * fausseraient sinon les mesures. JMH communique avec ses forks par un autre canal.
+     */
+    static void silenceStandardOutput() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+}
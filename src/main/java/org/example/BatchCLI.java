@@ -0,0 +1,591 @@
+package org.example;
+
+import org.example.clustering.HierarchicalClustering;
+import org.example.clustering.ParameterSweep;
+import org.example.export.InteractiveExporter;
+import org.example.export.JsonWriter;
+import org.example.graph.CallGraph;
+import org.example.graph.ClassDependencyGraph;
+import org.example.graph.DependencyCycles;
+import org.example.graph.Pair;
+import org.example.metrics.AttributionComparison;
+import org.example.metrics.CouplingMetrics;
+import org.example.metrics.MinHashCandidateGenerator;
+import org.example.metrics.PackageCouplingRollup;
+import org.example.monitoring.EventLog;
+import org.example.monitoring.MetricsRegistry;
+import org.example.parser.ProjectParser;
+import org.example.parser.ResolutionCache;
+import org.example.synthetic.GroundTruth;
+import org.example.visualization.CouplingGraphVisualizer;
+import org.example.visualization.DendrogramVisualizer;
+import org.example.visualization.LevelOfDetailRenderer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.*;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Point d'entrée non interactif, piloté par des options de ligne de commande,
+ * pour exécuter l'analyse depuis des scripts ou en intégration continue.
+ * Chaque étape (parse, coupling, cluster, render) est chronométrée ; un tableau
+ * des durées et de la mémoire est affiché et les résultats peuvent être écrits en JSON.
+ */
+public class BatchCLI {
+    // Étapes du pipeline, dans l'ordre d'exécution
+    private static final List<String> STAGES = Arrays.asList("parse", "coupling", "cluster", "render");
+
+    /**
+     * Mesures d'une étape du pipeline
+     */
+    private static class PhaseRecord {
+        private final String name;
+        private final long millis;
+        private final long heapUsedBytes;
+        private final long heapPeakBytes;
+
+        PhaseRecord(String name, long millis, long heapUsedBytes, long heapPeakBytes) {
+            this.name = name;
+            this.millis = millis;
+            this.heapUsedBytes = heapUsedBytes;
+            this.heapPeakBytes = heapPeakBytes;
+        }
+    }
+
+    // Options
+    private String projectPath;
+    private double threshold = 0.0;
+    private int maxModules = -1;
+    private String backend = "javaparser";
+    private int parallelism = 1;
+    private Set<String> stages = new LinkedHashSet<>(STAGES);
+    private String couplingGraphPath;
+    private String dendrogramPath;
+    private String htmlDirectory;
+    private String lodPrefix;
+    private int lodTopK = 5;
+    private String jsonPath;
+    private int candidateBands = 0;
+    private int candidateRows = 1;
+    // Mesure du rappel des candidats (coûte autant que le calcul exact des paires couplées)
+    private boolean candidateRecallRequested;
+    private boolean sweep;
+    private String groundTruthPath;
+    private int rollupDepth = -1;
+    private int cycleLimit = -1;
+    private boolean preMergeCycles;
+    private boolean resolveCalls;
+    private int resolveCacheSize = 10000;
+    private String jfrPath;
+    private boolean dumpMetrics = MetricsRegistry.isDumpRequested();
+
+    // Résultats
+    private final List<PhaseRecord> phases = new ArrayList<>();
+    private CallGraph callGraph;
+    private CouplingMetrics metrics;
+    private HierarchicalClustering clustering;
+    private List<HierarchicalClustering.Cluster> clusters = new ArrayList<>();
+    private List<Set<String>> modules = new ArrayList<>();
+    private List<ParameterSweep.SweepResult> sweepResults = new ArrayList<>();
+    private Double groundTruthNmi;
+    private PackageCouplingRollup rollup;
+    private DependencyCycles classCycles;
+    private DependencyCycles packageCycles;
+    private AttributionComparison attribution;
+    // Génération de candidats : nombre de paires candidates et de paires réellement couplées, rappel
+    private Integer candidatePairCount;
+    private int exactPairCount;
+    private Double candidateRecall;
+
+    public static void main(String[] args) {
+        BatchCLI cli = new BatchCLI();
+        try {
+            cli.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            printUsage();
+            System.exit(2);
+        }
+        System.exit(cli.run());
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage : BatchCLI --path <répertoire> [options]");
+        System.err.println("  --threshold <0..1>        Seuil minimal de couplage (défaut : 0)");
+        System.err.println("  --max-modules <n>         Nombre maximum de modules (défaut : classes / 2)");
+        System.err.println("  --backend <javaparser|spoon>  Analyseur utilisé (défaut : javaparser)");
+        System.err.println("  --parallelism <n>         Threads d'analyse JavaParser (défaut : 1)");
+        System.err.println("  --stages <liste>          Étapes parmi parse,coupling,cluster,render (défaut : toutes)");
+        System.err.println("  --coupling-graph <fichier> Graphe de couplage (.png, .svg ou .dot)");
+        System.err.println("  --dendrogram <fichier>    Dendrogramme (.png ou .svg)");
+        System.err.println("  --html <répertoire>       Vue interactive HTML/JSON");
+        System.err.println("  --lod <préfixe>           Graphes par niveau de détail (SVG), avec --lod-k <k>");
+        System.err.println("  --candidates <bandes>x<lignes>  Candidats MinHash/LSH pour le calcul du couplage");
+        System.err.println("  --candidates-recall       Mesure le rappel des candidats (calcule aussi les paires exactes)");
+        System.err.println("  --package-rollup <profondeur>  Couplage agrégé par package à cette profondeur");
+        System.err.println("  --cycles <n>              Cycles de dépendances entre classes et packages (les n plus lourds)");
+        System.err.println("  --premerge-cycles         Fusionne chaque cycle de classes avant le clustering");
+        System.err.println("  --resolve-calls           Attribue les appels à leur classe déclarante (solveur de symboles)");
+        System.err.println("  --resolve-cache <n>       Taille du cache partagé des résolutions (défaut : 10000)");
+        System.err.println("  --sweep                   Balayage automatique des paramètres de clustering");
+        System.err.println("  --ground-truth <fichier>  Vérité terrain d'un projet synthétique (ground_truth.tsv)");
+        System.err.println("  --json <fichier>          Résultats et mesures au format JSON");
+        System.err.println("  --jfr <fichier>           Enregistrement JDK Flight Recorder de l'exécution");
+        System.err.println("  --log-level <niveau>      debug, info (défaut), warn, error ou off");
+        System.err.println("  --metrics                 Affiche les métriques (compteurs, chronomètres) à la sortie");
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--sweep")) {
+                sweep = true;
+                continue;
+            }
+            if (option.equals("--resolve-calls")) {
+                resolveCalls = true;
+                continue;
+            }
+            if (option.equals("--metrics")) {
+                dumpMetrics = true;
+                continue;
+            }
+            if (option.equals("--premerge-cycles")) {
+                preMergeCycles = true;
+                continue;
+            }
+            if (option.equals("--candidates-recall")) {
+                candidateRecallRequested = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("valeur manquante pour " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--path": projectPath = value; break;
+                    case "--threshold": threshold = Double.parseDouble(value); break;
+                    case "--max-modules": maxModules = Integer.parseInt(value); break;
+                    case "--backend": backend = value; break;
+                    case "--parallelism": parallelism = Integer.parseInt(value); break;
+                    case "--stages": stages = parseStages(value); break;
+                    case "--coupling-graph": couplingGraphPath = value; break;
+                    case "--dendrogram": dendrogramPath = value; break;
+                    case "--html": htmlDirectory = value; break;
+                    case "--lod": lodPrefix = value; break;
+                    case "--lod-k": lodTopK = Integer.parseInt(value); break;
+                    case "--json": jsonPath = value; break;
+                    case "--ground-truth": groundTruthPath = value; break;
+                    case "--package-rollup": rollupDepth = Integer.parseInt(value); break;
+                    case "--cycles": cycleLimit = Integer.parseInt(value); break;
+                    case "--resolve-cache": resolveCacheSize = Integer.parseInt(value); break;
+                    case "--jfr": jfrPath = value; break;
+                    case "--log-level": EventLog.setLevel(EventLog.parseLevel(value)); break;
+                    case "--candidates": {
+                        String[] parts = value.split("x");
+                        candidateBands = Integer.parseInt(parts[0]);
+                        candidateRows = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+                        break;
+                    }
+                    default:
+                        throw new IllegalArgumentException("option inconnue " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("valeur invalide pour " + option + " : " + value);
+            }
+        }
+        if (projectPath == null) {
+            throw new IllegalArgumentException("--path est obligatoire");
+        }
+        if (!backend.equals("javaparser") && !backend.equals("spoon")) {
+            throw new IllegalArgumentException("back end inconnu : " + backend);
+        }
+        if (resolveCalls && backend.equals("spoon")) {
+            throw new IllegalArgumentException("--resolve-calls n'est disponible qu'avec le back end javaparser");
+        }
+    }
+
+    /**
+     * Lit la liste des étapes ; les étapes nécessaires à une étape demandée sont ajoutées
+     */
+    private static Set<String> parseStages(String value) {
+        Set<String> requested = new HashSet<>(Arrays.asList(value.split(",")));
+        for (String stage : requested) {
+            if (!STAGES.contains(stage)) {
+                throw new IllegalArgumentException("étape inconnue : " + stage);
+            }
+        }
+        int last = STAGES.stream().filter(requested::contains).mapToInt(STAGES::indexOf).max().orElse(0);
+        return new LinkedHashSet<>(STAGES.subList(0, last + 1));
+    }
+
+    /**
+     * Exécute les étapes demandées
+     * @return Code de sortie du processus (0 en cas de succès)
+     */
+    private int run() {
+        File directory = new File(projectPath);
+        if (!directory.isDirectory()) {
+            System.err.println("Le chemin fourni n'est pas un répertoire valide : " + projectPath);
+            return 1;
+        }
+
+        if (dumpMetrics) {
+            MetricsRegistry.getDefault().dumpAtExit();
+        }
+        Recording recording = jfrPath != null ? startRecording() : null;
+
+        if (stages.contains("parse")) {
+            runPhase("parse", this::parseProject);
+        }
+        if (stages.contains("coupling")) {
+            runPhase("coupling", this::computeCoupling);
+        }
+        if (stages.contains("cluster")) {
+            runPhase("cluster", this::clusterClasses);
+        }
+        if (stages.contains("render")) {
+            runPhase("render", this::renderOutputs);
+        }
+
+        if (recording != null) {
+            stopRecording(recording);
+        }
+        printPhaseTable();
+        if (groundTruthPath != null && clustering != null) {
+            try {
+                GroundTruth groundTruth = GroundTruth.read(new File(groundTruthPath));
+                List<Set<String>> partition = new ArrayList<>();
+                for (HierarchicalClustering.Cluster cluster : clusters) {
+                    partition.add(cluster.getClasses());
+                }
+                groundTruthNmi = groundTruth.normalizedMutualInformation(partition);
+                System.out.println(String.format("NMI par rapport à la vérité terrain (%d classes) : %.4f",
+                        groundTruth.size(), groundTruthNmi));
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la lecture de la vérité terrain : " + e.getMessage());
+                return 1;
+            }
+        }
+        if (jsonPath != null) {
+            try {
+                writeJson(new File(jsonPath));
+                System.out.println("Résultats écrits dans : " + jsonPath);
+            } catch (IOException e) {
+                System.err.println("Erreur lors de l'écriture des résultats : " + e.getMessage());
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Démarre un enregistrement JFR avec la configuration « profile » (échantillonnage des
+     * méthodes et allocations) ; les événements de l'analyse sont activés par défaut
+     */
+    private Recording startRecording() {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("analyse");
+            recording.start();
+            return recording;
+        } catch (IOException | ParseException e) {
+            System.err.println("Impossible de démarrer l'enregistrement JFR : " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void stopRecording(Recording recording) {
+        try {
+            recording.stop();
+            recording.dump(Path.of(jfrPath));
+            System.out.println("Enregistrement JFR écrit dans : " + jfrPath);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture de l'enregistrement JFR : " + e.getMessage());
+        } finally {
+            recording.close();
+        }
+    }
+
+    /**
+     * Exécute une étape en mesurant sa durée, la mémoire utilisée à la fin et le pic de mémoire
+     */
+    private void runPhase(String name, Runnable phase) {
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        long start = System.nanoTime();
+        phase.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        EventLog.flush();
+
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        phases.add(new PhaseRecord(name, millis, runtime.totalMemory() - runtime.freeMemory(), peak));
+    }
+
+    private void parseProject() {
+        if (backend.equals("spoon")) {
+            callGraph = new SpoonAnalyzer().analyzeProject(projectPath);
+        } else {
+            List<File> javaFiles = ProjectParser.listJavaFiles(new File(projectPath));
+            ProjectParser parser = new ProjectParser(parallelism);
+            ResolutionCache cache = resolveCalls ? parser.enableCallResolution(resolveCacheSize) : null;
+            callGraph = parser.parse(javaFiles);
+            if (cache != null) {
+                attribution = new AttributionComparison(callGraph, cache);
+                attribution.printReport();
+            }
+        }
+        if (maxModules < 0) {
+            maxModules = Math.max(callGraph.getAllClasses().size() / 2, 1);
+        }
+    }
+
+    private void computeCoupling() {
+        metrics = new CouplingMetrics(callGraph);
+        if (candidateBands > 0) {
+            MinHashCandidateGenerator generator =
+                    new MinHashCandidateGenerator(callGraph, candidateBands, candidateRows, 42L);
+            Set<Pair<String, String>> candidates = generator.generateCandidates();
+            metrics.calculateNormalizedCoupling(candidates);
+            candidatePairCount = candidates.size();
+            // Le rappel dépend fortement du découpage en bandes, mais sa mesure coûte autant que
+            // le calcul exact : elle n'est faite que sur demande
+            Set<Pair<String, String>> exact = null;
+            if (candidateRecallRequested) {
+                exact = MinHashCandidateGenerator.exactCoupledPairs(callGraph);
+                exactPairCount = exact.size();
+                candidateRecall = MinHashCandidateGenerator.recall(candidates, exact);
+            }
+            generator.printReport(candidates, exact);
+        } else {
+            metrics.calculateNormalizedCoupling();
+        }
+        if (rollupDepth >= 0) {
+            // Vue grossière par package, calculée avant le clustering des classes
+            rollup = new PackageCouplingRollup(metrics.getNormalizedCoupling(), callGraph);
+            rollup.printSummary(rollupDepth, 10);
+        }
+        if (cycleLimit >= 0 || preMergeCycles) {
+            findCycles();
+        }
+    }
+
+    /**
+     * Cycles de dépendances entre classes et entre packages (composantes fortement connexes)
+     */
+    private void findCycles() {
+        MetricsRegistry.Timer timer = MetricsRegistry.getDefault().timer("coupling.cycles");
+        long start = timer.start();
+        ClassDependencyGraph classGraph = ClassDependencyGraph.fromCallGraph(callGraph);
+        classCycles = new DependencyCycles(classGraph);
+        packageCycles = new DependencyCycles(classGraph.groupBy(callGraph::getClassPackage));
+        timer.stop(start);
+        if (cycleLimit >= 0) {
+            classCycles.printSummary("classes", cycleLimit);
+            packageCycles.printSummary("packages", cycleLimit);
+        }
+    }
+
+    private void clusterClasses() {
+        if (sweep) {
+            ParameterSweep parameterSweep = new ParameterSweep(metrics.getNormalizedCoupling());
+            sweepResults = parameterSweep.run(parameterSweep.defaultThresholds(11), parameterSweep.defaultMaxModules(10));
+            ParameterSweep.printResults(sweepResults);
+        }
+        clustering = new HierarchicalClustering(metrics.getNormalizedCoupling());
+        if (preMergeCycles) {
+            List<List<String>> groups = new ArrayList<>();
+            for (DependencyCycles.Cycle cycle : classCycles.getCycles()) {
+                groups.add(cycle.getMembers());
+            }
+            clustering.setPreMergedGroups(groups);
+        }
+        clusters = clustering.performClustering(threshold, maxModules);
+        modules = clustering.getModulesAtThreshold(threshold);
+    }
+
+    private void renderOutputs() {
+        if (couplingGraphPath != null) {
+            CouplingGraphVisualizer.generateCouplingGraph(metrics.getNormalizedCoupling(), couplingGraphPath);
+        }
+        if (dendrogramPath != null && !clusters.isEmpty()) {
+            DendrogramVisualizer.generateDendrogram(clusters.get(0), dendrogramPath);
+        }
+        if (lodPrefix != null) {
+            LevelOfDetailRenderer.render(metrics.getNormalizedCoupling(),
+                    LevelOfDetailRenderer.modulesOf(modules), lodTopK, lodPrefix, ".svg");
+        }
+        if (htmlDirectory != null) {
+            InteractiveExporter.export(metrics.getNormalizedCoupling(), modules, clusters, new File(htmlDirectory));
+        }
+    }
+
+    /**
+     * Couplage agrégé des packages de la profondeur demandée et paires les plus couplées
+     */
+    private void writeRollup(JsonWriter json) throws IOException {
+        json.name("packageRollup").beginObject();
+        json.name("depth").value(rollupDepth);
+        json.name("packages").beginArray();
+        for (String name : rollup.levelNodes(rollupDepth)) {
+            json.beginObject();
+            json.name("name").value(name);
+            json.name("classCount").value(rollup.classCount(name));
+            json.name("internal").value(rollup.internalCoupling(name));
+            json.name("outgoing").value(rollup.outgoingCoupling(name));
+            json.name("incoming").value(rollup.incomingCoupling(name));
+            json.endObject();
+        }
+        json.endArray();
+        json.name("pairs").beginArray();
+        for (Map.Entry<Pair<String, String>, Double> entry : rollup.strongestPairs(rollupDepth, 50)) {
+            json.beginObject();
+            json.name("from").value(entry.getKey().getFirst());
+            json.name("to").value(entry.getKey().getSecond());
+            json.name("coupling").value(entry.getValue());
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * Cycles de dépendances les plus lourds, entre classes et entre packages
+     */
+    private void writeCycles(JsonWriter json) throws IOException {
+        int limit = cycleLimit >= 0 ? cycleLimit : 50;
+        json.name("cycles").beginObject();
+        json.name("classes");
+        writeCycleList(json, classCycles, limit);
+        json.name("packages");
+        writeCycleList(json, packageCycles, limit);
+        json.endObject();
+    }
+
+    private static void writeCycleList(JsonWriter json, DependencyCycles cycles, int limit) throws IOException {
+        json.beginObject();
+        json.name("count").value(cycles.getCycles().size());
+        json.name("nodesInCycles").value(cycles.getNodesInCycles());
+        json.name("heaviest").beginArray();
+        for (DependencyCycles.Cycle cycle : cycles.getCycles().subList(0, Math.min(limit, cycles.getCycles().size()))) {
+            json.beginObject();
+            json.name("weight").value(cycle.getWeight());
+            json.name("size").value(cycle.size());
+            json.name("edges").value(cycle.getEdgeCount());
+            json.name("members").beginArray();
+            for (String member : new TreeSet<>(cycle.getMembers())) {
+                json.value(member);
+            }
+            json.endArray();
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    private void printPhaseTable() {
+        System.out.println("\n" + String.format("%-10s %12s %14s %14s", "Étape", "Durée (ms)", "Heap (Mo)", "Pic (Mo)"));
+        long total = 0;
+        for (PhaseRecord phase : phases) {
+            total += phase.millis;
+            System.out.println(String.format("%-10s %12d %14.1f %14.1f", phase.name, phase.millis,
+                    phase.heapUsedBytes / 1048576.0, phase.heapPeakBytes / 1048576.0));
+        }
+        System.out.println(String.format("%-10s %12d", "total", total));
+    }
+
+    private void writeJson(File file) throws IOException {
+        try (Writer out = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
+            JsonWriter json = new JsonWriter(out);
+            json.beginObject();
+            json.name("project").value(projectPath);
+            json.name("backend").value(backend);
+            json.name("parallelism").value(parallelism);
+            json.name("threshold").value(threshold);
+            json.name("maxModules").value(maxModules);
+            json.name("classCount").value(callGraph != null ? callGraph.getAllClasses().size() : 0);
+            if (groundTruthNmi != null) {
+                json.name("groundTruthNmi").value(groundTruthNmi);
+            }
+            json.name("phases").beginArray();
+            for (PhaseRecord phase : phases) {
+                json.beginObject();
+                json.name("name").value(phase.name);
+                json.name("millis").value(phase.millis);
+                json.name("heapUsedBytes").value(phase.heapUsedBytes);
+                json.name("heapPeakBytes").value(phase.heapPeakBytes);
+                json.endObject();
+            }
+            json.endArray();
+            json.name("modules").beginArray();
+            for (Set<String> module : modules) {
+                json.beginArray();
+                for (String className : module) {
+                    json.value(className);
+                }
+                json.endArray();
+            }
+            json.endArray();
+            if (rollup != null) {
+                writeRollup(json);
+            }
+            if (classCycles != null) {
+                writeCycles(json);
+            }
+            if (candidatePairCount != null) {
+                json.name("candidates").beginObject();
+                json.name("bands").value(candidateBands);
+                json.name("rowsPerBand").value(candidateRows);
+                json.name("candidatePairs").value(candidatePairCount);
+                if (candidateRecall != null) {
+                    json.name("exactPairs").value(exactPairCount);
+                    json.name("recall").value(candidateRecall);
+                }
+                json.endObject();
+            }
+            if (attribution != null) {
+                json.name("callResolution");
+                attribution.writeJson(json);
+            }
+            json.name("metrics");
+            MetricsRegistry.getDefault().writeJson(json);
+            if (sweep) {
+                json.name("sweep").beginArray();
+                for (ParameterSweep.SweepResult result : ParameterSweep.paretoFront(sweepResults)) {
+                    json.beginObject();
+                    json.name("threshold").value(result.getThreshold());
+                    json.name("maxModules").value(result.getMaxModules());
+                    json.name("clusterCount").value(result.getClusterCount());
+                    json.name("modularizationQuality").value(result.getModularizationQuality());
+                    json.name("modularity").value(result.getModularity());
+                    json.endObject();
+                }
+                json.endArray();
+            }
+            json.endObject();
+            out.write('\n');
+        }
+    }
+}
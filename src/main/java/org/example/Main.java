@@ -2,6 +2,11 @@ package org.example;
 
 import org.example.graph.CallGraph;
 import org.example.parser.MethodCallCollector;
+import org.example.parser.ProjectParser;
+import org.example.monitoring.EventLog;
+import org.example.monitoring.FileParseEvent;
+import org.example.monitoring.ProgressMeter;
+import org.example.monitoring.MetricsRegistry;
 import org.example.metrics.CouplingMetrics;
 import org.example.clustering.HierarchicalClustering;
 import org.example.graph.Pair;
@@ -10,6 +15,8 @@ import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import org.example.visualization.CouplingGraphVisualizer;
 import org.example.visualization.DendrogramVisualizer;
+import org.example.visualization.LevelOfDetailRenderer;
+import org.example.visualization.RenderPipeline;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -22,6 +29,9 @@ public class Main {
     protected static CallGraph callGraph = new CallGraph();
 
     public static void main(String[] args) {
+        if (MetricsRegistry.isDumpRequested()) {
+            MetricsRegistry.getDefault().dumpAtExit();
+        }
         Scanner scanner = new Scanner(System.in);
 
         // Demande à l'utilisateur de fournir le chemin du répertoire du projet
@@ -41,9 +51,13 @@ public class Main {
         // Analyser chaque fichier .java dans le répertoire
         List<File> javaFiles = listJavaFiles(directory);
         System.out.println("\n====================Analyse des fichiers Java...============================");
+        ProgressMeter progress = EventLog.progress("Analyse", "fichiers", javaFiles.size());
         for (File file : javaFiles) {
+            long start = ProjectParser.beginFileParse();
+            FileParseEvent event = new FileParseEvent();
+            event.begin();
             try {
-                System.out.println("Analyse de : " + file.getName());
+                EventLog.debug("Analyse de : %s", file.getName());
                 FileInputStream in = new FileInputStream(file);
                 CompilationUnit cu = StaticJavaParser.parse(in);
                 in.close();
@@ -52,7 +66,10 @@ public class Main {
             } catch (IOException e) {
                 System.err.println("Erreur lors de l'analyse de " + file.getName() + ": " + e.getMessage());
             }
+            ProjectParser.endFileParse(event, file, start);
+            progress.step();
         }
+        progress.done();
 
         // Calculer les métriques de couplage
         CouplingMetrics metrics = new CouplingMetrics(callGraph);
@@ -62,10 +79,13 @@ public class Main {
         System.out.println("\n=======================Graphe d'appels initial :===============================");
         callGraph.printGraph();
 
-        // Générer et sauvegarder le graphe de couplage
+        // Générer et sauvegarder le graphe de couplage (en arrière-plan, pendant le clustering et
+        // l'analyse Spoon) ; le rendu attend la matrice de couplage, il ne chevauche donc pas l'analyse
+        // des fichiers, et le graphe Spoon, soumis en dernier, n'est recouvert par aucune autre étape
         System.out.println("\n========================Génération du graphe de couplage...========================");
         String couplingGraphPath = "coupling_graph.png";
-        CouplingGraphVisualizer.generateCouplingGraph(metrics.getNormalizedCoupling(), couplingGraphPath);
+        RenderPipeline.submit(couplingGraphPath, () ->
+                CouplingGraphVisualizer.generateCouplingGraph(metrics.getNormalizedCoupling(), couplingGraphPath));
 
 
         // Paramètres pour le clustering
@@ -77,6 +97,18 @@ public class Main {
         // Effectuer le clustering hiérarchique
         System.out.println("\n===============================Exécution du clustering hiérarchique...===========================");
         HierarchicalClustering clustering = new HierarchicalClustering(metrics.getNormalizedCoupling());
+        // Point de reprise périodique, sur demande (-Dclustering.checkpoint=<fichier>) : une exécution
+        // interrompue reprend là où elle s'était arrêtée
+        String checkpointPath = System.getProperty("clustering.checkpoint");
+        if (checkpointPath != null) {
+            clustering.enableCheckpoints(new File(checkpointPath), 50);
+        }
+        clustering.setProgressListener((mergesDone, maxMerges, bestCoupling, etaMillis) -> {
+            if (mergesDone % Math.max(maxMerges / 10, 1) == 0) {
+                EventLog.info("Progression : %d/%d fusions (couplage : %.3f, reste ~%d s)",
+                        mergesDone, maxMerges, bestCoupling, Math.max(etaMillis, 0) / 1000);
+            }
+        });
         List<HierarchicalClustering.Cluster> clusters = clustering.performClustering(minCouplingThreshold, maxModules);
 
         // Afficher le dendrogramme textuel
@@ -104,6 +136,12 @@ public class Main {
             }
         }
 
+        // Vue par niveau de détail (en arrière-plan) : graphe des modules, puis un graphe élagué par module
+        String lodPrefix = "coupling_lod";
+        RenderPipeline.submit(lodPrefix, () ->
+                LevelOfDetailRenderer.render(metrics.getNormalizedCoupling(),
+                        LevelOfDetailRenderer.modulesOf(modules), 5, lodPrefix, ".svg"));
+
         //SPOON
         System.out.println("\n======================================Analyse avec Spoon :========================================");
         SpoonAnalyzer spoonAnalyzer = new SpoonAnalyzer();
@@ -127,7 +165,11 @@ public class Main {
         // Générer et sauvegarder le graphe de couplage
         System.out.println("\nGénération du graphe de couplage...");
         String couplingGraphSpoonPath = "spoon_coupling_graph.png";
-        CouplingGraphVisualizer.generateCouplingGraph(spoonMetrics.getNormalizedCoupling(), couplingGraphSpoonPath);
+        RenderPipeline.submit(couplingGraphSpoonPath, () ->
+                CouplingGraphVisualizer.generateCouplingGraph(spoonMetrics.getNormalizedCoupling(), couplingGraphSpoonPath));
+
+        // Attendre la fin des rendus avant d'annoncer les fichiers générés
+        RenderPipeline.awaitAll();
 
 
         // Statistiques finales
@@ -137,6 +179,7 @@ public class Main {
         System.out.println("- Fichiers générés :");
         System.out.println("  * Graphe de couplage : " + couplingGraphPath);
         System.out.println("  * Graphe de couplage spoon: " + couplingGraphSpoonPath);
+        System.out.println("  * Niveaux de détail : " + lodPrefix + "_modules.svg, " + lodPrefix + "_Module_<i>.svg");
         System.out.println("  * Dendrogramme : dendrogram.png");
 
         scanner.close();
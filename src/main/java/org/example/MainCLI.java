@@ -2,10 +2,19 @@ package org.example;
 
 import org.example.graph.CallGraph;
 import org.example.parser.MethodCallCollector;
+import org.example.parser.ProjectParser;
+import org.example.monitoring.EventLog;
+import org.example.monitoring.FileParseEvent;
+import org.example.monitoring.ProgressMeter;
+import org.example.monitoring.MetricsRegistry;
 import org.example.metrics.CouplingMetrics;
 import org.example.clustering.HierarchicalClustering;
+import org.example.clustering.ParameterSweep;
+import org.example.export.InteractiveExporter;
 import org.example.visualization.CouplingGraphVisualizer;
 import org.example.visualization.DendrogramVisualizer;
+import org.example.visualization.LevelOfDetailRenderer;
+import org.example.visualization.RenderPipeline;
 
 import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
@@ -23,13 +32,21 @@ public class MainCLI {
     protected static double minCouplingThreshold;
 
     public static void main(String[] args) {
+        if (MetricsRegistry.isDumpRequested()) {
+            MetricsRegistry.getDefault().dumpAtExit();
+        }
         while (true) {
+            // Les événements asynchrones en attente sont écrits avant le menu
+            EventLog.flush();
             System.out.println("\n=== Analyseur de Projet Java ===");
             System.out.println("1. Analyser un projet");
             System.out.println("2. Afficher le graphe d'appels");
             System.out.println("3. Générer les visualisations");
             System.out.println("4. Exécuter l'analyse Spoon");
-            System.out.println("5. Quitter");
+            System.out.println("5. Balayer les paramètres de clustering");
+            System.out.println("6. Exporter la vue interactive (HTML)");
+            System.out.println("7. Attendre la fin des rendus en cours");
+            System.out.println("8. Quitter");
             System.out.print("\nVotre choix : ");
 
             int choice = getUserChoice();
@@ -48,6 +65,16 @@ public class MainCLI {
                     runSpoonAnalysis();
                     break;
                 case 5:
+                    runParameterSweep();
+                    break;
+                case 6:
+                    exportInteractiveView();
+                    break;
+                case 7:
+                    waitForRenders();
+                    break;
+                case 8:
+                    waitForRenders();
                     System.out.println("Au revoir !");
                     System.exit(0);
                     break;
@@ -81,9 +108,14 @@ public class MainCLI {
         List<File> javaFiles = listJavaFiles(directory);
         System.out.println("\nAnalyse des fichiers Java...");
 
+        ProgressMeter progress = EventLog.progress("Analyse", "fichiers", javaFiles.size());
+
         for (File file : javaFiles) {
+            long start = ProjectParser.beginFileParse();
+            FileParseEvent event = new FileParseEvent();
+            event.begin();
             try {
-                System.out.println("Analyse de : " + file.getName());
+                EventLog.debug("Analyse de : %s", file.getName());
                 FileInputStream in = new FileInputStream(file);
                 CompilationUnit cu = StaticJavaParser.parse(in);
                 in.close();
@@ -91,7 +123,10 @@ public class MainCLI {
             } catch (IOException e) {
                 System.err.println("Erreur lors de l'analyse de " + file.getName() + ": " + e.getMessage());
             }
+            ProjectParser.endFileParse(event, file, start);
+            progress.step();
         }
+        progress.done();
         System.out.println("Analyse terminée !");
     }
 
@@ -108,17 +143,19 @@ public class MainCLI {
         CouplingMetrics metrics = new CouplingMetrics(callGraph);
         metrics.calculateNormalizedCoupling();
 
-        CouplingGraphVisualizer.generateCouplingGraph(
-                metrics.getNormalizedCoupling(),
-                "coupling_graph.png"
-        );
+        RenderPipeline.submit("coupling_graph.png", () ->
+                CouplingGraphVisualizer.generateCouplingGraph(
+                        metrics.getNormalizedCoupling(),
+                        "coupling_graph.png"
+                ));
 
         HierarchicalClustering clustering = new HierarchicalClustering(metrics.getNormalizedCoupling());
         int maxModules = Math.max(callGraph.getAllClasses().size() / 2, 1);
         List<HierarchicalClustering.Cluster> clusters =
                 clustering.performClustering(minCouplingThreshold, maxModules);
 
-        DendrogramVisualizer.generateDendrogram(clusters.get(0), "dendrogram.png");
+        RenderPipeline.submit("dendrogram.png", () ->
+                DendrogramVisualizer.generateDendrogram(clusters.get(0), "dendrogram.png"));
 
         // Analyse et affichage des clusters
         System.out.println("\nAnalyse des clusters :");
@@ -135,6 +172,11 @@ public class MainCLI {
             }
         }
 
+        // Vue par niveau de détail : graphe des modules, puis un graphe élagué par module
+        RenderPipeline.submit("coupling_lod", () ->
+                LevelOfDetailRenderer.render(metrics.getNormalizedCoupling(),
+                        LevelOfDetailRenderer.modulesOf(modules), 5, "coupling_lod", ".svg"));
+
         // Afficher le dendrogramme textuel
         System.out.println("\nDendrogramme textuel :");
         clustering.printDendrogram();
@@ -143,8 +185,9 @@ public class MainCLI {
         System.out.println("\nHistorique détaillé du clustering :");
         clustering.printDetailedDendrogram();
 
-        System.out.println("\nFichiers générés :");
+        System.out.println("\nFichiers en cours de génération (option 7 pour attendre) :");
         System.out.println("- coupling_graph.png");
+        System.out.println("- coupling_lod_modules.svg et coupling_lod_Module_<i>.svg");
         //System.out.println("- dendrogram.png");
     }
 
@@ -158,14 +201,61 @@ public class MainCLI {
         CouplingMetrics spoonMetrics = new CouplingMetrics(spoonCallGraph);
         spoonMetrics.calculateNormalizedCoupling();
 
-        CouplingGraphVisualizer.generateCouplingGraph(
-                spoonMetrics.getNormalizedCoupling(),
-                "spoon_coupling_graph.png"
-        );
+        RenderPipeline.submit("spoon_coupling_graph.png", () ->
+                CouplingGraphVisualizer.generateCouplingGraph(
+                        spoonMetrics.getNormalizedCoupling(),
+                        "spoon_coupling_graph.png"
+                ));
 
         System.out.println("Analyse Spoon terminée !");
     }
 
+    private static void runParameterSweep() {
+        if (!isProjectConfigured()) return;
+
+        System.out.println("\nBalayage des paramètres de clustering...");
+        CouplingMetrics metrics = new CouplingMetrics(callGraph);
+        metrics.calculateNormalizedCoupling();
+
+        // Un seul clustering complet, partagé par toutes les combinaisons évaluées
+        ParameterSweep sweep = new ParameterSweep(metrics.getNormalizedCoupling());
+        List<ParameterSweep.SweepResult> results = sweep.run(
+                sweep.defaultThresholds(11),
+                sweep.defaultMaxModules(10)
+        );
+
+        ParameterSweep.printResults(results);
+    }
+
+    private static void exportInteractiveView() {
+        if (!isProjectConfigured()) return;
+
+        System.out.println("\nExport de la vue interactive...");
+        CouplingMetrics metrics = new CouplingMetrics(callGraph);
+        metrics.calculateNormalizedCoupling();
+
+        HierarchicalClustering clustering = new HierarchicalClustering(metrics.getNormalizedCoupling());
+        int maxModules = Math.max(callGraph.getAllClasses().size() / 2, 1);
+        List<HierarchicalClustering.Cluster> clusters =
+                clustering.performClustering(minCouplingThreshold, maxModules);
+
+        InteractiveExporter.export(
+                metrics.getNormalizedCoupling(),
+                clustering.getModulesAtThreshold(minCouplingThreshold),
+                clusters,
+                new File("interactive_view")
+        );
+    }
+
+    private static void waitForRenders() {
+        int pending = RenderPipeline.pendingCount();
+        if (pending > 0) {
+            System.out.println("Attente de " + pending + " rendu(s) en cours...");
+        }
+        RenderPipeline.awaitAll();
+        System.out.println("Tous les rendus sont terminés.");
+    }
+
     private static boolean isProjectConfigured() {
         if (directory == null || !directory.exists()) {
             System.out.println("Erreur : Veuillez d'abord analyser un projet (option 1)");
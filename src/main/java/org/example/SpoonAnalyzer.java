@@ -3,9 +3,14 @@ package org.example;
 import spoon.Launcher;
 import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtMethod;
+import spoon.reflect.declaration.CtPackage;
+import spoon.reflect.declaration.CtParameter;
 import spoon.reflect.visitor.filter.TypeFilter;
 import spoon.reflect.code.CtInvocation;
 import org.example.graph.CallGraph;
+import org.example.parser.BuildModules;
+
+import java.io.File;
 import java.util.List;
 
 /**
@@ -29,13 +34,14 @@ public class SpoonAnalyzer {
         // Analyser les classes
         List<CtClass<?>> classes = launcher.getModel().getElements(new TypeFilter<>(CtClass.class));
         for (CtClass<?> clazz : classes) {
-            String className = clazz.getSimpleName();
-            callGraph.addClass(className);
+            // Nom qualifié, avec des points pour les classes imbriquées comme avec JavaParser
+            String className = callGraph.addClass(clazz.getQualifiedName().replace('$', '.'));
+            recordLocation(clazz, className);
 
             // Analyser les méthodes
             for (CtMethod<?> method : clazz.getMethods()) {
                 String methodName = method.getSimpleName();
-                callGraph.addMethod(className, methodName);
+                callGraph.addMethod(className, methodName, parameterListOf(method));
 
                 // Analyser les appels de méthodes
                 for (CtInvocation<?> invocation : method.getElements(new TypeFilter<>(CtInvocation.class))) {
@@ -49,4 +55,29 @@ public class SpoonAnalyzer {
 
         return callGraph;
     }
-}
\ No newline at end of file
+
+    /**
+     * Liste des paramètres d'une méthode avec les noms simples de leurs types,
+     * au même format que celle produite pour JavaParser (« (String,List) »)
+     */
+    private static String parameterListOf(CtMethod<?> method) {
+        List<CtParameter<?>> parameters = method.getParameters();
+        if (parameters.isEmpty()) return "()";
+        StringBuilder signature = new StringBuilder().append('(');
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) signature.append(',');
+            signature.append(parameters.get(i).getType().getSimpleName());
+        }
+        return signature.append(')').toString();
+    }
+
+    /**
+     * Enregistre le package et le module de construction (d'après le fichier source) d'une classe
+     */
+    private void recordLocation(CtClass<?> clazz, String className) {
+        CtPackage ctPackage = clazz.getPackage();
+        String packageName = ctPackage == null || ctPackage.isUnnamedPackage() ? "" : ctPackage.getQualifiedName();
+        File file = clazz.getPosition().isValidPosition() ? clazz.getPosition().getFile() : null;
+        callGraph.setClassLocation(className, packageName, file != null ? BuildModules.moduleOf(file.toPath()) : null);
+    }
+}
@@ -0,0 +1,358 @@
+package org.example.batch;
+
+import org.example.clustering.HierarchicalClustering;
+import org.example.export.JsonWriter;
+import org.example.graph.CallGraph;
+import org.example.metrics.CouplingMetrics;
+import org.example.monitoring.EventLog;
+import org.example.parser.ProjectParser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Analyse de nombreux projets dans une seule JVM, sur un pool ForkJoin partagé.
+ *
+ * - Vol de tâches : l'analyse syntaxique de chaque projet est découpée en lots de fichiers,
+ *   et les phases mono-thread (couplage, clustering) de projets différents s'exécutent en
+ *   parallèle, si bien qu'aucun cœur ne reste inactif pendant la phase séquentielle d'un projet.
+ * - Équité : les projets sont admis dans l'ordre de la liste, au plus {@code maxActiveProjects}
+ *   à la fois ; un gros projet n'occupe donc jamais tout le pool, et ses lots de fichiers
+ *   s'intercalent avec ceux des autres projets actifs.
+ * - Mémoire : l'empreinte du couplage et du clustering, quadratique en nombre de classes, est
+ *   estimée avant le calcul à partir d'un coût forfaitaire par paire de classes ; elle n'est
+ *   pas mesurée, le plafond et le budget portent donc sur cette estimation. Un projet dont
+ *   l'estimation dépasse le plafond par projet est ignoré ; sinon il réserve son estimation
+ *   sur un budget global (sémaphore équitable) et attend que les projets en cours libèrent
+ *   de la mémoire si nécessaire.
+ * - Résultats : un fichier JSON par projet et un index consolidé index.json. L'échec d'un
+ *   projet, y compris une erreur de la JVM comme OutOfMemoryError, est consigné dans l'index
+ *   sans interrompre les autres.
+ */
+public class MultiProjectBatch {
+    // Nombre de fichiers analysés par tâche
+    private static final int FILES_PER_TASK = 32;
+    // Coût mémoire supposé d'une paire de classes (entrée de la matrice de couplage et copie dense) : estimation, non mesurée
+    private static final long BYTES_PER_CLASS_PAIR = 96;
+
+    /**
+     * Résultat de l'analyse d'un projet
+     */
+    public static class ProjectResult {
+        public final String path;
+        public String status = "en attente";
+        public String message;
+        public int fileCount;
+        public int classCount;
+        public int moduleCount;
+        public long estimatedMegabytes;
+        public long parseMillis;
+        public long couplingMillis;
+        public long clusteringMillis;
+        public String resultFile;
+
+        ProjectResult(String path) {
+            this.path = path;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final Semaphore activeProjects;
+    private final Semaphore memoryBudget;
+    private final long memoryCapMegabytes;
+    private final long memoryBudgetMegabytes;
+    private final double threshold;
+    private final File outputDirectory;
+
+    /**
+     * @param parallelism Nombre de threads du pool partagé
+     * @param maxActiveProjects Nombre maximum de projets analysés simultanément
+     * @param memoryCapMegabytes Mémoire estimée maximale d'un projet (Mo), voir {@link #BYTES_PER_CLASS_PAIR}
+     * @param threshold Seuil minimal de couplage pour le clustering
+     * @param outputDirectory Répertoire des résultats
+     */
+    public MultiProjectBatch(int parallelism, int maxActiveProjects, long memoryCapMegabytes,
+                             double threshold, File outputDirectory) {
+        this.pool = new ForkJoinPool(Math.max(parallelism, 1));
+        this.activeProjects = new Semaphore(Math.max(maxActiveProjects, 1), true);
+        // Le budget global laisse un quart du tas aux analyses syntaxiques et à la JVM
+        this.memoryBudgetMegabytes = Math.max(Runtime.getRuntime().maxMemory() / (1024 * 1024) * 3 / 4, 1);
+        this.memoryBudget = new Semaphore((int) Math.min(memoryBudgetMegabytes, Integer.MAX_VALUE), true);
+        this.memoryCapMegabytes = Math.min(memoryCapMegabytes, memoryBudgetMegabytes);
+        this.threshold = threshold;
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Analyse tous les projets et écrit l'index consolidé
+     * @param projectRoots Racines des projets, dans l'ordre d'admission
+     * @return Le résultat de chaque projet, dans le même ordre
+     */
+    public List<ProjectResult> run(List<String> projectRoots) throws IOException {
+        Files.createDirectories(outputDirectory.toPath());
+        List<ProjectResult> results = new ArrayList<>();
+        List<Future<?>> tasks = new ArrayList<>();
+        try {
+            for (int i = 0; i < projectRoots.size(); i++) {
+                ProjectResult result = new ProjectResult(projectRoots.get(i));
+                results.add(result);
+                final int index = i;
+                // L'admission se fait dans l'ordre : la tâche suivante n'est soumise qu'une fois admise
+                acquire(activeProjects, 1);
+                tasks.add(pool.submit(() -> {
+                    try {
+                        analyze(index, result);
+                    } catch (Throwable e) {
+                        // Y compris OutOfMemoryError : seul ce projet échoue, ses structures étant libérées
+                        fail(result, e);
+                    } finally {
+                        activeProjects.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    tasks.get(i).get();
+                } catch (ExecutionException | CancellationException e) {
+                    fail(results.get(i), e.getCause() != null ? e.getCause() : e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analyse interrompue", e);
+        } finally {
+            pool.shutdown();
+        }
+        writeIndex(results);
+        return results;
+    }
+
+    private static void fail(ProjectResult result, Throwable e) {
+        result.status = "échec";
+        result.message = e.getMessage() != null ? e.getMessage() : e.toString();
+        EventLog.warn("Échec de l'analyse de %s : %s", result.path, e);
+    }
+
+    private void analyze(int index, ProjectResult result) {
+        File root = new File(result.path);
+        if (!root.isDirectory()) {
+            result.status = "échec";
+            result.message = "répertoire introuvable";
+            return;
+        }
+
+        // Analyse syntaxique : un lot de fichiers par tâche, fusionnés dans l'ordre des lots
+        long start = System.nanoTime();
+        List<File> javaFiles = ProjectParser.listJavaFiles(root);
+        result.fileCount = javaFiles.size();
+        List<ForkJoinTask<CallGraph>> parseTasks = new ArrayList<>();
+        for (int from = 0; from < javaFiles.size(); from += FILES_PER_TASK) {
+            List<File> slice = javaFiles.subList(from, Math.min(from + FILES_PER_TASK, javaFiles.size()));
+            parseTasks.add(ForkJoinTask.adapt(() -> ProjectParser.parseSequentially(slice)));
+        }
+        CallGraph callGraph = new CallGraph();
+        for (ForkJoinTask<CallGraph> task : ForkJoinTask.invokeAll(parseTasks)) {
+            callGraph.merge(task.join());
+        }
+        result.classCount = callGraph.getAllClasses().size();
+        result.parseMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Plafond mémoire du projet, puis réservation sur le budget global
+        long pairs = (long) result.classCount * result.classCount;
+        result.estimatedMegabytes = Math.max(pairs * BYTES_PER_CLASS_PAIR / (1024 * 1024), 1);
+        if (result.estimatedMegabytes > memoryCapMegabytes) {
+            result.status = "ignoré";
+            result.message = "mémoire estimée (" + result.estimatedMegabytes + " Mo) supérieure au plafond de "
+                    + memoryCapMegabytes + " Mo";
+            return;
+        }
+        int permits = (int) result.estimatedMegabytes;
+        acquire(memoryBudget, permits);
+        try {
+            start = System.nanoTime();
+            CouplingMetrics metrics = new CouplingMetrics(callGraph);
+            metrics.calculateNormalizedCoupling();
+            result.couplingMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            HierarchicalClustering clustering = new HierarchicalClustering(metrics.getNormalizedCoupling());
+            clustering.performClustering(threshold, Math.max(result.classCount / 2, 1));
+            List<Set<String>> modules = clustering.getModulesAtThreshold(threshold);
+            result.clusteringMillis = (System.nanoTime() - start) / 1_000_000;
+            result.moduleCount = modules.size();
+
+            result.resultFile = String.format("%03d_%s.json", index, root.getName().replaceAll("[^A-Za-z0-9_.-]", "_"));
+            writeProjectResult(new File(outputDirectory, result.resultFile), result, modules);
+            result.status = "terminé";
+        } catch (IOException e) {
+            result.status = "échec";
+            result.message = e.getMessage();
+        } finally {
+            memoryBudget.release(permits);
+        }
+    }
+
+    /**
+     * Attente bloquante compatible avec le pool : le pool peut créer un thread de
+     * compensation pendant qu'une tâche attend, ce qui évite tout blocage du pool
+     */
+    private static void acquire(Semaphore semaphore, int permits) {
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                private boolean acquired;
+
+                @Override
+                public boolean block() throws InterruptedException {
+                    if (!acquired) {
+                        semaphore.acquire(permits);
+                        acquired = true;
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return acquired || (acquired = semaphore.tryAcquire(permits));
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attente interrompue", e);
+        }
+    }
+
+    private void writeProjectResult(File file, ProjectResult result, List<Set<String>> modules) throws IOException {
+        try (Writer out = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
+            JsonWriter json = new JsonWriter(out);
+            json.beginObject();
+            json.name("project").value(result.path);
+            json.name("threshold").value(threshold);
+            json.name("classCount").value(result.classCount);
+            json.name("modules").beginArray();
+            for (Set<String> module : modules) {
+                json.beginArray();
+                for (String className : module) {
+                    json.value(className);
+                }
+                json.endArray();
+            }
+            json.endArray();
+            json.endObject();
+            out.write('\n');
+        }
+    }
+
+    private void writeIndex(List<ProjectResult> results) throws IOException {
+        try (Writer out = new BufferedWriter(new FileWriter(new File(outputDirectory, "index.json"), StandardCharsets.UTF_8))) {
+            JsonWriter json = new JsonWriter(out);
+            json.beginObject();
+            json.name("threshold").value(threshold);
+            json.name("parallelism").value(pool.getParallelism());
+            json.name("memoryCapMegabytes").value(memoryCapMegabytes);
+            json.name("memoryBudgetMegabytes").value(memoryBudgetMegabytes);
+            json.name("projects").beginArray();
+            for (ProjectResult result : results) {
+                json.beginObject();
+                json.name("path").value(result.path);
+                json.name("status").value(result.status);
+                json.name("message").value(result.message);
+                json.name("fileCount").value(result.fileCount);
+                json.name("classCount").value(result.classCount);
+                json.name("moduleCount").value(result.moduleCount);
+                json.name("estimatedMegabytes").value(result.estimatedMegabytes);
+                json.name("parseMillis").value(result.parseMillis);
+                json.name("couplingMillis").value(result.couplingMillis);
+                json.name("clusteringMillis").value(result.clusteringMillis);
+                json.name("resultFile").value(result.resultFile);
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+            out.write('\n');
+        }
+    }
+
+    private static void printSummary(List<ProjectResult> results, long millis) {
+        System.out.println("\n" + String.format("%-40s %-10s %8s %8s %10s %10s %10s",
+                "Projet", "Statut", "Classes", "Modules", "Parse", "Couplage", "Clustering"));
+        for (ProjectResult result : results) {
+            // Fin du chemin : les racines s'appellent souvent toutes « src »
+            String name = result.path.length() > 40 ? "…" + result.path.substring(result.path.length() - 39) : result.path;
+            System.out.println(String.format("%-40s %-10s %8d %8d %8d ms %8d ms %8d ms", name, result.status,
+                    result.classCount, result.moduleCount,
+                    result.parseMillis, result.couplingMillis, result.clusteringMillis));
+            if (result.message != null) {
+                System.out.println("    " + result.message);
+            }
+        }
+        System.out.println("Durée totale : " + millis + " ms");
+    }
+
+    public static void main(String[] args) {
+        List<String> projects = new ArrayList<>();
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int maxActive = -1;
+        long memoryCap = Long.MAX_VALUE;
+        double threshold = 0.0;
+        String output = "batch_results";
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("valeur manquante pour " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--path": projects.add(value); break;
+                    case "--projects": projects.addAll(readProjectList(new File(value))); break;
+                    case "--parallelism": parallelism = Integer.parseInt(value); break;
+                    case "--max-active": maxActive = Integer.parseInt(value); break;
+                    case "--memory-cap-mb": memoryCap = Long.parseLong(value); break;
+                    case "--threshold": threshold = Double.parseDouble(value); break;
+                    case "--output": output = value; break;
+                    default: throw new IllegalArgumentException("option inconnue " + args[i]);
+                }
+            }
+            if (projects.isEmpty()) {
+                throw new IllegalArgumentException("aucun projet (--path ou --projects)");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            System.err.println("Usage : MultiProjectBatch (--projects <liste> | --path <répertoire>...) [--parallelism n]"
+                    + " [--max-active n] [--memory-cap-mb n (mémoire estimée)] [--threshold s] [--output répertoire]");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la lecture de la liste des projets : " + e.getMessage());
+            System.exit(1);
+        }
+
+        try {
+            long start = System.nanoTime();
+            MultiProjectBatch batch = new MultiProjectBatch(parallelism,
+                    maxActive > 0 ? maxActive : parallelism, memoryCap, threshold, new File(output));
+            List<ProjectResult> results = batch.run(projects);
+            EventLog.flush();
+            printSummary(results, (System.nanoTime() - start) / 1_000_000);
+            System.out.println("Index des résultats : " + new File(output, "index.json").getPath());
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture des résultats : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lit une liste de projets : un chemin par ligne, lignes vides et commentaires (#) ignorés
+     */
+    private static List<String> readProjectList(File file) throws IOException {
+        List<String> projects = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            String path = line.trim();
+            if (!path.isEmpty() && !path.startsWith("#")) {
+                projects.add(path);
+            }
+        }
+        return projects;
+    }
+}
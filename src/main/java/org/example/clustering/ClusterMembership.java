@@ -0,0 +1,102 @@
+package org.example.clustering;
+
+import java.util.*;
+
+/**
+ * Représentation compacte de l'appartenance des classes aux clusters.
+ * Chaque classe reçoit un identifiant entier (interning) et :
+ * - une structure union-find permet de retrouver en O(α(n)) le cluster racine d'une classe
+ * - une liste chaînée d'entiers relie les feuilles dans l'ordre du dendrogramme,
+ *   si bien que chaque cluster correspond à un segment contigu (tête, taille) de cette liste
+ * Une fusion se fait donc en O(1), sans copie d'ensemble de classes.
+ */
+final class ClusterMembership {
+    // Noms des classes indexés par identifiant
+    private final String[] names;
+    // Identifiant de chaque nom de classe
+    private final Map<String, Integer> ids;
+    // Feuille suivante dans l'ordre du dendrogramme (-1 en fin de chaîne)
+    private final int[] next;
+    // Parent dans la structure union-find
+    private final int[] parent;
+    // Taille de l'ensemble union-find (valide uniquement pour les racines)
+    private final int[] setSize;
+
+    /**
+     * Construit l'index à partir d'une collection de noms de classes.
+     * L'ordre de la collection détermine les identifiants attribués.
+     * @param classNames Noms des classes à indexer
+     */
+    ClusterMembership(Collection<String> classNames) {
+        int n = classNames.size();
+        this.names = new String[n];
+        this.ids = new HashMap<>(Math.max(16, n * 2));
+        this.next = new int[n];
+        this.parent = new int[n];
+        this.setSize = new int[n];
+
+        int id = 0;
+        for (String name : classNames) {
+            names[id] = name;
+            ids.put(name, id);
+            next[id] = -1;
+            parent[id] = id;
+            setSize[id] = 1;
+            id++;
+        }
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * @return L'identifiant de la classe, ou -1 si elle n'est pas indexée
+     */
+    int idOf(String className) {
+        Integer id = ids.get(className);
+        return id != null ? id : -1;
+    }
+
+    int next(int id) {
+        return next[id];
+    }
+
+    /**
+     * Retrouve la racine union-find d'une classe (avec compression de chemin par division).
+     */
+    int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Fusionne deux segments de feuilles : la chaîne de droite est accrochée
+     * à la fin de celle de gauche, et les ensembles union-find sont réunis.
+     * @param leftTail Dernière feuille du segment gauche
+     * @param rightHead Première feuille du segment droit
+     * @return La nouvelle racine union-find
+     */
+    int union(int leftTail, int rightHead) {
+        next[leftTail] = rightHead;
+
+        int a = find(leftTail);
+        int b = find(rightHead);
+        if (a == b) return a;
+        if (setSize[a] < setSize[b]) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        parent[b] = a;
+        setSize[a] += setSize[b];
+        return a;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.clustering;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Point de reprise d'un clustering hiérarchique.
+ * L'état des fusions est entièrement décrit par la liste des classes indexées et,
+ * pour chaque fusion, la première feuille de chacun des deux clusters fusionnés :
+ * cette feuille identifie de manière unique un cluster de plus haut niveau.
+ * L'empreinte de la matrice de couplage et les paramètres du clustering sont aussi
+ * enregistrés, pour qu'un point de reprise d'une autre analyse ne soit jamais rejoué.
+ * Le fichier est écrit dans un fichier temporaire puis renommé, pour qu'un arrêt
+ * brutal ne laisse jamais un point de reprise partiel.
+ */
+final class ClusteringCheckpoint {
+    // Signature du format de fichier
+    private static final int MAGIC = 0x48434C56;
+
+    // Noms des classes dans l'ordre de leurs identifiants
+    private final List<String> classNames;
+    // Empreinte de la matrice de couplage
+    private final long couplingFingerprint;
+    // Paramètres du clustering
+    private final double minCoupling;
+    private final int maxModules;
+    // Fusions effectuées : paires (première feuille gauche, première feuille droite)
+    private final int[] mergedHeads;
+    // Nombre de fusions enregistrées
+    private final int mergeCount;
+
+    ClusteringCheckpoint(List<String> classNames, long couplingFingerprint, double minCoupling, int maxModules,
+                         int[] mergedHeads, int mergeCount) {
+        this.classNames = classNames;
+        this.couplingFingerprint = couplingFingerprint;
+        this.minCoupling = minCoupling;
+        this.maxModules = maxModules;
+        this.mergedHeads = mergedHeads;
+        this.mergeCount = mergeCount;
+    }
+
+    List<String> getClassNames() {
+        return classNames;
+    }
+
+    long getCouplingFingerprint() {
+        return couplingFingerprint;
+    }
+
+    double getMinCoupling() {
+        return minCoupling;
+    }
+
+    int getMaxModules() {
+        return maxModules;
+    }
+
+    int getMergeCount() {
+        return mergeCount;
+    }
+
+    int getLeftHead(int merge) {
+        return mergedHeads[2 * merge];
+    }
+
+    int getRightHead(int merge) {
+        return mergedHeads[2 * merge + 1];
+    }
+
+    /**
+     * Écrit le point de reprise de manière atomique
+     * @param file Fichier de destination
+     */
+    void write(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(classNames.size());
+            for (String name : classNames) {
+                out.writeUTF(name);
+            }
+            out.writeLong(couplingFingerprint);
+            out.writeDouble(minCoupling);
+            out.writeInt(maxModules);
+            out.writeInt(mergeCount);
+            for (int i = 0; i < 2 * mergeCount; i++) {
+                out.writeInt(mergedHeads[i]);
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lit un point de reprise
+     * @param file Fichier à lire
+     * @return Le point de reprise lu
+     */
+    static ClusteringCheckpoint read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Format de point de reprise invalide : " + file);
+            }
+            int classCount = in.readInt();
+            List<String> names = new ArrayList<>(classCount);
+            for (int i = 0; i < classCount; i++) {
+                names.add(in.readUTF());
+            }
+            long fingerprint = in.readLong();
+            double minCoupling = in.readDouble();
+            int maxModules = in.readInt();
+            int mergeCount = in.readInt();
+            int[] heads = new int[2 * mergeCount];
+            for (int i = 0; i < heads.length; i++) {
+                heads[i] = in.readInt();
+            }
+            return new ClusteringCheckpoint(names, fingerprint, minCoupling, maxModules, heads, mergeCount);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.clustering;
+
+/**
+ * Observateur de l'avancement d'un clustering hiérarchique.
+ * Appelé après chaque fusion, dans le thread qui exécute le clustering.
+ */
+public interface ClusteringProgressListener {
+
+    /**
+     * Notifie l'avancement du clustering.
+     *
+     * @param mergesDone Nombre de fusions effectuées (y compris celles rejouées depuis un point de reprise)
+     * @param maxMerges Nombre maximum de fusions possibles avec les paramètres courants
+     * @param bestCoupling Couplage de la dernière fusion effectuée
+     * @param etaMillis Estimation du temps restant en millisecondes (-1 si inconnue)
+     */
+    void onProgress(int mergesDone, int maxMerges, double bestCoupling, long etaMillis);
+}
@@ -0,0 +1,69 @@
+package org.example.clustering;
+
+/**
+ * Noyaux numériques sur des lignes denses de couplage (tableaux de doubles à plat,
+ * une ligne commençant à un décalage donné), utilisés par {@link HierarchicalClustering} :
+ * - combinaison de lignes (mise à jour des sommes lors d'une fusion) ;
+ * - maximum et premier indice du maximum d'un rapport somme / nombre (recherche de la
+ *   meilleure paire de clusters) ;
+ * - sommes de lignes en ignorant les NaN (forces des classes).
+ *
+ * Ce sont des boucles simples, que C2 vectorise déjà lorsque c'est possible : une version
+ * explicite avec l'API Vector s'est révélée plus lente sur un clustering complet.
+ */
+public final class CouplingKernels {
+    private CouplingKernels() {
+    }
+
+    /**
+     * target[targetOffset + i] += source[sourceOffset + i] pour i dans [0, length)
+     */
+    public static void add(double[] target, int targetOffset, double[] source, int sourceOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            target[targetOffset + i] += source[sourceOffset + i];
+        }
+    }
+
+    /**
+     * Premier indice j de [from, to) maximisant sums[offset + j] / counts[offset + j] parmi les
+     * positions de nombre strictement positif, si ce rapport maximal dépasse strictement floor
+     * @return L'indice j, ou -1 si aucun rapport ne dépasse floor
+     */
+    public static int argMaxRatio(double[] sums, double[] counts, int offset, int from, int to, double floor) {
+        int best = -1;
+        double max = floor;
+        for (int j = from; j < to; j++) {
+            double count = counts[offset + j];
+            if (count > 0) {
+                double ratio = sums[offset + j] / count;
+                if (ratio > max) {
+                    max = ratio;
+                    best = j;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Somme de values[offset + i] pour i dans [0, length), en ignorant les NaN
+     */
+    public static double sumFinite(double[] values, int offset, int length) {
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            double value = values[offset + i];
+            if (!Double.isNaN(value)) sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * target[targetOffset + i] += source[sourceOffset + i] pour i dans [0, length), sauf si la source est NaN
+     */
+    public static void addFinite(double[] target, int targetOffset, double[] source, int sourceOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            double value = source[sourceOffset + i];
+            if (!Double.isNaN(value)) target[targetOffset + i] += value;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.clustering;
+
+import java.util.Arrays;
+
+/**
+ * Couplages entre classes rangés par ligne (format CSR) : pour chaque classe appelante,
+ * les identifiants triés des classes appelées et les couplages correspondants, dans des
+ * tableaux primitifs. Remplace la copie dense n×n lorsqu'elle ne tient pas en mémoire :
+ * seules les relations stockées occupent de la place (12 octets chacune).
+ */
+final class CouplingRows {
+    // Début de chaque ligne dans columns/values (n + 1 bornes)
+    private final int[] rowStarts;
+    // Classe appelée de chaque relation, croissante dans chaque ligne
+    private final int[] columns;
+    // Couplage de chaque relation
+    private final double[] values;
+
+    /**
+     * Range des relations données dans un ordre quelconque
+     * @param n Nombre de classes
+     * @param rows Classe appelante de chaque relation
+     * @param columns Classe appelée de chaque relation (une seule relation par paire)
+     * @param values Couplage de chaque relation
+     */
+    CouplingRows(int n, int[] rows, int[] columns, double[] values) {
+        int count = rows.length;
+        this.rowStarts = new int[n + 1];
+        for (int row : rows) {
+            rowStarts[row + 1]++;
+        }
+        for (int a = 0; a < n; a++) {
+            rowStarts[a + 1] += rowStarts[a];
+        }
+        this.columns = new int[count];
+        this.values = new double[count];
+        int[] filled = Arrays.copyOf(rowStarts, n);
+        for (int i = 0; i < count; i++) {
+            int position = filled[rows[i]]++;
+            this.columns[position] = columns[i];
+            this.values[position] = values[i];
+        }
+        for (int a = 0; a < n; a++) {
+            sortRow(rowStarts[a], rowStarts[a + 1]);
+        }
+    }
+
+    /**
+     * Trie une ligne par colonne croissante, les couplages suivant leurs colonnes
+     */
+    private void sortRow(int from, int to) {
+        int length = to - from;
+        if (length < 2) return;
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = ((long) columns[from + i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        double[] sorted = new double[length];
+        for (int i = 0; i < length; i++) {
+            int original = (int) keys[i];
+            sorted[i] = values[from + original];
+            columns[from + i] = (int) (keys[i] >>> 32);
+        }
+        System.arraycopy(sorted, 0, values, from, length);
+    }
+
+    /**
+     * Couplage de la classe a vers la classe b, NaN si la relation n'est pas stockée
+     */
+    double get(int a, int b) {
+        int index = Arrays.binarySearch(columns, rowStarts[a], rowStarts[a + 1], b);
+        return index >= 0 ? values[index] : Double.NaN;
+    }
+
+    int rowStart(int a) {
+        return rowStarts[a];
+    }
+
+    int rowEnd(int a) {
+        return rowStarts[a + 1];
+    }
+
+    int column(int index) {
+        return columns[index];
+    }
+
+    double value(int index) {
+        return values[index];
+    }
+
+    /**
+     * Nombre de relations stockées
+     */
+    int size() {
+        return columns.length;
+    }
+}
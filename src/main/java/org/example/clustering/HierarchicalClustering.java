@@ -1,6 +1,15 @@
 package org.example.clustering;
 
+import org.example.graph.Hashing;
 import org.example.graph.Pair;
+import org.example.metrics.ZeroFilledCoupling;
+import org.example.monitoring.ClusteringMergeBatchEvent;
+import org.example.monitoring.EventLog;
+import org.example.monitoring.MetricsRegistry;
+import org.example.monitoring.ProgressMeter;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -13,56 +22,151 @@ import java.util.*;
  * - Analyser la cohésion des modules résultants
  */
 public class HierarchicalClustering {
+    // Nombre de fusions regroupées dans un même événement JFR
+    private static final int MERGE_BATCH_SIZE = 64;
     // Matrice stockant les valeurs de couplage entre paires de classes
     private final Map<Pair<String, String>, Double> couplingMatrix;
+    // Couplages effectivement rangés dans la matrice : ceux calculés si elle complète les autres
+    // paires par des zéros (ZeroFilledCoupling), toute la matrice sinon
+    private final Map<Pair<String, String>, Double> storedCouplings;
+    // La matrice complète par des zéros les paires non calculées : elle n'est jamais parcourue en entier
+    private final boolean zeroFilled;
+    // Noms des classes, dans l'ordre de leurs identifiants entiers
+    private final List<String> classNames;
+    // Copie dense de la matrice de couplage indexée par identifiants (NaN = relation absente, null si trop grande)
+    private final double[] couplingWeights;
+    // Couplages rangés par ligne, lorsque la copie dense ne tient pas en mémoire (null sinon)
+    private final CouplingRows sparseWeights;
+    // La matrice couvre toutes les paires de classes différentes : les couplages nuls ne sont pas
+    // rangés dans sparseWeights, une relation absente y vaut 0
+    private final boolean absentIsZero;
+    // Mémoire accordée à chacune des copies denses (matrice des classes, matrices entre clusters)
+    private final long denseBudget;
+    // Somme des couplages entrants et sortants de chaque classe
+    private final double[] classStrengths;
+    // Somme de tous les couplages de la matrice
+    private final double totalCoupling;
+    // Appartenance compacte des classes aux clusters (union-find + chaîne de feuilles)
+    private ClusterMembership membership;
+    // Cluster de plus haut niveau associé à chaque racine union-find
+    private Cluster[] clusterByRoot;
     // Liste des clusters actuels
     private List<Cluster> clusters;
     // Historique des étapes de clustering pour traçabilité
     private List<ClusteringStep> clusteringHistory;
+    // Clusters feuilles créés au début du dernier clustering
+    private List<Cluster> leaves;
+    // Observateur de l'avancement (optionnel)
+    private ClusteringProgressListener progressListener;
+    // Demande d'arrêt coopératif, conservée jusqu'à ce qu'un clustering la prenne en compte ou se termine
+    private volatile boolean cancelRequested;
+    // Le dernier clustering a été interrompu
+    private volatile boolean cancelled;
+    // Fichier de point de reprise (null si désactivé)
+    private File checkpointFile;
+    // Nombre de fusions entre deux points de reprise
+    private int checkpointInterval;
+    // Empreinte de la matrice de couplage, calculée une fois à l'activation des points de reprise
+    private long checkpointFingerprint;
+    // Paramètres du clustering en cours, enregistrés dans les points de reprise
+    private double runMinCoupling;
+    private int runMaxModules;
+    // Groupes de classes fusionnés d'office au début du clustering (par exemple les cycles de dépendances)
+    private List<? extends List<String>> preMergedGroups = Collections.emptyList();
+    // Matrices denses entre clusters, indexées par emplacement (pas : linkageStride) : somme des couplages
+    // croisés et nombre de relations croisées, dans les deux sens (null si trop grandes). Un cluster reçoit
+    // le prochain emplacement libre à sa création : l'ordre des emplacements est celui de la liste des clusters.
+    private double[] linkageSums;
+    private double[] linkageCounts;
+    private int linkageStride;
+    private int nextSlot;
+    private Cluster[] clusterAtSlot;
+    // Variante creuse des matrices entre clusters, lorsqu'elles ne tiennent pas en mémoire : voisins de
+    // chaque cluster, indexés par emplacement (null pour un cluster fusionné). Les emplacements ne sont
+    // jamais réutilisés, il en faut au plus 2n - 1.
+    private LinkageRow[] linkageRows;
+    // Toutes les paires de classes sont en relation : seuls les couplages non nuls figurent dans les lignes
+    // creuses, et le nombre de relations croisées se déduit des tailles des clusters
+    private boolean rowsCoverAllPairs;
+    // Première meilleure colonne de chaque ligne (au-delà de la diagonale, -1 si aucune) et son couplage moyen
+    private int[] rowBest;
+    private double[] rowBestCoupling;
 
     /**
      * Représente un cluster de classes avec sa structure hiérarchique.
      * Chaque cluster peut être:
      * - Une feuille (contenant une seule classe)
      * - Un nœud interne (résultat de la fusion de deux clusters)
+     * Les classes ne sont pas copiées : un cluster désigne un segment
+     * (première feuille, taille) de la chaîne de feuilles partagée.
      */
     public class Cluster {
-        private Set<String> classes;          // Ensemble des classes dans ce cluster
-        private Cluster leftChild;            // Sous-cluster gauche
-        private Cluster rightChild;           // Sous-cluster droit
-        private double mergeCoupling;         // Valeur de couplage lors de la fusion
+        private final int head;               // Première feuille du segment
+        private final int tail;               // Dernière feuille du segment
+        private final int size;               // Nombre de classes dans ce cluster
+        private final Cluster leftChild;      // Sous-cluster gauche
+        private final Cluster rightChild;     // Sous-cluster droit
+        private final double mergeCoupling;   // Valeur de couplage lors de la fusion
+        private final double internalCoupling; // Somme des couplages entre classes du cluster
+        private final int internalRelations;  // Nombre de relations internes au cluster
+        private final double incidentCoupling; // Somme des couplages touchant une classe du cluster
+        private final ClusterMembership members; // Appartenance du clustering qui a créé le cluster
+        private Set<String> classes;          // Vue (paresseuse) des classes du cluster
+        private int slot = -1;                // Emplacement dans les matrices entre clusters
 
         /**
          * Crée un nouveau cluster avec une seule classe (cluster feuille)
-         * @param initialClass Nom de la classe initiale
+         * @param leafId Identifiant de la classe initiale
          */
-        public Cluster(String initialClass) {
-            this.classes = new HashSet<>();
-            this.classes.add(initialClass);
+        private Cluster(int leafId) {
+            this.head = leafId;
+            this.tail = leafId;
+            this.size = 1;
             this.leftChild = null;
             this.rightChild = null;
             this.mergeCoupling = 0.0;
+            this.internalCoupling = 0.0;
+            this.internalRelations = 0;
+            this.incidentCoupling = classStrengths[leafId];
+            this.members = membership;
+            clusterByRoot[leafId] = this;
         }
 
         /**
-         * Crée un cluster à partir de la fusion de deux sous-clusters
-         * @param classes Ensemble des classes du nouveau cluster
+         * Crée un cluster à partir de la fusion de deux sous-clusters.
+         * La fusion relie les deux segments de feuilles en O(1), et les statistiques
+         * de cohésion sont obtenues à partir de celles des enfants et du terme croisé.
          * @param left Sous-cluster gauche
          * @param right Sous-cluster droit
-         * @param coupling Valeur de couplage lors de la fusion
+         * @param cross Couplage croisé entre les deux sous-clusters
          */
-        public Cluster(Set<String> classes, Cluster left, Cluster right, double coupling) {
-            this.classes = new HashSet<>(classes);
+        private Cluster(Cluster left, Cluster right, CrossCoupling cross) {
+            int root = membership.union(left.tail, right.head);
+            clusterByRoot[root] = this;
+            this.head = left.head;
+            this.tail = right.tail;
+            this.size = left.size + right.size;
             this.leftChild = left;
             this.rightChild = right;
-            this.mergeCoupling = coupling;
+            this.mergeCoupling = cross.average();
+            this.internalCoupling = left.internalCoupling + right.internalCoupling + cross.total;
+            this.internalRelations = left.internalRelations + right.internalRelations + cross.relations;
+            this.incidentCoupling = left.incidentCoupling + right.incidentCoupling;
+            this.members = membership;
         }
 
         // Getters
         public Set<String> getClasses() {
+            if (classes == null) {
+                classes = new MemberView(this);
+            }
             return classes;
         }
 
+        public int size() {
+            return size;
+        }
+
         public Cluster getLeftChild() {
             return leftChild;
         }
@@ -75,9 +179,87 @@ public class HierarchicalClustering {
             return mergeCoupling;
         }
 
+        public double getInternalCoupling() {
+            return internalCoupling;
+        }
+
+        public int getInternalRelations() {
+            return internalRelations;
+        }
+
+        public double getIncidentCoupling() {
+            return incidentCoupling;
+        }
+
+        /**
+         * Couplage moyen entre les classes du cluster, calculé en O(1)
+         * à partir des sommes maintenues lors des fusions
+         * @return Moyenne des couplages internes, ou 0 si aucune relation
+         */
+        public double getAverageInternalCoupling() {
+            return internalRelations > 0 ? internalCoupling / internalRelations : 0;
+        }
+
         @Override
         public String toString() {
-            return "Cluster{classes=" + classes + ", mergeCoupling=" + String.format("%.3f", mergeCoupling) + "}";
+            return "Cluster{classes=" + getClasses() + ", mergeCoupling=" + String.format("%.3f", mergeCoupling) + "}";
+        }
+    }
+
+    /**
+     * Somme et nombre des relations de couplage entre deux clusters disjoints
+     */
+    private static final class CrossCoupling {
+        private final double total;
+        private final int relations;
+
+        CrossCoupling(double total, int relations) {
+            this.total = total;
+            this.relations = relations;
+        }
+
+        double average() {
+            return relations > 0 ? total / relations : 0;
+        }
+    }
+
+    /**
+     * Vue non modifiable des classes d'un cluster, parcourant son segment de feuilles dans
+     * l'appartenance où le cluster a été créé (un nouveau clustering ne la modifie pas)
+     */
+    private class MemberView extends AbstractSet<String> {
+        private final Cluster cluster;
+
+        MemberView(Cluster cluster) {
+            this.cluster = cluster;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            final ClusterMembership members = cluster.members;
+            return new Iterator<String>() {
+                private int current = cluster.head;
+                private int remaining = cluster.size;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+
+                @Override
+                public String next() {
+                    if (remaining == 0) throw new NoSuchElementException();
+                    String name = members.nameOf(current);
+                    remaining--;
+                    if (remaining > 0) current = members.next(current);
+                    return name;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return cluster.size;
         }
     }
 
@@ -116,9 +298,168 @@ public class HierarchicalClustering {
      * @param couplingMatrix Matrice des valeurs de couplage entre classes
      */
     public HierarchicalClustering(Map<Pair<String, String>, Double> couplingMatrix) {
+        this(couplingMatrix, Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    /**
+     * Clustering sans copie dense : les couplages restent indexés et les couplages entre
+     * clusters sont tenus en lignes creuses, si bien qu'une fusion ne coûte que le voisinage
+     * des deux clusters. Adapté aux matrices creuses (peu de couplages non nuls), par exemple
+     * celles du démon d'analyse ; l'ordre des fusions est le même qu'avec les copies denses.
+     * @param couplingMatrix Matrice des valeurs de couplage entre classes
+     * @return Le clustering, prêt à être exécuté
+     */
+    public static HierarchicalClustering withSparseLinkage(Map<Pair<String, String>, Double> couplingMatrix) {
+        return new HierarchicalClustering(couplingMatrix, 0);
+    }
+
+    /**
+     * Constructeur fixant la mémoire accordée aux copies denses (les tests s'en servent pour
+     * comparer les représentations denses et creuses)
+     * @param couplingMatrix Matrice des valeurs de couplage entre classes
+     * @param denseBudget Taille maximale en octets de chaque copie dense
+     */
+    HierarchicalClustering(Map<Pair<String, String>, Double> couplingMatrix, long denseBudget) {
         this.couplingMatrix = couplingMatrix;
+        this.zeroFilled = couplingMatrix instanceof ZeroFilledCoupling;
+        this.storedCouplings = zeroFilled
+                ? ((ZeroFilledCoupling) couplingMatrix).getStoredCouplings() : couplingMatrix;
+        this.denseBudget = denseBudget;
+        this.classNames = new ArrayList<>(getUniqueClasses());
+        this.membership = new ClusterMembership(classNames);
+        this.clusterByRoot = new Cluster[membership.size()];
+        this.couplingWeights = buildCouplingWeights();
+        this.absentIsZero = couplingWeights == null && coversAllPairs();
+        this.sparseWeights = couplingWeights == null ? buildSparseWeights() : null;
+        this.classStrengths = new double[membership.size()];
+        this.totalCoupling = accumulateClassStrengths();
         this.clusters = new ArrayList<>();
         this.clusteringHistory = new ArrayList<>();
+        this.leaves = new ArrayList<>();
+    }
+
+    /**
+     * Construit la matrice dense des couplages indexée par les identifiants des classes.
+     * Les paires absentes de la matrice d'origine sont marquées par NaN afin de
+     * conserver la distinction entre "couplage nul" et "relation inexistante".
+     * @return La matrice dense, ou null si elle ne tient pas en mémoire
+     */
+    private double[] buildCouplingWeights() {
+        int n = membership.size();
+        long cells = (long) n * n;
+        if (cells > Integer.MAX_VALUE - 8 || 8 * cells > denseBudget) {
+            EventLog.debug("Matrice dense des couplages trop grande (%d Mo) : couplages indexés", (8 * cells) >> 20);
+            return null;
+        }
+        double[] weights = new double[n * n];
+        // Matrice complétée par des zéros : toutes les paires de classes différentes sont en relation
+        Arrays.fill(weights, zeroFilled ? 0.0 : Double.NaN);
+        if (zeroFilled) {
+            for (int a = 0; a < n; a++) {
+                weights[a * n + a] = Double.NaN;
+            }
+        }
+        for (Map.Entry<Pair<String, String>, Double> entry : storedCouplings.entrySet()) {
+            if (entry.getValue() == null) continue;
+            int a = membership.idOf(entry.getKey().getFirst());
+            int b = membership.idOf(entry.getKey().getSecond());
+            weights[a * n + b] = entry.getValue();
+        }
+        return weights;
+    }
+
+    /**
+     * Indique si la matrice donne un couplage (éventuellement nul) à toutes les paires de
+     * classes différentes, comme le calcul complet du couplage normalisé
+     */
+    private boolean coversAllPairs() {
+        long n = membership.size();
+        if (zeroFilled) return n > 1;
+        long pairs = 0;
+        for (Map.Entry<Pair<String, String>, Double> entry : couplingMatrix.entrySet()) {
+            if (isRelation(entry.getValue()) && !entry.getKey().getFirst().equals(entry.getKey().getSecond())) {
+                pairs++;
+            }
+        }
+        return n > 1 && pairs == n * (n - 1);
+    }
+
+    private static boolean isRelation(Double coupling) {
+        return coupling != null && !Double.isNaN(coupling);
+    }
+
+    /**
+     * Variante creuse de {@link #buildCouplingWeights()} : seules les relations existantes
+     * sont rangées, sans les couplages nuls lorsque la matrice couvre toutes les paires
+     */
+    private CouplingRows buildSparseWeights() {
+        int count = 0;
+        for (Double coupling : storedCouplings.values()) {
+            if (isStored(coupling)) count++;
+        }
+        int[] rows = new int[count];
+        int[] columns = new int[count];
+        double[] values = new double[count];
+        int i = 0;
+        for (Map.Entry<Pair<String, String>, Double> entry : storedCouplings.entrySet()) {
+            if (!isStored(entry.getValue())) continue;
+            rows[i] = membership.idOf(entry.getKey().getFirst());
+            columns[i] = membership.idOf(entry.getKey().getSecond());
+            values[i] = entry.getValue();
+            i++;
+        }
+        EventLog.debug("Couplages creux : %d relations rangées pour %d classes", count, membership.size());
+        return new CouplingRows(membership.size(), rows, columns, values);
+    }
+
+    private boolean isStored(Double coupling) {
+        return isRelation(coupling) && !(absentIsZero && coupling == 0);
+    }
+
+    /**
+     * Couplage de la classe a vers la classe b (NaN si la relation n'existe pas)
+     */
+    private double couplingBetween(int a, int b) {
+        if (couplingWeights != null) return couplingWeights[a * classNames.size() + b];
+        double coupling = sparseWeights.get(a, b);
+        return Double.isNaN(coupling) && absentIsZero && a != b ? 0 : coupling;
+    }
+
+    /**
+     * Calcule, pour chaque classe, la somme des couplages qui la touchent (dans les deux sens)
+     * @return La somme de tous les couplages entre classes différentes
+     */
+    private double accumulateClassStrengths() {
+        int n = membership.size();
+        double total = 0;
+        if (couplingWeights == null) {
+            for (int a = 0; a < n; a++) {
+                for (int i = sparseWeights.rowStart(a); i < sparseWeights.rowEnd(a); i++) {
+                    int b = sparseWeights.column(i);
+                    double coupling = sparseWeights.value(i);
+                    if (a == b || !Double.isFinite(coupling)) continue;
+                    classStrengths[a] += coupling;
+                    classStrengths[b] += coupling;
+                    total += coupling;
+                }
+            }
+            return total;
+        }
+        // Couplages entrants : chaque ligne (sans la diagonale) est ajoutée aux colonnes
+        double[] incoming = new double[n];
+        for (int a = 0; a < n; a++) {
+            int row = a * n;
+            double outgoing = CouplingKernels.sumFinite(couplingWeights, row, a)
+                    + CouplingKernels.sumFinite(couplingWeights, row + a + 1, n - a - 1);
+            CouplingKernels.addFinite(incoming, 0, couplingWeights, row, a);
+            CouplingKernels.addFinite(incoming, a + 1, couplingWeights, row + a + 1, n - a - 1);
+            classStrengths[a] += outgoing;
+            total += outgoing;
+        }
+        for (int b = 0; b < n; b++) {
+            classStrengths[b] += incoming[b];
+        }
+        return total;
     }
 
     /**
@@ -129,108 +470,603 @@ public class HierarchicalClustering {
      */
     public List<Cluster> performClustering(double minCoupling, int maxModules) {
         // Initialisation : chaque classe dans son propre cluster
-        for (String className : getUniqueClasses()) {
-            clusters.add(new Cluster(className));
+        membership = new ClusterMembership(classNames);
+        clusterByRoot = new Cluster[membership.size()];
+        clusters.clear();
+        clusteringHistory.clear();
+        cancelled = false;
+        runMinCoupling = minCoupling;
+        runMaxModules = maxModules;
+        for (int id = 0; id < membership.size(); id++) {
+            clusters.add(new Cluster(id));
         }
+        leaves = new ArrayList<>(clusters);
+        initLinkage();
+        int maxMerges = Math.max(clusters.size() - Math.max(maxModules, 1), 0);
+
+        // Fusions d'office, puis celles d'un éventuel point de reprise qui les suivent
+        preMerge(maxModules);
+        resumeFromCheckpoint(minCoupling, maxModules);
+        int resumedMerges = clusteringHistory.size();
+        long startTime = System.nanoTime();
+        MetricsRegistry.Timer mergeTimer = MetricsRegistry.getDefault().timer("clustering.merge");
+        ClusteringMergeBatchEvent batchEvent = null;
+        double lastCoupling = 0;
+        ProgressMeter progress = EventLog.progress("Clustering", "fusions", maxMerges - resumedMerges);
 
         // Continue la fusion tant que les conditions ne sont pas atteintes
         while (clusters.size() > maxModules && clusters.size() > 1) {
+            // Arrêt coopératif : les clusters courants restent un résultat valide
+            if (cancelRequested || Thread.currentThread().isInterrupted()) {
+                cancelRequested = false;
+                cancelled = true;
+                EventLog.info("Clustering interrompu après %d fusions", clusteringHistory.size());
+                saveCheckpoint();
+                break;
+            }
+
+            if (batchEvent == null) {
+                batchEvent = new ClusteringMergeBatchEvent();
+                batchEvent.begin();
+                batchEvent.firstMerge = clusteringHistory.size();
+            }
+            long mergeStart = mergeTimer.start();
+
             // Trouve la meilleure paire de clusters à fusionner
             Pair<Cluster, Cluster> bestPair = findMostCoupledClusters();
             if (bestPair == null) break;
 
             // Calcule le couplage moyen entre les clusters
-            double avgCoupling = calculateAverageClusterCoupling(
-                    bestPair.getFirst(), bestPair.getSecond());
+            CrossCoupling cross = crossCouplingOf(bestPair.getFirst(), bestPair.getSecond());
+            double avgCoupling = cross.average();
 
             // Vérifie si le couplage est suffisant pour la fusion
             if (avgCoupling >= minCoupling) {
-                // Crée le nouveau cluster
-                Cluster newCluster = new Cluster(
-                        new HashSet<>(bestPair.getFirst().getClasses()),
-                        bestPair.getFirst(),
-                        bestPair.getSecond(),
-                        avgCoupling
-                );
-
-                // Enregistre l'étape de clustering
-                clusteringHistory.add(new ClusteringStep(
-                        bestPair.getFirst(),
-                        bestPair.getSecond(),
-                        avgCoupling,
-                        newCluster
-                ));
-
-                // Met à jour la liste des clusters
-                clusters.remove(bestPair.getFirst());
-                clusters.remove(bestPair.getSecond());
-                clusters.add(newCluster);
-
-                System.out.println("Fusion des clusters : " + bestPair.getFirst() +
-                        " et " + bestPair.getSecond() +
-                        " (couplage : " + String.format("%.3f", avgCoupling) + ")");
+                mergeClusters(bestPair.getFirst(), bestPair.getSecond(), cross);
+                mergeTimer.stop(mergeStart);
+                lastCoupling = avgCoupling;
+                if (clusteringHistory.size() - batchEvent.firstMerge >= MERGE_BATCH_SIZE) {
+                    commitMergeBatch(batchEvent, lastCoupling);
+                    batchEvent = null;
+                }
+
+                // Les clusters sont convertis en chaîne tout de suite : leurs membres changent aux fusions suivantes
+                if (EventLog.isDebugEnabled()) {
+                    EventLog.debug("Fusion des clusters : %s et %s (couplage : %.3f)",
+                            bestPair.getFirst().toString(), bestPair.getSecond().toString(), avgCoupling);
+                }
+                progress.step();
+
+                reportProgress(resumedMerges, maxMerges, avgCoupling, startTime);
+                if (checkpointFile != null && clusteringHistory.size() % checkpointInterval == 0) {
+                    saveCheckpoint();
+                }
             } else {
                 break;
             }
         }
 
+        if (batchEvent != null && clusteringHistory.size() > batchEvent.firstMerge) {
+            commitMergeBatch(batchEvent, lastCoupling);
+        }
+        progress.done();
+
+        // Un clustering terminé n'a plus besoin de son point de reprise, ni d'une demande d'arrêt arrivée trop tard
+        if (!cancelled) {
+            cancelRequested = false;
+            if (checkpointFile != null && checkpointFile.exists() && !checkpointFile.delete()) {
+                System.err.println("Impossible de supprimer le point de reprise : " + checkpointFile);
+            }
+        }
+
         return new ArrayList<>(clusters);
     }
 
     /**
-     * Trouve la paire de clusters ayant le plus fort couplage
-     * @return La paire de clusters avec le meilleur couplage, ou null si aucune paire valide
+     * Valide l'événement JFR d'un lot de fusions
      */
-    private Pair<Cluster, Cluster> findMostCoupledClusters() {
-        double maxCoupling = 0;
-        Pair<Cluster, Cluster> bestPair = null;
+    private void commitMergeBatch(ClusteringMergeBatchEvent event, double lastCoupling) {
+        if (event.shouldCommit()) {
+            event.mergeCount = clusteringHistory.size() - event.firstMerge;
+            event.remainingClusters = clusters.size();
+            event.lastCoupling = lastCoupling;
+            event.commit();
+        }
+    }
 
-        // Parcourt toutes les paires possibles de clusters
-        for (int i = 0; i < clusters.size(); i++) {
-            for (int j = i + 1; j < clusters.size(); j++) {
-                double coupling = calculateAverageClusterCoupling(
-                        clusters.get(i), clusters.get(j));
-                // Met à jour si meilleur couplage trouvé
-                if (coupling > maxCoupling) {
-                    maxCoupling = coupling;
-                    bestPair = new Pair<>(clusters.get(i), clusters.get(j));
+    /**
+     * Fusionne deux clusters de plus haut niveau et enregistre l'étape
+     * @param first Premier cluster (devient le sous-cluster gauche)
+     * @param second Second cluster (devient le sous-cluster droit)
+     * @param cross Couplage croisé entre les deux clusters
+     */
+    private void mergeClusters(Cluster first, Cluster second, CrossCoupling cross) {
+        // Crée le nouveau cluster
+        Cluster newCluster = new Cluster(first, second, cross);
+        if (linkageSums != null) {
+            mergeLinkage(first, second, newCluster);
+        } else if (linkageRows != null) {
+            mergeSparseLinkage(first, second, newCluster);
+        }
+
+        // Enregistre l'étape de clustering
+        clusteringHistory.add(new ClusteringStep(first, second, cross.average(), newCluster));
+
+        // Met à jour la liste des clusters
+        clusters.remove(first);
+        clusters.remove(second);
+        clusters.add(newCluster);
+    }
+
+    /**
+     * Notifie l'observateur de l'avancement, avec une estimation du temps restant
+     * basée sur la durée moyenne des fusions effectuées depuis le démarrage
+     */
+    private void reportProgress(int resumedMerges, int maxMerges, double coupling, long startTime) {
+        if (progressListener == null) return;
+
+        int mergesDone = clusteringHistory.size();
+        int mergesSinceStart = mergesDone - resumedMerges;
+        long etaMillis = -1;
+        if (mergesSinceStart > 0) {
+            long elapsedNanos = System.nanoTime() - startTime;
+            etaMillis = elapsedNanos / mergesSinceStart * Math.max(maxMerges - mergesDone, 0) / 1_000_000;
+        }
+        progressListener.onProgress(mergesDone, maxMerges, coupling, etaMillis);
+    }
+
+    /**
+     * Enregistre l'état des fusions dans le fichier de point de reprise, s'il est activé
+     */
+    private void saveCheckpoint() {
+        if (checkpointFile == null) return;
+
+        int[] mergedHeads = new int[2 * clusteringHistory.size()];
+        for (int i = 0; i < clusteringHistory.size(); i++) {
+            mergedHeads[2 * i] = clusteringHistory.get(i).getCluster1().head;
+            mergedHeads[2 * i + 1] = clusteringHistory.get(i).getCluster2().head;
+        }
+        try {
+            new ClusteringCheckpoint(classNames, checkpointFingerprint, runMinCoupling, runMaxModules,
+                    mergedHeads, clusteringHistory.size()).write(checkpointFile);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture du point de reprise : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Empreinte de la matrice de couplage, indépendante de l'ordre de ses entrées. Une matrice
+     * complétée par des zéros n'est hachée que sur ses couplages non nuls : les paires
+     * de classes, déjà comparées via les noms, en déterminent le reste.
+     */
+    private long couplingFingerprint() {
+        long fingerprint = couplingMatrix.size();
+        for (Map.Entry<Pair<String, String>, Double> entry : storedCouplings.entrySet()) {
+            if (zeroFilled && isRelation(entry.getValue()) && entry.getValue() == 0) continue;
+            long value = entry.getValue() == null ? 0 : Double.doubleToLongBits(entry.getValue());
+            fingerprint += Hashing.mix(Hashing.mix(entry.getKey().hashCode()) ^ value);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Rejoue les fusions enregistrées dans le point de reprise, tant qu'elles
+     * respectent les paramètres courants. Le point de reprise est ignoré s'il
+     * a été produit pour d'autres classes, d'autres couplages ou d'autres paramètres.
+     * Ses premières fusions sont les fusions d'office, déjà refaites par {@link #preMerge} :
+     * elles sont seulement comparées à l'historique, sans condition de seuil.
+     */
+    private void resumeFromCheckpoint(double minCoupling, int maxModules) {
+        if (checkpointFile == null || !checkpointFile.exists()) return;
+
+        ClusteringCheckpoint checkpoint;
+        try {
+            checkpoint = ClusteringCheckpoint.read(checkpointFile);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la lecture du point de reprise : " + e.getMessage());
+            return;
+        }
+        if (!checkpoint.getClassNames().equals(classNames)) {
+            EventLog.warn("Point de reprise ignoré : il ne correspond pas aux classes analysées");
+            return;
+        }
+        if (checkpoint.getCouplingFingerprint() != checkpointFingerprint
+                || Double.compare(checkpoint.getMinCoupling(), minCoupling) != 0
+                || checkpoint.getMaxModules() != maxModules) {
+            EventLog.warn("Point de reprise ignoré : il a été produit avec d'autres couplages ou paramètres");
+            return;
+        }
+
+        int preMerges = clusteringHistory.size();
+        for (int i = 0; i < preMerges; i++) {
+            if (i >= checkpoint.getMergeCount()
+                    || checkpoint.getLeftHead(i) != clusteringHistory.get(i).getCluster1().head
+                    || checkpoint.getRightHead(i) != clusteringHistory.get(i).getCluster2().head) {
+                EventLog.warn("Point de reprise ignoré : il a été produit avec d'autres groupes fusionnés d'office");
+                return;
+            }
+        }
+
+        for (int i = preMerges; i < checkpoint.getMergeCount(); i++) {
+            if (clusters.size() <= maxModules || clusters.size() <= 1) break;
+
+            int leftHead = checkpoint.getLeftHead(i);
+            int rightHead = checkpoint.getRightHead(i);
+            Cluster left = clusterByRoot[membership.find(leftHead)];
+            Cluster right = clusterByRoot[membership.find(rightHead)];
+            if (left == right || left.head != leftHead || right.head != rightHead) {
+                System.err.println("Point de reprise incohérent à la fusion " + (i + 1) + ", reprise interrompue");
+                break;
+            }
+
+            CrossCoupling cross = crossCouplingOf(left, right);
+            if (cross.average() < minCoupling) break;
+            mergeClusters(left, right, cross);
+        }
+        EventLog.info("Reprise du clustering : %d fusions rejouées", clusteringHistory.size() - preMerges);
+    }
+
+    /**
+     * Fusionne les classes de chaque groupe à fusionner d'office, sans condition de seuil :
+     * chaque membre rejoint le cluster des membres qui le précèdent. Les membres déjà réunis
+     * (par un groupe précédent qui les partage) ne donnent lieu à aucune fusion. Appelée avant
+     * la reprise d'un point de reprise, dont l'historique commence par ces mêmes fusions.
+     */
+    private void preMerge(int maxModules) {
+        int merges = 0;
+        for (List<String> group : preMergedGroups) {
+            Cluster merged = null;
+            for (String className : group) {
+                if (clusters.size() <= Math.max(maxModules, 1)) break;
+                Cluster cluster = findCluster(className);
+                if (cluster == null || cluster == merged) continue;
+                if (merged != null) {
+                    mergeClusters(merged, cluster, crossCouplingOf(merged, cluster));
+                    merges++;
+                    cluster = findCluster(className);
                 }
+                merged = cluster;
             }
         }
+        if (merges > 0) {
+            EventLog.info("Pré-fusion de %d groupes : %d fusions, %d clusters restants",
+                    preMergedGroups.size(), merges, clusters.size());
+        }
+    }
 
-        return bestPair;
+    /**
+     * Initialise les matrices denses entre clusters à partir de la matrice des classes,
+     * si elles tiennent en mémoire (sinon leur variante creuse, voir {@link #initSparseLinkage()})
+     */
+    private void initLinkage() {
+        linkageSums = null;
+        linkageCounts = null;
+        linkageRows = null;
+        int n = membership.size();
+        // Emplacements de réserve pour les nouveaux clusters, récupérés par compactage une fois épuisés
+        int stride = n + Math.max(n / 4, 1);
+        long bytes = 16L * stride * stride;
+        if ((long) stride * stride > Integer.MAX_VALUE || bytes > denseBudget) {
+            EventLog.debug("Matrices entre clusters trop grandes (%d Mo) : lignes creuses", bytes >> 20);
+            initSparseLinkage();
+            return;
+        }
+        linkageStride = stride;
+        linkageSums = new double[stride * stride];
+        linkageCounts = new double[stride * stride];
+        clusterAtSlot = new Cluster[stride];
+        rowBest = new int[stride];
+        rowBestCoupling = new double[stride];
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                double sum = 0;
+                int count = 0;
+                double coupling = couplingBetween(a, b);
+                if (!Double.isNaN(coupling)) {
+                    sum += coupling;
+                    count++;
+                }
+                coupling = couplingBetween(b, a);
+                if (!Double.isNaN(coupling)) {
+                    sum += coupling;
+                    count++;
+                }
+                linkageSums[a * stride + b] = sum;
+                linkageSums[b * stride + a] = sum;
+                linkageCounts[a * stride + b] = count;
+                linkageCounts[b * stride + a] = count;
+            }
+        }
+        for (int a = 0; a < n; a++) {
+            Cluster leaf = leaves.get(a);
+            leaf.slot = a;
+            clusterAtSlot[a] = leaf;
+        }
+        nextSlot = n;
+        for (int a = 0; a < n; a++) {
+            updateRowBest(a);
+        }
     }
 
     /**
-     * Calcule le couplage moyen entre deux clusters
-     * @param c1 Premier cluster
-     * @param c2 Second cluster
-     * @return Valeur moyenne de couplage
+     * Initialise les lignes creuses entre clusters : chaque feuille reçoit ses classes voisines,
+     * dans les deux sens. Lorsque toutes les paires sont en relation, les couplages nuls sont omis.
      */
-    private double calculateAverageClusterCoupling(Cluster c1, Cluster c2) {
-        double totalCoupling = 0;
-        int relationCount = 0;
+    private void initSparseLinkage() {
+        int n = membership.size();
+        rowsCoverAllPairs = absentIsZero || (couplingWeights != null && n > 1 && denseCoversAllPairs());
+        linkageRows = new LinkageRow[Math.max(2 * n - 1, 1)];
+        clusterAtSlot = new Cluster[linkageRows.length];
+        rowBest = new int[linkageRows.length];
+        rowBestCoupling = new double[linkageRows.length];
+        int[] degrees = new int[n];
+        forEachLeafRelation((a, b, coupling) -> {
+            degrees[a]++;
+            degrees[b]++;
+        });
+        for (int a = 0; a < n; a++) {
+            linkageRows[a] = new LinkageRow(degrees[a]);
+        }
+        forEachLeafRelation((a, b, coupling) -> {
+            linkageRows[a].add(b, coupling, 1);
+            linkageRows[b].add(a, coupling, 1);
+        });
+        for (int a = 0; a < n; a++) {
+            Cluster leaf = leaves.get(a);
+            leaf.slot = a;
+            clusterAtSlot[a] = leaf;
+        }
+        nextSlot = n;
+        for (int a = 0; a < n; a++) {
+            updateSparseRowBest(a);
+        }
+    }
 
-        // Calcule pour chaque paire de classes entre les clusters
-        for (String classA : c1.classes) {
-            for (String classB : c2.classes) {
-                // Vérifie le couplage dans les deux sens
-                Pair<String, String> pair = new Pair<>(classA, classB);
-                Double coupling = couplingMatrix.get(pair);
-                if (coupling != null) {
-                    totalCoupling += coupling;
-                    relationCount++;
+    private interface LeafRelationConsumer {
+        void accept(int a, int b, double coupling);
+    }
+
+    /**
+     * Parcourt les relations entre classes différentes rangées dans la copie dense ou creuse,
+     * sans les couplages nuls si toutes les paires sont en relation
+     */
+    private void forEachLeafRelation(LeafRelationConsumer consumer) {
+        int n = membership.size();
+        for (int a = 0; a < n; a++) {
+            if (couplingWeights != null) {
+                for (int b = 0; b < n; b++) {
+                    double coupling = couplingWeights[a * n + b];
+                    if (a == b || Double.isNaN(coupling) || (rowsCoverAllPairs && coupling == 0)) continue;
+                    consumer.accept(a, b, coupling);
                 }
-                pair = new Pair<>(classB, classA);
-                coupling = couplingMatrix.get(pair);
-                if (coupling != null) {
-                    totalCoupling += coupling;
-                    relationCount++;
+            } else {
+                for (int i = sparseWeights.rowStart(a); i < sparseWeights.rowEnd(a); i++) {
+                    int b = sparseWeights.column(i);
+                    double coupling = sparseWeights.value(i);
+                    if (a == b || Double.isNaN(coupling) || (rowsCoverAllPairs && coupling == 0)) continue;
+                    consumer.accept(a, b, coupling);
                 }
             }
         }
+    }
 
-        return relationCount > 0 ? totalCoupling / relationCount : 0;
+    /**
+     * Indique si la copie dense donne un couplage à toutes les paires de classes différentes
+     */
+    private boolean denseCoversAllPairs() {
+        int n = membership.size();
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                if (a != b && Double.isNaN(couplingWeights[a * n + b])) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Nombre de relations croisées entre deux clusters, d'après une case de ligne creuse
+     */
+    private int sparseRelations(Cluster c1, Cluster c2, int storedRelations) {
+        return rowsCoverAllPairs ? 2 * c1.size * c2.size : storedRelations;
+    }
+
+    /**
+     * Recalcule la meilleure colonne d'une ligne creuse (au-delà de la diagonale, à couplage égal
+     * la plus petite), comme {@link #updateRowBest} sur une ligne dense
+     */
+    private void updateSparseRowBest(int slot) {
+        LinkageRow row = linkageRows[slot];
+        Cluster cluster = clusterAtSlot[slot];
+        int best = -1;
+        double max = 0;
+        for (int i = 0; i < row.capacity(); i++) {
+            int column = row.keyAt(i);
+            if (column <= slot) continue;
+            int relations = sparseRelations(cluster, clusterAtSlot[column], row.countAt(i));
+            if (relations == 0) continue;
+            double coupling = row.sumAt(i) / relations;
+            if (coupling > max || (coupling == max && best >= 0 && column < best)) {
+                max = coupling;
+                best = column;
+            }
+        }
+        rowBest[slot] = best;
+        rowBestCoupling[slot] = best < 0 ? 0 : max;
+    }
+
+    /**
+     * Variante creuse de {@link #mergeLinkage} : la ligne du nouveau cluster réunit les voisins des
+     * deux clusters fusionnés, et seules les lignes de ces voisins sont mises à jour. Une fusion coûte
+     * donc la taille de son voisinage, au lieu d'un parcours de toutes les paires de clusters.
+     */
+    private void mergeSparseLinkage(Cluster first, Cluster second, Cluster merged) {
+        int p = first.slot;
+        int q = second.slot;
+        int t = nextSlot++;
+        LinkageRow left = linkageRows[p];
+        LinkageRow right = linkageRows[q];
+        LinkageRow row = new LinkageRow(left.size() + right.size());
+        for (LinkageRow source : new LinkageRow[]{left, right}) {
+            for (int i = 0; i < source.capacity(); i++) {
+                int column = source.keyAt(i);
+                if (column >= 0 && column != p && column != q) {
+                    row.add(column, source.sumAt(i), source.countAt(i));
+                }
+            }
+        }
+        linkageRows[t] = row;
+        linkageRows[p] = linkageRows[q] = null;
+        merged.slot = t;
+        clusterAtSlot[t] = merged;
+        clusterAtSlot[p] = clusterAtSlot[q] = null;
+        // Aucune colonne au-delà de la diagonale : le nouveau cluster a le plus grand emplacement
+        rowBest[t] = -1;
+        rowBestCoupling[t] = 0;
+
+        for (int i = 0; i < row.capacity(); i++) {
+            int r = row.keyAt(i);
+            if (r < 0) continue;
+            LinkageRow neighbour = linkageRows[r];
+            neighbour.remove(p);
+            neighbour.remove(q);
+            neighbour.add(t, row.sumAt(i), row.countAt(i));
+            if (rowBest[r] == p || rowBest[r] == q) {
+                updateSparseRowBest(r);
+            } else {
+                // La nouvelle colonne est la dernière : elle ne l'emporte qu'en cas de couplage strictement supérieur
+                int relations = sparseRelations(clusterAtSlot[r], merged, row.countAt(i));
+                double coupling = relations > 0 ? row.sumAt(i) / relations : 0;
+                if (coupling > rowBestCoupling[r]) {
+                    rowBest[r] = t;
+                    rowBestCoupling[r] = coupling;
+                }
+            }
+        }
+    }
+
+    /**
+     * Recalcule la meilleure colonne d'une ligne (noyau de maximum, au-delà de la diagonale)
+     */
+    private void updateRowBest(int slot) {
+        int offset = slot * linkageStride;
+        int best = CouplingKernels.argMaxRatio(linkageSums, linkageCounts, offset, slot + 1, nextSlot, 0);
+        rowBest[slot] = best;
+        rowBestCoupling[slot] = best < 0 ? 0 : linkageSums[offset + best] / linkageCounts[offset + best];
+    }
+
+    /**
+     * Met à jour les matrices entre clusters pour une fusion : la ligne du nouveau cluster est la
+     * somme des deux lignes fusionnées (combinaison de lignes) et occupe le prochain emplacement,
+     * recopiée dans la colonne correspondante ; les colonnes des clusters fusionnés sont vidées.
+     * Seules les lignes dont la meilleure colonne vient de disparaître sont reparcourues, les autres
+     * comparent leur meilleur couplage à celui de la nouvelle colonne.
+     */
+    private void mergeLinkage(Cluster first, Cluster second, Cluster merged) {
+        if (nextSlot == linkageStride) compactLinkage();
+        int stride = linkageStride;
+        int p = first.slot;
+        int q = second.slot;
+        int t = nextSlot++;
+        int row = t * stride;
+        System.arraycopy(linkageSums, p * stride, linkageSums, row, t);
+        System.arraycopy(linkageCounts, p * stride, linkageCounts, row, t);
+        CouplingKernels.add(linkageSums, row, linkageSums, q * stride, t);
+        CouplingKernels.add(linkageCounts, row, linkageCounts, q * stride, t);
+        linkageSums[row + p] = linkageSums[row + q] = 0;
+        linkageCounts[row + p] = linkageCounts[row + q] = 0;
+        merged.slot = t;
+        clusterAtSlot[t] = merged;
+        clusterAtSlot[p] = clusterAtSlot[q] = null;
+        rowBest[t] = -1;
+        rowBestCoupling[t] = 0;
+
+        for (Cluster cluster : clusters) {
+            int r = cluster.slot;
+            if (r == p || r == q) continue;
+            int offset = r * stride;
+            linkageSums[offset + t] = linkageSums[row + r];
+            linkageCounts[offset + t] = linkageCounts[row + r];
+            linkageSums[offset + p] = linkageSums[offset + q] = 0;
+            linkageCounts[offset + p] = linkageCounts[offset + q] = 0;
+            if (rowBest[r] == p || rowBest[r] == q) {
+                updateRowBest(r);
+            } else if (linkageCounts[offset + t] > 0) {
+                // La nouvelle colonne est la dernière : elle ne l'emporte qu'en cas de couplage strictement supérieur
+                double coupling = linkageSums[offset + t] / linkageCounts[offset + t];
+                if (coupling > rowBestCoupling[r]) {
+                    rowBest[r] = t;
+                    rowBestCoupling[r] = coupling;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ramène les clusters courants aux premiers emplacements, dans l'ordre de la liste des clusters
+     * (qui est aussi celui des emplacements) : lignes et colonnes ne font que remonter
+     */
+    private void compactLinkage() {
+        int stride = linkageStride;
+        int k = clusters.size();
+        int[] slots = new int[k];
+        int[] compacted = new int[stride];
+        Arrays.fill(compacted, -1);
+        for (int i = 0; i < k; i++) {
+            slots[i] = clusters.get(i).slot;
+            compacted[slots[i]] = i;
+        }
+        for (int a = 0; a < k; a++) {
+            int from = slots[a] * stride;
+            int to = a * stride;
+            for (int b = 0; b < k; b++) {
+                linkageSums[to + b] = linkageSums[from + slots[b]];
+                linkageCounts[to + b] = linkageCounts[from + slots[b]];
+            }
+        }
+        Arrays.fill(clusterAtSlot, null);
+        for (int i = 0; i < k; i++) {
+            Cluster cluster = clusters.get(i);
+            cluster.slot = i;
+            clusterAtSlot[i] = cluster;
+            int best = rowBest[slots[i]];
+            rowBest[i] = best < 0 ? -1 : compacted[best];
+            rowBestCoupling[i] = rowBestCoupling[slots[i]];
+        }
+        nextSlot = k;
+    }
+
+    /**
+     * Couplage croisé de deux clusters courants, lu dans les matrices entre clusters
+     * ou dans leurs lignes creuses
+     */
+    private CrossCoupling crossCouplingOf(Cluster c1, Cluster c2) {
+        if (linkageSums != null) {
+            int index = c1.slot * linkageStride + c2.slot;
+            return new CrossCoupling(linkageSums[index], (int) linkageCounts[index]);
+        }
+        LinkageRow row = linkageRows[c1.slot];
+        int index = row.indexOf(c2.slot);
+        double total = index < 0 ? 0 : row.sumAt(index);
+        return new CrossCoupling(total, sparseRelations(c1, c2, index < 0 ? 0 : row.countAt(index)));
+    }
+
+    /**
+     * Trouve la paire de clusters ayant le plus fort couplage moyen. Chaque ligne (dense ou creuse)
+     * connaît sa première meilleure colonne au-delà de la diagonale, la recherche ne parcourt donc
+     * que les lignes. Les emplacements suivant l'ordre de la liste des clusters, une égalité est
+     * départagée en faveur de la première paire dans l'ordre de cette liste.
+     * @return La paire de clusters avec le meilleur couplage, ou null si aucune paire valide
+     */
+    private Pair<Cluster, Cluster> findMostCoupledClusters() {
+        double maxCoupling = 0;
+        Cluster best = null;
+        for (Cluster cluster : clusters) {
+            if (rowBest[cluster.slot] >= 0 && rowBestCoupling[cluster.slot] > maxCoupling) {
+                maxCoupling = rowBestCoupling[cluster.slot];
+                best = cluster;
+            }
+        }
+        return best == null ? null : new Pair<>(best, clusterAtSlot[rowBest[best.slot]]);
     }
 
     /**
@@ -238,6 +1074,10 @@ public class HierarchicalClustering {
      */
     private Set<String> getUniqueClasses() {
         Set<String> classes = new HashSet<>();
+        if (zeroFilled) {
+            classes.addAll(((ZeroFilledCoupling) couplingMatrix).getClasses());
+            return classes;
+        }
         couplingMatrix.keySet().forEach(pair -> {
             classes.add(pair.getFirst());
             classes.add(pair.getSecond());
@@ -344,26 +1184,10 @@ public class HierarchicalClustering {
      * @return Valeur de cohésion entre 0 et 1
      */
     public double calculateModuleCohesion(Cluster cluster) {
-        if (cluster.classes.size() <= 1) return 1.0;
-
-        double totalCoupling = 0;
-        int relationships = 0;
-
-        // Calcule le couplage moyen entre toutes les classes du cluster
-        for (String classA : cluster.classes) {
-            for (String classB : cluster.classes) {
-                if (!classA.equals(classB)) {
-                    Pair<String, String> pair = new Pair<>(classA, classB);
-                    Double coupling = couplingMatrix.get(pair);
-                    if (coupling != null) {
-                        totalCoupling += coupling;
-                        relationships++;
-                    }
-                }
-            }
-        }
+        if (cluster.size <= 1) return 1.0;
 
-        return relationships > 0 ? totalCoupling / relationships : 0;
+        // Les sommes internes sont maintenues à chaque fusion : aucun parcours des classes
+        return cluster.getAverageInternalCoupling();
     }
 
     /**
@@ -378,6 +1202,112 @@ public class HierarchicalClustering {
         return cohesions;
     }
 
+    /**
+     * Retrouve, via l'union-find, le cluster courant contenant une classe
+     * @param className Nom de la classe recherchée
+     * @return Le cluster de plus haut niveau contenant la classe, ou null si elle est inconnue
+     */
+    public Cluster findCluster(String className) {
+        int id = membership.idOf(className);
+        if (id < 0) return null;
+        return clusterByRoot[membership.find(id)];
+    }
+
+    /**
+     * Calcule le nombre de fusions que performClustering aurait effectuées avec ces paramètres.
+     * L'ordre des fusions ne dépend pas des paramètres : seul le point d'arrêt change.
+     * Le résultat n'est exact que si le dernier clustering a été mené jusqu'au bout
+     * (seuil 0 et un seul module).
+     * @param minCoupling Seuil minimum de couplage pour la fusion
+     * @param maxModules Nombre maximum de modules souhaités
+     * @return Nombre de fusions de l'historique à rejouer
+     */
+    public int countMerges(double minCoupling, int maxModules) {
+        int merges = 0;
+        int remaining = leaves.size();
+        while (remaining > maxModules && remaining > 1 && merges < clusteringHistory.size()
+                && clusteringHistory.get(merges).getCoupling() >= minCoupling) {
+            merges++;
+            remaining--;
+        }
+        return merges;
+    }
+
+    /**
+     * Reconstruit la partition obtenue après les premières fusions de l'historique,
+     * sans relancer le clustering
+     * @param mergeCount Nombre de fusions à rejouer
+     * @return Liste des clusters de plus haut niveau après ces fusions
+     */
+    public List<Cluster> getClustersAfterMerges(int mergeCount) {
+        Set<Cluster> alive = new LinkedHashSet<>(leaves);
+        int limit = Math.min(mergeCount, clusteringHistory.size());
+        for (int i = 0; i < limit; i++) {
+            ClusteringStep step = clusteringHistory.get(i);
+            alive.remove(step.getCluster1());
+            alive.remove(step.getCluster2());
+            alive.add(step.getResultCluster());
+        }
+        return new ArrayList<>(alive);
+    }
+
+    /**
+     * @return La somme de tous les couplages entre classes différentes
+     */
+    public double getTotalCoupling() {
+        return totalCoupling;
+    }
+
+    /**
+     * Définit des groupes de classes fusionnés d'office au début de chaque clustering, par
+     * exemple les cycles de dépendances ({@link org.example.graph.DependencyCycles}) : la recherche
+     * des paires ne porte ensuite que sur un cluster par groupe et les classes restantes.
+     * Les membres de chaque groupe sont fusionnés dans l'ordre donné ; ces fusions figurent
+     * dans l'historique, sans tenir compte du seuil ({@link #countMerges} ne s'applique donc plus).
+     * @param groups Groupes de classes (liste vide pour ne rien fusionner d'office)
+     */
+    public void setPreMergedGroups(List<? extends List<String>> groups) {
+        this.preMergedGroups = groups;
+    }
+
+    /**
+     * Définit l'observateur notifié après chaque fusion
+     * @param listener Observateur de l'avancement (null pour le retirer)
+     */
+    public void setProgressListener(ClusteringProgressListener listener) {
+        this.progressListener = listener;
+    }
+
+    /**
+     * Active les points de reprise périodiques. Si le fichier existe au démarrage
+     * du clustering, les fusions qu'il contient sont rejouées avant de continuer.
+     * @param file Fichier de point de reprise
+     * @param interval Nombre de fusions entre deux écritures
+     */
+    public void enableCheckpoints(File file, int interval) {
+        this.checkpointFile = file;
+        this.checkpointInterval = Math.max(interval, 1);
+        // La matrice ne change pas : elle n'est hachée qu'une fois, et non à chaque point de reprise
+        this.checkpointFingerprint = couplingFingerprint();
+    }
+
+    /**
+     * Demande l'arrêt coopératif du clustering en cours. Le clustering s'arrête avant
+     * la fusion suivante, écrit un point de reprise et renvoie les clusters courants.
+     * Peut être appelée depuis un autre thread, y compris avant le démarrage du clustering :
+     * la demande vaut alors pour le prochain.
+     */
+    public void cancel() {
+        this.cancelRequested = true;
+    }
+
+    /**
+     * @return true si le dernier clustering a été interrompu avant la fin
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
     public List<ClusteringStep> getClusteringHistory() {
         return clusteringHistory;
     }
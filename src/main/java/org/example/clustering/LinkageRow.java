@@ -0,0 +1,128 @@
+package org.example.clustering;
+
+import java.util.Arrays;
+
+/**
+ * Ligne creuse de la matrice entre clusters : pour chaque cluster voisin (désigné par son
+ * emplacement), la somme des couplages croisés et le nombre de relations croisées. Table
+ * à adressage ouvert (sondage linéaire) sur des tableaux primitifs ; les retraits décalent
+ * les entrées suivantes, sans marqueur de suppression.
+ */
+final class LinkageRow {
+    private static final int EMPTY = -1;
+
+    // Emplacement du voisin de chaque case (EMPTY si la case est libre)
+    private int[] keys;
+    // Somme des couplages croisés de chaque case
+    private double[] sums;
+    // Nombre de relations croisées de chaque case
+    private int[] counts;
+    private int size;
+
+    LinkageRow(int expectedSize) {
+        int capacity = 4;
+        while (capacity * 3 < expectedSize * 4) capacity <<= 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        sums = new double[capacity];
+        counts = new int[capacity];
+        size = 0;
+    }
+
+    private int slotOf(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (keys.length - 1);
+    }
+
+    /**
+     * Case occupée par ce voisin, ou -1 s'il est absent
+     */
+    int indexOf(int key) {
+        for (int i = slotOf(key); ; i = (i + 1) & (keys.length - 1)) {
+            if (keys[i] == key) return i;
+            if (keys[i] == EMPTY) return -1;
+        }
+    }
+
+    /**
+     * Ajoute une somme et un nombre de relations à ceux du voisin (créé s'il est absent)
+     */
+    void add(int key, double sum, int count) {
+        int i = slotOf(key);
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & (keys.length - 1);
+        }
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            size++;
+        }
+        sums[i] += sum;
+        counts[i] += count;
+        if (size * 4 > keys.length * 3) grow();
+    }
+
+    /**
+     * Retire un voisin ; les entrées suivantes de sa séquence de sondage sont recalées
+     */
+    void remove(int key) {
+        int hole = indexOf(key);
+        if (hole < 0) return;
+        int mask = keys.length - 1;
+        keys[hole] = EMPTY;
+        size--;
+        for (int i = (hole + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = slotOf(keys[i]);
+            // L'entrée reste en place si sa case d'origine est entre le trou (exclu) et elle
+            if (((i - home) & mask) < ((i - hole) & mask)) continue;
+            keys[hole] = keys[i];
+            sums[hole] = sums[i];
+            counts[hole] = counts[i];
+            keys[i] = EMPTY;
+            sums[i] = 0;
+            counts[i] = 0;
+            hole = i;
+        }
+        sums[hole] = 0;
+        counts[hole] = 0;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        double[] oldSums = sums;
+        int[] oldCounts = counts;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) add(oldKeys[i], oldSums[i], oldCounts[i]);
+        }
+    }
+
+    /**
+     * Nombre de cases ; les cases libres ont pour voisin -1 (voir {@link #keyAt})
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    int keyAt(int index) {
+        return keys[index];
+    }
+
+    double sumAt(int index) {
+        return sums[index];
+    }
+
+    int countAt(int index) {
+        return counts[index];
+    }
+
+    /**
+     * Nombre de voisins
+     */
+    int size() {
+        return size;
+    }
+}
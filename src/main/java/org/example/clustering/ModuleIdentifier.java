@@ -1,6 +1,5 @@
 package org.example.clustering;
 
-import org.example.graph.Pair;
 import java.util.*;
 
 /**
@@ -13,9 +12,6 @@ public class ModuleIdentifier {
     // Les clusters résultant du clustering hiérarchique
     private final List<HierarchicalClustering.Cluster> clusters;
 
-    // La matrice de couplage entre toutes les classes
-    private final Map<Pair<String, String>, Double> couplingMatrix;
-
     // Nombre maximum de modules autorisés
     private final int maxModules;
 
@@ -26,15 +22,12 @@ public class ModuleIdentifier {
      * Constructeur initialisant l'identificateur de modules.
      *
      * @param clusters Liste des clusters à analyser
-     * @param couplingMatrix Matrice des couplages entre classes
      * @param maxModules Nombre maximum de modules à identifier
      * @param couplingThreshold Seuil minimal de couplage pour un module valide
      */
     public ModuleIdentifier(List<HierarchicalClustering.Cluster> clusters,
-                            Map<Pair<String, String>, Double> couplingMatrix,
                             int maxModules, double couplingThreshold) {
         this.clusters = clusters;
-        this.couplingMatrix = couplingMatrix;
         this.maxModules = maxModules;
         this.couplingThreshold = couplingThreshold;
     }
@@ -65,34 +58,14 @@ public class ModuleIdentifier {
      * Calcule le couplage moyen entre toutes les classes d'un cluster.
      * Cette mesure représente la cohésion interne du cluster.
      *
-     * Le calcul :
-     * 1. Somme tous les couplages entre paires de classes différentes
-     * 2. Divise par le nombre de relations pour obtenir la moyenne
+     * Les sommes des couplages internes et le nombre de relations sont
+     * maintenus par le cluster lors des fusions, le calcul est donc en O(1).
      *
      * @param cluster Le cluster dont on veut calculer la cohésion
      * @return La valeur moyenne du couplage interne (entre 0 et 1)
      */
     private double calculateAverageCoupling(HierarchicalClustering.Cluster cluster) {
-        Set<String> classes = cluster.getClasses();
-        double totalCoupling = 0;
-        int count = 0;
-
-        // Calcule la somme des couplages entre toutes les paires de classes
-        for (String classA : classes) {
-            for (String classB : classes) {
-                // Évite de calculer le couplage d'une classe avec elle-même
-                if (!classA.equals(classB)) {
-                    // Récupère le couplage entre les deux classes
-                    Double coupling = couplingMatrix.get(new Pair<>(classA, classB));
-                    if (coupling != null) {
-                        totalCoupling += coupling;
-                        count++;
-                    }
-                }
-            }
-        }
-
         // Retourne la moyenne ou 0 si aucune relation n'existe
-        return count > 0 ? totalCoupling / count : 0;
+        return cluster.getAverageInternalCoupling();
     }
 }
\ No newline at end of file
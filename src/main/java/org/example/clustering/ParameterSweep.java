@@ -0,0 +1,216 @@
+package org.example.clustering;
+
+import org.example.graph.Pair;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Balayage des paramètres (seuil de couplage, nombre maximum de modules) du clustering.
+ * Un seul clustering complet est effectué ; chaque combinaison est ensuite obtenue
+ * en rejouant un préfixe de l'historique des fusions, puis évaluée en parallèle avec :
+ * - la qualité de modularisation MQ (somme des facteurs de cluster)
+ * - la modularité de Newman sur le graphe de couplage symétrisé
+ * Les combinaisons non dominées sur ces deux critères forment le front de Pareto.
+ */
+public class ParameterSweep {
+    // Clustering complet partagé par toutes les combinaisons
+    private final HierarchicalClustering clustering;
+
+    /**
+     * Résultat de l'évaluation d'une combinaison de paramètres
+     */
+    public static class SweepResult {
+        private final double threshold;
+        private final int maxModules;
+        private final int clusterCount;
+        private final int identifiedModules;
+        private final double modularizationQuality;
+        private final double modularity;
+
+        public SweepResult(double threshold, int maxModules, int clusterCount, int identifiedModules,
+                           double modularizationQuality, double modularity) {
+            this.threshold = threshold;
+            this.maxModules = maxModules;
+            this.clusterCount = clusterCount;
+            this.identifiedModules = identifiedModules;
+            this.modularizationQuality = modularizationQuality;
+            this.modularity = modularity;
+        }
+
+        // Getters
+        public double getThreshold() { return threshold; }
+        public int getMaxModules() { return maxModules; }
+        public int getClusterCount() { return clusterCount; }
+        public int getIdentifiedModules() { return identifiedModules; }
+        public double getModularizationQuality() { return modularizationQuality; }
+        public double getModularity() { return modularity; }
+
+        /**
+         * @return true si ce résultat est au moins aussi bon que l'autre sur les deux critères
+         *         et strictement meilleur sur l'un d'eux
+         */
+        public boolean dominates(SweepResult other) {
+            return modularizationQuality >= other.modularizationQuality
+                    && modularity >= other.modularity
+                    && (modularizationQuality > other.modularizationQuality || modularity > other.modularity);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("seuil=%.3f, maxModules=%d -> clusters=%d, modules=%d, MQ=%.3f, Q=%.3f",
+                    threshold, maxModules, clusterCount, identifiedModules, modularizationQuality, modularity);
+        }
+    }
+
+    /**
+     * Construit le balayage et effectue l'unique clustering complet (seuil 0, un seul module)
+     * @param couplingMatrix Matrice des couplages entre classes
+     */
+    public ParameterSweep(Map<Pair<String, String>, Double> couplingMatrix) {
+        this.clustering = new HierarchicalClustering(couplingMatrix);
+        this.clustering.performClustering(0.0, 1);
+    }
+
+    /**
+     * Évalue en parallèle toutes les combinaisons de seuils et de nombres de modules
+     * @param thresholds Seuils de couplage à tester
+     * @param maxModulesValues Nombres maximum de modules à tester
+     * @return Résultats dans l'ordre des combinaisons (seuil, puis maxModules)
+     */
+    public List<SweepResult> run(double[] thresholds, int[] maxModulesValues) {
+        List<Pair<Double, Integer>> combinations = new ArrayList<>();
+        for (double threshold : thresholds) {
+            for (int maxModules : maxModulesValues) {
+                combinations.add(new Pair<>(threshold, maxModules));
+            }
+        }
+
+        return combinations.parallelStream()
+                .map(combination -> evaluate(combination.getFirst(), combination.getSecond()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Évalue une combinaison à partir de l'historique partagé (lecture seule)
+     */
+    private SweepResult evaluate(double threshold, int maxModules) {
+        int merges = clustering.countMerges(threshold, maxModules);
+        List<HierarchicalClustering.Cluster> partition = clustering.getClustersAfterMerges(merges);
+
+        List<HierarchicalClustering.Cluster> modules =
+                new ModuleIdentifier(partition, maxModules, threshold).identifyModules();
+
+        return new SweepResult(threshold, maxModules, partition.size(), modules.size(),
+                calculateModularizationQuality(partition), calculateModularity(partition));
+    }
+
+    /**
+     * Qualité de modularisation (MQ) : somme, pour chaque cluster, du facteur
+     * 2μ / (2μ + ε) où μ est le couplage interne et ε le couplage vers les autres clusters.
+     * 2μ + ε correspond exactement à la somme des couplages touchant le cluster.
+     */
+    private double calculateModularizationQuality(List<HierarchicalClustering.Cluster> partition) {
+        double quality = 0;
+        for (HierarchicalClustering.Cluster cluster : partition) {
+            double incident = cluster.getIncidentCoupling();
+            if (incident > 0) {
+                quality += 2 * cluster.getInternalCoupling() / incident;
+            }
+        }
+        return quality;
+    }
+
+    /**
+     * Modularité de Newman : somme, pour chaque cluster, de la part des couplages internes
+     * moins la part attendue si les couplages étaient répartis au hasard
+     */
+    private double calculateModularity(List<HierarchicalClustering.Cluster> partition) {
+        double total = clustering.getTotalCoupling();
+        if (total <= 0) return 0;
+
+        double modularity = 0;
+        for (HierarchicalClustering.Cluster cluster : partition) {
+            double degreeShare = cluster.getIncidentCoupling() / (2 * total);
+            modularity += cluster.getInternalCoupling() / total - degreeShare * degreeShare;
+        }
+        return modularity;
+    }
+
+    /**
+     * Extrait les résultats non dominés (front de Pareto), triés par MQ décroissante
+     * @param results Résultats du balayage
+     * @return Les résultats du front de Pareto
+     */
+    public static List<SweepResult> paretoFront(List<SweepResult> results) {
+        List<SweepResult> front = new ArrayList<>();
+        for (SweepResult candidate : results) {
+            boolean dominated = false;
+            for (SweepResult other : results) {
+                if (other.dominates(candidate)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                front.add(candidate);
+            }
+        }
+        front.sort(Comparator.comparingDouble(SweepResult::getModularizationQuality).reversed()
+                .thenComparing(Comparator.comparingDouble(SweepResult::getModularity).reversed()));
+        return front;
+    }
+
+    /**
+     * Seuils par défaut : 0 puis des quantiles des couplages de fusion observés
+     * @param count Nombre de seuils souhaités
+     */
+    public double[] defaultThresholds(int count) {
+        List<HierarchicalClustering.ClusteringStep> history = clustering.getClusteringHistory();
+        if (history.isEmpty() || count <= 1) return new double[]{0.0};
+
+        double[] couplings = history.stream()
+                .mapToDouble(HierarchicalClustering.ClusteringStep::getCoupling)
+                .sorted()
+                .toArray();
+        double[] thresholds = new double[count];
+        for (int i = 1; i < count; i++) {
+            thresholds[i] = couplings[(couplings.length - 1) * i / (count - 1)];
+        }
+        return Arrays.stream(thresholds).distinct().toArray();
+    }
+
+    /**
+     * Nombres de modules par défaut : progression géométrique entre 1 et le nombre de classes
+     * @param count Nombre de valeurs souhaitées
+     */
+    public int[] defaultMaxModules(int count) {
+        int classCount = Math.max(clustering.getClustersAfterMerges(0).size(), 1);
+        Set<Integer> values = new TreeSet<>();
+        for (int i = 0; i < count; i++) {
+            double ratio = count > 1 ? (double) i / (count - 1) : 0;
+            values.add((int) Math.round(Math.pow(classCount, ratio)));
+        }
+        values.add(Math.max(classCount / 2, 1));
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Affiche les résultats du front de Pareto et la combinaison recommandée
+     * @param results Résultats du balayage
+     */
+    public static void printResults(List<SweepResult> results) {
+        List<SweepResult> front = paretoFront(results);
+        System.out.println("\nCombinaisons évaluées : " + results.size());
+        System.out.println("Front de Pareto (MQ, modularité) :");
+        for (SweepResult result : front) {
+            System.out.println("  - " + result);
+        }
+        if (!front.isEmpty()) {
+            System.out.println("Paramètres recommandés : " + front.get(0));
+        }
+    }
+
+    public HierarchicalClustering getClustering() {
+        return clustering;
+    }
+}
@@ -0,0 +1,289 @@
+package org.example.daemon;
+
+import org.example.clustering.HierarchicalClustering;
+import org.example.graph.CallGraph;
+import org.example.graph.Pair;
+import org.example.metrics.IncrementalCoupling;
+import org.example.metrics.PackageCouplingRollup;
+import org.example.metrics.ReachabilityIndex;
+import org.example.monitoring.EventLog;
+import org.example.parser.BuildModules;
+import org.example.parser.ProjectParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Démon d'analyse : garde le graphe d'appels, les couplages et les modules en mémoire,
+ * surveille l'arborescence des sources avec un WatchService et ne réanalyse que les
+ * fichiers modifiés. Chaque fichier a son propre graphe d'appels ; le graphe du projet
+ * est reconstruit en fusionnant ces graphes (sans relire les fichiers inchangés). Le
+ * couplage est mis à jour par {@link IncrementalCoupling} : seules les lignes et colonnes
+ * des classes déclarées dans les fichiers modifiés sont recalculées. Le clustering est
+ * ensuite relancé sur la matrice à jour, sans copie dense, et le résultat publié dans un
+ * nouvel instantané interrogeable par {@link QueryServer} ; l'instantané et l'agrégation par
+ * package ne parcourent que les couplages calculés.
+ */
+public class AnalysisDaemon {
+    // Délai de regroupement des modifications (un enregistrement produit souvent plusieurs événements)
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    private final Path root;
+    private final double threshold;
+    private final int maxModules;
+    private final ProjectParser parser;
+    // Graphe d'appels de chaque fichier analysé
+    private final Map<File, CallGraph> fileGraphs = new HashMap<>();
+    // Couplage entretenu d'un rafraîchissement à l'autre
+    private final IncrementalCoupling coupling = new IncrementalCoupling();
+    // Répertoire surveillé associé à chaque clé du WatchService
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private WatchService watchService;
+    private volatile AnalysisSnapshot snapshot;
+    private volatile boolean running;
+
+    /**
+     * @param root Racine des sources du projet
+     * @param threshold Seuil minimal de couplage pour les fusions
+     * @param maxModules Nombre maximum de modules (négatif : la moitié du nombre de classes)
+     * @param parallelism Nombre de threads d'analyse
+     */
+    public AnalysisDaemon(Path root, double threshold, int maxModules, int parallelism) {
+        this.root = root;
+        this.threshold = threshold;
+        this.maxModules = maxModules;
+        this.parser = new ProjectParser(parallelism);
+    }
+
+    /**
+     * Instantané de la dernière analyse terminée
+     */
+    public AnalysisSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Analyse complète initiale et enregistrement des répertoires surveillés
+     */
+    public void start() throws IOException {
+        watchService = root.getFileSystem().newWatchService();
+        registerTree(root);
+        long start = System.nanoTime();
+        List<File> javaFiles = ProjectParser.listJavaFiles(root.toFile());
+        fileGraphs.putAll(parser.parseEach(javaFiles));
+        publish(start, null);
+        running = true;
+    }
+
+    /**
+     * Boucle de surveillance : regroupe les modifications puis rafraîchit l'analyse.
+     * Se termine lorsque {@link #stop()} est appelée ou que le thread est interrompu.
+     */
+    public void watch() {
+        try {
+            while (running) {
+                WatchKey key = watchService.take();
+                Set<Path> changed = new HashSet<>();
+                collectEvents(key, changed);
+                // Attend la fin de la rafale d'événements
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collectEvents(key, changed);
+                }
+                refresh(changed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Arrêt demandé
+        }
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'arrêt de la surveillance : " + e.getMessage());
+        }
+    }
+
+    private void collectEvents(WatchKey key, Set<Path> changed) {
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // Des événements ont été perdus : tous les fichiers connus et présents sont revus
+                for (File file : fileGraphs.keySet()) {
+                    changed.add(file.toPath());
+                }
+                ProjectParser.listJavaFiles(root.toFile()).forEach(file -> changed.add(file.toPath()));
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                // Nouveau répertoire : il est surveillé et ses fichiers existants sont analysés
+                try {
+                    registerTree(path);
+                } catch (IOException e) {
+                    System.err.println("Impossible de surveiller " + path + " : " + e.getMessage());
+                }
+                ProjectParser.listJavaFiles(path.toFile()).forEach(file -> changed.add(file.toPath()));
+            } else if (path.toString().endsWith(".java")) {
+                changed.add(path);
+            } else if (BuildModules.isBuildFile(path)) {
+                // Fichier de construction ajouté ou supprimé : les fichiers du répertoire et de ses
+                // sous-répertoires peuvent changer de module et sont réanalysés
+                changed.add(path);
+                for (File file : fileGraphs.keySet()) {
+                    if (file.toPath().startsWith(directory)) {
+                        changed.add(file.toPath());
+                    }
+                }
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+            // Répertoire supprimé : ses fichiers disparaissent de l'analyse
+            for (File file : fileGraphs.keySet()) {
+                if (file.toPath().startsWith(directory)) {
+                    changed.add(file.toPath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Réanalyse les fichiers modifiés, retire les fichiers supprimés et publie un nouvel instantané
+     */
+    private void refresh(Set<Path> changed) {
+        if (changed.isEmpty()) return;
+        long start = System.nanoTime();
+        // Les modules de construction mis en cache sous un fichier de construction modifié sont
+        // oubliés avant la réanalyse
+        for (Path path : changed) {
+            if (BuildModules.isBuildFile(path)) {
+                BuildModules.invalidate(path.getParent());
+            }
+        }
+        List<File> toParse = new ArrayList<>();
+        // Classes déclarées dans les fichiers modifiés, avant et après la modification
+        Set<String> changedClasses = new HashSet<>();
+        for (Path path : changed) {
+            if (BuildModules.isBuildFile(path)) continue;
+            File file = path.toFile();
+            CallGraph previous = file.isFile() ? fileGraphs.get(file) : fileGraphs.remove(file);
+            if (previous != null) {
+                changedClasses.addAll(previous.getAllClasses());
+            }
+            if (file.isFile()) {
+                toParse.add(file);
+            }
+        }
+        Map<File, CallGraph> parsed = parser.parseEach(toParse);
+        for (CallGraph fileGraph : parsed.values()) {
+            changedClasses.addAll(fileGraph.getAllClasses());
+        }
+        fileGraphs.putAll(parsed);
+        publish(start, changedClasses);
+        EventLog.info("Analyse rafraîchie (%d fichiers modifiés, %d classes) en %d ms",
+                changed.size(), changedClasses.size(), snapshot.getRefreshMillis());
+    }
+
+    /**
+     * Met à jour les couplages, recalcule les modules à partir des graphes des fichiers et
+     * publie l'instantané
+     * @param changedClasses Classes des fichiers modifiés, ou null pour tout recalculer
+     */
+    private void publish(long startNanos, Set<String> changedClasses) {
+        CallGraph callGraph = new CallGraph();
+        for (CallGraph fileGraph : fileGraphs.values()) {
+            callGraph.merge(fileGraph);
+        }
+        if (changedClasses == null) {
+            coupling.recompute(callGraph);
+        } else {
+            coupling.update(callGraph, changedClasses);
+        }
+        Map<Pair<String, String>, Double> couplingMatrix = coupling.getNormalizedCoupling();
+
+        // La matrice entretenue est creuse : les lignes creuses évitent les copies denses en n²
+        HierarchicalClustering clustering = HierarchicalClustering.withSparseLinkage(couplingMatrix);
+        int moduleLimit = maxModules >= 0 ? maxModules : Math.max(callGraph.getAllClasses().size() / 2, 1);
+        clustering.performClustering(threshold, moduleLimit);
+        List<Set<String>> modules = clustering.getModulesAtThreshold(threshold);
+
+        long version = snapshot == null ? 1 : snapshot.getVersion() + 1;
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+        snapshot = new AnalysisSnapshot(version, millis, fileGraphs.size(), callGraph.getAllClasses(),
+                couplingMatrix, modules,
+                new PackageCouplingRollup(couplingMatrix, callGraph),
+                ReachabilityIndex.build(callGraph));
+    }
+
+    private void registerTree(Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                watchedDirectories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    public static void main(String[] args) {
+        String path = null;
+        int port = 8765;
+        double threshold = 0.0;
+        int maxModules = -1;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("valeur manquante pour " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--path": path = value; break;
+                    case "--port": port = Integer.parseInt(value); break;
+                    case "--threshold": threshold = Double.parseDouble(value); break;
+                    case "--max-modules": maxModules = Integer.parseInt(value); break;
+                    case "--parallelism": parallelism = Integer.parseInt(value); break;
+                    default: throw new IllegalArgumentException("option inconnue " + args[i]);
+                }
+            }
+            if (path == null || !new File(path).isDirectory()) {
+                throw new IllegalArgumentException("--path doit désigner un répertoire existant");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            System.err.println("Usage : AnalysisDaemon --path <répertoire> [--port n] [--threshold s]"
+                    + " [--max-modules n] [--parallelism n]");
+            System.exit(2);
+        }
+
+        try {
+            AnalysisDaemon daemon = new AnalysisDaemon(Paths.get(path), threshold, maxModules, parallelism);
+            daemon.start();
+            System.out.println("Analyse initiale : " + daemon.getSnapshot().getClassCount() + " classes en "
+                    + daemon.getSnapshot().getRefreshMillis() + " ms");
+
+            QueryServer server = new QueryServer(port, daemon::getSnapshot);
+            server.start();
+            System.out.println("API disponible sur http://localhost:" + server.getPort()
+                    + "/ (status, modules, module?class=X, coupling?class=X, package?name=P, dependencies?class=X, impact?class=X)");
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                daemon.stop();
+            }, "daemon-shutdown"));
+            daemon.watch();
+        } catch (IOException e) {
+            System.err.println("Erreur lors du démarrage du démon : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
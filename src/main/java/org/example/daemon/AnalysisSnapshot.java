@@ -0,0 +1,126 @@
+package org.example.daemon;
+
+import org.example.graph.Pair;
+import org.example.metrics.PackageCouplingRollup;
+import org.example.metrics.ReachabilityIndex;
+import org.example.metrics.ZeroFilledCoupling;
+
+import java.util.*;
+
+/**
+ * État immuable d'une analyse : modules identifiés et couplages indexés par classe.
+ * Le démon publie un nouvel instantané après chaque rafraîchissement ; les requêtes
+ * lisent l'instantané courant sans verrou et ne voient jamais un état partiel.
+ */
+public final class AnalysisSnapshot {
+    // Numéro de l'analyse (incrémenté à chaque rafraîchissement)
+    private final long version;
+    // Instant de fin de l'analyse (millisecondes depuis l'époque)
+    private final long timestamp;
+    // Durée du rafraîchissement ayant produit cet instantané
+    private final long refreshMillis;
+    // Nombre de fichiers analysés
+    private final int fileCount;
+    private final List<Set<String>> modules;
+    // Index du module de chaque classe dans modules
+    private final Map<String, Integer> moduleByClass;
+    // Couplages non nuls sortants et entrants de chaque classe
+    private final Map<String, Map<String, Double>> outgoing;
+    private final Map<String, Map<String, Double>> incoming;
+    // Couplage agrégé par package et module de construction
+    private final PackageCouplingRollup packageRollup;
+    // Dépendances transitives et impact de chaque classe
+    private final ReachabilityIndex reachability;
+
+    AnalysisSnapshot(long version, long refreshMillis, int fileCount, Collection<String> classes,
+                     Map<Pair<String, String>, Double> couplingMatrix, List<Set<String>> modules,
+                     PackageCouplingRollup packageRollup, ReachabilityIndex reachability) {
+        this.version = version;
+        this.timestamp = System.currentTimeMillis();
+        this.refreshMillis = refreshMillis;
+        this.fileCount = fileCount;
+        this.packageRollup = packageRollup;
+        this.reachability = reachability;
+        this.modules = Collections.unmodifiableList(modules);
+        this.moduleByClass = new HashMap<>();
+        for (int i = 0; i < modules.size(); i++) {
+            for (String className : modules.get(i)) {
+                moduleByClass.put(className, i);
+            }
+        }
+        this.outgoing = new HashMap<>();
+        this.incoming = new HashMap<>();
+        for (String className : classes) {
+            outgoing.put(className, new HashMap<>());
+            incoming.put(className, new HashMap<>());
+        }
+        // Seuls les couplages calculés sont parcourus (et non toutes les paires d'une matrice
+        // complétée par des zéros)
+        for (Map.Entry<Pair<String, String>, Double> entry
+                : ZeroFilledCoupling.storedCouplingsOf(couplingMatrix).entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) continue;
+            String from = entry.getKey().getFirst();
+            String to = entry.getKey().getSecond();
+            outgoing.computeIfAbsent(from, k -> new HashMap<>()).put(to, entry.getValue());
+            incoming.computeIfAbsent(to, k -> new HashMap<>()).put(from, entry.getValue());
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getRefreshMillis() {
+        return refreshMillis;
+    }
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    public int getClassCount() {
+        return outgoing.size();
+    }
+
+    public boolean containsClass(String className) {
+        return outgoing.containsKey(className);
+    }
+
+    public List<Set<String>> getModules() {
+        return modules;
+    }
+
+    public PackageCouplingRollup getPackageRollup() {
+        return packageRollup;
+    }
+
+    public ReachabilityIndex getReachability() {
+        return reachability;
+    }
+
+    /**
+     * @return L'index du module de la classe, ou -1 si elle n'appartient à aucun module
+     */
+    public int moduleOf(String className) {
+        return moduleByClass.getOrDefault(className, -1);
+    }
+
+    public Map<String, Double> getOutgoingCoupling(String className) {
+        return outgoing.getOrDefault(className, Collections.emptyMap());
+    }
+
+    public Map<String, Double> getIncomingCoupling(String className) {
+        return incoming.getOrDefault(className, Collections.emptyMap());
+    }
+
+    /**
+     * Couplage de from vers to (0 si aucune relation)
+     */
+    public double coupling(String from, String to) {
+        return getOutgoingCoupling(from).getOrDefault(to, 0.0);
+    }
+}
@@ -0,0 +1,311 @@
+package org.example.daemon;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.export.JsonWriter;
+import org.example.metrics.PackageCouplingRollup;
+import org.example.metrics.ReachabilityIndex;
+import org.example.monitoring.EventLog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * API HTTP locale (liée à l'adresse de bouclage uniquement) répondant en JSON à partir
+ * de l'instantané courant du démon :
+ * - GET /status : version et taille de l'analyse courante
+ * - GET /modules : modules identifiés
+ * - GET /module?class=X : module de la classe X et ses membres
+ * - GET /coupling?class=X[&with=Y][&limit=N] : couplages sortants et entrants de X les plus forts,
+ *   ou couplage dans les deux sens entre X et Y
+ * - GET /package?name=P : nombre de classes, couplage interne, sortant et entrant du package P
+ *   (avec ses sous-packages) et liste de ses sous-packages
+ * - GET /package-coupling?from=P&to=Q : couplage agrégé dans les deux sens entre deux packages
+ * - GET /dependencies?class=X[&limit=N] : classes dont X dépend transitivement
+ * - GET /impact?class=X[&limit=N] : classes qui dépendent transitivement de X
+ * - GET /depends?from=X&to=Y : X dépend-elle (transitivement) de Y
+ */
+public class QueryServer {
+    // Nombre de couplages renvoyés par défaut pour une classe
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final HttpServer server;
+    private final Supplier<AnalysisSnapshot> snapshots;
+
+    /**
+     * @param port Port d'écoute sur l'adresse de bouclage (0 pour un port libre)
+     * @param snapshots Source de l'instantané courant
+     */
+    public QueryServer(int port, Supplier<AnalysisSnapshot> snapshots) throws IOException {
+        this.snapshots = snapshots;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "query-server");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.createContext("/status", exchange -> handle(exchange, this::writeStatus));
+        server.createContext("/modules", exchange -> handle(exchange, this::writeModules));
+        server.createContext("/module", exchange -> handle(exchange, this::writeModule));
+        server.createContext("/coupling", exchange -> handle(exchange, this::writeCoupling));
+        server.createContext("/package", exchange -> handle(exchange, this::writePackage));
+        server.createContext("/package-coupling", exchange -> handle(exchange, this::writePackageCoupling));
+        server.createContext("/dependencies", exchange -> handle(exchange, this::writeDependencies));
+        server.createContext("/impact", exchange -> handle(exchange, this::writeImpact));
+        server.createContext("/depends", exchange -> handle(exchange, this::writeDepends));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Réponse JSON à une requête ; une IllegalArgumentException devient une erreur 400
+     */
+    private interface QueryHandler {
+        void write(JsonWriter json, AnalysisSnapshot snapshot, Map<String, String> parameters) throws IOException;
+    }
+
+    /**
+     * Répond à une requête : 400 pour une requête invalide, 500 pour toute autre erreur.
+     * L'échange est toujours fermé, si bien qu'un client n'attend jamais une réponse perdue.
+     */
+    private void handle(HttpExchange exchange, QueryHandler handler) throws IOException {
+        try {
+            int status = 200;
+            StringWriter buffer = new StringWriter();
+            try {
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    throw new IllegalArgumentException("seule la méthode GET est acceptée");
+                }
+                handler.write(new JsonWriter(buffer), snapshots.get(), parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (IllegalArgumentException e) {
+                status = 400;
+                buffer = new StringWriter();
+                new JsonWriter(buffer).beginObject().name("error").value(e.getMessage()).endObject();
+            } catch (IOException | RuntimeException e) {
+                EventLog.warn("Erreur lors de la requête %s : %s", exchange.getRequestURI(), e);
+                status = 500;
+                buffer = new StringWriter();
+                new JsonWriter(buffer).beginObject().name("error").value("erreur interne : " + e).endObject();
+            }
+            byte[] body = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) return parameters;
+        for (String part : query.split("&")) {
+            int equals = part.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(part.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(part.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static String requireClass(AnalysisSnapshot snapshot, Map<String, String> parameters, String name) {
+        String className = parameters.get(name);
+        if (className == null) {
+            throw new IllegalArgumentException("paramètre " + name + " manquant");
+        }
+        if (!snapshot.containsClass(className)) {
+            throw new IllegalArgumentException("classe inconnue : " + className);
+        }
+        return className;
+    }
+
+    private void writeStatus(JsonWriter json, AnalysisSnapshot snapshot, Map<String, String> parameters) throws IOException {
+        json.beginObject();
+        json.name("version").value(snapshot.getVersion());
+        json.name("timestamp").value(snapshot.getTimestamp());
+        json.name("refreshMillis").value(snapshot.getRefreshMillis());
+        json.name("fileCount").value(snapshot.getFileCount());
+        json.name("classCount").value(snapshot.getClassCount());
+        json.name("moduleCount").value(snapshot.getModules().size());
+        json.endObject();
+    }
+
+    private void writeModules(JsonWriter json, AnalysisSnapshot snapshot, Map<String, String> parameters) throws IOException {
+        json.beginObject();
+        json.name("version").value(snapshot.getVersion());
+        json.name("modules").beginArray();
+        for (Set<String> module : snapshot.getModules()) {
+            writeClassNames(json, module);
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    private void writeModule(JsonWriter json, AnalysisSnapshot snapshot, Map<String, String> parameters) throws IOException {
+        String className = requireClass(snapshot, parameters, "class");
+        int module = snapshot.moduleOf(className);
+        json.beginObject();
+        json.name("class").value(className);
+        json.name("module");
+        if (module < 0) {
+            // Classe restée seule : elle ne fait partie d'aucun module identifié
+            json.value((String) null);
+        } else {
+            json.value(module);
+            json.name("members");
+            writeClassNames(json, snapshot.getModules().get(module));
+        }
+        json.endObject();
+    }
+
+    private void writeCoupling(JsonWriter json, AnalysisSnapshot snapshot, Map<String, String> parameters) throws IOException {
+        String className = requireClass(snapshot, parameters, "class");
+        json.beginObject();
+        json.name("class").value(className);
+        if (parameters.containsKey("with")) {
+            String other = requireClass(snapshot, parameters, "with");
+            json.name("with").value(other);
+            json.name("outgoing").value(snapshot.coupling(className, other));
+            json.name("incoming").value(snapshot.coupling(other, className));
+        } else {
+            int limit = parseLimit(parameters);
+            json.name("outgoing");
+            writeStrongest(json, snapshot.getOutgoingCoupling(className), limit);
+            json.name("incoming");
+            writeStrongest(json, snapshot.getIncomingCoupling(className), limit);
+        }
+        json.endObject();
+    }
+
+    private static int parseLimit(Map<String, String> parameters) {
+        if (!parameters.containsKey("limit")) return DEFAULT_LIMIT;
+        try {
+            return Integer.parseInt(parameters.get("limit"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("limite invalide : " + parameters.get("limit"));
+        }
+    }
+
+    private static String requirePackage(PackageCouplingRollup rollup, Map<String, String> parameters, String name) {
+        String packageName = parameters.get(name);
+        if (packageName == null) {
+            throw new IllegalArgumentException("paramètre " + name + " manquant");
+        }
+        if (!rollup.contains(packageName)) {
+            throw new IllegalArgumentException("package inconnu : " + packageName);
+        }
+        return packageName;
+    }
+
+    private void writePackage(JsonWriter json, AnalysisSnapshot snapshot, Map<String, String> parameters) throws IOException {
+        PackageCouplingRollup rollup = snapshot.getPackageRollup();
+        String packageName = requirePackage(rollup, parameters, "name");
+        json.beginObject();
+        json.name("name").value(packageName);
+        json.name("classCount").value(rollup.classCount(packageName));
+        json.name("internal").value(rollup.internalCoupling(packageName));
+        json.name("outgoing").value(rollup.outgoingCoupling(packageName));
+        json.name("incoming").value(rollup.incomingCoupling(packageName));
+        json.name("children").beginArray();
+        for (String child : rollup.children(packageName)) {
+            json.value(child);
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    private void writePackageCoupling(JsonWriter json, AnalysisSnapshot snapshot, Map<String, String> parameters) throws IOException {
+        PackageCouplingRollup rollup = snapshot.getPackageRollup();
+        String from = requirePackage(rollup, parameters, "from");
+        String to = requirePackage(rollup, parameters, "to");
+        PackageCouplingRollup.Aggregate outgoing = rollup.aggregate(from, to);
+        PackageCouplingRollup.Aggregate incoming = rollup.aggregate(to, from);
+        json.beginObject();
+        json.name("from").value(from);
+        json.name("to").value(to);
+        json.name("outgoing").value(outgoing.getTotal());
+        json.name("outgoingRelations").value(outgoing.getRelations());
+        json.name("incoming").value(incoming.getTotal());
+        json.name("incomingRelations").value(incoming.getRelations());
+        json.endObject();
+    }
+
+    private void writeDependencies(JsonWriter json, AnalysisSnapshot snapshot, Map<String, String> parameters) throws IOException {
+        String className = requireClass(snapshot, parameters, "class");
+        ReachabilityIndex reachability = snapshot.getReachability();
+        writeReachable(json, reachability, className, reachability.dependencyCount(className),
+                reachability.transitiveDependencies(className), parseLimit(parameters));
+    }
+
+    private void writeImpact(JsonWriter json, AnalysisSnapshot snapshot, Map<String, String> parameters) throws IOException {
+        String className = requireClass(snapshot, parameters, "class");
+        ReachabilityIndex reachability = snapshot.getReachability();
+        writeReachable(json, reachability, className, reachability.impactCount(className),
+                reachability.impactedClasses(className), parseLimit(parameters));
+    }
+
+    private static void writeReachable(JsonWriter json, ReachabilityIndex reachability, String className, long count,
+                                       Set<String> classes, int limit) throws IOException {
+        json.beginObject();
+        json.name("class").value(className);
+        json.name("count").value(count);
+        json.name("inCycle").value(reachability.isInCycle(className));
+        json.name("classes").beginArray();
+        int written = 0;
+        for (String name : new TreeSet<>(classes)) {
+            if (written++ >= limit) break;
+            json.value(name);
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    private void writeDepends(JsonWriter json, AnalysisSnapshot snapshot, Map<String, String> parameters) throws IOException {
+        String from = requireClass(snapshot, parameters, "from");
+        String to = requireClass(snapshot, parameters, "to");
+        json.beginObject();
+        json.name("from").value(from);
+        json.name("to").value(to);
+        json.name("dependsOn").value(snapshot.getReachability().dependsOn(from, to));
+        json.endObject();
+    }
+
+    private static void writeStrongest(JsonWriter json, Map<String, Double> couplings, int limit) throws IOException {
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(couplings.entrySet());
+        entries.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        json.beginArray();
+        for (Map.Entry<String, Double> entry : entries.subList(0, Math.max(Math.min(limit, entries.size()), 0))) {
+            json.beginObject().name("class").value(entry.getKey()).name("coupling").value(entry.getValue()).endObject();
+        }
+        json.endArray();
+    }
+
+    private static void writeClassNames(JsonWriter json, Set<String> classNames) throws IOException {
+        json.beginArray();
+        for (String className : new TreeSet<>(classNames)) {
+            json.value(className);
+        }
+        json.endArray();
+    }
+}
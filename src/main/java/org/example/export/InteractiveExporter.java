@@ -0,0 +1,268 @@
+package org.example.export;
+
+import org.example.clustering.HierarchicalClustering.Cluster;
+import org.example.graph.Pair;
+import org.example.metrics.ZeroFilledCoupling;
+import org.example.monitoring.MetricsRegistry;
+import org.example.monitoring.RenderEvent;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Export interactif du graphe de couplage et du dendrogramme, consultable hors ligne.
+ * Les données sont découpées en morceaux :
+ * - data/overview : vue d'ensemble par module (taille, cohésion, couplages entre modules)
+ * - data/module_N : détail d'un module (classes, couplages internes, couplages sortants les plus forts)
+ * - data/dendrogram : arbre des fusions sous forme de tableau compact
+ * Chaque morceau est écrit en .json (pour les outils) et en .js (appel de graphChunk(...)),
+ * car un navigateur n'autorise pas fetch() sur des fichiers locaux alors qu'il charge
+ * les scripts. La page index.html ne charge que la vue d'ensemble, puis les morceaux
+ * que l'utilisateur déplie.
+ */
+public class InteractiveExporter {
+    // Nombre maximum de couplages sortants conservés dans le détail d'un module
+    private static final int MAX_EXTERNAL_EDGES = 200;
+    // Nom du module regroupant les classes qui n'appartiennent à aucun module identifié
+    private static final String UNASSIGNED_MODULE = "Non classées";
+
+    /**
+     * Exporte la vue interactive dans un répertoire
+     * @param couplingMatrix Matrice des couplages entre classes
+     * @param modules Modules identifiés (ensembles de noms de classes)
+     * @param dendrogramRoots Racines du dendrogramme (peut être vide)
+     * @param outputDirectory Répertoire de destination (créé si nécessaire)
+     */
+    public static void export(Map<Pair<String, String>, Double> couplingMatrix,
+                              List<Set<String>> modules,
+                              List<Cluster> dendrogramRoots,
+                              File outputDirectory) {
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        MetricsRegistry.Timer timer = MetricsRegistry.getDefault().timer("render.interactive");
+        long start = timer.start();
+        try {
+            File dataDirectory = new File(outputDirectory, "data");
+            Files.createDirectories(dataDirectory.toPath());
+
+            // Module de chaque classe ; les classes restantes forment un module supplémentaire
+            List<String> moduleNames = new ArrayList<>();
+            List<List<String>> moduleClasses = new ArrayList<>();
+            Map<String, Integer> classToModule = new HashMap<>();
+            for (int i = 0; i < modules.size(); i++) {
+                moduleNames.add("Module " + (i + 1));
+                moduleClasses.add(new ArrayList<>(modules.get(i)));
+                for (String className : modules.get(i)) {
+                    classToModule.put(className, i);
+                }
+            }
+            List<String> unassigned = new ArrayList<>();
+            Set<String> matrixClasses = ZeroFilledCoupling.classesOf(couplingMatrix);
+            for (String className : matrixClasses) {
+                if (!classToModule.containsKey(className)) {
+                    classToModule.put(className, modules.size());
+                    unassigned.add(className);
+                }
+            }
+            if (!unassigned.isEmpty()) {
+                moduleNames.add(UNASSIGNED_MODULE);
+                moduleClasses.add(unassigned);
+            }
+
+            // Une seule passe sur les couplages calculés : couplages internes, sortants et entre modules
+            int moduleCount = moduleNames.size();
+            List<List<Map.Entry<Pair<String, String>, Double>>> internalEdges = new ArrayList<>();
+            List<PriorityQueue<Map.Entry<Pair<String, String>, Double>>> externalEdges = new ArrayList<>();
+            double[] internalCoupling = new double[moduleCount];
+            long[] internalRelations = new long[moduleCount];
+            for (int i = 0; i < moduleCount; i++) {
+                internalEdges.add(new ArrayList<>());
+                externalEdges.add(new PriorityQueue<>(Map.Entry.comparingByValue()));
+            }
+            Map<Pair<Integer, Integer>, Double> moduleEdges = new HashMap<>();
+            for (Map.Entry<Pair<String, String>, Double> entry
+                    : ZeroFilledCoupling.storedCouplingsOf(couplingMatrix).entrySet()) {
+                if (entry.getValue() == null) continue;
+                int from = classToModule.get(entry.getKey().getFirst());
+                int to = classToModule.get(entry.getKey().getSecond());
+                if (from == to) {
+                    internalCoupling[from] += entry.getValue();
+                    internalRelations[from]++;
+                    if (entry.getValue() > 0) internalEdges.get(from).add(entry);
+                } else if (entry.getValue() > 0) {
+                    moduleEdges.merge(new Pair<>(from, to), entry.getValue(), Double::sum);
+                    PriorityQueue<Map.Entry<Pair<String, String>, Double>> heap = externalEdges.get(from);
+                    heap.add(entry);
+                    if (heap.size() > MAX_EXTERNAL_EDGES) heap.poll();
+                }
+            }
+            if (couplingMatrix instanceof ZeroFilledCoupling) {
+                // Toutes les paires de classes de la vue sont des relations, y compris celles de
+                // couplage nul, qui ne sont pas parcourues : m classes forment m(m-1) paires
+                int[] viewClasses = new int[moduleCount];
+                for (String className : matrixClasses) {
+                    viewClasses[classToModule.get(className)]++;
+                }
+                for (int i = 0; i < moduleCount; i++) {
+                    internalRelations[i] = (long) viewClasses[i] * (viewClasses[i] - 1);
+                }
+            }
+
+            writeOverview(dataDirectory, classToModule.size(), moduleNames, moduleClasses,
+                    internalCoupling, internalRelations, moduleEdges, !dendrogramRoots.isEmpty());
+            for (int i = 0; i < moduleCount; i++) {
+                writeModule(dataDirectory, i, moduleNames.get(i), moduleClasses.get(i),
+                        internalEdges.get(i), externalEdges.get(i), classToModule);
+            }
+            if (!dendrogramRoots.isEmpty()) {
+                writeDendrogram(dataDirectory, dendrogramRoots);
+            }
+            copyViewer(new File(outputDirectory, "index.html"));
+
+            System.out.println("Vue interactive générée : " + new File(outputDirectory, "index.html").getPath());
+
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'export interactif : " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        timer.stop(start);
+        if (event.shouldCommit()) {
+            event.kind = "interactive";
+            event.outputPath = outputDirectory.getPath();
+            event.commit();
+        }
+    }
+
+    private static void writeOverview(File dataDirectory, int classCount, List<String> moduleNames,
+                                      List<List<String>> moduleClasses, double[] internalCoupling,
+                                      long[] internalRelations, Map<Pair<Integer, Integer>, Double> moduleEdges,
+                                      boolean hasDendrogram) throws IOException {
+        StringWriter buffer = new StringWriter();
+        JsonWriter json = new JsonWriter(buffer);
+        json.beginObject();
+        json.name("classCount").value(classCount);
+        json.name("hasDendrogram").value(hasDendrogram);
+        json.name("modules").beginArray();
+        for (int i = 0; i < moduleNames.size(); i++) {
+            json.beginObject();
+            json.name("id").value(i);
+            json.name("name").value(moduleNames.get(i));
+            json.name("size").value(moduleClasses.get(i).size());
+            json.name("cohesion").value(internalRelations[i] > 0 ? internalCoupling[i] / internalRelations[i] : 0);
+            json.endObject();
+        }
+        json.endArray();
+        json.name("edges").beginArray();
+        for (Map.Entry<Pair<Integer, Integer>, Double> edge : moduleEdges.entrySet()) {
+            json.beginArray().value(edge.getKey().getFirst()).value(edge.getKey().getSecond())
+                    .value(edge.getValue()).endArray();
+        }
+        json.endArray();
+        json.endObject();
+        writeChunk(dataDirectory, "overview", buffer.toString());
+    }
+
+    private static void writeModule(File dataDirectory, int id, String name, List<String> classes,
+                                    List<Map.Entry<Pair<String, String>, Double>> internal,
+                                    PriorityQueue<Map.Entry<Pair<String, String>, Double>> external,
+                                    Map<String, Integer> classToModule) throws IOException {
+        StringWriter buffer = new StringWriter();
+        JsonWriter json = new JsonWriter(buffer);
+        json.beginObject();
+        json.name("id").value(id);
+        json.name("name").value(name);
+        json.name("classes").beginArray();
+        for (String className : classes) {
+            json.value(className);
+        }
+        json.endArray();
+        json.name("edges").beginArray();
+        for (Map.Entry<Pair<String, String>, Double> edge : internal) {
+            json.beginArray().value(edge.getKey().getFirst()).value(edge.getKey().getSecond())
+                    .value(edge.getValue()).endArray();
+        }
+        json.endArray();
+        json.name("external").beginArray();
+        for (Map.Entry<Pair<String, String>, Double> edge : external) {
+            json.beginArray().value(edge.getKey().getFirst()).value(edge.getKey().getSecond())
+                    .value(classToModule.get(edge.getKey().getSecond())).value(edge.getValue()).endArray();
+        }
+        json.endArray();
+        json.endObject();
+        writeChunk(dataDirectory, "module_" + id, buffer.toString());
+    }
+
+    /**
+     * Écrit le dendrogramme en ordre postfixe : chaque nœud est [gauche, droite, couplage, taille, nom],
+     * où gauche et droite sont des indices dans le tableau (-1 pour une feuille)
+     */
+    private static void writeDendrogram(File dataDirectory, List<Cluster> roots) throws IOException {
+        StringWriter buffer = new StringWriter();
+        JsonWriter json = new JsonWriter(buffer);
+        json.beginObject();
+        json.name("nodes").beginArray();
+
+        Map<Cluster, Integer> ids = new IdentityHashMap<>();
+        List<Integer> rootIds = new ArrayList<>();
+        for (Cluster root : roots) {
+            // Parcours postfixe itératif : les enfants reçoivent leur indice avant le parent
+            Deque<Cluster> stack = new ArrayDeque<>();
+            List<Cluster> order = new ArrayList<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Cluster cluster = stack.pop();
+                order.add(cluster);
+                if (cluster.getLeftChild() != null) stack.push(cluster.getLeftChild());
+                if (cluster.getRightChild() != null) stack.push(cluster.getRightChild());
+            }
+            for (int i = order.size() - 1; i >= 0; i--) {
+                Cluster cluster = order.get(i);
+                boolean leaf = cluster.getLeftChild() == null || cluster.getRightChild() == null;
+                json.beginArray()
+                        .value(leaf ? -1 : ids.get(cluster.getLeftChild()))
+                        .value(leaf ? -1 : ids.get(cluster.getRightChild()))
+                        .value(cluster.getMergeCoupling())
+                        .value(cluster.size())
+                        .value(leaf ? cluster.getClasses().iterator().next() : null)
+                        .endArray();
+                ids.put(cluster, ids.size());
+            }
+            rootIds.add(ids.get(root));
+        }
+        json.endArray();
+        json.name("roots").beginArray();
+        for (int rootId : rootIds) {
+            json.value(rootId);
+        }
+        json.endArray();
+        json.endObject();
+        writeChunk(dataDirectory, "dendrogram", buffer.toString());
+    }
+
+    /**
+     * Écrit un morceau en .json et en .js (chargeable depuis le système de fichiers)
+     */
+    private static void writeChunk(File dataDirectory, String id, String content) throws IOException {
+        try (Writer out = new BufferedWriter(new FileWriter(new File(dataDirectory, id + ".json"), StandardCharsets.UTF_8))) {
+            out.write(content);
+        }
+        try (Writer out = new BufferedWriter(new FileWriter(new File(dataDirectory, id + ".js"), StandardCharsets.UTF_8))) {
+            out.write("graphChunk(\"" + id + "\", ");
+            out.write(content);
+            out.write(");\n");
+        }
+    }
+
+    private static void copyViewer(File destination) throws IOException {
+        try (InputStream in = InteractiveExporter.class.getResourceAsStream("viewer.html")) {
+            if (in == null) {
+                throw new IOException("Ressource viewer.html introuvable");
+            }
+            Files.copy(in, destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+
+/**
+ * Écriture de JSON en flux, sans construire d'arbre en mémoire.
+ * Les virgules entre éléments sont gérées automatiquement à l'aide d'une pile
+ * indiquant, pour chaque objet ou tableau ouvert, si un élément y a déjà été écrit.
+ */
+public class JsonWriter {
+    // Destination du JSON
+    private final Writer out;
+    // Pour chaque niveau ouvert : true si au moins un élément a déjà été écrit
+    private final Deque<Boolean> hasElements = new ArrayDeque<>();
+    // true juste après l'écriture d'un nom de propriété
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        out.write('{');
+        hasElements.push(false);
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        hasElements.pop();
+        out.write('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        out.write('[');
+        hasElements.push(false);
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        hasElements.pop();
+        out.write(']');
+        return this;
+    }
+
+    /**
+     * Écrit le nom de la prochaine propriété de l'objet courant
+     */
+    public JsonWriter name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        beforeValue();
+        if (value == null) {
+            out.write("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(double value) throws IOException {
+        beforeValue();
+        // JSON n'accepte ni NaN ni l'infini
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            out.write("null");
+        } else {
+            out.write(String.format(Locale.ROOT, "%.6g", value));
+        }
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Ajoute la virgule de séparation si nécessaire avant un nouvel élément
+     */
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (!hasElements.isEmpty()) {
+            if (hasElements.peek()) {
+                out.write(',');
+            } else {
+                hasElements.pop();
+                hasElements.push(true);
+            }
+        }
+    }
+
+    private void writeString(String text) throws IOException {
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                // Évite qu'un nom contenant "</script>" ne ferme une balise HTML
+                case '<': out.write("\\u003c"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -1,37 +1,85 @@
 package org.example.graph;
 
 import java.util.*;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Cette classe représente un graphe d'appels entre classes et méthodes Java.
  * Elle permet de suivre quelles méthodes sont définies dans chaque classe
  * et quelles méthodes sont appelées par chaque classe.
+ *
+ * Les classes sont identifiées par leur nom qualifié (« org.example.graph.CallGraph »)
+ * et les méthodes définies par leur signature (« addMethod(String,String) »), ce qui évite
+ * de confondre deux classes de même nom dans des packages différents. Tous ces noms sont
+ * rangés dans une {@link NameTable} qui partage les préfixes (packages, classes) et
+ * les segments identiques : un nom de méthode présent dans plusieurs classes n'est stocké
+ * qu'une fois. Les classes sont désignées en interne par leur nœud dans la table, sans
+ * conserver leur nom qualifié complet, qui est reconstruit lorsqu'il est demandé.
  */
 public class CallGraph {
-    // Stocke les méthodes définies dans chaque classe (classe -> ensemble de ses méthodes)
-    private Map<String, Set<String>> classMethods = new HashMap<>();
+    // Noms qualifiés des packages, classes et méthodes, à préfixes partagés
+    private final NameTable names = new NameTable();
+
+    // Toutes les clés de classes ci-dessous sont des nœuds de la table des noms
+
+    // Stocke les méthodes définies dans chaque classe (classe -> ensemble des noms de ses méthodes)
+    private Map<Integer, Set<String>> classMethods = new HashMap<>();
 
     // Stocke les méthodes appelées par chaque classe (classe appelante -> ensemble des méthodes appelées)
-    private Map<String, Set<String>> methodCallsByClass = new HashMap<>();
+    private Map<Integer, Set<String>> methodCallsByClass = new HashMap<>();
+
+    // Package de chaque classe (classe -> nom qualifié du package, vide pour le package par défaut)
+    private Map<Integer, String> classPackages = new HashMap<>();
+
+    // Module de construction (Maven ou Gradle) contenant chaque classe, lorsqu'il est connu
+    private Map<Integer, String> classBuildModules = new HashMap<>();
+
+    // Appels résolus vers leur classe déclarante (classe appelante -> classe déclarante -> méthodes)
+    private Map<Integer, Map<Integer, Set<String>>> resolvedCallsByClass = new HashMap<>();
+
+    // Appels dont la résolution a échoué (classe appelante -> méthodes), rapprochés par leur nom
+    private Map<Integer, Set<String>> unresolvedCallsByClass = new HashMap<>();
+
+    // Vrai lorsque les appels ont été résolus pendant l'analyse
+    private boolean callResolution;
 
     /**
      * Ajoute une nouvelle classe au graphe.
      * Initialise les ensembles vides pour les méthodes définies et appelées.
-     * @param className Le nom de la classe à ajouter
+     * @param className Le nom qualifié de la classe à ajouter
+     * @return Le nom de la classe, à réutiliser pour les ajouts suivants
      */
-    public void addClass(String className) {
-        classMethods.putIfAbsent(className, new HashSet<>());
-        methodCallsByClass.putIfAbsent(className, new HashSet<>());
+    public String addClass(String className) {
+        addClassNode(classNode(className));
+        return className;
+    }
+
+    private void addClassNode(int node) {
+        classMethods.putIfAbsent(node, new HashSet<>());
+        methodCallsByClass.putIfAbsent(node, new HashSet<>());
     }
 
     /**
-     * Ajoute une méthode à une classe spécifique.
+     * Ajoute une méthode à une classe spécifique, identifiée par son seul nom.
      * Si la classe n'existe pas, crée automatiquement une nouvelle entrée.
      * @param className Le nom de la classe
      * @param methodName Le nom de la méthode à ajouter
      */
     public void addMethod(String className, String methodName) {
-        classMethods.computeIfAbsent(className, k -> new HashSet<>()).add(methodName);
+        addMethod(className, methodName, "");
+    }
+
+    /**
+     * Ajoute une méthode à une classe spécifique.
+     * Si la classe n'existe pas, crée automatiquement une nouvelle entrée.
+     * @param className Le nom de la classe
+     * @param methodName Le nom de la méthode (utilisé pour rapprocher les appels)
+     * @param parameterList Les types des paramètres, par exemple « (String,String) »
+     */
+    public void addMethod(String className, String methodName, String parameterList) {
+        int node = classNode(className);
+        classMethods.computeIfAbsent(node, k -> new HashSet<>()).add(names.intern(methodName));
+        names.internMember(node, methodName, parameterList);
     }
 
     /**
@@ -41,15 +89,199 @@ public class CallGraph {
      * @param calledMethod La méthode qui est appelée
      */
     public void addMethodCall(String callerClass, String calledMethod) {
-        methodCallsByClass.computeIfAbsent(callerClass, k -> new HashSet<>()).add(calledMethod);
+        methodCallsByClass.computeIfAbsent(classNode(callerClass), k -> new HashSet<>())
+                .add(names.intern(calledMethod));
+    }
+
+    /**
+     * Enregistre un appel résolu vers la classe qui déclare la méthode appelée.
+     * L'appel doit aussi être enregistré par {@link #addMethodCall}, ce qui permet de
+     * comparer l'attribution résolue à l'attribution par nom.
+     * @param callerClass La classe qui fait l'appel
+     * @param declaringClass La classe qui déclare la méthode appelée (éventuellement hors du projet)
+     * @param calledMethod La méthode qui est appelée
+     */
+    public void addResolvedCall(String callerClass, String declaringClass, String calledMethod) {
+        callResolution = true;
+        resolvedCallsByClass.computeIfAbsent(classNode(callerClass), k -> new HashMap<>())
+                .computeIfAbsent(classNode(declaringClass), k -> new HashSet<>())
+                .add(names.intern(calledMethod));
+    }
+
+    /**
+     * Enregistre un appel dont la classe déclarante n'a pas pu être déterminée ;
+     * il est attribué par son nom, comme sans résolution.
+     * @param callerClass La classe qui fait l'appel
+     * @param calledMethod La méthode qui est appelée
+     */
+    public void addUnresolvedCall(String callerClass, String calledMethod) {
+        callResolution = true;
+        unresolvedCallsByClass.computeIfAbsent(classNode(callerClass), k -> new HashSet<>())
+                .add(names.intern(calledMethod));
+    }
+
+    /**
+     * Indique si les appels ont été résolus vers leur classe déclarante
+     */
+    public boolean isCallResolutionEnabled() {
+        return callResolution;
+    }
+
+    /**
+     * Récupère les appels résolus d'une classe.
+     * @param callerClass La classe appelante
+     * @return Map classe déclarante -> méthodes appelées, vide si aucun appel n'est résolu
+     */
+    public Map<String, Set<String>> getResolvedCalls(String callerClass) {
+        Map<Integer, Set<String>> targets = resolvedCallsByClass.get(names.findQualified(callerClass));
+        return targets == null ? Collections.emptyMap() : new NamedMap<>(targets);
+    }
+
+    /**
+     * Récupère les appels non résolus d'une classe.
+     * @param callerClass La classe appelante
+     * @return Les méthodes appelées dont la classe déclarante est inconnue
+     */
+    public Set<String> getUnresolvedCalls(String callerClass) {
+        return unresolvedCallsByClass.getOrDefault(names.findQualified(callerClass), Collections.emptySet());
+    }
+
+    /**
+     * Compte les relations d'appels de la classe A vers la classe B : nombre de méthodes
+     * distinctes de B appelées par A. Avec la résolution, seuls les appels résolus vers B
+     * comptent, plus les appels non résolus dont le nom est défini dans B ; sans résolution,
+     * tout appel dont le nom est défini dans B compte.
+     * @param classA La classe appelante
+     * @param classB La classe appelée
+     * @return Le nombre de méthodes de B appelées par A
+     */
+    public int countRelations(String classA, String classB) {
+        int nodeA = names.findQualified(classA);
+        int nodeB = names.findQualified(classB);
+        Set<String> methodsInB = classMethods.getOrDefault(nodeB, Collections.emptySet());
+        if (!callResolution) {
+            int count = 0;
+            for (String method : methodCallsByClass.getOrDefault(nodeA, Collections.emptySet())) {
+                if (methodsInB.contains(method)) count++;
+            }
+            return count;
+        }
+        Set<String> resolved = resolvedCallsByClass.getOrDefault(nodeA, Collections.emptyMap())
+                .getOrDefault(nodeB, Collections.emptySet());
+        int count = resolved.size();
+        for (String method : unresolvedCallsByClass.getOrDefault(nodeA, Collections.emptySet())) {
+            if (methodsInB.contains(method) && !resolved.contains(method)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Nœud du nom qualifié d'une classe, enregistré dans la table des noms au besoin
+     */
+    private int classNode(String className) {
+        return names.internQualified(className);
+    }
+
+    /**
+     * Enregistre l'emplacement d'une classe : son package et le module de construction
+     * qui contient son fichier source.
+     * @param className Le nom de la classe
+     * @param packageName Le nom qualifié du package (vide pour le package par défaut)
+     * @param buildModule Le module de construction, ou null s'il est inconnu
+     */
+    public void setClassLocation(String className, String packageName, String buildModule) {
+        setClassLocation(classNode(className), packageName, buildModule);
+    }
+
+    private void setClassLocation(int node, String packageName, String buildModule) {
+        classPackages.put(node, names.intern(packageName));
+        if (buildModule != null) {
+            classBuildModules.put(node, names.intern(buildModule));
+        }
+    }
+
+    /**
+     * Récupère le package d'une classe.
+     * @param className La classe
+     * @return Le nom qualifié du package, ou chaîne vide s'il est inconnu
+     */
+    public String getClassPackage(String className) {
+        return classPackages.getOrDefault(names.findQualified(className), "");
+    }
+
+    /**
+     * Récupère le module de construction d'une classe.
+     * @param className La classe
+     * @return Le nom du module, ou null s'il est inconnu
+     */
+    public String getClassBuildModule(String className) {
+        return classBuildModules.get(names.findQualified(className));
+    }
+
+    /**
+     * Ajoute au graphe toutes les classes, méthodes et appels d'un autre graphe.
+     * Permet de construire des graphes partiels en parallèle puis de les réunir.
+     * @param other Le graphe à fusionner dans celui-ci
+     */
+    public void merge(CallGraph other) {
+        // Nœud de chaque classe de l'autre graphe dans cette table, traduit une seule fois
+        Map<Integer, Integer> nodes = new HashMap<>();
+        IntUnaryOperator translate = otherNode -> nodes.computeIfAbsent(otherNode,
+                k -> names.internQualified(other.names.qualifiedName(k)));
+
+        other.classMethods.forEach((otherNode, methods) -> {
+            int node = translate.applyAsInt(otherNode);
+            addClassNode(node);
+            Set<String> ownMethods = classMethods.get(node);
+            for (String method : methods) {
+                ownMethods.add(names.intern(method));
+            }
+            // Signatures : enfants « membres » du nœud de la classe dans l'autre table
+            for (int member = other.names.firstChild(otherNode); member >= 0;
+                 member = other.names.nextSibling(member)) {
+                if (other.names.isMember(member)) {
+                    names.internMember(node, other.names.segment(member), other.names.parameterList(member));
+                }
+            }
+        });
+        other.methodCallsByClass.forEach((otherNode, calls) -> {
+            Set<String> ownCalls = methodCallsByClass.computeIfAbsent(translate.applyAsInt(otherNode),
+                    k -> new HashSet<>());
+            for (String call : calls) {
+                ownCalls.add(names.intern(call));
+            }
+        });
+        other.resolvedCallsByClass.forEach((otherNode, targets) -> {
+            Map<Integer, Set<String>> ownTargets = resolvedCallsByClass.computeIfAbsent(
+                    translate.applyAsInt(otherNode), k -> new HashMap<>());
+            targets.forEach((otherTarget, methods) -> {
+                Set<String> ownMethods = ownTargets.computeIfAbsent(translate.applyAsInt(otherTarget),
+                        k -> new HashSet<>());
+                for (String method : methods) {
+                    ownMethods.add(names.intern(method));
+                }
+            });
+        });
+        other.unresolvedCallsByClass.forEach((otherNode, methods) -> {
+            Set<String> ownMethods = unresolvedCallsByClass.computeIfAbsent(translate.applyAsInt(otherNode),
+                    k -> new HashSet<>());
+            for (String method : methods) {
+                ownMethods.add(names.intern(method));
+            }
+        });
+        callResolution |= other.callResolution;
+        other.classPackages.forEach((otherNode, packageName) -> setClassLocation(translate.applyAsInt(otherNode),
+                packageName, other.classBuildModules.get(otherNode)));
     }
 
     /**
      * Retourne l'ensemble de toutes les classes enregistrées dans le graphe.
+     * Les noms sont reconstruits à chaque parcours : un appelant qui les parcourt
+     * plusieurs fois a intérêt à les copier.
      * @return Set<String> contenant les noms de toutes les classes
      */
     public Set<String> getAllClasses() {
-        return classMethods.keySet();
+        return new NamedMap<>(classMethods).keySet();
     }
 
     /**
@@ -58,7 +290,7 @@ public class CallGraph {
      * @return Set<String> des méthodes appelées, ou ensemble vide si la classe n'existe pas
      */
     public Set<String> getCalledMethods(String callerClass) {
-        return methodCallsByClass.getOrDefault(callerClass, Collections.emptySet());
+        return methodCallsByClass.getOrDefault(names.findQualified(callerClass), Collections.emptySet());
     }
 
     /**
@@ -67,7 +299,32 @@ public class CallGraph {
      * @return Set<String> des méthodes définies, ou ensemble vide si la classe n'existe pas
      */
     public Set<String> getClassMethods(String className) {
-        return classMethods.getOrDefault(className, Collections.emptySet());
+        return classMethods.getOrDefault(names.findQualified(className), Collections.emptySet());
+    }
+
+    /**
+     * Récupère les signatures qualifiées des méthodes définies dans une classe.
+     * @param className La classe dont on veut connaître les méthodes
+     * @return Les signatures, par exemple « org.example.graph.CallGraph#addClass(String) »
+     */
+    public List<String> getMethodSignatures(String className) {
+        List<String> signatures = new ArrayList<>();
+        int classNode = names.findQualified(className);
+        if (!classMethods.containsKey(classNode)) return signatures;
+        for (int member = names.firstChild(classNode); member >= 0; member = names.nextSibling(member)) {
+            if (names.isMember(member)) {
+                signatures.add(names.qualifiedName(member));
+            }
+        }
+        Collections.sort(signatures);
+        return signatures;
+    }
+
+    /**
+     * Table des noms qualifiés du graphe (packages, classes, signatures)
+     */
+    public NameTable getNameTable() {
+        return names;
     }
 
     /**
@@ -82,15 +339,67 @@ public class CallGraph {
         if (methodCallsByClass.isEmpty()) {
             System.out.println("Aucune relation de couplage trouvée dans le graphe.");
         } else {
-            for (String caller : methodCallsByClass.keySet()) {
-                System.out.println(caller + " appelle : " + methodCallsByClass.get(caller));
-            }
+            methodCallsByClass.forEach((caller, calls) ->
+                    System.out.println(names.qualifiedName(caller) + " appelle : " + calls));
         }
 
         // Affichage des méthodes par classe
         System.out.println("\nMéthodes définies dans chaque classe :");
-        for (String className : classMethods.keySet()) {
-            System.out.println(className + " : " + classMethods.get(className));
+        classMethods.forEach((className, methods) ->
+                System.out.println(names.qualifiedName(className) + " : " + methods));
+    }
+
+    /**
+     * Vue par noms qualifiés d'une table indexée par nœuds de classes : les noms sont
+     * reconstruits au parcours et les clés recherchées dans la table des noms, sans copie.
+     */
+    private final class NamedMap<V> extends AbstractMap<String, V> {
+        private final Map<Integer, V> byNode;
+
+        NamedMap(Map<Integer, V> byNode) {
+            this.byNode = byNode;
+        }
+
+        @Override
+        public V get(Object key) {
+            return key instanceof String ? byNode.get(names.findQualified((String) key)) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && byNode.containsKey(names.findQualified((String) key));
+        }
+
+        @Override
+        public int size() {
+            return byNode.size();
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    Iterator<Map.Entry<Integer, V>> entries = byNode.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, V> next() {
+                            Map.Entry<Integer, V> entry = entries.next();
+                            return new SimpleImmutableEntry<>(names.qualifiedName(entry.getKey()), entry.getValue());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return byNode.size();
+                }
+            };
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,343 @@
+package org.example.graph;
+
+import org.example.metrics.ZeroFilledCoupling;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Graphe orienté et pondéré des dépendances entre classes, sous forme compacte :
+ * les nœuds sont numérotés de 0 à n-1 (classes triées par nom) et les arcs sortants
+ * de chaque nœud sont rangés de façon contiguë dans des tableaux parallèles
+ * (offsets / cibles / poids, format « CSR »). Un graphe de plusieurs millions d'arcs
+ * occupe ainsi quelques dizaines de mégaoctets et se parcourt sans allocation.
+ *
+ * Un arc A -> B signifie que A appelle au moins une méthode de B ; son poids est le
+ * nombre de relations ({@link CallGraph#countRelations}) ou le couplage normalisé,
+ * selon la construction. Il n'y a ni boucle (A -> A) ni arc en double.
+ */
+public final class ClassDependencyGraph {
+    private final String[] names;
+    private final Map<String, Integer> nodeByName;
+    // Arcs sortants du nœud v : indices offsets[v] (inclus) à offsets[v + 1] (exclu)
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    private ClassDependencyGraph(String[] names, Map<String, Integer> nodeByName, int[] offsets,
+                                 int[] targets, double[] weights) {
+        this.names = names;
+        this.nodeByName = nodeByName;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Construit le graphe des dépendances d'un graphe d'appels, pondéré par le nombre de
+     * relations entre classes. Les méthodes sont indexées par nom une seule fois, ce qui évite
+     * le parcours de toutes les paires de classes : le coût est proportionnel au nombre d'appels.
+     * L'attribution est celle de {@link CallGraph#countRelations} (appels résolus si disponibles).
+     * @param graph Le graphe d'appels
+     */
+    public static ClassDependencyGraph fromCallGraph(CallGraph graph) {
+        String[] names = graph.getAllClasses().toArray(new String[0]);
+        Arrays.sort(names);
+        Map<String, Integer> nodeByName = indexNames(names);
+
+        // Classes définissant chaque nom de méthode
+        Map<String, List<Integer>> definers = new HashMap<>();
+        for (int v = 0; v < names.length; v++) {
+            for (String method : graph.getClassMethods(names[v])) {
+                definers.computeIfAbsent(method, k -> new ArrayList<>()).add(v);
+            }
+        }
+
+        EdgeAccumulator edges = new EdgeAccumulator(names.length);
+        for (int v = 0; v < names.length; v++) {
+            if (graph.isCallResolutionEnabled()) {
+                Map<String, Set<String>> resolved = graph.getResolvedCalls(names[v]);
+                resolved.forEach((declaringClass, methods) -> {
+                    Integer target = nodeByName.get(declaringClass);
+                    if (target != null) edges.add(target, methods.size());
+                });
+                for (String method : graph.getUnresolvedCalls(names[v])) {
+                    for (int target : definers.getOrDefault(method, Collections.emptyList())) {
+                        // Un appel à la fois résolu et non résolu vers la même classe ne compte qu'une fois
+                        if (!resolved.getOrDefault(names[target], Collections.emptySet()).contains(method)) {
+                            edges.add(target, 1);
+                        }
+                    }
+                }
+            } else {
+                for (String method : graph.getCalledMethods(names[v])) {
+                    for (int target : definers.getOrDefault(method, Collections.emptyList())) {
+                        edges.add(target, 1);
+                    }
+                }
+            }
+            edges.endRow(v);
+        }
+        return edges.build(names, nodeByName);
+    }
+
+    /**
+     * Construit le graphe à partir d'une matrice de couplage : un arc pour chaque paire
+     * de couplage strictement positif, pondéré par ce couplage. Une matrice complétée par des
+     * zéros n'est parcourue que sur ses couplages calculés.
+     * @param classes Toutes les classes (y compris celles sans couplage)
+     * @param couplingMatrix Couplage entre classes (classe appelante, classe appelée)
+     */
+    public static ClassDependencyGraph fromCouplingMatrix(Collection<String> classes,
+                                                          Map<Pair<String, String>, Double> couplingMatrix) {
+        String[] names = classes.toArray(new String[0]);
+        Arrays.sort(names);
+        Map<String, Integer> nodeByName = indexNames(names);
+
+        // Arcs regroupés par source avant l'accumulation ligne par ligne
+        List<List<Map.Entry<Pair<String, String>, Double>>> rows = new ArrayList<>(names.length);
+        for (int v = 0; v < names.length; v++) {
+            rows.add(new ArrayList<>());
+        }
+        for (Map.Entry<Pair<String, String>, Double> entry
+                : ZeroFilledCoupling.storedCouplingsOf(couplingMatrix).entrySet()) {
+            if (entry.getValue() == null || !(entry.getValue() > 0)) continue;
+            Integer source = nodeByName.get(entry.getKey().getFirst());
+            if (source != null) rows.get(source).add(entry);
+        }
+        EdgeAccumulator edges = new EdgeAccumulator(names.length);
+        for (int v = 0; v < names.length; v++) {
+            for (Map.Entry<Pair<String, String>, Double> entry : rows.get(v)) {
+                Integer target = nodeByName.get(entry.getKey().getSecond());
+                if (target != null) edges.add(target, entry.getValue());
+            }
+            edges.endRow(v);
+        }
+        return edges.build(names, nodeByName);
+    }
+
+    private static Map<String, Integer> indexNames(String[] names) {
+        Map<String, Integer> nodeByName = new HashMap<>(names.length * 2);
+        for (int v = 0; v < names.length; v++) {
+            nodeByName.put(names[v], v);
+        }
+        return nodeByName;
+    }
+
+    /**
+     * Construit un graphe à partir d'arcs numérotés (source, cible, poids) ; les arcs de même
+     * source et même cible sont réunis (poids additionnés), les boucles sont ignorées.
+     * @param names Nom de chaque nœud
+     * @param sources Source de chaque arc
+     * @param targets Cible de chaque arc
+     * @param weights Poids de chaque arc
+     * @param edgeCount Nombre d'arcs (les tableaux peuvent être plus longs)
+     */
+    public static ClassDependencyGraph fromEdges(String[] names, int[] sources, int[] targets,
+                                                 double[] weights, int edgeCount) {
+        int n = names.length;
+        // Tri des arcs par source (tri par dénombrement)
+        int[] rowStarts = new int[n + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            rowStarts[sources[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            rowStarts[v + 1] += rowStarts[v];
+        }
+        int[] cursor = Arrays.copyOf(rowStarts, n);
+        int[] sortedTargets = new int[edgeCount];
+        double[] sortedWeights = new double[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            int position = cursor[sources[e]]++;
+            sortedTargets[position] = targets[e];
+            sortedWeights[position] = weights[e];
+        }
+
+        EdgeAccumulator edges = new EdgeAccumulator(n);
+        for (int v = 0; v < n; v++) {
+            for (int e = rowStarts[v]; e < rowStarts[v + 1]; e++) {
+                edges.add(sortedTargets[e], sortedWeights[e]);
+            }
+            edges.endRow(v);
+        }
+        return edges.build(names, indexNames(names));
+    }
+
+    /**
+     * Accumule les arcs ligne par ligne (une source après l'autre, dans l'ordre des nœuds) :
+     * les poids vers une même cible sont additionnés dans un tableau dense, seules les cases
+     * touchées étant relues puis remises à zéro.
+     */
+    private static final class EdgeAccumulator {
+        private final double[] rowWeights;
+        private final boolean[] touched;
+        private int[] rowTargets;
+        private int rowSize;
+        private final int[] offsets;
+        private int[] targets = new int[1024];
+        private double[] weights = new double[1024];
+        private int edgeCount;
+        private int row;
+
+        EdgeAccumulator(int nodeCount) {
+            rowWeights = new double[nodeCount];
+            touched = new boolean[nodeCount];
+            rowTargets = new int[16];
+            offsets = new int[nodeCount + 1];
+        }
+
+        void add(int target, double weight) {
+            if (!touched[target]) {
+                touched[target] = true;
+                if (rowSize == rowTargets.length) rowTargets = Arrays.copyOf(rowTargets, rowSize * 2);
+                rowTargets[rowSize++] = target;
+            }
+            rowWeights[target] += weight;
+        }
+
+        void endRow(int source) {
+            Arrays.sort(rowTargets, 0, rowSize);
+            for (int i = 0; i < rowSize; i++) {
+                int target = rowTargets[i];
+                if (target != source && rowWeights[target] > 0) {
+                    if (edgeCount == targets.length) {
+                        targets = Arrays.copyOf(targets, edgeCount * 2);
+                        weights = Arrays.copyOf(weights, edgeCount * 2);
+                    }
+                    targets[edgeCount] = target;
+                    weights[edgeCount] = rowWeights[target];
+                    edgeCount++;
+                }
+                rowWeights[target] = 0;
+                touched[target] = false;
+            }
+            rowSize = 0;
+            row = source + 1;
+            offsets[row] = edgeCount;
+        }
+
+        ClassDependencyGraph build(String[] names, Map<String, Integer> nodeByName) {
+            // Lignes restées vides à la fin
+            for (int v = row + 1; v < offsets.length; v++) {
+                offsets[v] = edgeCount;
+            }
+            return new ClassDependencyGraph(names, nodeByName, offsets,
+                    Arrays.copyOf(targets, edgeCount), Arrays.copyOf(weights, edgeCount));
+        }
+    }
+
+    /**
+     * Graphe des groupes de nœuds (packages, modules de construction...) : un nœud par groupe,
+     * un arc entre deux groupes distincts dont le poids est la somme des poids des arcs qui
+     * les relient ; les arcs internes à un groupe disparaissent.
+     * @param groupOf Groupe de chaque classe, d'après son nom
+     */
+    public ClassDependencyGraph groupBy(Function<String, String> groupOf) {
+        int n = names.length;
+        String[] groupOfNode = new String[n];
+        TreeSet<String> groupNames = new TreeSet<>();
+        for (int v = 0; v < n; v++) {
+            groupOfNode[v] = groupOf.apply(names[v]);
+            groupNames.add(groupOfNode[v]);
+        }
+        String[] groups = groupNames.toArray(new String[0]);
+        Map<String, Integer> groupIds = indexNames(groups);
+        int[] groupIdOfNode = new int[n];
+        for (int v = 0; v < n; v++) {
+            groupIdOfNode[v] = groupIds.get(groupOfNode[v]);
+        }
+        int[] sources = new int[targets.length];
+        for (int v = 0; v < n; v++) {
+            Arrays.fill(sources, offsets[v], offsets[v + 1], groupIdOfNode[v]);
+        }
+        int[] groupTargets = new int[targets.length];
+        for (int e = 0; e < targets.length; e++) {
+            groupTargets[e] = groupIdOfNode[targets[e]];
+        }
+        return fromEdges(groups, sources, groupTargets, weights, targets.length);
+    }
+
+    /**
+     * Graphe des mêmes nœuds dont tous les arcs sont inversés (B -> A pour chaque A -> B)
+     */
+    public ClassDependencyGraph reversed() {
+        int n = names.length;
+        int[] reversedOffsets = new int[n + 1];
+        for (int target : targets) {
+            reversedOffsets[target + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            reversedOffsets[v + 1] += reversedOffsets[v];
+        }
+        int[] cursor = Arrays.copyOf(reversedOffsets, n);
+        int[] reversedTargets = new int[targets.length];
+        double[] reversedWeights = new double[weights.length];
+        // Les sources sont parcourues dans l'ordre : chaque ligne inversée reste triée
+        for (int v = 0; v < n; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int position = cursor[targets[e]]++;
+                reversedTargets[position] = v;
+                reversedWeights[position] = weights[e];
+            }
+        }
+        return new ClassDependencyGraph(names, nodeByName, reversedOffsets, reversedTargets, reversedWeights);
+    }
+
+    public int nodeCount() {
+        return names.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Nom du nœud v
+     */
+    public String name(int v) {
+        return names[v];
+    }
+
+    /**
+     * Numéro du nœud d'une classe, ou -1 si elle n'est pas dans le graphe
+     */
+    public int node(String name) {
+        return nodeByName.getOrDefault(name, -1);
+    }
+
+    /**
+     * Premier arc sortant du nœud v
+     */
+    public int firstEdge(int v) {
+        return offsets[v];
+    }
+
+    /**
+     * Fin (exclue) des arcs sortants du nœud v
+     */
+    public int endEdge(int v) {
+        return offsets[v + 1];
+    }
+
+    /**
+     * Cible de l'arc e
+     */
+    public int target(int e) {
+        return targets[e];
+    }
+
+    /**
+     * Poids de l'arc e
+     */
+    public double weight(int e) {
+        return weights[e];
+    }
+
+    /**
+     * Poids de l'arc from -> to, 0 s'il n'existe pas (recherche dichotomique dans la ligne triée)
+     */
+    public double weight(int from, int to) {
+        int e = Arrays.binarySearch(targets, offsets[from], offsets[from + 1], to);
+        return e >= 0 ? weights[e] : 0;
+    }
+}
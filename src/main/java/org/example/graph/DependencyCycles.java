@@ -0,0 +1,160 @@
+package org.example.graph;
+
+import java.util.*;
+
+/**
+ * Cycles de dépendances d'un {@link ClassDependencyGraph} : chaque composante fortement
+ * connexe de plus d'un nœud est un cycle (tout nœud y dépend, transitivement, de tous
+ * les autres). Les cycles sont classés par poids décroissant, le poids d'un cycle étant
+ * la somme des poids des arcs internes à sa composante : les premiers sont ceux dont la
+ * rupture demanderait de défaire le plus de dépendances.
+ *
+ * Le calcul est linéaire en nombre d'arcs ({@link StronglyConnectedComponents}, puis un
+ * passage sur les arcs) ; il s'applique aussi bien au graphe des classes qu'à celui des
+ * packages ({@link ClassDependencyGraph#groupBy}).
+ */
+public final class DependencyCycles {
+    /**
+     * Un cycle de dépendances (composante fortement connexe)
+     */
+    public static final class Cycle {
+        private final List<String> members;
+        private final int edgeCount;
+        private final double weight;
+
+        private Cycle(List<String> members, int edgeCount, double weight) {
+            this.members = Collections.unmodifiableList(members);
+            this.edgeCount = edgeCount;
+            this.weight = weight;
+        }
+
+        /**
+         * Membres du cycle, dans un ordre de parcours : chaque membre (sauf le premier) a une
+         * dépendance, dans un sens ou dans l'autre, avec l'un des membres qui le précèdent
+         */
+        public List<String> getMembers() {
+            return members;
+        }
+
+        public int size() {
+            return members.size();
+        }
+
+        /**
+         * Nombre d'arcs entre membres du cycle
+         */
+        public int getEdgeCount() {
+            return edgeCount;
+        }
+
+        /**
+         * Somme des poids des arcs entre membres du cycle
+         */
+        public double getWeight() {
+            return weight;
+        }
+    }
+
+    private final StronglyConnectedComponents components;
+    private final List<Cycle> cycles = new ArrayList<>();
+
+    /**
+     * Recherche les cycles du graphe
+     */
+    public DependencyCycles(ClassDependencyGraph graph) {
+        components = new StronglyConnectedComponents(graph);
+        int componentCount = components.componentCount();
+        int[] edgeCounts = new int[componentCount];
+        double[] weights = new double[componentCount];
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            int component = components.componentOf(v);
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                if (components.componentOf(graph.target(e)) == component) {
+                    edgeCounts[component]++;
+                    weights[component] += graph.weight(e);
+                }
+            }
+        }
+
+        // Ordre de parcours des membres : largeur d'abord, sur les arcs internes pris dans les deux sens
+        ClassDependencyGraph reversed = graph.reversed();
+        boolean[] visited = new boolean[graph.nodeCount()];
+        int[] queue = new int[graph.nodeCount()];
+        for (int c = 0; c < componentCount; c++) {
+            if (components.size(c) < 2) continue;
+            int start = components.member(c, 0);
+            for (int i = 1; i < components.size(c); i++) {
+                start = Math.min(start, components.member(c, i));
+            }
+            List<String> members = new ArrayList<>(components.size(c));
+            int head = 0;
+            int tail = 0;
+            visited[start] = true;
+            queue[tail++] = start;
+            while (head < tail) {
+                int v = queue[head++];
+                members.add(graph.name(v));
+                tail = enqueueNeighbours(graph, v, c, visited, queue, tail);
+                tail = enqueueNeighbours(reversed, v, c, visited, queue, tail);
+            }
+            cycles.add(new Cycle(members, edgeCounts[c], weights[c]));
+        }
+        cycles.sort(Comparator.comparingDouble(Cycle::getWeight).reversed()
+                .thenComparing(Comparator.comparingInt(Cycle::size).reversed())
+                .thenComparing(cycle -> cycle.getMembers().get(0)));
+    }
+
+    private int enqueueNeighbours(ClassDependencyGraph graph, int v, int component, boolean[] visited,
+                                  int[] queue, int tail) {
+        for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+            int w = graph.target(e);
+            if (!visited[w] && components.componentOf(w) == component) {
+                visited[w] = true;
+                queue[tail++] = w;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Cycles par poids décroissant
+     */
+    public List<Cycle> getCycles() {
+        return cycles;
+    }
+
+    /**
+     * Composantes fortement connexes du graphe (y compris les nœuds hors cycle)
+     */
+    public StronglyConnectedComponents getComponents() {
+        return components;
+    }
+
+    /**
+     * Nombre de nœuds appartenant à un cycle
+     */
+    public int getNodesInCycles() {
+        int count = 0;
+        for (Cycle cycle : cycles) {
+            count += cycle.size();
+        }
+        return count;
+    }
+
+    /**
+     * Affiche le nombre de cycles puis les plus lourds, avec leurs premiers membres
+     * @param title Nature des nœuds (« classes », « packages »)
+     * @param limit Nombre de cycles affichés
+     */
+    public void printSummary(String title, int limit) {
+        System.out.println(String.format("\nCycles de dépendances entre %s : %d (%d %s dans un cycle)",
+                title, cycles.size(), getNodesInCycles(), title));
+        for (Cycle cycle : cycles.subList(0, Math.min(limit, cycles.size()))) {
+            List<String> sorted = new ArrayList<>(cycle.getMembers());
+            Collections.sort(sorted);
+            String shown = String.join(", ", sorted.subList(0, Math.min(5, sorted.size())));
+            System.out.println(String.format("  poids %.4f, %d %s, %d arcs : %s%s", cycle.getWeight(), cycle.size(),
+                    title, cycle.getEdgeCount(), shown, sorted.size() > 5 ? ", ..." : ""));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.graph;
+
+/**
+ * Fonctions de hachage 64 bits partagées (signatures MinHash, clés du cache de rendu,
+ * empreintes des points de reprise). Elles ne dépendent que de leurs arguments et sont
+ * donc stables d'une exécution à l'autre.
+ */
+public final class Hashing {
+    private Hashing() {
+    }
+
+    /**
+     * Mélange des bits (finaliseur de SplitMix64)
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,404 @@
+package org.example.graph;
+
+import java.util.Arrays;
+
+/**
+ * Table de noms à préfixes partagés : les noms qualifiés (packages, classes, méthodes)
+ * sont rangés dans un arbre dont chaque nœud ne stocke que son dernier segment.
+ * « org.example.graph.CallGraph#addMethod(String,String) » occupe ainsi un nœud par
+ * segment, les trois premiers étant partagés avec les autres classes du package.
+ *
+ * Chaque segment distinct (« org », « addMethod », « (String,String) »...) n'existe qu'en
+ * un seul exemplaire : une méthode est un nœud « membre » qui référence le segment de
+ * son nom (le même que celui des appels vers cette méthode) et celui de sa liste de
+ * paramètres, partagée par toutes les méthodes de même profil (« () » en particulier).
+ *
+ * Les nœuds sont identifiés par des entiers et rangés dans des tableaux parallèles ;
+ * segments et enfants sont retrouvés par des tables à adressage ouvert, directement sur les
+ * caractères du nom qualifié : seuls les nouveaux segments et les nouveaux nœuds allouent.
+ * Le nom qualifié complet n'est jamais conservé ; il est construit à chaque demande.
+ * Les nœuds obtenus par {@link #internQualified(String)} (les classes) sont aussi indexés
+ * par le hachage de leur nom complet, ce qui les retrouve en une comparaison des segments
+ * avec le nom recherché au lieu d'un parcours de l'arbre.
+ *
+ * Non thread-safe : chaque graphe d'appels possède sa propre table.
+ */
+public final class NameTable {
+    /**
+     * Identifiant de la racine (nom vide)
+     */
+    public static final int ROOT = 0;
+
+    private static final int NONE = -1;
+
+    // Segments distincts ; table de hachage des identifiants de segments (-1 : case libre)
+    private String[] segments = new String[256];
+    private int segmentCount;
+    private int[] segmentSlots = newSlots(512);
+
+    // Nœuds : parent, segment, premier enfant et frère suivant ;
+    // liste de paramètres des membres (-1 pour un package ou une classe)
+    private int[] parents = new int[256];
+    private int[] nodeSegments = new int[256];
+    private int[] parameterSegments = new int[256];
+    private int[] firstChildren = new int[256];
+    private int[] nextSiblings = new int[256];
+    private int nodeCount;
+
+    // Table des enfants : clé (parent << 32 | segment + 1), 0 pour une case libre.
+    // Les surcharges d'une méthode partagent la même clé et se distinguent par leurs paramètres.
+    private long[] childKeys = new long[512];
+    private int[] childNodes = new int[512];
+    private int childCount;
+
+    // Index des noms qualifiés : hachage du nom complet (String.hashCode()) et nœud, -1 : case libre
+    private int[] qualifiedHashes = new int[256];
+    private int[] qualifiedSlots = newSlots(256);
+    private int qualifiedCount;
+
+    public NameTable() {
+        parents[ROOT] = NONE;
+        nodeSegments[ROOT] = segmentId("");
+        parameterSegments[ROOT] = NONE;
+        firstChildren[ROOT] = NONE;
+        nextSiblings[ROOT] = NONE;
+        nodeCount = 1;
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, NONE);
+        return slots;
+    }
+
+    /**
+     * Exemplaire unique d'un segment
+     */
+    public String intern(String segment) {
+        // L'identifiant est obtenu avant de lire le tableau, qui peut être agrandi
+        int id = segmentId(segment);
+        return segments[id];
+    }
+
+    private int segmentId(String segment) {
+        return segmentId(segment, 0, segment.length());
+    }
+
+    /**
+     * Identifiant du segment name[start, end), créé au besoin ; seule la création extrait
+     * le segment du nom
+     */
+    private int segmentId(String name, int start, int end) {
+        int mask = segmentSlots.length - 1;
+        int slot = mix(hash(name, start, end)) & mask;
+        int id;
+        while ((id = segmentSlots[slot]) != NONE) {
+            if (matches(id, name, start, end)) return id;
+            slot = (slot + 1) & mask;
+        }
+        if (segmentCount == segments.length) {
+            segments = Arrays.copyOf(segments, segmentCount * 2);
+        }
+        id = segmentCount++;
+        segments[id] = start == 0 && end == name.length() ? name : name.substring(start, end);
+        segmentSlots[slot] = id;
+        if (segmentCount * 2 > segmentSlots.length) {
+            int[] slots = newSlots(segmentSlots.length * 2);
+            for (int i = 0; i < segmentCount; i++) {
+                int s = mix(segments[i].hashCode()) & (slots.length - 1);
+                while (slots[s] != NONE) s = (s + 1) & (slots.length - 1);
+                slots[s] = i;
+            }
+            segmentSlots = slots;
+        }
+        return id;
+    }
+
+    /**
+     * Identifiant du segment name[start, end) s'il existe, -1 sinon
+     */
+    private int findSegment(String name, int start, int end) {
+        int mask = segmentSlots.length - 1;
+        int slot = mix(hash(name, start, end)) & mask;
+        int id;
+        while ((id = segmentSlots[slot]) != NONE) {
+            if (matches(id, name, start, end)) return id;
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    /**
+     * Hachage de name[start, end), identique à String.hashCode() du segment extrait
+     */
+    private static int hash(String name, int start, int end) {
+        if (start == 0 && end == name.length()) return name.hashCode();
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+        return hash;
+    }
+
+    private boolean matches(int id, String name, int start, int end) {
+        String segment = segments[id];
+        return segment.length() == end - start && segment.regionMatches(0, name, start, end - start);
+    }
+
+    private static int mix(int hash) {
+        return hash * 0x9E3779B9 ^ (hash >>> 16);
+    }
+
+    /**
+     * Nœud d'un nom qualifié par des points (« org.example.graph.CallGraph »), créé au besoin
+     */
+    public int internQualified(String qualifiedName) {
+        int indexed = findIndexed(qualifiedName);
+        if (indexed != NONE) return indexed;
+
+        int node = ROOT;
+        int start = 0;
+        int length = qualifiedName.length();
+        while (start < length) {
+            int dot = qualifiedName.indexOf('.', start);
+            int end = dot < 0 ? length : dot;
+            node = child(node, segmentId(qualifiedName, start, end), NONE);
+            start = end + 1;
+        }
+        index(qualifiedName.hashCode(), node);
+        return node;
+    }
+
+    /**
+     * Nœud indexé dont le nom complet est qualifiedName, -1 s'il n'y en a pas
+     */
+    private int findIndexed(String qualifiedName) {
+        int hash = qualifiedName.hashCode();
+        int mask = qualifiedSlots.length - 1;
+        int slot = mix(hash) & mask;
+        int node;
+        while ((node = qualifiedSlots[slot]) != NONE) {
+            if (qualifiedHashes[slot] == hash && nameEquals(node, qualifiedName)) return node;
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    private void index(int hash, int node) {
+        int mask = qualifiedSlots.length - 1;
+        int slot = mix(hash) & mask;
+        while (qualifiedSlots[slot] != NONE) {
+            if (qualifiedSlots[slot] == node) return;
+            slot = (slot + 1) & mask;
+        }
+        qualifiedSlots[slot] = node;
+        qualifiedHashes[slot] = hash;
+        if (++qualifiedCount * 2 > qualifiedSlots.length) {
+            int[] oldSlots = qualifiedSlots;
+            int[] oldHashes = qualifiedHashes;
+            qualifiedSlots = newSlots(oldSlots.length * 2);
+            qualifiedHashes = new int[oldSlots.length * 2];
+            mask = qualifiedSlots.length - 1;
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] != NONE) {
+                    int s = mix(oldHashes[i]) & mask;
+                    while (qualifiedSlots[s] != NONE) s = (s + 1) & mask;
+                    qualifiedSlots[s] = oldSlots[i];
+                    qualifiedHashes[s] = oldHashes[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare le nom d'un nœud (hors membres) à un nom qualifié, segment par segment depuis la fin
+     */
+    private boolean nameEquals(int node, String qualifiedName) {
+        int end = qualifiedName.length();
+        for (int n = node; n != ROOT; n = parents[n]) {
+            String segment = segment(n);
+            int start = end - segment.length();
+            if (start < 0 || !qualifiedName.regionMatches(start, segment, 0, segment.length())) return false;
+            if (parents[n] != ROOT) {
+                if (start == 0 || qualifiedName.charAt(start - 1) != '.') return false;
+                start--;
+            }
+            end = start;
+        }
+        return end == 0;
+    }
+
+    /**
+     * Nœud d'une méthode d'une classe, créé au besoin
+     * @param classNode Nœud de la classe
+     * @param methodName Nom de la méthode
+     * @param parameterList Liste des types des paramètres, par exemple « (String,int) »
+     */
+    public int internMember(int classNode, String methodName, String parameterList) {
+        return child(classNode, segmentId(methodName), segmentId(parameterList));
+    }
+
+    private int child(int parent, int segmentId, int parameterSegment) {
+        long key = ((long) parent << 32) | (segmentId + 1L);
+        int mask = childKeys.length - 1;
+        int slot = mix(Long.hashCode(key)) & mask;
+        while (childKeys[slot] != 0) {
+            if (childKeys[slot] == key && parameterSegments[childNodes[slot]] == parameterSegment) {
+                return childNodes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int node = addNode(parent, segmentId, parameterSegment);
+        childKeys[slot] = key;
+        childNodes[slot] = node;
+        if (++childCount * 2 > childKeys.length) {
+            resizeChildTable();
+        }
+        return node;
+    }
+
+    /**
+     * Nœud d'un nom qualifié par des points s'il existe, -1 sinon (aucune création)
+     */
+    public int findQualified(String qualifiedName) {
+        int indexed = findIndexed(qualifiedName);
+        if (indexed != NONE) return indexed;
+
+        int node = ROOT;
+        int start = 0;
+        int length = qualifiedName.length();
+        while (start < length) {
+            int dot = qualifiedName.indexOf('.', start);
+            int end = dot < 0 ? length : dot;
+            int segmentId = findSegment(qualifiedName, start, end);
+            if (segmentId == NONE) return NONE;
+            node = findChild(node, segmentId);
+            if (node == NONE) return NONE;
+            start = end + 1;
+        }
+        return node;
+    }
+
+    private int findChild(int parent, int segmentId) {
+        long key = ((long) parent << 32) | (segmentId + 1L);
+        int mask = childKeys.length - 1;
+        int slot = mix(Long.hashCode(key)) & mask;
+        while (childKeys[slot] != 0) {
+            if (childKeys[slot] == key && parameterSegments[childNodes[slot]] == NONE) {
+                return childNodes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    private void resizeChildTable() {
+        long[] oldKeys = childKeys;
+        int[] oldNodes = childNodes;
+        childKeys = new long[oldKeys.length * 2];
+        childNodes = new int[oldKeys.length * 2];
+        int mask = childKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = mix(Long.hashCode(oldKeys[i])) & mask;
+                while (childKeys[slot] != 0) slot = (slot + 1) & mask;
+                childKeys[slot] = oldKeys[i];
+                childNodes[slot] = oldNodes[i];
+            }
+        }
+    }
+
+    private int addNode(int parent, int segmentId, int parameterSegment) {
+        if (nodeCount == parents.length) {
+            int capacity = nodeCount * 2;
+            parents = Arrays.copyOf(parents, capacity);
+            nodeSegments = Arrays.copyOf(nodeSegments, capacity);
+            parameterSegments = Arrays.copyOf(parameterSegments, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        }
+        int node = nodeCount++;
+        parents[node] = parent;
+        nodeSegments[node] = segmentId;
+        parameterSegments[node] = parameterSegment;
+        firstChildren[node] = NONE;
+        nextSiblings[node] = firstChildren[parent];
+        firstChildren[parent] = node;
+        return node;
+    }
+
+    public int parent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * Dernier segment du nom d'un nœud (nom simple de la classe ou de la méthode)
+     */
+    public String segment(int node) {
+        return segments[nodeSegments[node]];
+    }
+
+    /**
+     * Liste des paramètres d'une méthode, ou null pour un package ou une classe
+     */
+    public String parameterList(int node) {
+        return parameterSegments[node] == NONE ? null : segments[parameterSegments[node]];
+    }
+
+    public boolean isMember(int node) {
+        return parameterSegments[node] != NONE;
+    }
+
+    /**
+     * Premier enfant d'un nœud (-1 s'il n'en a pas) ; les suivants via {@link #nextSibling(int)}
+     */
+    public int firstChild(int node) {
+        return firstChildren[node];
+    }
+
+    public int nextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    /**
+     * Nombre de nœuds (racine comprise)
+     */
+    public int size() {
+        return nodeCount;
+    }
+
+    /**
+     * Nombre de segments distincts
+     */
+    public int segmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * Nom qualifié d'un nœud (« org.example.graph.CallGraph », « ...CallGraph#addClass(String) »),
+     * construit à chaque appel
+     */
+    public String qualifiedName(int node) {
+        if (node == ROOT) return "";
+        int depth = 0;
+        int length = -1;
+        for (int n = node; n != ROOT; n = parents[n]) {
+            length += segment(n).length() + 1;
+            if (isMember(n)) length += parameterList(n).length();
+            depth++;
+        }
+        // Segments de la racine vers le nœud
+        int[] path = new int[depth];
+        for (int n = node; n != ROOT; n = parents[n]) {
+            path[--depth] = n;
+        }
+        StringBuilder name = new StringBuilder(length);
+        for (int i = 0; i < path.length; i++) {
+            if (i > 0) name.append(isMember(path[i]) ? '#' : '.');
+            name.append(segment(path[i]));
+            if (isMember(path[i])) name.append(parameterList(path[i]));
+        }
+        return name.toString();
+    }
+}
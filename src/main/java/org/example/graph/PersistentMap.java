@@ -0,0 +1,384 @@
+package org.example.graph;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Map immuable et persistante (trie de hachage à tables de bits, HAMT) : chaque modification
+ * renvoie une nouvelle map qui partage avec l'ancienne tous les nœuds non touchés. Un ajout
+ * ou une suppression ne recopie que le chemin de la racine à l'entrée concernée (au plus
+ * sept nœuds de 32 branches), si bien que de nombreuses versions successives d'une même
+ * map n'occupent guère plus de place qu'une seule.
+ *
+ * Le partage profite aussi à la comparaison de deux versions : {@link #diff} ignore les
+ * sous-arbres identiques (même référence) et ne parcourt que les parties modifiées.
+ *
+ * Les clés et les valeurs ne doivent pas être null. Thread-safe, puisque immuable.
+ */
+public final class PersistentMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Réception des différences entre deux versions
+     */
+    public interface DiffVisitor<K, V> {
+        /**
+         * @param key Clé ajoutée, retirée ou dont la valeur a changé
+         * @param oldValue Valeur dans l'ancienne version (null si la clé est ajoutée)
+         * @param newValue Valeur dans la nouvelle version (null si la clé est retirée)
+         */
+        void visit(K key, V oldValue, V newValue);
+    }
+
+    /**
+     * Feuille : une entrée
+     */
+    private static final class Leaf {
+        final int hash;
+        final Object key;
+        final Object value;
+
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Entrées dont les clés ont le même hachage complet
+     */
+    private static final class Collision {
+        final int hash;
+        final Leaf[] leaves;
+
+        Collision(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+    }
+
+    /**
+     * Nœud interne : un bit par branche occupée ; chaque enfant est une feuille,
+     * une collision ou un nœud interne
+     */
+    private static final class Node {
+        final int bitmap;
+        final Object[] children;
+
+        Node(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+    private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+    @SuppressWarnings("rawtypes")
+    private static final PersistentMap EMPTY = new PersistentMap<>(EMPTY_NODE, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    public V getOrDefault(K key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * @return La valeur associée à la clé, ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int hash = hash(key);
+        Object current = root;
+        for (int shift = 0; ; shift += BITS) {
+            Node node = (Node) current;
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) return null;
+            Object child = node.children[node.index(bit)];
+            if (child instanceof Leaf) {
+                Leaf leaf = (Leaf) child;
+                return leaf.hash == hash && leaf.key.equals(key) ? (V) leaf.value : null;
+            }
+            if (child instanceof Collision) {
+                Collision collision = (Collision) child;
+                if (collision.hash != hash) return null;
+                for (Leaf leaf : collision.leaves) {
+                    if (leaf.key.equals(key)) return (V) leaf.value;
+                }
+                return null;
+            }
+            current = child;
+        }
+    }
+
+    /**
+     * @return Une map où la clé est associée à la valeur (this si l'association existe déjà)
+     */
+    public PersistentMap<K, V> plus(K key, V value) {
+        Objects.requireNonNull(value);
+        int hash = hash(key);
+        boolean[] added = new boolean[1];
+        Node newRoot = (Node) put(root, 0, new Leaf(hash, key, value), added);
+        if (newRoot == root) return this;
+        return new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @return Une map sans la clé (this si elle est absente)
+     */
+    public PersistentMap<K, V> minus(K key) {
+        int hash = hash(key);
+        Object newRoot = remove(root, 0, hash, key);
+        if (newRoot == root) return this;
+        return new PersistentMap<>(newRoot == null ? EMPTY_NODE : asRoot(newRoot), size - 1);
+    }
+
+    /**
+     * La racine reste un nœud interne, même lorsqu'il ne lui reste qu'une entrée
+     */
+    private static Node asRoot(Object child) {
+        if (child instanceof Node) return (Node) child;
+        int hash = child instanceof Leaf ? ((Leaf) child).hash : ((Collision) child).hash;
+        return new Node(1 << (hash & MASK), new Object[]{child});
+    }
+
+    private static Object put(Object current, int shift, Leaf leaf, boolean[] added) {
+        Node node = (Node) current;
+        int bit = 1 << ((leaf.hash >>> shift) & MASK);
+        int index = node.index(bit);
+        if ((node.bitmap & bit) == 0) {
+            added[0] = true;
+            Object[] children = new Object[node.children.length + 1];
+            System.arraycopy(node.children, 0, children, 0, index);
+            children[index] = leaf;
+            System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+            return new Node(node.bitmap | bit, children);
+        }
+        Object child = node.children[index];
+        Object newChild;
+        if (child instanceof Node) {
+            newChild = put(child, shift + BITS, leaf, added);
+        } else if (child instanceof Leaf) {
+            Leaf existing = (Leaf) child;
+            if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+                newChild = existing.value.equals(leaf.value) ? existing : leaf;
+            } else {
+                added[0] = true;
+                newChild = join(shift + BITS, existing, leaf);
+            }
+        } else {
+            newChild = putInCollision((Collision) child, shift + BITS, leaf, added);
+        }
+        if (newChild == child) return node;
+        Object[] children = node.children.clone();
+        children[index] = newChild;
+        return new Node(node.bitmap, children);
+    }
+
+    private static Object putInCollision(Collision collision, int shift, Leaf leaf, boolean[] added) {
+        if (collision.hash != leaf.hash) {
+            added[0] = true;
+            return join(shift, collision, leaf);
+        }
+        Leaf[] leaves = collision.leaves;
+        for (int i = 0; i < leaves.length; i++) {
+            if (leaves[i].key.equals(leaf.key)) {
+                if (leaves[i].value.equals(leaf.value)) return collision;
+                Leaf[] copy = leaves.clone();
+                copy[i] = leaf;
+                return new Collision(leaf.hash, copy);
+            }
+        }
+        added[0] = true;
+        Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+        copy[leaves.length] = leaf;
+        return new Collision(leaf.hash, copy);
+    }
+
+    /**
+     * Sous-arbre contenant une feuille ou une collision existante et une nouvelle feuille
+     * de hachage différent (ou identique : collision)
+     */
+    private static Object join(int shift, Object existing, Leaf leaf) {
+        int existingHash = existing instanceof Leaf ? ((Leaf) existing).hash : ((Collision) existing).hash;
+        if (existingHash == leaf.hash) {
+            return new Collision(leaf.hash, new Leaf[]{(Leaf) existing, leaf});
+        }
+        if (shift >= Integer.SIZE) {
+            // Inaccessible : deux hachages différents divergent avant d'épuiser les bits
+            throw new IllegalStateException("profondeur de trie dépassée");
+        }
+        int existingFragment = (existingHash >>> shift) & MASK;
+        int leafFragment = (leaf.hash >>> shift) & MASK;
+        if (existingFragment == leafFragment) {
+            return new Node(1 << leafFragment, new Object[]{join(shift + BITS, existing, leaf)});
+        }
+        Object[] children = existingFragment < leafFragment
+                ? new Object[]{existing, leaf} : new Object[]{leaf, existing};
+        return new Node((1 << existingFragment) | (1 << leafFragment), children);
+    }
+
+    /**
+     * @return Le sous-arbre sans la clé : le même objet si elle est absente, null s'il devient vide,
+     * ou l'unique feuille restante (remontée dans le parent)
+     */
+    private static Object remove(Object current, int shift, int hash, Object key) {
+        Node node = (Node) current;
+        int bit = 1 << ((hash >>> shift) & MASK);
+        if ((node.bitmap & bit) == 0) return node;
+        int index = node.index(bit);
+        Object child = node.children[index];
+        Object newChild;
+        if (child instanceof Node) {
+            newChild = remove(child, shift + BITS, hash, key);
+        } else if (child instanceof Leaf) {
+            Leaf leaf = (Leaf) child;
+            newChild = leaf.hash == hash && leaf.key.equals(key) ? null : leaf;
+        } else {
+            newChild = removeFromCollision((Collision) child, hash, key);
+        }
+        if (newChild == child) return node;
+        if (newChild == null) {
+            if (node.children.length == 1) return null;
+            if (node.children.length == 2 && !(node.children[1 - index] instanceof Node)) {
+                return node.children[1 - index];
+            }
+            Object[] children = new Object[node.children.length - 1];
+            System.arraycopy(node.children, 0, children, 0, index);
+            System.arraycopy(node.children, index + 1, children, index, children.length - index);
+            return new Node(node.bitmap & ~bit, children);
+        }
+        if (node.children.length == 1 && !(newChild instanceof Node)) return newChild;
+        Object[] children = node.children.clone();
+        children[index] = newChild;
+        return new Node(node.bitmap, children);
+    }
+
+    private static Object removeFromCollision(Collision collision, int hash, Object key) {
+        if (collision.hash != hash) return collision;
+        Leaf[] leaves = collision.leaves;
+        for (int i = 0; i < leaves.length; i++) {
+            if (leaves[i].key.equals(key)) {
+                if (leaves.length == 2) return leaves[1 - i];
+                Leaf[] copy = new Leaf[leaves.length - 1];
+                System.arraycopy(leaves, 0, copy, 0, i);
+                System.arraycopy(leaves, i + 1, copy, i, copy.length - i);
+                return new Collision(hash, copy);
+            }
+        }
+        return collision;
+    }
+
+    /**
+     * Parcourt toutes les entrées (ordre non spécifié)
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        visit(root, action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void visit(Object current, BiConsumer<? super K, ? super V> action) {
+        if (current instanceof Leaf) {
+            Leaf leaf = (Leaf) current;
+            action.accept((K) leaf.key, (V) leaf.value);
+        } else if (current instanceof Collision) {
+            for (Leaf leaf : ((Collision) current).leaves) {
+                action.accept((K) leaf.key, (V) leaf.value);
+            }
+        } else {
+            for (Object child : ((Node) current).children) {
+                visit(child, action);
+            }
+        }
+    }
+
+    public Set<K> keySet() {
+        Set<K> keys = new HashSet<>(size * 2);
+        forEach((key, value) -> keys.add(key));
+        return keys;
+    }
+
+    /**
+     * Copie dans une HashMap ordinaire
+     */
+    public Map<K, V> toMap() {
+        Map<K, V> map = new HashMap<>(size * 2);
+        forEach(map::put);
+        return map;
+    }
+
+    /**
+     * Signale les différences de cette version (nouvelle) par rapport à une autre (ancienne).
+     * Les sous-arbres partagés par les deux versions ne sont pas parcourus : le coût est
+     * proportionnel à la taille des modifications, pas à celle des maps.
+     */
+    public void diff(PersistentMap<K, V> previous, DiffVisitor<K, V> visitor) {
+        diffNodes(previous.root, root, 0, visitor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void diffNodes(Object before, Object after, int shift, DiffVisitor<K, V> visitor) {
+        if (before == after) return;
+        if (before instanceof Node && after instanceof Node) {
+            Node oldNode = (Node) before;
+            Node newNode = (Node) after;
+            int bits = oldNode.bitmap | newNode.bitmap;
+            while (bits != 0) {
+                int bit = Integer.lowestOneBit(bits);
+                bits &= bits - 1;
+                Object oldChild = (oldNode.bitmap & bit) != 0 ? oldNode.children[oldNode.index(bit)] : null;
+                Object newChild = (newNode.bitmap & bit) != 0 ? newNode.children[newNode.index(bit)] : null;
+                diffNodes(oldChild, newChild, shift + BITS, visitor);
+            }
+            return;
+        }
+        // Structures différentes (feuille contre nœud, absence...) : comparaison par les entrées,
+        // limitée à ce petit sous-arbre
+        Map<Object, Object> oldEntries = new HashMap<>();
+        if (before != null) visit(before, oldEntries::put);
+        if (after != null) {
+            visit(after, (key, value) -> {
+                Object oldValue = oldEntries.remove(key);
+                if (oldValue == null || (oldValue != value && !oldValue.equals(value))) {
+                    visitor.visit(key, (V) oldValue, value);
+                }
+            });
+        }
+        for (Map.Entry<Object, Object> removed : oldEntries.entrySet()) {
+            visitor.visit((K) removed.getKey(), (V) removed.getValue(), null);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.graph;
+
+import java.util.Arrays;
+
+/**
+ * Composantes fortement connexes d'un {@link ClassDependencyGraph} (algorithme de Tarjan).
+ *
+ * Le parcours en profondeur est itératif : la pile d'appels est remplacée par deux tableaux
+ * (nœud courant et prochain arc à examiner), si bien qu'une chaîne de dépendances de
+ * plusieurs centaines de milliers de classes ne peut pas épuiser la pile Java. Le coût est
+ * linéaire (chaque arc est examiné une fois) et la mémoire se limite à quelques tableaux
+ * d'entiers de la taille du nombre de nœuds.
+ *
+ * Les composantes sont numérotées dans l'ordre où Tarjan les termine, qui est un ordre
+ * topologique inverse du graphe condensé : un arc entre deux composantes distinctes va
+ * toujours d'une composante vers une composante de numéro inférieur.
+ */
+public final class StronglyConnectedComponents {
+    private final int[] componentOf;
+    // Membres de la composante c : members[memberOffsets[c]] à members[memberOffsets[c + 1] - 1]
+    private final int[] memberOffsets;
+    private final int[] members;
+
+    /**
+     * Calcule les composantes du graphe
+     */
+    public StronglyConnectedComponents(ClassDependencyGraph graph) {
+        int n = graph.nodeCount();
+        componentOf = new int[n];
+        int[] index = new int[n];
+        int[] low = new int[n];
+        Arrays.fill(index, -1);
+        boolean[] onStack = new boolean[n];
+        // Pile de Tarjan (nœuds pas encore affectés) ; les nœuds d'une composante y sont contigus
+        int[] stack = new int[n];
+        int stackSize = 0;
+        // Pile du parcours : nœud et prochain arc à examiner
+        int[] path = new int[n];
+        int[] nextEdge = new int[n];
+        int pathSize = 0;
+        int counter = 0;
+        int componentCount = 0;
+        int[] offsets = new int[n + 1];
+        int[] ordered = new int[n];
+        int orderedCount = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0) continue;
+            index[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            path[pathSize] = root;
+            nextEdge[pathSize++] = graph.firstEdge(root);
+
+            while (pathSize > 0) {
+                int v = path[pathSize - 1];
+                int e = nextEdge[pathSize - 1];
+                if (e < graph.endEdge(v)) {
+                    nextEdge[pathSize - 1] = e + 1;
+                    int w = graph.target(e);
+                    if (index[w] < 0) {
+                        // « Appel récursif » sur w
+                        index[w] = low[w] = counter++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        path[pathSize] = w;
+                        nextEdge[pathSize++] = graph.firstEdge(w);
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                // Tous les arcs de v sont examinés : « retour » vers l'appelant
+                pathSize--;
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        componentOf[w] = componentCount;
+                        ordered[orderedCount++] = w;
+                    } while (w != v);
+                    offsets[++componentCount] = orderedCount;
+                }
+                if (pathSize > 0) {
+                    int parent = path[pathSize - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        memberOffsets = Arrays.copyOf(offsets, componentCount + 1);
+        members = ordered;
+    }
+
+    public int componentCount() {
+        return memberOffsets.length - 1;
+    }
+
+    /**
+     * Composante du nœud v
+     */
+    public int componentOf(int v) {
+        return componentOf[v];
+    }
+
+    /**
+     * Nombre de nœuds de la composante c
+     */
+    public int size(int c) {
+        return memberOffsets[c + 1] - memberOffsets[c];
+    }
+
+    /**
+     * i-ème nœud de la composante c (0 <= i < size(c))
+     */
+    public int member(int c, int i) {
+        return members[memberOffsets[c] + i];
+    }
+
+    /**
+     * Graphe condensé : un nœud par composante (nommé d'après le premier de ses membres dans
+     * l'ordre des noms), un arc entre deux composantes distinctes dont le poids est la somme
+     * des poids des arcs qui les relient. Ce graphe est acyclique.
+     * @param graph Le graphe dont les composantes ont été calculées
+     */
+    public ClassDependencyGraph condense(ClassDependencyGraph graph) {
+        int count = componentCount();
+        String[] names = new String[count];
+        for (int c = 0; c < count; c++) {
+            int first = member(c, 0);
+            for (int i = 1; i < size(c); i++) {
+                first = Math.min(first, member(c, i));
+            }
+            names[c] = graph.name(first);
+        }
+        int[] sources = new int[graph.edgeCount()];
+        int[] targets = new int[graph.edgeCount()];
+        double[] weights = new double[graph.edgeCount()];
+        int edgeCount = 0;
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                int from = componentOf[v];
+                int to = componentOf[graph.target(e)];
+                if (from != to) {
+                    sources[edgeCount] = from;
+                    targets[edgeCount] = to;
+                    weights[edgeCount] = graph.weight(e);
+                    edgeCount++;
+                }
+            }
+        }
+        return ClassDependencyGraph.fromEdges(names, sources, targets, weights, edgeCount);
+    }
+}
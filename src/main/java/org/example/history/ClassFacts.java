@@ -0,0 +1,82 @@
+package org.example.history;
+
+import java.util.*;
+
+/**
+ * Faits immuables d'une classe, extraits d'un fichier source : package, noms des méthodes
+ * définies et noms des méthodes appelées. Une même instance est partagée par toutes les
+ * révisions où le fichier n'a pas changé.
+ */
+public final class ClassFacts {
+    private final String name;
+    private final String packageName;
+    private final Set<String> methods;
+    private final Set<String> calledMethods;
+
+    public ClassFacts(String name, String packageName, Set<String> methods, Set<String> calledMethods) {
+        this.name = name;
+        this.packageName = packageName;
+        this.methods = Collections.unmodifiableSet(methods);
+        this.calledMethods = Collections.unmodifiableSet(calledMethods);
+    }
+
+    /**
+     * Réunion des faits d'une classe déclarée dans plusieurs fichiers (comme {@code CallGraph.merge})
+     */
+    static ClassFacts union(Collection<ClassFacts> declarations) {
+        Iterator<ClassFacts> iterator = declarations.iterator();
+        ClassFacts first = iterator.next();
+        if (!iterator.hasNext()) return first;
+        Set<String> methods = new HashSet<>(first.methods);
+        Set<String> calledMethods = new HashSet<>(first.calledMethods);
+        while (iterator.hasNext()) {
+            ClassFacts other = iterator.next();
+            methods.addAll(other.methods);
+            calledMethods.addAll(other.calledMethods);
+        }
+        return new ClassFacts(first.name, first.packageName, methods, calledMethods);
+    }
+
+    /**
+     * Nombre de relations de cette classe vers une autre : méthodes appelées ici et définies là-bas
+     */
+    int relationsTo(ClassFacts callee) {
+        Set<String> smaller = calledMethods.size() <= callee.methods.size() ? calledMethods : callee.methods;
+        Set<String> larger = smaller == calledMethods ? callee.methods : calledMethods;
+        int count = 0;
+        for (String method : smaller) {
+            if (larger.contains(method)) count++;
+        }
+        return count;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public Set<String> getMethods() {
+        return methods;
+    }
+
+    public Set<String> getCalledMethods() {
+        return calledMethods;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ClassFacts)) return false;
+        ClassFacts other = (ClassFacts) o;
+        return name.equals(other.name) && packageName.equals(other.packageName)
+                && methods.equals(other.methods) && calledMethods.equals(other.calledMethods);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, packageName, methods, calledMethods);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.history;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import org.example.graph.CallGraph;
+import org.example.monitoring.EventLog;
+import org.example.monitoring.MetricsRegistry;
+import org.example.parser.MethodCallCollector;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Faits d'un contenu de fichier source : les classes qu'il déclare. Ils ne dépendent que
+ * du contenu, identifié par son empreinte (identifiant de blob git) : un fichier inchangé
+ * d'une révision à l'autre, ou renommé, réutilise les mêmes faits sans nouvelle analyse.
+ */
+public final class FileFacts {
+    private final String contentHash;
+    private final List<ClassFacts> classes;
+
+    public FileFacts(String contentHash, List<ClassFacts> classes) {
+        this.contentHash = contentHash;
+        this.classes = Collections.unmodifiableList(classes);
+    }
+
+    /**
+     * Analyse le contenu d'un fichier
+     * @param parser Analyseur propre au thread appelant
+     * @param path Chemin du fichier (pour les messages d'erreur)
+     * @param contentHash Empreinte du contenu
+     * @param source Contenu du fichier
+     * @param names Noms déjà rencontrés, partagés entre fichiers et révisions (un exemplaire par nom)
+     */
+    public static FileFacts parse(JavaParser parser, String path, String contentHash, String source,
+                                  ConcurrentMap<String, String> names) {
+        long start = MetricsRegistry.getDefault().timer("history.parse").start();
+        CallGraph graph = new CallGraph();
+        ParseResult<CompilationUnit> result = parser.parse(source);
+        if (result.getResult().isPresent()) {
+            result.getResult().get().accept(new MethodCallCollector(graph), null);
+        } else {
+            MetricsRegistry.getDefault().counter("parse.errors").increment();
+            EventLog.error("Erreur lors de l'analyse de %s: %s", path, result.getProblems().toString());
+        }
+
+        List<ClassFacts> classes = new ArrayList<>();
+        for (String className : graph.getAllClasses()) {
+            classes.add(new ClassFacts(intern(names, className), intern(names, graph.getClassPackage(className)),
+                    internAll(names, graph.getClassMethods(className)),
+                    internAll(names, graph.getCalledMethods(className))));
+        }
+        MetricsRegistry.getDefault().timer("history.parse").stop(start);
+        return new FileFacts(contentHash, classes);
+    }
+
+    private static String intern(ConcurrentMap<String, String> names, String name) {
+        String existing = names.putIfAbsent(name, name);
+        return existing != null ? existing : name;
+    }
+
+    private static Set<String> internAll(ConcurrentMap<String, String> names, Set<String> values) {
+        Set<String> result = new HashSet<>(values.size() * 2);
+        for (String value : values) {
+            result.add(intern(names, value));
+        }
+        return result;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public List<ClassFacts> getClasses() {
+        return classes;
+    }
+}
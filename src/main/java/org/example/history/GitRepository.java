@@ -0,0 +1,168 @@
+package org.example.history;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accès en lecture à un dépôt git local, par la commande git : liste des révisions,
+ * arborescence d'une révision (avec l'identifiant de blob de chaque fichier, qui est une
+ * empreinte de son contenu) et lecture des contenus. Aucune copie de travail n'est extraite.
+ */
+public class GitRepository implements Closeable {
+    private final File directory;
+    // Processus « git cat-file --batch » ouvert à la première lecture de contenu
+    private Process catFile;
+    private OutputStream catFileInput;
+    private BufferedInputStream catFileOutput;
+
+    /**
+     * Fichier d'une révision
+     */
+    public static final class Entry {
+        public final String path;
+        public final String blobId;
+
+        Entry(String path, String blobId) {
+            this.path = path;
+            this.blobId = blobId;
+        }
+    }
+
+    public GitRepository(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Identifiants complets de révisions données par nom (branche, étiquette, hash abrégé...)
+     */
+    public List<String> resolve(List<String> names) throws IOException {
+        List<String> revisions = new ArrayList<>();
+        for (String name : names) {
+            revisions.add(run("rev-parse", "--verify", name + "^{commit}").get(0));
+        }
+        return revisions;
+    }
+
+    /**
+     * Les n dernières révisions de la branche courante (premier parent), de la plus ancienne à la plus récente
+     */
+    public List<String> lastCommits(int count) throws IOException {
+        List<String> revisions = run("rev-list", "--first-parent", "--max-count=" + count, "HEAD");
+        Collections.reverse(revisions);
+        return revisions;
+    }
+
+    /**
+     * Les n dernières étiquettes (versions publiées) par date de création, de la plus ancienne à la plus récente
+     */
+    public List<String> lastTags(int count) throws IOException {
+        List<String> tags = run("tag", "--sort=creatordate");
+        return tags.subList(Math.max(tags.size() - count, 0), tags.size());
+    }
+
+    /**
+     * Fichiers Java d'une révision
+     * @param revision Révision
+     * @param subdirectory Sous-répertoire analysé (null : tout le dépôt)
+     */
+    public List<Entry> listJavaFiles(String revision, String subdirectory) throws IOException {
+        List<String> command = new ArrayList<>(Arrays.asList("ls-tree", "-r", "--full-tree", revision));
+        if (subdirectory != null) {
+            command.add("--");
+            command.add(subdirectory);
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (String line : run(command.toArray(new String[0]))) {
+            // « <mode> <type> <blob>\t<chemin> »
+            int tab = line.indexOf('\t');
+            String[] fields = line.substring(0, tab).split(" ");
+            String path = line.substring(tab + 1);
+            if (fields[1].equals("blob") && path.endsWith(".java")) {
+                entries.add(new Entry(path, fields[2]));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Contenu d'un blob, lu par un unique processus git ouvert pour toute l'analyse
+     */
+    public synchronized String readBlob(String blobId) throws IOException {
+        if (catFile == null) {
+            catFile = new ProcessBuilder("git", "cat-file", "--batch").directory(directory)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            catFileInput = catFile.getOutputStream();
+            catFileOutput = new BufferedInputStream(catFile.getInputStream());
+        }
+        catFileInput.write((blobId + "\n").getBytes(StandardCharsets.US_ASCII));
+        catFileInput.flush();
+        // En-tête « <blob> blob <taille> » puis le contenu et un saut de ligne
+        String header = readLine(catFileOutput);
+        String[] fields = header.split(" ");
+        if (fields.length < 3) {
+            throw new IOException("blob introuvable : " + header);
+        }
+        int size = Integer.parseInt(fields[2]);
+        byte[] content = catFileOutput.readNBytes(size);
+        if (content.length < size || catFileOutput.read() != '\n') {
+            throw new IOException("lecture incomplète du blob " + blobId);
+        }
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            line.write(c);
+        }
+        if (c == -1) throw new EOFException("git cat-file s'est arrêté");
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<String> run(String... arguments) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        // Chemins non ASCII en clair plutôt qu'échappés
+        command.add("-c");
+        command.add("core.quotePath=false");
+        command.addAll(Arrays.asList(arguments));
+        Process process = new ProcessBuilder(command).directory(directory)
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) lines.add(line);
+            }
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("échec de git " + String.join(" ", arguments));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("git interrompu", e);
+        }
+        return lines;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (catFile != null) {
+            try {
+                catFileInput.close();
+                catFile.waitFor(5, TimeUnit.SECONDS);
+            } catch (IOException e) {
+                // Le processus est détruit ci-dessous
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catFile.destroy();
+            catFile = null;
+        }
+    }
+}
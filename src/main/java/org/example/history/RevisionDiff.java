@@ -0,0 +1,268 @@
+package org.example.history;
+
+import org.example.export.JsonWriter;
+import org.example.graph.Pair;
+import org.example.graph.PersistentMap;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Résultat de l'analyse d'une révision et différences avec la révision précédente :
+ * classes ajoutées, retirées ou modifiées, paires de classes dont le couplage a changé,
+ * et évolution des modules.
+ *
+ * Les différences de classes et de couplage sont obtenues en comparant les structures
+ * persistantes des deux révisions : seules les parties non partagées sont parcourues.
+ * Les modules sont appariés par recouvrement maximal ; une classe a changé de module
+ * lorsque son ancien module n'est pas celui apparié à son nouveau module.
+ */
+public class RevisionDiff {
+    /**
+     * Évolution du couplage d'une paire de classes
+     */
+    public static final class CouplingChange {
+        public final String from;
+        public final String to;
+        public final double before;
+        public final double after;
+
+        CouplingChange(String from, String to, double before, double after) {
+            this.from = from;
+            this.to = to;
+            this.before = before;
+            this.after = after;
+        }
+    }
+
+    /**
+     * Classe passée d'un module à un autre. Les deux indices désignent des modules de la révision
+     * précédente : celui qui contenait la classe et celui que prolonge son module actuel.
+     */
+    public static final class ModuleMove {
+        public final String className;
+        public final int fromModule;
+        public final int toModule;
+
+        ModuleMove(String className, int fromModule, int toModule) {
+            this.className = className;
+            this.fromModule = fromModule;
+            this.toModule = toModule;
+        }
+    }
+
+    private final String revision;
+    private final String previousRevision;
+    private final int fileCount;
+    private final int classCount;
+    private final long totalRelations;
+    private final int changedFiles;
+    private final int parsedFiles;
+    private final List<String> addedClasses = new ArrayList<>();
+    private final List<String> removedClasses = new ArrayList<>();
+    private final List<String> modifiedClasses = new ArrayList<>();
+    private final List<CouplingChange> couplingChanges = new ArrayList<>();
+    private final List<Set<String>> modules;
+    private final List<ModuleMove> moves = new ArrayList<>();
+    private int stableModules;
+    private int newModules;
+    private int vanishedModules;
+
+    /**
+     * @param previous Graphe de la révision précédente (vide pour la première)
+     * @param current Graphe de la révision analysée
+     * @param previousModules Modules de la révision précédente
+     * @param modules Modules de la révision analysée
+     * @param changedFiles Nombre de fichiers ajoutés, modifiés ou supprimés
+     * @param parsedFiles Nombre de contenus analysés (les autres ont été réutilisés)
+     */
+    public RevisionDiff(RevisionGraph previous, RevisionGraph current, List<Set<String>> previousModules,
+                        List<Set<String>> modules, int changedFiles, int parsedFiles) {
+        this.revision = current.getRevision();
+        this.previousRevision = previous.getRevision();
+        this.fileCount = current.getFiles().size();
+        this.classCount = current.getClassCount();
+        this.totalRelations = current.getTotalRelations();
+        this.changedFiles = changedFiles;
+        this.parsedFiles = parsedFiles;
+        this.modules = modules;
+
+        current.getDeclarations().diff(previous.getDeclarations(), (className, before, after) -> {
+            if (before == null) addedClasses.add(className);
+            else if (after == null) removedClasses.add(className);
+            else if (!Objects.equals(previous.getClassFacts(className), current.getClassFacts(className))) {
+                modifiedClasses.add(className);
+            }
+        });
+        Collections.sort(addedClasses);
+        Collections.sort(removedClasses);
+        Collections.sort(modifiedClasses);
+
+        // Paires dont le nombre de relations a changé ; le total ayant pu changer, le couplage
+        // normalisé des autres paires varie aussi, mais proportionnellement
+        current.getRelations().diff(previous.getRelations(), (pair, before, after) ->
+                couplingChanges.add(new CouplingChange(pair.getFirst(), pair.getSecond(),
+                        previous.normalizedCoupling(pair), current.normalizedCoupling(pair))));
+        couplingChanges.sort(Comparator.comparingDouble((CouplingChange c) -> -Math.abs(c.after - c.before))
+                .thenComparing(c -> c.from).thenComparing(c -> c.to));
+
+        compareModules(previousModules, modules);
+    }
+
+    private void compareModules(List<Set<String>> previousModules, List<Set<String>> currentModules) {
+        Map<String, Integer> previousModuleOf = new HashMap<>();
+        for (int i = 0; i < previousModules.size(); i++) {
+            for (String className : previousModules.get(i)) {
+                previousModuleOf.put(className, i);
+            }
+        }
+        // Appariement : module précédent qui partage le plus de classes (le premier en cas d'égalité)
+        int[] match = new int[currentModules.size()];
+        boolean[] matched = new boolean[previousModules.size()];
+        for (int i = 0; i < currentModules.size(); i++) {
+            Map<Integer, Integer> overlap = new HashMap<>();
+            for (String className : currentModules.get(i)) {
+                Integer previousModule = previousModuleOf.get(className);
+                if (previousModule != null) overlap.merge(previousModule, 1, Integer::sum);
+            }
+            match[i] = -1;
+            int best = 0;
+            for (Map.Entry<Integer, Integer> entry : overlap.entrySet()) {
+                if (entry.getValue() > best || (entry.getValue() == best && entry.getKey() < match[i])) {
+                    best = entry.getValue();
+                    match[i] = entry.getKey();
+                }
+            }
+            if (match[i] < 0) {
+                newModules++;
+                continue;
+            }
+            matched[match[i]] = true;
+            if (previousModules.get(match[i]).equals(currentModules.get(i))) stableModules++;
+            for (String className : currentModules.get(i)) {
+                Integer previousModule = previousModuleOf.get(className);
+                if (previousModule != null && previousModule != match[i]) {
+                    // Le module d'arrivée est désigné par le module précédent qu'il prolonge
+                    moves.add(new ModuleMove(className, previousModule, match[i]));
+                }
+            }
+        }
+        for (boolean wasMatched : matched) {
+            if (!wasMatched) vanishedModules++;
+        }
+        moves.sort(Comparator.comparing(move -> move.className));
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    public List<String> getAddedClasses() {
+        return addedClasses;
+    }
+
+    public List<String> getRemovedClasses() {
+        return removedClasses;
+    }
+
+    public List<String> getModifiedClasses() {
+        return modifiedClasses;
+    }
+
+    public List<CouplingChange> getCouplingChanges() {
+        return couplingChanges;
+    }
+
+    public List<Set<String>> getModules() {
+        return modules;
+    }
+
+    public List<ModuleMove> getModuleMoves() {
+        return moves;
+    }
+
+    public void print(int limit) {
+        System.out.println(String.format("\nRévision %s%s", shortId(revision),
+                previousRevision.isEmpty() ? "" : " (depuis " + shortId(previousRevision) + ")"));
+        System.out.println(String.format("  Fichiers : %d (%d modifiés, %d analysés), classes : %d, relations : %d",
+                fileCount, changedFiles, parsedFiles, classCount, totalRelations));
+        if (previousRevision.isEmpty()) {
+            System.out.println(String.format("  Modules : %d", modules.size()));
+            return;
+        }
+        System.out.println(String.format("  Classes : +%d -%d ~%d", addedClasses.size(), removedClasses.size(),
+                modifiedClasses.size()));
+        System.out.println(String.format("  Paires dont le couplage a changé : %d", couplingChanges.size()));
+        for (CouplingChange change : couplingChanges.subList(0, Math.min(limit, couplingChanges.size()))) {
+            System.out.println(String.format("    %s -> %s : %.4f -> %.4f", change.from, change.to,
+                    change.before, change.after));
+        }
+        System.out.println(String.format("  Modules : %d (%d inchangés, %d nouveaux, %d disparus), %d classes déplacées",
+                modules.size(), stableModules, newModules, vanishedModules, moves.size()));
+        for (ModuleMove move : moves.subList(0, Math.min(limit, moves.size()))) {
+            System.out.println(String.format("    %s : module %d -> %d", move.className, move.fromModule, move.toModule));
+        }
+    }
+
+    private static String shortId(String revision) {
+        return revision.length() > 10 ? revision.substring(0, 10) : revision;
+    }
+
+    public void writeJson(JsonWriter json, int limit) throws IOException {
+        json.beginObject();
+        json.name("revision").value(revision);
+        json.name("files").value(fileCount);
+        json.name("changedFiles").value(changedFiles);
+        json.name("parsedFiles").value(parsedFiles);
+        json.name("classes").value(classCount);
+        json.name("relations").value(totalRelations);
+        writeStrings(json, "addedClasses", addedClasses);
+        writeStrings(json, "removedClasses", removedClasses);
+        writeStrings(json, "modifiedClasses", modifiedClasses);
+        json.name("couplingChangeCount").value(couplingChanges.size());
+        json.name("couplingChanges").beginArray();
+        for (CouplingChange change : couplingChanges.subList(0, Math.min(limit, couplingChanges.size()))) {
+            json.beginObject();
+            json.name("from").value(change.from);
+            json.name("to").value(change.to);
+            json.name("before").value(change.before);
+            json.name("after").value(change.after);
+            json.endObject();
+        }
+        json.endArray();
+        json.name("modules").beginArray();
+        for (Set<String> module : modules) {
+            List<String> sorted = new ArrayList<>(module);
+            Collections.sort(sorted);
+            json.beginArray();
+            for (String className : sorted) {
+                json.value(className);
+            }
+            json.endArray();
+        }
+        json.endArray();
+        json.name("moduleDiff").beginObject();
+        json.name("stable").value(stableModules);
+        json.name("new").value(newModules);
+        json.name("vanished").value(vanishedModules);
+        json.name("moves").beginArray();
+        for (ModuleMove move : moves) {
+            json.beginObject();
+            json.name("class").value(move.className);
+            json.name("from").value(move.fromModule);
+            json.name("to").value(move.toModule);
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+        json.endObject();
+    }
+
+    private static void writeStrings(JsonWriter json, String name, List<String> values) throws IOException {
+        json.name(name).beginArray();
+        for (String value : values) {
+            json.value(value);
+        }
+        json.endArray();
+    }
+}
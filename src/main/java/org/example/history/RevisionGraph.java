@@ -0,0 +1,250 @@
+package org.example.history;
+
+import org.example.graph.Pair;
+import org.example.graph.PersistentMap;
+import org.example.metrics.ZeroFilledCoupling;
+import org.example.monitoring.MetricsRegistry;
+
+import java.util.*;
+
+/**
+ * Graphe d'appels et couplage d'une révision, sous forme persistante : chaque révision est
+ * dérivée de la précédente en ne remplaçant que les fichiers modifiés, et partage avec elle
+ * tout ce qui n'a pas changé (fichiers, classes, index, relations entre classes).
+ *
+ * Les relations sont comptées comme dans {@link org.example.metrics.CouplingMetrics} (attribution
+ * par nom) : de la classe A vers la classe B, le nombre de méthodes appelées par A et définies
+ * dans B. Seules les paires dont une classe a changé sont recomptées, grâce aux index
+ * méthode -> classes qui la définissent et méthode -> classes qui l'appellent.
+ */
+public final class RevisionGraph {
+    private static final PersistentMap<String, Boolean> NO_CLASSES = PersistentMap.empty();
+
+    private final String revision;
+    // Faits de chaque fichier source, par chemin
+    private final PersistentMap<String, FileFacts> files;
+    // Déclarations de chaque classe, par fichier (une classe peut être déclarée dans plusieurs fichiers)
+    private final PersistentMap<String, PersistentMap<String, ClassFacts>> declarations;
+    // Index : méthode -> classes qui la définissent, méthode -> classes qui l'appellent
+    private final PersistentMap<String, PersistentMap<String, Boolean>> definers;
+    private final PersistentMap<String, PersistentMap<String, Boolean>> callers;
+    // Nombre de relations de chaque paire reliée (classe appelante, classe appelée)
+    private final PersistentMap<Pair<String, String>, Integer> relations;
+    private final long totalRelations;
+
+    private RevisionGraph(String revision, PersistentMap<String, FileFacts> files,
+                          PersistentMap<String, PersistentMap<String, ClassFacts>> declarations,
+                          PersistentMap<String, PersistentMap<String, Boolean>> definers,
+                          PersistentMap<String, PersistentMap<String, Boolean>> callers,
+                          PersistentMap<Pair<String, String>, Integer> relations, long totalRelations) {
+        this.revision = revision;
+        this.files = files;
+        this.declarations = declarations;
+        this.definers = definers;
+        this.callers = callers;
+        this.relations = relations;
+        this.totalRelations = totalRelations;
+    }
+
+    /**
+     * Graphe vide, point de départ de la première révision
+     */
+    public static RevisionGraph empty() {
+        return new RevisionGraph("", PersistentMap.empty(), PersistentMap.empty(), PersistentMap.empty(),
+                PersistentMap.empty(), PersistentMap.empty(), 0);
+    }
+
+    /**
+     * Dérive le graphe d'une nouvelle révision
+     * @param newRevision Identifiant de la révision
+     * @param changedFiles Fichiers ajoutés ou modifiés (nouveaux faits) et supprimés (valeur null)
+     * @return Le nouveau graphe ; celui-ci reste inchangé
+     */
+    public RevisionGraph apply(String newRevision, Map<String, FileFacts> changedFiles) {
+        long start = MetricsRegistry.getDefault().timer("history.apply").start();
+        PersistentMap<String, FileFacts> newFiles = files;
+        PersistentMap<String, PersistentMap<String, ClassFacts>> newDeclarations = declarations;
+        Set<String> dirty = new HashSet<>();
+        for (Map.Entry<String, FileFacts> change : changedFiles.entrySet()) {
+            String path = change.getKey();
+            FileFacts oldFacts = files.get(path);
+            FileFacts newFacts = change.getValue();
+            if (oldFacts == newFacts) continue;
+            if (oldFacts != null) {
+                for (ClassFacts declaration : oldFacts.getClasses()) {
+                    dirty.add(declaration.getName());
+                    PersistentMap<String, ClassFacts> byFile =
+                            newDeclarations.get(declaration.getName()).minus(path);
+                    newDeclarations = byFile.isEmpty() ? newDeclarations.minus(declaration.getName())
+                            : newDeclarations.plus(declaration.getName(), byFile);
+                }
+            }
+            if (newFacts != null) {
+                for (ClassFacts declaration : newFacts.getClasses()) {
+                    dirty.add(declaration.getName());
+                    newDeclarations = newDeclarations.plus(declaration.getName(), newDeclarations
+                            .getOrDefault(declaration.getName(), PersistentMap.empty()).plus(path, declaration));
+                }
+                newFiles = newFiles.plus(path, newFacts);
+            } else {
+                newFiles = newFiles.minus(path);
+            }
+        }
+        // Une modification qui ne change ni les méthodes définies ni les appels (corps, commentaires)
+        // n'a aucun effet sur les relations
+        PersistentMap<String, PersistentMap<String, ClassFacts>> updatedDeclarations = newDeclarations;
+        dirty.removeIf(className ->
+                Objects.equals(factsOf(declarations, className), factsOf(updatedDeclarations, className)));
+
+        // 1. Retire les relations touchant une classe modifiée, comptées sur l'ancienne révision
+        PersistentMap<Pair<String, String>, Integer> newRelations = relations;
+        long total = totalRelations;
+        for (Pair<String, String> pair : pairsTouching(dirty, declarations, definers, callers)) {
+            Integer count = newRelations.get(pair);
+            if (count != null) {
+                newRelations = newRelations.minus(pair);
+                total -= count;
+            }
+        }
+
+        // 2. Met à jour les index des classes modifiées
+        PersistentMap<String, PersistentMap<String, Boolean>> newDefiners = definers;
+        PersistentMap<String, PersistentMap<String, Boolean>> newCallers = callers;
+        for (String className : dirty) {
+            ClassFacts before = factsOf(declarations, className);
+            ClassFacts after = factsOf(newDeclarations, className);
+            newDefiners = reindex(newDefiners, className,
+                    before == null ? Collections.emptySet() : before.getMethods(),
+                    after == null ? Collections.emptySet() : after.getMethods());
+            newCallers = reindex(newCallers, className,
+                    before == null ? Collections.emptySet() : before.getCalledMethods(),
+                    after == null ? Collections.emptySet() : after.getCalledMethods());
+        }
+
+        // 3. Recompte ces relations sur la nouvelle révision
+        for (Pair<String, String> pair : pairsTouching(dirty, newDeclarations, newDefiners, newCallers)) {
+            int count = factsOf(newDeclarations, pair.getFirst()).relationsTo(factsOf(newDeclarations, pair.getSecond()));
+            if (count > 0) {
+                newRelations = newRelations.plus(pair, count);
+                total += count;
+            }
+        }
+
+        MetricsRegistry.getDefault().counter("history.dirty.classes").add(dirty.size());
+        MetricsRegistry.getDefault().timer("history.apply").stop(start);
+        return new RevisionGraph(newRevision, newFiles, newDeclarations, newDefiners, newCallers, newRelations, total);
+    }
+
+    /**
+     * Paires (appelante, appelée) entre classes distinctes pouvant être reliées, dont l'une est modifiée
+     */
+    private static Set<Pair<String, String>> pairsTouching(
+            Set<String> dirty, PersistentMap<String, PersistentMap<String, ClassFacts>> declarations,
+            PersistentMap<String, PersistentMap<String, Boolean>> definers,
+            PersistentMap<String, PersistentMap<String, Boolean>> callers) {
+        Set<Pair<String, String>> pairs = new HashSet<>();
+        for (String className : dirty) {
+            ClassFacts facts = factsOf(declarations, className);
+            if (facts == null) continue;
+            for (String method : facts.getCalledMethods()) {
+                definers.getOrDefault(method, NO_CLASSES).forEach((callee, present) -> {
+                    if (!callee.equals(className)) pairs.add(new Pair<>(className, callee));
+                });
+            }
+            for (String method : facts.getMethods()) {
+                callers.getOrDefault(method, NO_CLASSES).forEach((caller, present) -> {
+                    if (!caller.equals(className)) pairs.add(new Pair<>(caller, className));
+                });
+            }
+        }
+        return pairs;
+    }
+
+    private static PersistentMap<String, PersistentMap<String, Boolean>> reindex(
+            PersistentMap<String, PersistentMap<String, Boolean>> index, String className,
+            Set<String> before, Set<String> after) {
+        for (String method : before) {
+            if (after.contains(method)) continue;
+            PersistentMap<String, Boolean> classes = index.get(method).minus(className);
+            index = classes.isEmpty() ? index.minus(method) : index.plus(method, classes);
+        }
+        for (String method : after) {
+            if (before.contains(method)) continue;
+            index = index.plus(method, index.getOrDefault(method, NO_CLASSES).plus(className, Boolean.TRUE));
+        }
+        return index;
+    }
+
+    private static ClassFacts factsOf(PersistentMap<String, PersistentMap<String, ClassFacts>> declarations,
+                                      String className) {
+        PersistentMap<String, ClassFacts> byFile = declarations.get(className);
+        if (byFile == null) return null;
+        if (byFile.size() == 1) {
+            ClassFacts[] single = new ClassFacts[1];
+            byFile.forEach((path, facts) -> single[0] = facts);
+            return single[0];
+        }
+        return ClassFacts.union(byFile.toMap().values());
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    public PersistentMap<String, FileFacts> getFiles() {
+        return files;
+    }
+
+    public Set<String> getClasses() {
+        return declarations.keySet();
+    }
+
+    public int getClassCount() {
+        return declarations.size();
+    }
+
+    /**
+     * Faits d'une classe (réunion de ses déclarations), ou null si elle n'existe pas dans cette révision
+     */
+    public ClassFacts getClassFacts(String className) {
+        return factsOf(declarations, className);
+    }
+
+    /**
+     * Déclarations des classes, par classe puis par fichier (pour comparer deux révisions)
+     */
+    public PersistentMap<String, PersistentMap<String, ClassFacts>> getDeclarations() {
+        return declarations;
+    }
+
+    /**
+     * Nombre de relations de chaque paire reliée
+     */
+    public PersistentMap<Pair<String, String>, Integer> getRelations() {
+        return relations;
+    }
+
+    public long getTotalRelations() {
+        return totalRelations;
+    }
+
+    /**
+     * Couplage normalisé d'une paire, comme {@link org.example.metrics.CouplingMetrics}
+     */
+    public double normalizedCoupling(Pair<String, String> pair) {
+        Integer count = relations.get(pair);
+        return count == null || totalRelations == 0 ? 0 : (double) count / totalRelations;
+    }
+
+    /**
+     * Matrice du couplage normalisé de toutes les paires de classes distinctes, sous la forme
+     * attendue par le clustering : une vue complétée par des zéros sur les seules paires reliées
+     */
+    public Map<Pair<String, String>, Double> normalizedCouplingMatrix() {
+        Map<Pair<String, String>, Double> coupled = new HashMap<>(relations.size() * 2);
+        if (totalRelations > 0) {
+            relations.forEach((pair, count) -> coupled.put(pair, (double) count / totalRelations));
+        }
+        return new ZeroFilledCoupling(declarations.keySet(), coupled);
+    }
+}
@@ -0,0 +1,239 @@
+package org.example.history;
+
+import com.github.javaparser.JavaParser;
+import org.example.clustering.HierarchicalClustering;
+import org.example.export.JsonWriter;
+import org.example.monitoring.EventLog;
+import org.example.monitoring.MetricsRegistry;
+import org.example.monitoring.ProgressMeter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Analyse de plusieurs révisions d'un dépôt git local, sans extraire de copie de travail.
+ *
+ * - Les contenus sont lus dans le dépôt ; l'identifiant de blob git sert d'empreinte :
+ *   un contenu déjà analysé dans une révision précédente (fichier inchangé, renommé ou
+ *   revenu à une version antérieure) n'est jamais réanalysé.
+ * - Chaque révision est dérivée de la précédente ({@link RevisionGraph#apply}) : seuls les
+ *   fichiers modifiés sont remplacés et seules les relations des classes modifiées sont
+ *   recomptées ; les structures persistantes partagent tout le reste entre révisions.
+ * - Pour chaque révision : couplage, modules (clustering hiérarchique, comme le mode batch)
+ *   et différences avec la révision précédente ({@link RevisionDiff}).
+ */
+public class RevisionHistoryAnalyzer {
+    private final GitRepository repository;
+    private final String subdirectory;
+    private final int parallelism;
+    private final double threshold;
+    private final int maxModules;
+    // Faits de chaque contenu déjà analysé, par identifiant de blob
+    private final Map<String, FileFacts> factsByBlob = new HashMap<>();
+    // Noms partagés par tous les faits (classes, packages, méthodes)
+    private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * @param repository Dépôt analysé
+     * @param subdirectory Sous-répertoire des sources (null : tout le dépôt)
+     * @param parallelism Nombre de threads d'analyse
+     * @param threshold Seuil minimal de couplage pour les fusions
+     * @param maxModules Nombre maximum de modules (négatif : la moitié du nombre de classes)
+     */
+    public RevisionHistoryAnalyzer(GitRepository repository, String subdirectory, int parallelism,
+                                   double threshold, int maxModules) {
+        this.repository = repository;
+        this.subdirectory = subdirectory;
+        this.parallelism = Math.max(parallelism, 1);
+        this.threshold = threshold;
+        this.maxModules = maxModules;
+    }
+
+    /**
+     * Analyse les révisions dans l'ordre donné (de la plus ancienne à la plus récente)
+     * @return Les résultats de chaque révision et ses différences avec la précédente
+     */
+    public List<RevisionDiff> analyze(List<String> revisions) throws IOException {
+        List<RevisionDiff> results = new ArrayList<>();
+        RevisionGraph graph = RevisionGraph.empty();
+        List<Set<String>> modules = new ArrayList<>();
+        for (String revision : revisions) {
+            long start = System.nanoTime();
+            List<GitRepository.Entry> entries = repository.listJavaFiles(revision, subdirectory);
+            int parsed = loadFacts(entries);
+
+            Map<String, FileFacts> changes = new HashMap<>();
+            Set<String> removedPaths = graph.getFiles().keySet();
+            for (GitRepository.Entry entry : entries) {
+                removedPaths.remove(entry.path);
+                FileFacts facts = factsByBlob.get(entry.blobId);
+                if (graph.getFiles().get(entry.path) != facts) changes.put(entry.path, facts);
+            }
+            for (String path : removedPaths) {
+                changes.put(path, null);
+            }
+
+            RevisionGraph next = graph.apply(revision, changes);
+            List<Set<String>> nextModules = cluster(next);
+            results.add(new RevisionDiff(graph, next, modules, nextModules, changes.size(), parsed));
+            EventLog.info("Révision %s analysée en %d ms (%d fichiers modifiés, %d analysés)", revision,
+                    (System.nanoTime() - start) / 1_000_000, changes.size(), parsed);
+            graph = next;
+            modules = nextModules;
+        }
+        return results;
+    }
+
+    /**
+     * Analyse les contenus pas encore connus, en parallèle
+     * @return Le nombre de contenus analysés
+     */
+    private int loadFacts(List<GitRepository.Entry> entries) throws IOException {
+        List<GitRepository.Entry> missing = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (GitRepository.Entry entry : entries) {
+            if (!factsByBlob.containsKey(entry.blobId) && seen.add(entry.blobId)) missing.add(entry);
+        }
+        MetricsRegistry.getDefault().counter("history.blobs.reused").add(entries.size() - missing.size());
+        MetricsRegistry.getDefault().counter("history.blobs.parsed").add(missing.size());
+        if (missing.isEmpty()) return 0;
+
+        ProgressMeter progress = EventLog.progress("Analyse", "fichiers", missing.size());
+        Map<String, FileFacts> loaded = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int worker = 0; worker < parallelism; worker++) {
+                final int offset = worker;
+                tasks.add(executor.submit(() -> {
+                    JavaParser parser = new JavaParser();
+                    for (int i = offset; i < missing.size(); i += parallelism) {
+                        GitRepository.Entry entry = missing.get(i);
+                        // Les lectures passent par un seul processus git ; seule l'analyse est parallèle
+                        String source = repository.readBlob(entry.blobId);
+                        loaded.put(entry.blobId, FileFacts.parse(parser, entry.path, entry.blobId, source, names));
+                        progress.step();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            progress.done();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Analyse interrompue", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IllegalStateException("Erreur lors de l'analyse des révisions", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        factsByBlob.putAll(loaded);
+        return missing.size();
+    }
+
+    private List<Set<String>> cluster(RevisionGraph graph) {
+        if (graph.getClassCount() < 2) return new ArrayList<>();
+        // Matrice creuse : lignes creuses plutôt que des copies denses en n² à chaque révision
+        HierarchicalClustering clustering = HierarchicalClustering.withSparseLinkage(graph.normalizedCouplingMatrix());
+        int moduleLimit = maxModules >= 0 ? maxModules : Math.max(graph.getClassCount() / 2, 1);
+        clustering.performClustering(threshold, moduleLimit);
+        return clustering.getModulesAtThreshold(threshold);
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage : RevisionHistoryAnalyzer --repo <dépôt> (--last <n> | --tags <n> | --revisions <r1,r2,...>) [options]");
+        System.err.println("  --subdir <chemin>         Sous-répertoire des sources dans le dépôt");
+        System.err.println("  --threshold <0..1>        Seuil minimal de couplage (défaut : 0)");
+        System.err.println("  --max-modules <n>         Nombre maximum de modules (défaut : classes / 2)");
+        System.err.println("  --parallelism <n>         Threads d'analyse (défaut : nombre de processeurs)");
+        System.err.println("  --top <n>                 Changements de couplage et déplacements affichés (défaut : 10)");
+        System.err.println("  --json <fichier>          Résultats de chaque révision au format JSON");
+    }
+
+    public static void main(String[] args) {
+        if (MetricsRegistry.isDumpRequested()) {
+            MetricsRegistry.getDefault().dumpAtExit();
+        }
+        String repositoryPath = null;
+        String subdirectory = null;
+        int lastCommits = 0;
+        int lastTags = 0;
+        List<String> revisionNames = new ArrayList<>();
+        double threshold = 0.0;
+        int maxModules = -1;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int top = 10;
+        String jsonPath = null;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("valeur manquante pour " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--repo": repositoryPath = value; break;
+                    case "--subdir": subdirectory = value; break;
+                    case "--last": lastCommits = Integer.parseInt(value); break;
+                    case "--tags": lastTags = Integer.parseInt(value); break;
+                    case "--revisions": revisionNames = Arrays.asList(value.split(",")); break;
+                    case "--threshold": threshold = Double.parseDouble(value); break;
+                    case "--max-modules": maxModules = Integer.parseInt(value); break;
+                    case "--parallelism": parallelism = Integer.parseInt(value); break;
+                    case "--top": top = Integer.parseInt(value); break;
+                    case "--json": jsonPath = value; break;
+                    default: throw new IllegalArgumentException("option inconnue " + args[i]);
+                }
+            }
+            if (repositoryPath == null || !new File(repositoryPath).isDirectory()) {
+                throw new IllegalArgumentException("--repo doit désigner un répertoire existant");
+            }
+            if (lastCommits <= 0 && lastTags <= 0 && revisionNames.isEmpty()) {
+                throw new IllegalArgumentException("indiquer les révisions avec --last, --tags ou --revisions");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            printUsage();
+            System.exit(2);
+        }
+
+        try (GitRepository repository = new GitRepository(new File(repositoryPath))) {
+            List<String> names = revisionNames;
+            if (lastTags > 0) names = repository.lastTags(lastTags);
+            List<String> revisions = lastCommits > 0 && names.isEmpty()
+                    ? repository.lastCommits(lastCommits) : repository.resolve(names);
+            if (revisions.isEmpty()) {
+                System.err.println("Aucune révision à analyser");
+                System.exit(1);
+            }
+
+            RevisionHistoryAnalyzer analyzer = new RevisionHistoryAnalyzer(repository, subdirectory,
+                    parallelism, threshold, maxModules);
+            List<RevisionDiff> results = analyzer.analyze(revisions);
+            for (RevisionDiff result : results) {
+                result.print(top);
+            }
+            if (jsonPath != null) {
+                try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(jsonPath), StandardCharsets.UTF_8))) {
+                    JsonWriter json = new JsonWriter(out);
+                    json.beginObject();
+                    json.name("repository").value(repositoryPath);
+                    json.name("revisions").beginArray();
+                    for (RevisionDiff result : results) {
+                        result.writeJson(json, Math.max(top, 100));
+                    }
+                    json.endArray();
+                    json.endObject();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'analyse de l'historique : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
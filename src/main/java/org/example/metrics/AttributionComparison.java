@@ -0,0 +1,205 @@
+package org.example.metrics;
+
+import org.example.export.JsonWriter;
+import org.example.graph.CallGraph;
+import org.example.graph.Pair;
+import org.example.parser.ResolutionCache;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compare l'attribution des appels par nom (tout appel dont le nom est défini dans une classe
+ * est compté vers cette classe) à l'attribution résolue par le solveur de symboles.
+ *
+ * Une relation est un triplet (classe appelante, classe appelée, méthode) entre deux classes
+ * distinctes du projet. Les relations résolues servent de référence : la précision de
+ * l'attribution par nom est la part de ses relations confirmées par la résolution, son
+ * rappel la part des relations résolues qu'elle retrouve. Les appels non résolus sont
+ * exclus de la référence, puisque leur classe déclarante est inconnue, et les relations par
+ * nom qui en proviennent sont comptées à part : elles ne peuvent pas être confirmées, et
+ * les compter abaisserait la précision du taux d'échec du solveur.
+ */
+public class AttributionComparison {
+    private final int nameRelations;
+    private final int resolvedRelations;
+    private final int commonRelations;
+    private final int namePairs;
+    private final int resolvedPairs;
+    private final int commonPairs;
+    // Relations par nom issues d'appels que le solveur n'a pas résolus (non vérifiables)
+    private final int unverifiableNameRelations;
+    private final int resolvedCalls;
+    private final int externalCalls;
+    private final int unresolvedCalls;
+    private final ResolutionCache cache;
+
+    /**
+     * @param callGraph Graphe construit avec la résolution des appels
+     * @param cache Cache partagé de la résolution (peut être null)
+     */
+    public AttributionComparison(CallGraph callGraph, ResolutionCache cache) {
+        this.cache = cache;
+        Set<String> classes = callGraph.getAllClasses();
+
+        // Index méthode -> classes qui la définissent, pour l'attribution par nom
+        Map<String, List<String>> definers = new HashMap<>();
+        for (String className : classes) {
+            for (String method : callGraph.getClassMethods(className)) {
+                definers.computeIfAbsent(method, k -> new ArrayList<>()).add(className);
+            }
+        }
+
+        int byName = 0;
+        int byResolution = 0;
+        int common = 0;
+        int unverifiable = 0;
+        int resolvedCount = 0;
+        int externalCount = 0;
+        int unresolvedCount = 0;
+        Set<Pair<String, String>> pairsByName = new HashSet<>();
+        Set<Pair<String, String>> pairsByResolution = new HashSet<>();
+        for (String caller : classes) {
+            Map<String, Set<String>> resolved = callGraph.getResolvedCalls(caller);
+            // Méthodes appelées dont au moins un appel a été résolu (vers une classe quelconque)
+            Set<String> resolvedMethods = new HashSet<>();
+            for (Set<String> methods : resolved.values()) {
+                resolvedMethods.addAll(methods);
+            }
+            for (String method : callGraph.getCalledMethods(caller)) {
+                boolean verifiable = resolvedMethods.contains(method);
+                for (String callee : definers.getOrDefault(method, Collections.emptyList())) {
+                    if (callee.equals(caller)) continue;
+                    if (!verifiable) {
+                        unverifiable++;
+                        continue;
+                    }
+                    byName++;
+                    pairsByName.add(new Pair<>(caller, callee));
+                    if (resolved.getOrDefault(callee, Collections.emptySet()).contains(method)) common++;
+                }
+            }
+            for (Map.Entry<String, Set<String>> entry : resolved.entrySet()) {
+                String callee = entry.getKey();
+                int methodCount = entry.getValue().size();
+                resolvedCount += methodCount;
+                if (!classes.contains(callee)) {
+                    externalCount += methodCount;
+                } else if (!callee.equals(caller)) {
+                    byResolution += methodCount;
+                    pairsByResolution.add(new Pair<>(caller, callee));
+                }
+            }
+            unresolvedCount += callGraph.getUnresolvedCalls(caller).size();
+        }
+        this.resolvedCalls = resolvedCount;
+        this.externalCalls = externalCount;
+        this.unresolvedCalls = unresolvedCount;
+        this.unverifiableNameRelations = unverifiable;
+        this.nameRelations = byName;
+        this.resolvedRelations = byResolution;
+        this.commonRelations = common;
+        this.namePairs = pairsByName.size();
+        this.resolvedPairs = pairsByResolution.size();
+        pairsByName.retainAll(pairsByResolution);
+        this.commonPairs = pairsByName.size();
+    }
+
+    public int getNameRelations() {
+        return nameRelations;
+    }
+
+    public int getResolvedRelations() {
+        return resolvedRelations;
+    }
+
+    public int getCommonRelations() {
+        return commonRelations;
+    }
+
+    /**
+     * Relations par nom issues d'appels non résolus, exclues de la précision et du rappel
+     */
+    public int getUnverifiableNameRelations() {
+        return unverifiableNameRelations;
+    }
+
+    /**
+     * Part des relations attribuées par nom que la résolution confirme
+     */
+    public double getNamePrecision() {
+        return nameRelations == 0 ? 0 : (double) commonRelations / nameRelations;
+    }
+
+    /**
+     * Part des relations résolues que l'attribution par nom retrouve
+     */
+    public double getNameRecall() {
+        return resolvedRelations == 0 ? 0 : (double) commonRelations / resolvedRelations;
+    }
+
+    /**
+     * Similarité de Jaccard entre les paires de classes reliées selon chaque attribution
+     */
+    public double getPairJaccard() {
+        int union = namePairs + resolvedPairs - commonPairs;
+        return union == 0 ? 1 : (double) commonPairs / union;
+    }
+
+    /**
+     * Part des appels distincts (par classe appelante) dont la classe déclarante est connue
+     */
+    public double getResolutionRate() {
+        int total = resolvedCalls + unresolvedCalls;
+        return total == 0 ? 0 : (double) resolvedCalls / total;
+    }
+
+    public void printReport() {
+        System.out.println("\nRésolution des appels :");
+        System.out.println(String.format("  Appels résolus        : %d (%.1f %%), dont %d hors du projet",
+                resolvedCalls, getResolutionRate() * 100, externalCalls));
+        System.out.println(String.format("  Appels non résolus    : %d", unresolvedCalls));
+        if (cache != null) {
+            System.out.println(String.format("  Cache                 : %d entrées / %d, taux de succès %.1f %% (%d succès, %d échecs)",
+                    cache.size(), cache.getCapacity(), cache.getHitRate() * 100,
+                    cache.getHitCount(), cache.getMissCount()));
+        }
+        System.out.println(String.format("  Relations par nom     : %d (+ %d issues d'appels non résolus, non vérifiables)",
+                nameRelations, unverifiableNameRelations));
+        System.out.println(String.format("  Relations résolues    : %d", resolvedRelations));
+        System.out.println(String.format("  Relations communes    : %d", commonRelations));
+        System.out.println(String.format("  Précision par nom     : %.3f (%d relations en trop)",
+                getNamePrecision(), nameRelations - commonRelations));
+        System.out.println(String.format("  Rappel par nom        : %.3f (%d relations manquées)",
+                getNameRecall(), resolvedRelations - commonRelations));
+        System.out.println(String.format("  Paires de classes     : %d par nom, %d résolues, Jaccard %.3f",
+                namePairs, resolvedPairs, getPairJaccard()));
+    }
+
+    public void writeJson(JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("resolvedCalls").value(resolvedCalls);
+        json.name("externalCalls").value(externalCalls);
+        json.name("unresolvedCalls").value(unresolvedCalls);
+        json.name("resolutionRate").value(getResolutionRate());
+        if (cache != null) {
+            json.name("cache").beginObject();
+            json.name("capacity").value(cache.getCapacity());
+            json.name("size").value(cache.size());
+            json.name("hits").value(cache.getHitCount());
+            json.name("misses").value(cache.getMissCount());
+            json.name("hitRate").value(cache.getHitRate());
+            json.endObject();
+        }
+        json.name("nameRelations").value(nameRelations);
+        json.name("unverifiableNameRelations").value(unverifiableNameRelations);
+        json.name("resolvedRelations").value(resolvedRelations);
+        json.name("commonRelations").value(commonRelations);
+        json.name("namePrecision").value(getNamePrecision());
+        json.name("nameRecall").value(getNameRecall());
+        json.name("namePairs").value(namePairs);
+        json.name("resolvedPairs").value(resolvedPairs);
+        json.name("pairJaccard").value(getPairJaccard());
+        json.endObject();
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.metrics;
 
 import org.example.graph.CallGraph;
+import org.example.monitoring.CouplingEvent;
+import org.example.monitoring.MetricsRegistry;
 
 import java.util.*;
 
@@ -24,34 +26,66 @@ public class CouplingCalculator {
      * @return Map imbriquée représentant la matrice de couplage
      */
     public static Map<String, Map<String, Integer>> calculateCoupling(CallGraph graph) {
+        CouplingEvent event = new CouplingEvent();
+        event.begin();
+        MetricsRegistry.Timer timer = MetricsRegistry.getDefault().timer("coupling.matrix");
+        long start = timer.start();
+
         // Matrice de couplage : classe_appelante -> (classe_appelée -> nombre_appels)
         Map<String, Map<String, Integer>> couplingMatrix = new HashMap<>();
 
-        // Parcourt chaque classe du graphe comme potentielle classe appelante
-        for (String callerClass : graph.getAllClasses()) {
-            // Récupère toutes les méthodes appelées par cette classe
-            Set<String> calledMethods = graph.getCalledMethods(callerClass);
+        // Noms et méthodes des classes relevés une fois : le graphe reconstruit les noms à chaque parcours
+        Map<String, Set<String>> classMethods = new LinkedHashMap<>();
+        for (String className : graph.getAllClasses()) {
+            classMethods.put(className, graph.getClassMethods(className));
+        }
+        Set<String> classes = classMethods.keySet();
+
+        // Appels résolus : chaque appel est attribué à la seule classe qui déclare la méthode
+        if (graph.isCallResolutionEnabled()) {
+            for (String callerClass : classes) {
+                for (String targetClass : classes) {
+                    int relations = callerClass.equals(targetClass) ? 0 : graph.countRelations(callerClass, targetClass);
+                    if (relations > 0) {
+                        couplingMatrix.computeIfAbsent(callerClass, k -> new HashMap<>()).put(targetClass, relations);
+                    }
+                }
+            }
+        } else {
+            // Parcourt chaque classe du graphe comme potentielle classe appelante
+            for (String callerClass : classes) {
+                // Récupère toutes les méthodes appelées par cette classe
+                Set<String> calledMethods = graph.getCalledMethods(callerClass);
 
-            // Pour chaque méthode appelée, cherche à quelle classe elle appartient
-            for (String calledMethod : calledMethods) {
-                // Vérifie chaque classe comme propriétaire potentiel de la méthode
-                for (String targetClass : graph.getAllClasses()) {
-                    // Vérifie si :
-                    // 1. La méthode appartient à la classe cible
-                    // 2. La classe appelante est différente de la classe cible (pas d'auto-couplage)
-                    if (graph.getClassMethods(targetClass).contains(calledMethod)
-                            && !callerClass.equals(targetClass)) {
-                        // Met à jour le compteur de couplage :
-                        // - Crée la map pour la classe appelante si nécessaire
-                        // - Incrémente le compteur d'appels entre les deux classes
-                        couplingMatrix
-                                .computeIfAbsent(callerClass, k -> new HashMap<>())
-                                .merge(targetClass, 1, Integer::sum);
+                // Pour chaque méthode appelée, cherche à quelle classe elle appartient
+                for (String calledMethod : calledMethods) {
+                    // Vérifie chaque classe comme propriétaire potentiel de la méthode
+                    for (Map.Entry<String, Set<String>> target : classMethods.entrySet()) {
+                        String targetClass = target.getKey();
+                        // Vérifie si :
+                        // 1. La méthode appartient à la classe cible
+                        // 2. La classe appelante est différente de la classe cible (pas d'auto-couplage)
+                        if (target.getValue().contains(calledMethod)
+                                && !callerClass.equals(targetClass)) {
+                            // Met à jour le compteur de couplage :
+                            // - Crée la map pour la classe appelante si nécessaire
+                            // - Incrémente le compteur d'appels entre les deux classes
+                            couplingMatrix
+                                    .computeIfAbsent(callerClass, k -> new HashMap<>())
+                                    .merge(targetClass, 1, Integer::sum);
+                        }
                     }
                 }
             }
         }
 
+        timer.stop(start);
+        if (event.shouldCommit()) {
+            event.method = "matrice des appels";
+            event.classCount = graph.getAllClasses().size();
+            event.pairCount = couplingMatrix.values().stream().mapToLong(Map::size).sum();
+            event.commit();
+        }
         return couplingMatrix;
     }
 
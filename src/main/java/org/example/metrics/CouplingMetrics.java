@@ -2,6 +2,8 @@ package org.example.metrics;
 
 import org.example.graph.CallGraph;
 import org.example.graph.Pair;
+import org.example.monitoring.CouplingEvent;
+import org.example.monitoring.MetricsRegistry;
 import java.util.*;
 
 /**
@@ -34,12 +36,18 @@ public class CouplingMetrics {
      * par le nombre total de relations dans le système.
      */
     public void calculateNormalizedCoupling() {
+        CouplingEvent event = new CouplingEvent();
+        event.begin();
+        long start = MetricsRegistry.getDefault().timer("coupling.normalized").start();
+        normalizedCoupling = new HashMap<>();
+
         // Calcule d'abord le nombre total de relations dans le système
         int totalRelations = calculateTotalRelations();
 
-        // Pour chaque paire de classes différentes
-        for (String classA : callGraph.getAllClasses()) {
-            for (String classB : callGraph.getAllClasses()) {
+        // Pour chaque paire de classes différentes (noms copiés une fois : le graphe les reconstruit)
+        List<String> classes = new ArrayList<>(callGraph.getAllClasses());
+        for (String classA : classes) {
+            for (String classB : classes) {
                 if (!classA.equals(classB)) {  // Évite le couplage d'une classe avec elle-même
                     // Compte le nombre de relations entre ces deux classes
                     int relationCount = countRelationsBetweenClasses(classA, classB);
@@ -53,6 +61,120 @@ public class CouplingMetrics {
                 }
             }
         }
+
+        endCouplingPhase(event, "complet", "coupling.normalized", start, normalizedCoupling.size());
+    }
+
+    /**
+     * Calcule le couplage normalisé en n'évaluant que les paires candidates
+     * (par exemple produites par {@link MinHashCandidateGenerator}).
+     * Seules les paires candidates sont parcourues et stockées ; la map renvoyée par
+     * {@link #getNormalizedCoupling()} présente les autres paires avec un couplage nul,
+     * comme le calcul complet, sans les matérialiser. Le nombre total de relations est
+     * obtenu exactement via un index inversé.
+     *
+     * @param candidatePairs Paires (classe appelante, classe appelée) à évaluer
+     */
+    public void calculateNormalizedCoupling(Set<Pair<String, String>> candidatePairs) {
+        CouplingEvent event = new CouplingEvent();
+        event.begin();
+        long start = MetricsRegistry.getDefault().timer("coupling.candidates").start();
+        int totalRelations = calculateTotalRelationsIndexed();
+        Set<String> classes = callGraph.getAllClasses();
+
+        Map<Pair<String, String>, Double> candidateCoupling = new HashMap<>(Math.max(16, candidatePairs.size() * 2));
+        for (Pair<String, String> pair : candidatePairs) {
+            String classA = pair.getFirst();
+            String classB = pair.getSecond();
+            if (classA.equals(classB) || !classes.contains(classA) || !classes.contains(classB)) continue;
+            double normalizedValue = totalRelations > 0 ?
+                    (double) countRelationsBetweenClasses(classA, classB) / totalRelations : 0;
+            candidateCoupling.put(pair, normalizedValue);
+        }
+        normalizedCoupling = new ZeroFilledCoupling(classes, candidateCoupling);
+
+        endCouplingPhase(event, "candidats", "coupling.candidates", start, candidateCoupling.size());
+    }
+
+    /**
+     * Enregistre la durée du calcul dans le registre de métriques et valide l'événement JFR
+     * @param pairCount Nombre de paires réellement évaluées
+     */
+    private void endCouplingPhase(CouplingEvent event, String method, String timerName, long start, int pairCount) {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        metrics.timer(timerName).stop(start);
+        metrics.counter("coupling.pairs").add(pairCount);
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.classCount = callGraph.getAllClasses().size();
+            event.pairCount = pairCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * Calcule le nombre total de relations à l'aide d'un index inversé
+     * (méthode -> nombre de classes qui la définissent), sans parcourir les paires de classes.
+     * Donne le même résultat que {@link #calculateTotalRelations()}.
+     *
+     * @return Le nombre total de relations d'appels entre classes différentes
+     */
+    private int calculateTotalRelationsIndexed() {
+        if (callGraph.isCallResolutionEnabled()) {
+            return calculateResolvedRelationsIndexed();
+        }
+        Map<String, Integer> definerCount = new HashMap<>();
+        for (String className : callGraph.getAllClasses()) {
+            for (String method : callGraph.getClassMethods(className)) {
+                definerCount.merge(method, 1, Integer::sum);
+            }
+        }
+
+        int total = 0;
+        for (String classA : callGraph.getAllClasses()) {
+            Set<String> ownMethods = callGraph.getClassMethods(classA);
+            for (String method : callGraph.getCalledMethods(classA)) {
+                // Une classe qui définit elle-même la méthode n'est pas comptée
+                total += definerCount.getOrDefault(method, 0) - (ownMethods.contains(method) ? 1 : 0);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Variante de {@link #calculateTotalRelationsIndexed()} lorsque les appels sont résolus :
+     * les appels résolus vers une classe du projet comptent directement, les appels non
+     * résolus sont rapprochés des classes qui définissent la méthode (index inversé).
+     *
+     * @return Le nombre total de relations d'appels entre classes différentes
+     */
+    private int calculateResolvedRelationsIndexed() {
+        Set<String> classes = callGraph.getAllClasses();
+        Map<String, List<String>> definers = new HashMap<>();
+        for (String className : classes) {
+            for (String method : callGraph.getClassMethods(className)) {
+                definers.computeIfAbsent(method, k -> new ArrayList<>()).add(className);
+            }
+        }
+
+        int total = 0;
+        for (String classA : classes) {
+            Map<String, Set<String>> resolved = callGraph.getResolvedCalls(classA);
+            for (Map.Entry<String, Set<String>> target : resolved.entrySet()) {
+                if (!target.getKey().equals(classA) && classes.contains(target.getKey())) {
+                    total += target.getValue().size();
+                }
+            }
+            for (String method : callGraph.getUnresolvedCalls(classA)) {
+                for (String classB : definers.getOrDefault(method, Collections.emptyList())) {
+                    if (!classB.equals(classA)
+                            && !resolved.getOrDefault(classB, Collections.emptySet()).contains(method)) {
+                        total++;
+                    }
+                }
+            }
+        }
+        return total;
     }
 
     /**
@@ -64,8 +186,9 @@ public class CouplingMetrics {
     private int calculateTotalRelations() {
         int total = 0;
         // Pour chaque paire de classes différentes
-        for (String classA : callGraph.getAllClasses()) {
-            for (String classB : callGraph.getAllClasses()) {
+        List<String> classes = new ArrayList<>(callGraph.getAllClasses());
+        for (String classA : classes) {
+            for (String classB : classes) {
                 if (!classA.equals(classB)) {  // Évite le compte des relations internes
                     total += countRelationsBetweenClasses(classA, classB);
                 }
@@ -77,22 +200,16 @@ public class CouplingMetrics {
     /**
      * Compte le nombre de relations d'appels entre deux classes spécifiques.
      * Une relation existe quand une méthode appelée par la classe A
-     * est définie dans la classe B.
+     * est définie dans la classe B (ou, si les appels sont résolus, quand elle est
+     * résolue vers la classe B).
      *
      * @param classA La classe appelante
      * @param classB La classe potentiellement appelée
      * @return Le nombre de méthodes de B appelées par A
      */
     private int countRelationsBetweenClasses(String classA, String classB) {
-        // Récupère toutes les méthodes appelées par la classe A
-        Set<String> methodsCalledByA = callGraph.getCalledMethods(classA);
-        // Récupère toutes les méthodes définies dans la classe B
-        Set<String> methodsInB = callGraph.getClassMethods(classB);
-
-        // Compte le nombre de méthodes qui sont à la fois appelées par A et définies dans B
-        return (int) methodsCalledByA.stream()
-                .filter(methodsInB::contains)
-                .count();
+        // Compte les méthodes définies dans B et appelées par A (ou résolues vers B)
+        return callGraph.countRelations(classA, classB);
     }
 
     /**
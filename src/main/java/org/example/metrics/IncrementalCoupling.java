@@ -0,0 +1,124 @@
+package org.example.metrics;
+
+import org.example.graph.CallGraph;
+import org.example.graph.Pair;
+import org.example.monitoring.MetricsRegistry;
+
+import java.util.*;
+
+/**
+ * Couplage normalisé maintenu d'une version à l'autre d'un graphe d'appels, pour le démon
+ * d'analyse. Seuls les nombres de relations non nuls sont conservés, par classe appelante
+ * (lignes) avec l'index inverse des appelantes de chaque classe (colonnes).
+ *
+ * Le nombre de relations de A vers B ne dépend que des appels de A et des méthodes de B :
+ * lorsque quelques classes changent, seules leurs lignes et leurs colonnes sont recalculées,
+ * soit O(n) comparaisons par classe modifiée au lieu de O(n²). Le total des relations, qui
+ * sert de dénominateur, est tenu à jour au fil des retraits et des ajouts ; les couplages
+ * obtenus sont identiques à ceux de {@link CouplingMetrics#calculateNormalizedCoupling()}.
+ */
+public class IncrementalCoupling {
+    // Relations non nulles : classe appelante -> classe appelée -> nombre de relations
+    private final Map<String, Map<String, Integer>> rows = new HashMap<>();
+    // Classes appelantes ayant au moins une relation vers chaque classe
+    private final Map<String, Set<String>> callers = new HashMap<>();
+    private Set<String> classes = Collections.emptySet();
+    private long totalRelations;
+    private boolean callResolution;
+
+    /**
+     * Calcule toutes les lignes à partir du graphe
+     */
+    public void recompute(CallGraph callGraph) {
+        long start = MetricsRegistry.getDefault().timer("coupling.incremental").start();
+        rows.clear();
+        callers.clear();
+        totalRelations = 0;
+        classes = new HashSet<>(callGraph.getAllClasses());
+        callResolution = callGraph.isCallResolutionEnabled();
+        for (String classA : classes) {
+            computeRow(callGraph, classA, null);
+        }
+        MetricsRegistry.getDefault().timer("coupling.incremental").stop(start);
+    }
+
+    /**
+     * Met à jour les lignes et les colonnes des classes modifiées
+     * @param callGraph Le graphe d'appels après modification
+     * @param changedClasses Classes dont les méthodes ou les appels ont pu changer, y compris
+     *                       les classes ajoutées et supprimées
+     * @return Le nombre de classes dont la ligne et la colonne ont été recalculées
+     */
+    public int update(CallGraph callGraph, Set<String> changedClasses) {
+        // Le mode d'attribution des appels change toutes les relations
+        if (callGraph.isCallResolutionEnabled() != callResolution) {
+            recompute(callGraph);
+            return classes.size();
+        }
+        long start = MetricsRegistry.getDefault().timer("coupling.incremental").start();
+        for (String changed : changedClasses) {
+            Map<String, Integer> row = rows.remove(changed);
+            if (row != null) {
+                for (Map.Entry<String, Integer> entry : row.entrySet()) {
+                    totalRelations -= entry.getValue();
+                    callers.get(entry.getKey()).remove(changed);
+                }
+            }
+            Set<String> columnCallers = callers.remove(changed);
+            if (columnCallers != null) {
+                for (String caller : columnCallers) {
+                    totalRelations -= rows.get(caller).remove(changed);
+                }
+            }
+        }
+
+        classes = new HashSet<>(callGraph.getAllClasses());
+        Set<String> recomputed = new HashSet<>(changedClasses);
+        recomputed.retainAll(classes);
+        for (String classA : recomputed) {
+            computeRow(callGraph, classA, null);
+        }
+        // Colonnes : les lignes recalculées ci-dessus les contiennent déjà
+        for (String classA : classes) {
+            if (!recomputed.contains(classA)) {
+                computeRow(callGraph, classA, recomputed);
+            }
+        }
+        MetricsRegistry.getDefault().timer("coupling.incremental").stop(start);
+        return recomputed.size();
+    }
+
+    /**
+     * Calcule les relations de classA vers les classes cibles (toutes si targets est null)
+     */
+    private void computeRow(CallGraph callGraph, String classA, Set<String> targets) {
+        for (String classB : targets != null ? targets : classes) {
+            if (classB.equals(classA)) continue;
+            int count = callGraph.countRelations(classA, classB);
+            if (count > 0) {
+                rows.computeIfAbsent(classA, k -> new HashMap<>()).put(classB, count);
+                callers.computeIfAbsent(classB, k -> new HashSet<>()).add(classA);
+                totalRelations += count;
+            }
+        }
+    }
+
+    public long getTotalRelations() {
+        return totalRelations;
+    }
+
+    /**
+     * Couplage normalisé de toutes les paires de classes différentes (nul pour les paires sans
+     * relation), indépendant des mises à jour suivantes : seules les paires couplées sont copiées
+     * @return Map (classe appelante, classe appelée) -> nombre de relations / total des relations
+     */
+    public Map<Pair<String, String>, Double> getNormalizedCoupling() {
+        Map<Pair<String, String>, Double> coupled = new HashMap<>();
+        for (Map.Entry<String, Map<String, Integer>> row : rows.entrySet()) {
+            for (Map.Entry<String, Integer> entry : row.getValue().entrySet()) {
+                coupled.put(new Pair<>(row.getKey(), entry.getKey()), (double) entry.getValue() / totalRelations);
+            }
+        }
+        return new ZeroFilledCoupling(classes, coupled);
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.metrics;
+
+import org.example.graph.CallGraph;
+import org.example.graph.Hashing;
+import org.example.graph.Pair;
+
+import java.util.*;
+
+/**
+ * Génère les paires de classes susceptibles d'être couplées, sans comparer toutes les paires.
+ * Une relation A -> B existe lorsqu'une méthode appelée par A est définie dans B : on calcule
+ * donc, avec les mêmes fonctions de hachage, une signature MinHash de l'ensemble des méthodes
+ * appelées par chaque classe et une de l'ensemble des méthodes qu'elle définit.
+ * Le hachage sensible à la localité (LSH) découpe les signatures en bandes : une classe
+ * appelante et une classe appelée qui partagent une bande deviennent une paire candidate.
+ *
+ * Compromis précision / vitesse :
+ * - plus de bandes (avec moins de lignes par bande) => meilleur rappel, plus de candidats
+ * - moins de bandes (avec plus de lignes par bande) => moins de candidats, rappel plus faible
+ */
+public class MinHashCandidateGenerator {
+    // Le graphe d'appels analysé
+    private final CallGraph callGraph;
+    // Nombre de bandes LSH
+    private final int bands;
+    // Nombre de lignes (valeurs MinHash) par bande
+    private final int rowsPerBand;
+    // Coefficients des fonctions de hachage (une paire par valeur de signature)
+    private final long[] hashMultipliers;
+    private final long[] hashOffsets;
+
+    /**
+     * @param callGraph Le graphe d'appels à analyser
+     * @param bands Nombre de bandes LSH
+     * @param rowsPerBand Nombre de valeurs MinHash par bande
+     * @param seed Graine des fonctions de hachage (pour des résultats reproductibles)
+     */
+    public MinHashCandidateGenerator(CallGraph callGraph, int bands, int rowsPerBand, long seed) {
+        this.callGraph = callGraph;
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+
+        int signatureLength = bands * rowsPerBand;
+        Random random = new Random(seed);
+        this.hashMultipliers = new long[signatureLength];
+        this.hashOffsets = new long[signatureLength];
+        for (int i = 0; i < signatureLength; i++) {
+            hashMultipliers[i] = random.nextLong() | 1L;
+            hashOffsets[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Génère les paires candidates (classe appelante, classe appelée)
+     * @return Ensemble des paires candidates, sans paire réflexive
+     */
+    public Set<Pair<String, String>> generateCandidates() {
+        Map<String, long[]> callSignatures = new HashMap<>();
+        Map<String, long[]> definitionSignatures = new HashMap<>();
+        for (String className : callGraph.getAllClasses()) {
+            Set<String> called = callGraph.getCalledMethods(className);
+            Set<String> defined = callGraph.getClassMethods(className);
+            if (!called.isEmpty()) callSignatures.put(className, signature(called));
+            if (!defined.isEmpty()) definitionSignatures.put(className, signature(defined));
+        }
+
+        Set<Pair<String, String>> candidates = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            // Regroupe appelants et appelés par valeur de bande
+            Map<Long, List<String>> callerBuckets = bucketize(callSignatures, band);
+            Map<Long, List<String>> calleeBuckets = bucketize(definitionSignatures, band);
+
+            for (Map.Entry<Long, List<String>> bucket : callerBuckets.entrySet()) {
+                List<String> callees = calleeBuckets.get(bucket.getKey());
+                if (callees == null) continue;
+                for (String caller : bucket.getValue()) {
+                    for (String callee : callees) {
+                        if (!caller.equals(callee)) {
+                            candidates.add(new Pair<>(caller, callee));
+                        }
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Calcule la signature MinHash d'un ensemble de noms de méthodes
+     */
+    private long[] signature(Set<String> methods) {
+        long[] signature = new long[hashMultipliers.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String method : methods) {
+            long base = method.hashCode();
+            for (int i = 0; i < signature.length; i++) {
+                long hash = Hashing.mix(base * hashMultipliers[i] + hashOffsets[i]);
+                if (hash < signature[i]) signature[i] = hash;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Répartit les signatures dans des seaux selon le hachage d'une bande
+     */
+    private Map<Long, List<String>> bucketize(Map<String, long[]> signatures, int band) {
+        Map<Long, List<String>> buckets = new HashMap<>();
+        int from = band * rowsPerBand;
+        for (Map.Entry<String, long[]> entry : signatures.entrySet()) {
+            long key = band;
+            for (int row = from; row < from + rowsPerBand; row++) {
+                key = Hashing.mix(key * 31 + entry.getValue()[row]);
+            }
+            buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(entry.getKey());
+        }
+        return buckets;
+    }
+
+    /**
+     * Calcule l'ensemble exact des paires couplées à l'aide d'un index inversé
+     * (méthode -> classes qui la définissent), pour mesurer le rappel des candidats
+     * @param callGraph Le graphe d'appels
+     * @return Ensemble des paires (appelante, appelée) ayant au moins une relation
+     */
+    public static Set<Pair<String, String>> exactCoupledPairs(CallGraph callGraph) {
+        Map<String, List<String>> definers = new HashMap<>();
+        for (String className : callGraph.getAllClasses()) {
+            for (String method : callGraph.getClassMethods(className)) {
+                definers.computeIfAbsent(method, k -> new ArrayList<>()).add(className);
+            }
+        }
+
+        Set<Pair<String, String>> pairs = new HashSet<>();
+        for (String caller : callGraph.getAllClasses()) {
+            for (String method : callGraph.getCalledMethods(caller)) {
+                for (String callee : definers.getOrDefault(method, Collections.emptyList())) {
+                    if (!caller.equals(callee)) {
+                        pairs.add(new Pair<>(caller, callee));
+                    }
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Calcule le rappel : part des paires réellement couplées retrouvées parmi les candidats
+     * @param candidates Paires candidates
+     * @param exact Paires réellement couplées
+     * @return Rappel entre 0 et 1 (1 si aucune paire n'est couplée)
+     */
+    public static double recall(Set<Pair<String, String>> candidates, Set<Pair<String, String>> exact) {
+        if (exact.isEmpty()) return 1.0;
+        long found = exact.stream().filter(candidates::contains).count();
+        return (double) found / exact.size();
+    }
+
+    /**
+     * Affiche le nombre de candidats et, si les paires exactes sont fournies, le rappel
+     * @param candidates Paires candidates générées
+     * @param exact Paires réellement couplées (voir {@link #exactCoupledPairs}), ou null si
+     *              le rappel n'est pas mesuré
+     */
+    public void printReport(Set<Pair<String, String>> candidates, Set<Pair<String, String>> exact) {
+        int classCount = callGraph.getAllClasses().size();
+        long allPairs = (long) classCount * (classCount - 1);
+
+        System.out.println("\nGénération de candidats MinHash/LSH (" + bands + " bandes x " + rowsPerBand + " lignes) :");
+        System.out.println("- Paires candidates : " + candidates.size() + " / " + allPairs);
+        if (exact == null) return;
+        System.out.println("- Paires réellement couplées : " + exact.size());
+        System.out.println("- Rappel : " + String.format("%.3f", recall(candidates, exact)));
+    }
+}
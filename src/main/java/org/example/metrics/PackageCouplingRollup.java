@@ -0,0 +1,332 @@
+package org.example.metrics;
+
+import org.example.graph.CallGraph;
+import org.example.graph.Pair;
+import org.example.monitoring.MetricsRegistry;
+
+import java.util.*;
+
+/**
+ * Agrégation du couplage entre classes le long de la hiérarchie des modules de construction
+ * et des packages (module -> org -> org.example -> org.example.graph).
+ *
+ * Les agrégats sont calculés une seule fois, de bas en haut :
+ * 1. un unique parcours des paires de classes cumule le couplage entre packages directs ;
+ * 2. les lignes sont remontées des packages vers leurs parents (ordre postfixe), puis chaque
+ *    colonne est propagée à ses ancêtres.
+ * Le couplage entre deux sous-arbres quelconques (package et tous ses sous-packages) est
+ * ensuite obtenu par une simple lecture, sans reparcourir les paires de classes. Cela donne
+ * une vue grossière et peu coûteuse du projet avant le clustering au niveau des classes.
+ *
+ * Nommage des nœuds : le package qualifié (« org.example.graph ») ; lorsque les classes
+ * appartiennent à des modules de construction, il est préfixé par le module
+ * (« core:org.example.graph », « core: » pour le module lui-même). La racine est « ».
+ */
+public class PackageCouplingRollup {
+    // Séparateur entre le module de construction et le package dans le nom d'un nœud
+    private static final char MODULE_SEPARATOR = ':';
+
+    /**
+     * Couplage cumulé d'un sous-arbre vers un autre
+     */
+    public static final class Aggregate {
+        private double total;
+        private int relations;
+
+        private void add(double coupling, int relationCount) {
+            total += coupling;
+            relations += relationCount;
+        }
+
+        /**
+         * Somme des couplages des paires de classes concernées
+         */
+        public double getTotal() {
+            return total;
+        }
+
+        /**
+         * Nombre de paires de classes de couplage non nul
+         */
+        public int getRelations() {
+            return relations;
+        }
+    }
+
+    private static final Aggregate EMPTY = new Aggregate();
+
+    // Nœuds de la hiérarchie, indexés par identifiant (0 : racine)
+    private final List<String> names = new ArrayList<>();
+    private final List<List<Integer>> children = new ArrayList<>();
+    private final List<Integer> parents = new ArrayList<>();
+    private final Map<String, Integer> nodeByName = new HashMap<>();
+    private final Map<String, Integer> nodeByClass = new HashMap<>();
+    private int[] depth;
+    private int[] classCount;
+    // Agrégats non nuls entre sous-arbres, clé = (source << 32) | cible
+    private final Map<Long, Aggregate> aggregates = new HashMap<>();
+
+    /**
+     * @param couplingMatrix Couplage entre classes (classe appelante, classe appelée)
+     * @param callGraph Graphe d'appels donnant le package et le module de chaque classe
+     */
+    public PackageCouplingRollup(Map<Pair<String, String>, Double> couplingMatrix, CallGraph callGraph) {
+        long start = MetricsRegistry.getDefault().timer("coupling.rollup").start();
+        addNode("", -1);
+        for (String className : callGraph.getAllClasses()) {
+            nodeByClass.put(className, nodeFor(callGraph.getClassBuildModule(className),
+                    callGraph.getClassPackage(className)));
+        }
+        int[] postOrder = computeStructure();
+        aggregate(couplingMatrix, postOrder);
+        MetricsRegistry.getDefault().timer("coupling.rollup").stop(start);
+    }
+
+    /**
+     * Nœud d'un package (créé avec ses ancêtres s'il n'existe pas encore)
+     */
+    private int nodeFor(String buildModule, String packageName) {
+        int node = 0;
+        String prefix = "";
+        if (buildModule != null) {
+            prefix = buildModule + MODULE_SEPARATOR;
+            node = child(node, prefix);
+        }
+        if (packageName.isEmpty()) return node;
+        int segmentStart = 0;
+        while (segmentStart <= packageName.length()) {
+            int dot = packageName.indexOf('.', segmentStart);
+            int segmentEnd = dot < 0 ? packageName.length() : dot;
+            node = child(node, prefix + packageName.substring(0, segmentEnd));
+            segmentStart = segmentEnd + 1;
+        }
+        return node;
+    }
+
+    private int child(int parent, String name) {
+        Integer existing = nodeByName.get(name);
+        return existing != null ? existing : addNode(name, parent);
+    }
+
+    private int addNode(String name, int parent) {
+        int node = names.size();
+        names.add(name);
+        children.add(new ArrayList<>());
+        parents.add(parent);
+        nodeByName.put(name, node);
+        if (parent >= 0) children.get(parent).add(node);
+        return node;
+    }
+
+    /**
+     * Trie les enfants, calcule les profondeurs et le nombre de classes de chaque sous-arbre
+     * @return Les nœuds en ordre postfixe (enfants avant parents)
+     */
+    private int[] computeStructure() {
+        int nodeCount = names.size();
+        depth = new int[nodeCount];
+        classCount = new int[nodeCount];
+        for (List<Integer> nodeChildren : children) {
+            nodeChildren.sort(Comparator.comparing(names::get));
+        }
+        for (int node : nodeByClass.values()) {
+            classCount[node]++;
+        }
+        // Parcours préfixe itératif ; son inverse place chaque enfant avant son parent
+        int[] preOrder = new int[nodeCount];
+        int visited = 0;
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(0);
+        while (!stack.isEmpty()) {
+            int node = stack.pop();
+            preOrder[visited++] = node;
+            List<Integer> nodeChildren = children.get(node);
+            for (int i = nodeChildren.size() - 1; i >= 0; i--) {
+                int child = nodeChildren.get(i);
+                depth[child] = depth[node] + 1;
+                stack.push(child);
+            }
+        }
+        int[] postOrder = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            postOrder[i] = preOrder[nodeCount - 1 - i];
+        }
+        for (int node : postOrder) {
+            if (node != 0) classCount[parents.get(node)] += classCount[node];
+        }
+        return postOrder;
+    }
+
+    /**
+     * Calcule les agrégats de tous les couples de sous-arbres reliés
+     */
+    private void aggregate(Map<Pair<String, String>, Double> couplingMatrix, int[] postOrder) {
+        // 1. Un seul parcours des paires de classes : couplage entre packages directs (seuls les
+        //    couplages calculés d'une matrice complétée par des zéros sont parcourus)
+        List<Map<Integer, Aggregate>> rows = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            rows.add(new HashMap<>());
+        }
+        for (Map.Entry<Pair<String, String>, Double> entry
+                : ZeroFilledCoupling.storedCouplingsOf(couplingMatrix).entrySet()) {
+            Double coupling = entry.getValue();
+            if (coupling == null || !(coupling > 0)) continue;
+            int from = nodeByClass.getOrDefault(entry.getKey().getFirst(), 0);
+            int to = nodeByClass.getOrDefault(entry.getKey().getSecond(), 0);
+            rows.get(from).computeIfAbsent(to, k -> new Aggregate()).add(coupling, 1);
+        }
+
+        // 2. Les lignes remontent vers les parents : chaque ligne couvre alors tout son sous-arbre
+        for (int node : postOrder) {
+            if (node == 0) continue;
+            Map<Integer, Aggregate> parentRow = rows.get(parents.get(node));
+            for (Map.Entry<Integer, Aggregate> cell : rows.get(node).entrySet()) {
+                parentRow.computeIfAbsent(cell.getKey(), k -> new Aggregate())
+                        .add(cell.getValue().total, cell.getValue().relations);
+            }
+        }
+
+        // 3. Chaque colonne est propagée à ses ancêtres
+        for (int from = 0; from < rows.size(); from++) {
+            for (Map.Entry<Integer, Aggregate> cell : rows.get(from).entrySet()) {
+                for (int to = cell.getKey(); to >= 0; to = parents.get(to)) {
+                    aggregates.computeIfAbsent(key(from, to), k -> new Aggregate())
+                            .add(cell.getValue().total, cell.getValue().relations);
+                }
+            }
+        }
+    }
+
+    private static long key(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    private int requireNode(String name) {
+        Integer node = nodeByName.get(name);
+        if (node == null) {
+            throw new IllegalArgumentException("package inconnu : " + name);
+        }
+        return node;
+    }
+
+    public boolean contains(String name) {
+        return nodeByName.containsKey(name);
+    }
+
+    /**
+     * Couplage cumulé des classes du sous-arbre from vers celles du sous-arbre to
+     */
+    public Aggregate aggregate(String from, String to) {
+        return aggregates.getOrDefault(key(requireNode(from), requireNode(to)), EMPTY);
+    }
+
+    public double coupling(String from, String to) {
+        return aggregate(from, to).getTotal();
+    }
+
+    /**
+     * Couplage entre classes d'un même sous-arbre
+     */
+    public double internalCoupling(String name) {
+        return coupling(name, name);
+    }
+
+    /**
+     * Couplage des classes du sous-arbre vers les classes extérieures
+     */
+    public double outgoingCoupling(String name) {
+        return coupling(name, "") - internalCoupling(name);
+    }
+
+    /**
+     * Couplage des classes extérieures vers les classes du sous-arbre
+     */
+    public double incomingCoupling(String name) {
+        return coupling("", name) - internalCoupling(name);
+    }
+
+    /**
+     * Nombre de classes du sous-arbre
+     */
+    public int classCount(String name) {
+        return classCount[requireNode(name)];
+    }
+
+    /**
+     * Noms des sous-packages (ou modules) directs d'un nœud
+     */
+    public List<String> children(String name) {
+        List<String> result = new ArrayList<>();
+        for (int child : children.get(requireNode(name))) {
+            result.add(names.get(child));
+        }
+        return result;
+    }
+
+    /**
+     * Nœud contenant directement une classe
+     */
+    public String packageOf(String className) {
+        return names.get(nodeByClass.getOrDefault(className, 0));
+    }
+
+    /**
+     * Nœuds de la coupe de profondeur donnée : nœuds à cette profondeur et feuilles moins profondes.
+     * Les classes rattachées directement à un nœud intermédiaire moins profond n'y figurent pas.
+     */
+    public List<String> levelNodes(int level) {
+        List<String> result = new ArrayList<>();
+        for (int node = 0; node < names.size(); node++) {
+            if (depth[node] == level || (depth[node] < level && children.get(node).isEmpty())) {
+                result.add(names.get(node));
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Vue grossière du couplage entre les nœuds d'une profondeur donnée, sous la même forme
+     * que la matrice des classes (utilisable par les visualisations et le clustering)
+     */
+    public Map<Pair<String, String>, Double> levelView(int level) {
+        List<String> nodes = levelNodes(level);
+        Map<Pair<String, String>, Double> view = new HashMap<>();
+        for (String from : nodes) {
+            for (String to : nodes) {
+                if (!from.equals(to)) {
+                    double coupling = coupling(from, to);
+                    if (coupling > 0) view.put(new Pair<>(from, to), coupling);
+                }
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Paires de nœuds les plus couplées à une profondeur donnée, par couplage décroissant
+     */
+    public List<Map.Entry<Pair<String, String>, Double>> strongestPairs(int level, int limit) {
+        List<Map.Entry<Pair<String, String>, Double>> entries = new ArrayList<>(levelView(level).entrySet());
+        entries.sort(Map.Entry.<Pair<String, String>, Double>comparingByValue().reversed());
+        return entries.subList(0, Math.max(Math.min(limit, entries.size()), 0));
+    }
+
+    /**
+     * Affiche, pour une profondeur donnée, le couplage interne et externe de chaque nœud
+     * puis les paires de nœuds les plus couplées
+     */
+    public void printSummary(int level, int limit) {
+        System.out.println("\nCouplage par package (profondeur " + level + ") :");
+        System.out.println(String.format("%-40s %8s %10s %10s %10s", "Package", "Classes", "Interne", "Sortant", "Entrant"));
+        for (String name : levelNodes(level)) {
+            System.out.println(String.format("%-40s %8d %10.4f %10.4f %10.4f", name.isEmpty() ? "(racine)" : name,
+                    classCount(name), internalCoupling(name), outgoingCoupling(name), incomingCoupling(name)));
+        }
+        System.out.println("\nPaires de packages les plus couplées :");
+        for (Map.Entry<Pair<String, String>, Double> entry : strongestPairs(level, limit)) {
+            System.out.println(String.format("  %s -> %s : %.4f", entry.getKey().getFirst(),
+                    entry.getKey().getSecond(), entry.getValue()));
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package org.example.metrics;
+
+import org.example.graph.CallGraph;
+import org.example.graph.ClassDependencyGraph;
+import org.example.graph.StronglyConnectedComponents;
+import org.example.monitoring.EventLog;
+import org.example.monitoring.MetricsRegistry;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Index d'accessibilité du graphe des dépendances entre classes, construit une fois pour
+ * répondre sans parcours de graphe aux questions d'analyse d'impact :
+ * - de quelles classes X dépend-elle, directement ou transitivement ?
+ * - quelles classes dépendent (transitivement) de X, donc peuvent être touchées par sa modification ?
+ * - A dépend-elle transitivement de B ?
+ *
+ * Construction :
+ * 1. les composantes fortement connexes (cycles de dépendances) sont condensées en un seul
+ *    nœud : toutes les classes d'un cycle ont les mêmes dépendances transitives ;
+ * 2. le graphe condensé, acyclique, est étiqueté par intervalles (Agrawal, Borgida et Jagadish) :
+ *    un parcours en profondeur numérote les composantes en ordre postfixe ; les composantes
+ *    accessibles depuis c sont décrites par une liste d'intervalles de ces numéros, qui contient
+ *    au moins l'intervalle du sous-arbre de c dans la forêt du parcours et réunit ceux de ses
+ *    successeurs. Les intervalles contigus fusionnent, si bien que les listes restent courtes
+ *    sur les graphes de dépendances réels ;
+ * 3. le même étiquetage est calculé sur le graphe inversé pour les questions d'impact.
+ *
+ * Une question « A dépend-elle de B » est une recherche dichotomique dans la liste de A ; le
+ * nombre de dépendances transitives se lit en sommant les tailles des intervalles (préfixes
+ * cumulés), et leur énumération ne coûte que la taille du résultat.
+ */
+public class ReachabilityIndex {
+    private final ClassDependencyGraph graph;
+    private final StronglyConnectedComponents components;
+    // Étiquettes des composantes accessibles (dépendances) et co-accessibles (impact)
+    private final IntervalLabels dependencies;
+    private final IntervalLabels dependents;
+
+    /**
+     * Construit l'index des dépendances d'un graphe d'appels
+     */
+    public static ReachabilityIndex build(CallGraph callGraph) {
+        return new ReachabilityIndex(ClassDependencyGraph.fromCallGraph(callGraph));
+    }
+
+    /**
+     * @param graph Graphe des dépendances entre classes
+     */
+    public ReachabilityIndex(ClassDependencyGraph graph) {
+        MetricsRegistry.Timer timer = MetricsRegistry.getDefault().timer("reachability.index");
+        long start = timer.start();
+        this.graph = graph;
+        this.components = new StronglyConnectedComponents(graph);
+        ClassDependencyGraph condensed = components.condense(graph);
+        int[] sizes = new int[components.componentCount()];
+        for (int c = 0; c < sizes.length; c++) {
+            sizes[c] = components.size(c);
+        }
+        this.dependencies = new IntervalLabels(condensed, sizes);
+        this.dependents = new IntervalLabels(condensed.reversed(), sizes);
+        timer.stop(start);
+        EventLog.debug("Index d'accessibilité : %d classes, %d composantes, %d intervalles",
+                graph.nodeCount(), sizes.length, dependencies.intervalCount() + dependents.intervalCount());
+    }
+
+    /**
+     * Étiquetage par intervalles d'un graphe acyclique : pour chaque nœud, liste triée
+     * d'intervalles disjoints et non contigus de numéros postfixes accessibles (lui compris).
+     * Sur un graphe défavorable (longues chaînes à branchements très dispersés), les listes
+     * peuvent croître quadratiquement : au-delà d'un budget proportionnel au nombre de nœuds,
+     * l'étiquetage est abandonné et les questions sont résolues par un parcours du graphe.
+     */
+    private static final class IntervalLabels {
+        // Intervalles autorisés par nœud, en plus d'une marge fixe
+        private static final int INTERVALS_PER_NODE = 8;
+
+        private final ClassDependencyGraph dag;
+        private final int[] sizes;
+        private boolean labeled = true;
+        private final int[] post;
+        private final int[] nodeByPost;
+        // Nombre de classes des composantes de numéro postfixe inférieur à p
+        private final long[] classPrefix;
+        // Intervalles du nœud v : starts/ends[labelOffsets[v]] à [labelOffsets[v] + labelCounts[v] - 1]
+        private final int[] labelOffsets;
+        private final int[] labelCounts;
+        private int[] starts = new int[1024];
+        private int[] ends = new int[1024];
+        private int intervalCount;
+
+        IntervalLabels(ClassDependencyGraph dag, int[] sizes) {
+            this.dag = dag;
+            this.sizes = sizes;
+            int n = dag.nodeCount();
+            long budget = (long) INTERVALS_PER_NODE * n + (1 << 20);
+            post = new int[n];
+            nodeByPost = new int[n];
+            labelOffsets = new int[n];
+            labelCounts = new int[n];
+            Arrays.fill(post, -1);
+            int[] discovery = new int[n];
+            boolean[] visited = new boolean[n];
+            int[] path = new int[n];
+            int[] nextEdge = new int[n];
+            long[] pending = new long[16];
+            int counter = 0;
+
+            // Racines d'abord (aucun prédécesseur) : la forêt du parcours couvre mieux le graphe
+            int[] inDegree = new int[n];
+            for (int e = 0; e < dag.edgeCount(); e++) {
+                inDegree[dag.target(e)]++;
+            }
+            int[] roots = new int[n];
+            int rootCount = 0;
+            for (int v = 0; v < n; v++) {
+                if (inDegree[v] == 0) roots[rootCount++] = v;
+            }
+            for (int v = 0; v < n; v++) {
+                if (inDegree[v] > 0) roots[rootCount++] = v;
+            }
+
+            for (int r = 0; r < n && labeled; r++) {
+                int root = roots[r];
+                if (visited[root]) continue;
+                visited[root] = true;
+                discovery[root] = counter;
+                int pathSize = 0;
+                path[pathSize] = root;
+                nextEdge[pathSize++] = dag.firstEdge(root);
+                while (pathSize > 0 && labeled) {
+                    int v = path[pathSize - 1];
+                    int e = nextEdge[pathSize - 1];
+                    if (e < dag.endEdge(v)) {
+                        nextEdge[pathSize - 1] = e + 1;
+                        int w = dag.target(e);
+                        if (!visited[w]) {
+                            visited[w] = true;
+                            discovery[w] = counter;
+                            path[pathSize] = w;
+                            nextEdge[pathSize++] = dag.firstEdge(w);
+                        }
+                        continue;
+                    }
+                    pathSize--;
+                    // Graphe acyclique : tous les successeurs de v sont terminés et étiquetés
+                    post[v] = counter;
+                    nodeByPost[counter] = v;
+                    counter++;
+                    int pendingCount = 0;
+                    pending[pendingCount++] = pack(discovery[v], post[v]);
+                    for (int f = dag.firstEdge(v); f < dag.endEdge(v); f++) {
+                        int w = dag.target(f);
+                        if (pendingCount + labelCounts[w] > pending.length) {
+                            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingCount + labelCounts[w]));
+                        }
+                        for (int i = labelOffsets[w]; i < labelOffsets[w] + labelCounts[w]; i++) {
+                            pending[pendingCount++] = pack(starts[i], ends[i]);
+                        }
+                    }
+                    storeMerged(v, pending, pendingCount);
+                    if (intervalCount > budget) {
+                        EventLog.warn("Étiquettes d'accessibilité trop volumineuses (plus de %d intervalles) :"
+                                + " questions résolues par parcours du graphe", budget);
+                        labeled = false;
+                        starts = ends = null;
+                        intervalCount = 0;
+                    }
+                }
+            }
+
+            classPrefix = new long[n + 1];
+            for (int p = 0; p < n; p++) {
+                classPrefix[p + 1] = classPrefix[p] + sizes[nodeByPost[p]];
+            }
+        }
+
+        private static long pack(int start, int end) {
+            return ((long) start << 32) | end;
+        }
+
+        /**
+         * Trie les intervalles par début, fusionne ceux qui se chevauchent ou se touchent
+         * et les range à la suite des étiquettes déjà calculées
+         */
+        private void storeMerged(int v, long[] pending, int count) {
+            Arrays.sort(pending, 0, count);
+            labelOffsets[v] = intervalCount;
+            int currentStart = (int) (pending[0] >>> 32);
+            int currentEnd = (int) pending[0];
+            for (int i = 1; i < count; i++) {
+                int start = (int) (pending[i] >>> 32);
+                int end = (int) pending[i];
+                if (start <= currentEnd + 1) {
+                    currentEnd = Math.max(currentEnd, end);
+                } else {
+                    append(currentStart, currentEnd);
+                    currentStart = start;
+                    currentEnd = end;
+                }
+            }
+            append(currentStart, currentEnd);
+            labelCounts[v] = intervalCount - labelOffsets[v];
+        }
+
+        private void append(int start, int end) {
+            if (intervalCount == starts.length) {
+                starts = Arrays.copyOf(starts, intervalCount * 2);
+                ends = Arrays.copyOf(ends, intervalCount * 2);
+            }
+            starts[intervalCount] = start;
+            ends[intervalCount] = end;
+            intervalCount++;
+        }
+
+        int intervalCount() {
+            return intervalCount;
+        }
+
+        boolean isLabeled() {
+            return labeled;
+        }
+
+        /**
+         * Vrai si to est accessible depuis from (from compris)
+         */
+        boolean reaches(int from, int to) {
+            if (!labeled) {
+                boolean[] found = new boolean[1];
+                traverse(from, v -> found[0] |= v == to);
+                return found[0];
+            }
+            int target = post[to];
+            int low = labelOffsets[from];
+            int high = low + labelCounts[from] - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (ends[middle] < target) {
+                    low = middle + 1;
+                } else if (starts[middle] > target) {
+                    high = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Nombre de classes des composantes accessibles depuis from (from compris)
+         */
+        long reachableClassCount(int from) {
+            long count = 0;
+            if (!labeled) {
+                long[] total = new long[1];
+                traverse(from, v -> total[0] += sizes[v]);
+                return total[0];
+            }
+            for (int i = labelOffsets[from]; i < labelOffsets[from] + labelCounts[from]; i++) {
+                count += classPrefix[ends[i] + 1] - classPrefix[starts[i]];
+            }
+            return count;
+        }
+
+        /**
+         * Parcourt les composantes accessibles depuis from (from compris)
+         */
+        void forEachReachable(int from, IntConsumer action) {
+            if (!labeled) {
+                traverse(from, action);
+                return;
+            }
+            for (int i = labelOffsets[from]; i < labelOffsets[from] + labelCounts[from]; i++) {
+                for (int p = starts[i]; p <= ends[i]; p++) {
+                    action.accept(nodeByPost[p]);
+                }
+            }
+        }
+
+        /**
+         * Parcours en largeur depuis from (from compris), sans étiquettes
+         */
+        private void traverse(int from, IntConsumer action) {
+            boolean[] visited = new boolean[dag.nodeCount()];
+            int[] queue = new int[dag.nodeCount()];
+            int head = 0;
+            int tail = 0;
+            visited[from] = true;
+            queue[tail++] = from;
+            while (head < tail) {
+                int v = queue[head++];
+                action.accept(v);
+                for (int e = dag.firstEdge(v); e < dag.endEdge(v); e++) {
+                    int w = dag.target(e);
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Indique si la classe fait partie du graphe indexé
+     */
+    public boolean contains(String className) {
+        return graph.node(className) >= 0;
+    }
+
+    private int componentOf(String className) {
+        int node = graph.node(className);
+        if (node < 0) {
+            throw new IllegalArgumentException("classe inconnue : " + className);
+        }
+        return components.componentOf(node);
+    }
+
+    /**
+     * Indique si from dépend de to, directement ou transitivement.
+     * Une classe ne dépend d'elle-même que si elle appartient à un cycle de dépendances.
+     */
+    public boolean dependsOn(String from, String to) {
+        int source = componentOf(from);
+        int target = componentOf(to);
+        if (source == target) {
+            return !from.equals(to) || components.size(source) > 1;
+        }
+        return dependencies.reaches(source, target);
+    }
+
+    /**
+     * Indique si la classe appartient à un cycle de dépendances
+     */
+    public boolean isInCycle(String className) {
+        return components.size(componentOf(className)) > 1;
+    }
+
+    /**
+     * Classes du même cycle de dépendances que la classe (elle comprise)
+     */
+    public Set<String> cycleOf(String className) {
+        int component = componentOf(className);
+        Set<String> members = new HashSet<>();
+        for (int i = 0; i < components.size(component); i++) {
+            members.add(graph.name(components.member(component, i)));
+        }
+        return members;
+    }
+
+    /**
+     * Nombre de classes dont la classe dépend transitivement (elle-même exclue)
+     */
+    public long dependencyCount(String className) {
+        return dependencies.reachableClassCount(componentOf(className)) - 1;
+    }
+
+    /**
+     * Nombre de classes qui dépendent transitivement de la classe (elle-même exclue)
+     */
+    public long impactCount(String className) {
+        return dependents.reachableClassCount(componentOf(className)) - 1;
+    }
+
+    /**
+     * Classes dont la classe dépend, directement ou transitivement (elle-même exclue)
+     */
+    public Set<String> transitiveDependencies(String className) {
+        return collect(dependencies, className);
+    }
+
+    /**
+     * Classes qui dépendent de la classe, directement ou transitivement (elle-même exclue) :
+     * celles que sa modification peut affecter
+     */
+    public Set<String> impactedClasses(String className) {
+        return collect(dependents, className);
+    }
+
+    private Set<String> collect(IntervalLabels labels, String className) {
+        Set<String> result = new HashSet<>();
+        labels.forEachReachable(componentOf(className), component -> {
+            for (int i = 0; i < components.size(component); i++) {
+                result.add(graph.name(components.member(component, i)));
+            }
+        });
+        result.remove(className);
+        return result;
+    }
+
+    public int getClassCount() {
+        return graph.nodeCount();
+    }
+
+    public int getComponentCount() {
+        return components.componentCount();
+    }
+
+    /**
+     * Indique si les deux étiquetages sont complets (sinon une partie des questions
+     * est résolue par un parcours du graphe condensé)
+     */
+    public boolean isLabeled() {
+        return dependencies.isLabeled() && dependents.isLabeled();
+    }
+
+    /**
+     * Nombre total d'intervalles des deux étiquetages (taille de l'index)
+     */
+    public int getIntervalCount() {
+        return dependencies.intervalCount() + dependents.intervalCount();
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.metrics;
+
+import org.example.graph.Pair;
+
+import java.util.*;
+
+/**
+ * Vue non modifiable des couplages de toutes les paires de classes différentes, construite
+ * sur les seuls couplages calculés : une paire absente a un couplage nul. Les entrées sont
+ * produites à la volée lors du parcours, aucune n'est stockée pour les paires non calculées.
+ * Les consommateurs qui n'ont pas besoin des couplages nuls parcourent plutôt
+ * {@link #getStoredCouplings()}, sans passer par les n(n-1) paires.
+ */
+public final class ZeroFilledCoupling extends AbstractMap<Pair<String, String>, Double> {
+    private final List<String> classes;
+    private final Set<String> classSet;
+    private final Map<Pair<String, String>, Double> computed;
+
+    public ZeroFilledCoupling(Set<String> classes, Map<Pair<String, String>, Double> computed) {
+        this.classes = new ArrayList<>(classes);
+        this.classSet = new LinkedHashSet<>(this.classes);
+        this.computed = computed;
+    }
+
+    /**
+     * @return Les classes dont toutes les paires sont présentes dans la vue
+     */
+    public Set<String> getClasses() {
+        return Collections.unmodifiableSet(classSet);
+    }
+
+    /**
+     * @return Les seuls couplages calculés (éventuellement nuls) ; toute autre paire de
+     * classes différentes a un couplage nul
+     */
+    public Map<Pair<String, String>, Double> getStoredCouplings() {
+        return Collections.unmodifiableMap(computed);
+    }
+
+    /**
+     * Couplages à parcourir lorsque les couplages nuls n'apportent rien
+     * @param couplingMatrix Matrice des couplages, complétée par des zéros ou non
+     * @return Les seuls couplages calculés d'une vue complétée par des zéros, la matrice elle-même sinon
+     */
+    public static Map<Pair<String, String>, Double> storedCouplingsOf(Map<Pair<String, String>, Double> couplingMatrix) {
+        return couplingMatrix instanceof ZeroFilledCoupling
+                ? ((ZeroFilledCoupling) couplingMatrix).getStoredCouplings() : couplingMatrix;
+    }
+
+    /**
+     * Classes d'une matrice de couplage, sans parcourir les paires d'une vue complétée par des zéros
+     * @param couplingMatrix Matrice des couplages, complétée par des zéros ou non
+     * @return Les classes de la vue (y compris celles sans couplage calculé), ou celles des paires
+     * de la matrice dans leur ordre d'apparition
+     */
+    public static Set<String> classesOf(Map<Pair<String, String>, Double> couplingMatrix) {
+        if (couplingMatrix instanceof ZeroFilledCoupling) {
+            return ((ZeroFilledCoupling) couplingMatrix).getClasses();
+        }
+        Set<String> classes = new LinkedHashSet<>();
+        for (Pair<String, String> pair : couplingMatrix.keySet()) {
+            classes.add(pair.getFirst());
+            classes.add(pair.getSecond());
+        }
+        return classes;
+    }
+
+    @Override
+    public Double get(Object key) {
+        if (!containsKey(key)) return null;
+        return computed.getOrDefault(key, 0.0);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof Pair)) return false;
+        Pair<?, ?> pair = (Pair<?, ?>) key;
+        return classSet.contains(pair.getFirst()) && classSet.contains(pair.getSecond())
+                && !pair.getFirst().equals(pair.getSecond());
+    }
+
+    @Override
+    public int size() {
+        long n = classes.size();
+        return (int) Math.min(n * (n - 1), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Set<Entry<Pair<String, String>, Double>> entrySet() {
+        return new AbstractSet<Entry<Pair<String, String>, Double>>() {
+            @Override
+            public Iterator<Entry<Pair<String, String>, Double>> iterator() {
+                return new Iterator<Entry<Pair<String, String>, Double>>() {
+                    private int a = 0;
+                    private int b = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (b == a) b++;
+                        if (b >= classes.size()) {
+                            a++;
+                            b = a == 0 ? 1 : 0;
+                        }
+                        return a < classes.size() && classes.size() > 1;
+                    }
+
+                    @Override
+                    public Entry<Pair<String, String>, Double> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        Pair<String, String> pair = new Pair<>(classes.get(a), classes.get(b++));
+                        return new SimpleImmutableEntry<>(pair, computed.getOrDefault(pair, 0.0));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ZeroFilledCoupling.this.size();
+            }
+        };
+    }
+}
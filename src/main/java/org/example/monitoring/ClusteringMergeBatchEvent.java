@@ -0,0 +1,26 @@
+package org.example.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement JFR : lot de fusions consécutives du clustering hiérarchique
+ */
+@Name("org.example.ClusteringMergeBatch")
+@Label("Lot de fusions du clustering")
+@Category({"Analyse de couplage", "Clustering"})
+public class ClusteringMergeBatchEvent extends Event {
+    @Label("Première fusion du lot")
+    public int firstMerge;
+
+    @Label("Fusions")
+    public int mergeCount;
+
+    @Label("Clusters restants")
+    public int remainingClusters;
+
+    @Label("Dernier couplage fusionné")
+    public double lastCoupling;
+}
@@ -0,0 +1,23 @@
+package org.example.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement JFR : calcul du couplage entre classes
+ */
+@Name("org.example.Coupling")
+@Label("Calcul du couplage")
+@Category({"Analyse de couplage", "Couplage"})
+public class CouplingEvent extends Event {
+    @Label("Méthode de calcul")
+    public String method;
+
+    @Label("Classes")
+    public int classCount;
+
+    @Label("Paires évaluées")
+    public long pairCount;
+}
@@ -0,0 +1,267 @@
+package org.example.monitoring;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal d'événements asynchrone à faible surcoût, remplaçant les System.out.println
+ * des boucles critiques (analyse des fichiers, collecte des classes, fusions du clustering).
+ *
+ * - Niveaux : un événement sous le niveau courant (-Dlog.level=debug|info|warn|error|off,
+ *   info par défaut) est ignoré après une simple comparaison, sans allocation ni formatage
+ *   grâce aux surcharges à 0, 1, 2 ou 3 arguments.
+ * - Tampon circulaire : les producteurs écrivent le modèle et ses arguments dans une case
+ *   préallouée (file bornée multi-producteurs de Vyukov) ; un thread dédié formate et écrit
+ *   les lignes, si bien que les boucles critiques ne font jamais d'entrée-sortie synchronisée.
+ *   Ce thread n'est démarré qu'à la première publication (jamais si le niveau est off) et
+ *   dort tant que le tampon est vide : le producteur qui le trouve endormi le réveille.
+ *   Quand le tampon est plein, les événements debug et info sont abandonnés (et comptés),
+ *   les avertissements et erreurs attendent une case libre.
+ * - {@link #flush()} attend que tout ce qui a été publié soit écrit ; il est appelé avant
+ *   les affichages directs (menus, rapports) pour conserver l'ordre des lignes.
+ *
+ * Les arguments sont formatés plus tard par le thread d'écriture : ils doivent être immuables
+ * (chaînes, nombres), sinon l'appelant les convertit lui-même en chaîne.
+ */
+public final class EventLog {
+    /**
+     * Niveaux d'événements, du plus détaillé au plus grave
+     */
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    // Taille du tampon circulaire (puissance de 2)
+    private static final int CAPACITY = 8192;
+    private static final int MASK = CAPACITY - 1;
+
+    /**
+     * Case du tampon, réutilisée d'un tour à l'autre
+     */
+    private static final class Slot {
+        Level level;
+        String template;
+        int argumentCount;
+        Object a0;
+        Object a1;
+        Object a2;
+        Object[] arguments;
+    }
+
+    private static final Slot[] SLOTS = new Slot[CAPACITY];
+    // Numéro de séquence attendu dans chaque case (protocole de Vyukov)
+    private static final AtomicLongArray SEQUENCES = new AtomicLongArray(CAPACITY);
+    // Prochaine position d'écriture (producteurs) et de lecture (thread d'écriture)
+    private static final AtomicLong TAIL = new AtomicLong();
+    private static final AtomicLong HEAD = new AtomicLong();
+    private static final AtomicLong DROPPED = new AtomicLong();
+    // Thread d'écriture (null tant que rien n'a été publié) et indicateur de sommeil
+    private static volatile Thread writer;
+    private static volatile boolean writerParked;
+
+    private static volatile int threshold = parseLevel(System.getProperty("log.level", "info")).ordinal();
+    private static volatile PrintStream out = System.out;
+    private static volatile PrintStream err = System.err;
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            SLOTS[i] = new Slot();
+            SEQUENCES.set(i, i);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::flush, "event-log-flush"));
+    }
+
+    private EventLog() {
+    }
+
+    public static Level parseLevel(String name) {
+        try {
+            return Level.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("niveau de journalisation inconnu : " + name);
+        }
+    }
+
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    /**
+     * Redirige la sortie (par défaut System.out, et System.err pour warn et error)
+     */
+    public static void setOutput(PrintStream standard, PrintStream errors) {
+        flush();
+        out = standard;
+        err = errors;
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public static boolean isDebugEnabled() {
+        return Level.DEBUG.ordinal() >= threshold;
+    }
+
+    /**
+     * Nombre d'événements abandonnés faute de place dans le tampon
+     */
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    public static void debug(String message) {
+        if (Level.DEBUG.ordinal() >= threshold) publish(Level.DEBUG, message, 0, null, null, null, null);
+    }
+
+    public static void debug(String template, Object a0) {
+        if (Level.DEBUG.ordinal() >= threshold) publish(Level.DEBUG, template, 1, a0, null, null, null);
+    }
+
+    public static void debug(String template, Object a0, Object a1) {
+        if (Level.DEBUG.ordinal() >= threshold) publish(Level.DEBUG, template, 2, a0, a1, null, null);
+    }
+
+    public static void debug(String template, Object a0, Object a1, Object a2) {
+        if (Level.DEBUG.ordinal() >= threshold) publish(Level.DEBUG, template, 3, a0, a1, a2, null);
+    }
+
+    public static void info(String message) {
+        if (Level.INFO.ordinal() >= threshold) publish(Level.INFO, message, 0, null, null, null, null);
+    }
+
+    public static void info(String template, Object a0) {
+        if (Level.INFO.ordinal() >= threshold) publish(Level.INFO, template, 1, a0, null, null, null);
+    }
+
+    public static void info(String template, Object a0, Object a1) {
+        if (Level.INFO.ordinal() >= threshold) publish(Level.INFO, template, 2, a0, a1, null, null);
+    }
+
+    public static void info(String template, Object... arguments) {
+        if (Level.INFO.ordinal() >= threshold) publish(Level.INFO, template, -1, null, null, null, arguments);
+    }
+
+    public static void warn(String message) {
+        if (Level.WARN.ordinal() >= threshold) publish(Level.WARN, message, 0, null, null, null, null);
+    }
+
+    public static void warn(String template, Object... arguments) {
+        if (Level.WARN.ordinal() >= threshold) publish(Level.WARN, template, -1, null, null, null, arguments);
+    }
+
+    public static void error(String message) {
+        if (Level.ERROR.ordinal() >= threshold) publish(Level.ERROR, message, 0, null, null, null, null);
+    }
+
+    public static void error(String template, Object... arguments) {
+        if (Level.ERROR.ordinal() >= threshold) publish(Level.ERROR, template, -1, null, null, null, arguments);
+    }
+
+    /**
+     * Crée un compteur d'avancement publiant au plus une ligne par seconde (niveau info)
+     * @param label Nom de l'opération (par exemple « Analyse »)
+     * @param unit Unité comptée (par exemple « fichiers »)
+     * @param total Nombre total attendu, ou -1 s'il est inconnu
+     */
+    public static ProgressMeter progress(String label, String unit, long total) {
+        return new ProgressMeter(label, unit, total);
+    }
+
+    /**
+     * Attend que tous les événements publiés jusqu'ici soient écrits
+     */
+    public static void flush() {
+        long target = TAIL.get();
+        while (HEAD.get() < target) {
+            LockSupport.parkNanos(100_000);
+        }
+        out.flush();
+        err.flush();
+    }
+
+    private static void publish(Level level, String template, int argumentCount,
+                                Object a0, Object a1, Object a2, Object[] arguments) {
+        long position;
+        while (true) {
+            position = TAIL.get();
+            long difference = SEQUENCES.get((int) (position & MASK)) - position;
+            if (difference == 0) {
+                if (TAIL.compareAndSet(position, position + 1)) break;
+            } else if (difference < 0) {
+                // Tampon plein : seuls les événements graves attendent
+                if (level.ordinal() < Level.WARN.ordinal()) {
+                    DROPPED.incrementAndGet();
+                    return;
+                }
+                LockSupport.parkNanos(50_000);
+            }
+        }
+        Slot slot = SLOTS[(int) (position & MASK)];
+        slot.level = level;
+        slot.template = template;
+        slot.argumentCount = argumentCount;
+        slot.a0 = a0;
+        slot.a1 = a1;
+        slot.a2 = a2;
+        slot.arguments = arguments;
+        // Rend la case visible au thread d'écriture, puis le réveille s'il dort
+        SEQUENCES.set((int) (position & MASK), position + 1);
+        Thread thread = writer;
+        if (thread == null) {
+            startWriter();
+        } else if (writerParked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) return;
+        Thread thread = new Thread(EventLog::drainLoop, "event-log");
+        thread.setDaemon(true);
+        thread.start();
+        writer = thread;
+    }
+
+    private static void drainLoop() {
+        while (true) {
+            long position = HEAD.get();
+            int index = (int) (position & MASK);
+            if (SEQUENCES.get(index) != position + 1) {
+                // Tampon vide : l'indicateur est levé avant de vérifier une dernière fois, si bien qu'un
+                // producteur publiant entre-temps voit l'indicateur et réveille le thread
+                writerParked = true;
+                if (SEQUENCES.get(index) != position + 1) {
+                    LockSupport.park(EventLog.class);
+                }
+                writerParked = false;
+                continue;
+            }
+            Slot slot = SLOTS[index];
+            String line;
+            try {
+                line = format(slot);
+            } catch (RuntimeException e) {
+                line = slot.template + " (formatage impossible : " + e + ")";
+            }
+            Level level = slot.level;
+            slot.template = null;
+            slot.a0 = slot.a1 = slot.a2 = null;
+            slot.arguments = null;
+            SEQUENCES.set(index, position + CAPACITY);
+            (level.ordinal() >= Level.WARN.ordinal() ? err : out).println(line);
+            HEAD.set(position + 1);
+        }
+    }
+
+    private static String format(Slot slot) {
+        switch (slot.argumentCount) {
+            case 0: return slot.template;
+            case 1: return String.format(slot.template, slot.a0);
+            case 2: return String.format(slot.template, slot.a0, slot.a1);
+            case 3: return String.format(slot.template, slot.a0, slot.a1, slot.a2);
+            default: return slot.arguments == null || slot.arguments.length == 0
+                    ? slot.template : String.format(slot.template, slot.arguments);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement JFR : analyse d'un fichier source (lecture, analyse syntaxique et collecte des appels)
+ */
+@Name("org.example.FileParse")
+@Label("Analyse d'un fichier")
+@Category({"Analyse de couplage", "Analyse"})
+public class FileParseEvent extends Event {
+    @Label("Chemin")
+    public String path;
+
+    @Label("Taille")
+    @DataAmount
+    public long bytes;
+}
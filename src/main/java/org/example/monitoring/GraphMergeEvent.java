@@ -0,0 +1,20 @@
+package org.example.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement JFR : fusion d'un graphe d'appels partiel dans le graphe du projet
+ */
+@Name("org.example.GraphMerge")
+@Label("Fusion de graphes d'appels")
+@Category({"Analyse de couplage", "Analyse"})
+public class GraphMergeEvent extends Event {
+    @Label("Classes fusionnées")
+    public int mergedClasses;
+
+    @Label("Classes après fusion")
+    public int totalClasses;
+}
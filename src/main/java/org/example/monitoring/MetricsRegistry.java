@@ -0,0 +1,215 @@
+package org.example.monitoring;
+
+import org.example.export.JsonWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registre de métriques en mémoire (compteurs, chronomètres, histogrammes), complémentaire
+ * des événements JFR : les événements donnent le détail d'un enregistrement, le registre
+ * les totaux d'une exécution. Toutes les opérations sont thread-safe et sans verrou,
+ * ce qui permet de les appeler depuis les chemins critiques de l'analyse.
+ * Le registre est affiché à la sortie du programme avec -Dmetrics.dump=true.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final AtomicBoolean dumpAtExit = new AtomicBoolean();
+
+    /**
+     * Registre partagé par toute l'application
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Indique si l'affichage des métriques à la sortie a été demandé (-Dmetrics.dump=true)
+     */
+    public static boolean isDumpRequested() {
+        return Boolean.getBoolean("metrics.dump");
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, k -> new Counter());
+    }
+
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, k -> new Timer());
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * Compteur monotone
+     */
+    public static class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Histogramme à classes en puissances de 2 : la classe k contient les valeurs de [2^(k-1), 2^k[,
+     * ce qui donne des quantiles à un facteur 2 près pour une mémoire fixe
+     */
+    public static class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(65);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            long v = Math.max(value, 0);
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(v));
+            count.increment();
+            sum.add(v);
+            max.accumulateAndGet(v, Math::max);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long sum() {
+            return sum.sum();
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        public double mean() {
+            long n = count();
+            return n > 0 ? (double) sum() / n : 0;
+        }
+
+        /**
+         * Borne supérieure de la classe contenant le quantile demandé
+         * @param quantile Quantile entre 0 et 1
+         */
+        public long percentile(double quantile) {
+            long n = count();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(quantile * n);
+            long seen = 0;
+            for (int k = 0; k < buckets.length(); k++) {
+                seen += buckets.get(k);
+                if (seen >= rank) {
+                    return k == 0 ? 0 : Math.min(k == 64 ? Long.MAX_VALUE : (1L << k) - 1, max());
+                }
+            }
+            return max();
+        }
+    }
+
+    /**
+     * Chronomètre : histogramme de durées en nanosecondes
+     */
+    public static class Timer extends Histogram {
+        /**
+         * @return L'instant de départ à passer à {@link #stop(long)}
+         */
+        public long start() {
+            return System.nanoTime();
+        }
+
+        /**
+         * Enregistre la durée écoulée depuis {@code startNanos}
+         * @return La durée enregistrée en nanosecondes
+         */
+        public long stop(long startNanos) {
+            long elapsed = System.nanoTime() - startNanos;
+            record(elapsed);
+            return elapsed;
+        }
+    }
+
+    /**
+     * Affiche toutes les métriques, triées par nom
+     */
+    public void dump(PrintStream out) {
+        out.println("\n=== Métriques ===");
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            out.println(String.format("%-32s %12d", entry.getKey(), entry.getValue().get()));
+        }
+        for (Map.Entry<String, Timer> entry : new TreeMap<>(timers).entrySet()) {
+            Timer timer = entry.getValue();
+            out.println(String.format("%-32s %12d fois, total %.1f ms, moyenne %.3f ms, p99 %.3f ms, max %.3f ms",
+                    entry.getKey(), timer.count(), timer.sum() / 1e6, timer.mean() / 1e6,
+                    timer.percentile(0.99) / 1e6, timer.max() / 1e6));
+        }
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            out.println(String.format("%-32s %12d valeurs, moyenne %.1f, p50 %d, p99 %d, max %d",
+                    entry.getKey(), histogram.count(), histogram.mean(), histogram.percentile(0.5),
+                    histogram.percentile(0.99), histogram.max()));
+        }
+    }
+
+    /**
+     * Écrit toutes les métriques dans un objet JSON (durées en nanosecondes)
+     */
+    public void writeJson(JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("counters").beginObject();
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            json.name(entry.getKey()).value(entry.getValue().get());
+        }
+        json.endObject();
+        json.name("timers").beginObject();
+        for (Map.Entry<String, Timer> entry : new TreeMap<>(timers).entrySet()) {
+            writeHistogram(json.name(entry.getKey()), entry.getValue());
+        }
+        json.endObject();
+        json.name("histograms").beginObject();
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            writeHistogram(json.name(entry.getKey()), entry.getValue());
+        }
+        json.endObject();
+        json.endObject();
+    }
+
+    private static void writeHistogram(JsonWriter json, Histogram histogram) throws IOException {
+        json.beginObject();
+        json.name("count").value(histogram.count());
+        json.name("sum").value(histogram.sum());
+        json.name("max").value(histogram.max());
+        json.name("p50").value(histogram.percentile(0.5));
+        json.name("p99").value(histogram.percentile(0.99));
+        json.endObject();
+    }
+
+    /**
+     * Affiche les métriques sur la sortie standard à l'arrêt de la JVM (une seule fois)
+     */
+    public void dumpAtExit() {
+        if (dumpAtExit.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(System.out), "metrics-dump"));
+        }
+    }
+}
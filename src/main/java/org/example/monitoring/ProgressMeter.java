@@ -0,0 +1,61 @@
+package org.example.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteur d'avancement partagé entre threads : chaque étape ne coûte qu'un incrément,
+ * et une ligne agrégée (« Analyse : 1200/5000 fichiers (350/s) ») est publiée dans
+ * {@link EventLog} au plus une fois par seconde.
+ */
+public final class ProgressMeter {
+    // Intervalle minimal entre deux lignes d'avancement
+    private static final long INTERVAL_NANOS = 1_000_000_000L;
+
+    private final String label;
+    private final String unit;
+    private final long total;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder count = new LongAdder();
+    // Instant de la prochaine ligne autorisée
+    private final AtomicLong nextReportNanos = new AtomicLong(startNanos + INTERVAL_NANOS);
+
+    ProgressMeter(String label, String unit, long total) {
+        this.label = label;
+        this.unit = unit;
+        this.total = total;
+    }
+
+    /**
+     * Compte une étape terminée
+     */
+    public void step() {
+        count.increment();
+        long now = System.nanoTime();
+        long next = nextReportNanos.get();
+        // Un seul thread gagne le droit de publier la ligne de cet intervalle
+        if (now >= next && nextReportNanos.compareAndSet(next, now + INTERVAL_NANOS)) {
+            report(now, false);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Publie la ligne finale (nombre total et débit moyen) et attend son écriture
+     */
+    public void done() {
+        report(System.nanoTime(), true);
+        EventLog.flush();
+    }
+
+    private void report(long now, boolean finished) {
+        if (!EventLog.isEnabled(EventLog.Level.INFO)) return;
+        long done = count.sum();
+        double seconds = Math.max(now - startNanos, 1) / 1e9;
+        String progress = total >= 0 ? done + "/" + total : Long.toString(done);
+        EventLog.info("%s%s : %s %s (%.0f/s)", label, finished ? " terminé" : "", progress, unit, done / seconds);
+    }
+}
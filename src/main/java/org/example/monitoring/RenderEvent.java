@@ -0,0 +1,23 @@
+package org.example.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement JFR : rendu d'une visualisation ou d'un export
+ */
+@Name("org.example.Render")
+@Label("Rendu")
+@Category({"Analyse de couplage", "Rendu"})
+public class RenderEvent extends Event {
+    @Label("Type de rendu")
+    public String kind;
+
+    @Label("Fichier de sortie")
+    public String outputPath;
+
+    @Label("Servi depuis le cache")
+    public boolean cacheHit;
+}
@@ -0,0 +1,98 @@
+package org.example.parser;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retrouve le module de construction (Maven ou Gradle) qui contient un fichier source :
+ * c'est le répertoire le plus proche contenant un pom.xml ou un build.gradle(.kts).
+ * Le résultat est mis en cache par répertoire, si bien que les fichiers d'un même
+ * répertoire ne provoquent qu'une seule remontée de l'arborescence. Lorsqu'un fichier de
+ * construction est ajouté ou supprimé, {@link #invalidate(Path)} oublie les répertoires
+ * concernés.
+ */
+public final class BuildModules {
+    private static final String[] BUILD_FILES = {"pom.xml", "build.gradle", "build.gradle.kts"};
+
+    // Module de chaque répertoire déjà rencontré (chaîne vide : aucun module)
+    private static final Map<Path, String> MODULE_BY_DIRECTORY = new ConcurrentHashMap<>();
+
+    private BuildModules() {
+    }
+
+    /**
+     * @param sourceFile Fichier source analysé
+     * @return Nom du répertoire du module de construction, ou null si aucun n'est trouvé
+     */
+    public static String moduleOf(Path sourceFile) {
+        Path directory = sourceFile.toAbsolutePath().normalize().getParent();
+        if (directory == null) return null;
+        String module = findModule(directory);
+        return module.isEmpty() ? null : module;
+    }
+
+    /**
+     * @param sourceFile Fichier source éventuel (absent pour un code analysé depuis une chaîne)
+     */
+    public static String moduleOf(Optional<Path> sourceFile) {
+        return sourceFile.map(BuildModules::moduleOf).orElse(null);
+    }
+
+    /**
+     * @param path Fichier quelconque
+     * @return true si le fichier est un pom.xml ou un build.gradle(.kts)
+     */
+    public static boolean isBuildFile(Path path) {
+        Path name = path.getFileName();
+        if (name == null) return false;
+        for (String buildFile : BUILD_FILES) {
+            if (buildFile.equals(name.toString())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Oublie le module du répertoire et de tous ses sous-répertoires : à appeler lorsqu'un
+     * fichier de construction y est ajouté ou supprimé (les répertoires parents ne changent pas)
+     * @param directory Répertoire dont le fichier de construction a changé
+     */
+    public static void invalidate(Path directory) {
+        Path normalized = directory.toAbsolutePath().normalize();
+        MODULE_BY_DIRECTORY.keySet().removeIf(path -> path.startsWith(normalized));
+    }
+
+    private static String findModule(Path directory) {
+        // Remonte jusqu'au premier répertoire déjà connu ou contenant un fichier de construction
+        List<Path> visited = new ArrayList<>();
+        String module = "";
+        for (Path current = directory; current != null; current = current.getParent()) {
+            String known = MODULE_BY_DIRECTORY.get(current);
+            if (known != null) {
+                module = known;
+                break;
+            }
+            visited.add(current);
+            if (isModuleRoot(current)) {
+                Path name = current.getFileName();
+                module = name != null ? name.toString() : current.toString();
+                break;
+            }
+        }
+        for (Path path : visited) {
+            MODULE_BY_DIRECTORY.putIfAbsent(path, module);
+        }
+        return module;
+    }
+
+    private static boolean isModuleRoot(Path directory) {
+        for (String buildFile : BUILD_FILES) {
+            if (Files.isRegularFile(directory.resolve(buildFile))) return true;
+        }
+        return false;
+    }
+}
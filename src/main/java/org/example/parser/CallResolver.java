@@ -0,0 +1,226 @@
+package org.example.parser;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedTypeDeclaration;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFactory;
+import com.github.javaparser.symbolsolver.model.resolution.SymbolReference;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.example.monitoring.MetricsRegistry;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Résout chaque appel de méthode vers la classe qui déclare la méthode appelée, à l'aide
+ * du solveur de symboles de JavaParser (sources du projet et classes du JDK).
+ *
+ * Les structures internes du solveur ne sont pas thread-safe : chaque thread d'analyse
+ * crée son propre CallResolver. Les résultats sont en revanche partagés entre threads
+ * par un {@link ResolutionCache} : la clé est le type de la cible de l'appel (type déclaré
+ * le plus proche pour un appel sans cible, y compris une classe anonyme ou locale), le nom
+ * de la méthode et le nombre d'arguments ; un appel sur une variable de type (« T ») n'est
+ * pas mis en cache, son nom ne désignant aucun type précis. Un succès évite la recherche
+ * de la méthode dans la hiérarchie du type, qui est la partie coûteuse de la résolution.
+ * Deux surcharges de même arité déclarées dans des classes différentes d'une même
+ * hiérarchie partagent donc une entrée (cas rare).
+ */
+public final class CallResolver {
+    private static final Pattern PACKAGE_DECLARATION = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;");
+
+    private final TypeSolver typeSolver;
+    private final JavaParserFacade facade;
+    private final ParserConfiguration configuration;
+    private final ResolutionCache cache;
+
+    /**
+     * @param sourceRoots Racines des sources du projet (voir {@link #sourceRootsOf(List)})
+     * @param cache Cache partagé des résolutions
+     */
+    public CallResolver(Collection<Path> sourceRoots, ResolutionCache cache) {
+        CombinedTypeSolver solver = new CombinedTypeSolver(new ReflectionTypeSolver());
+        for (Path root : sourceRoots) {
+            solver.add(new JavaParserTypeSolver(root));
+        }
+        this.typeSolver = solver;
+        this.facade = JavaParserFacade.get(solver);
+        this.configuration = new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(solver));
+        this.cache = cache;
+    }
+
+    /**
+     * Parseur dont les unités de compilation peuvent être résolues par ce solveur
+     */
+    public JavaParser newParser() {
+        return new JavaParser(configuration);
+    }
+
+    /**
+     * @param call Appel de méthode
+     * @param callerClass Nom qualifié de la classe appelante
+     * @return Nom qualifié de la classe déclarant la méthode appelée, ou null si l'appel n'est pas résolu
+     */
+    public String resolve(MethodCallExpr call, String callerClass) {
+        String targetType = targetTypeOf(call, callerClass);
+        if (targetType == null) {
+            return resolveDeclaringClass(call);
+        }
+        String key = targetType + '#' + call.getNameAsString() + '/' + call.getArguments().size();
+        String declaringClass = cache.get(key);
+        if (declaringClass == null) {
+            String resolved = resolveDeclaringClass(call);
+            declaringClass = resolved != null ? resolved : ResolutionCache.UNRESOLVED;
+            cache.put(key, declaringClass);
+        }
+        return declaringClass.isEmpty() ? null : declaringClass;
+    }
+
+    /**
+     * Type statique de la cible de l'appel : type contenant l'appel sans cible ou pour this,
+     * type de l'expression, ou type désigné par son nom pour un appel statique
+     * @return Le nom qualifié du type, ou null s'il ne peut être déterminé sans ambiguïté
+     */
+    private String targetTypeOf(MethodCallExpr call, String callerClass) {
+        Expression scope = call.getScope().orElse(null);
+        if (scope == null || scope.isThisExpr() && !scope.asThisExpr().getTypeName().isPresent()) {
+            return enclosingTypeOf(call, callerClass);
+        }
+        if (scope.isSuperExpr() && !scope.asSuperExpr().getTypeName().isPresent()) {
+            String enclosingType = enclosingTypeOf(call, callerClass);
+            return enclosingType != null ? "super:" + enclosingType : null;
+        }
+        try {
+            ResolvedType type = facade.getType(scope);
+            if (type.isReferenceType()) return type.asReferenceType().getQualifiedName();
+            // Une variable de type n'est désignée que par son nom, commun à des classes sans rapport
+            return type.isTypeVariable() || type.isWildcard() ? null : type.describe();
+        } catch (RuntimeException e) {
+            // Pas une valeur : peut-être un nom de type (appel statique)
+        }
+        if (scope.isNameExpr() || scope.isFieldAccessExpr()) {
+            try {
+                SymbolReference<ResolvedTypeDeclaration> type =
+                        JavaParserFactory.getContext(call, typeSolver).solveType(scope.toString());
+                if (type.isSolved()) return type.getCorrespondingDeclaration().getQualifiedName();
+            } catch (RuntimeException e) {
+                // Type introuvable
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Type déclaré le plus proche contenant un nœud. La classe appelante ne suffit pas : pour un
+     * appel dans une classe anonyme ou locale, c'est la classe englobante. Un type sans nom
+     * qualifié (classe anonyme ou locale, corps d'une constante d'énumération) est désigné par
+     * sa position dans le fichier de la classe appelante.
+     * @return La clé du type, ou null si sa position est inconnue
+     */
+    private static String enclosingTypeOf(Node node, String callerClass) {
+        Node child = node;
+        Node parent = node.getParentNode().orElse(null);
+        while (parent != null) {
+            // Seuls les membres d'un corps de classe anonyme sont des déclarations (les arguments sont des expressions)
+            if ((parent instanceof ObjectCreationExpr || parent instanceof EnumConstantDeclaration)
+                    && child instanceof BodyDeclaration) {
+                return positionOf(parent, callerClass);
+            }
+            if (parent instanceof TypeDeclaration) {
+                TypeDeclaration<?> type = (TypeDeclaration<?>) parent;
+                TypeDeclaration<?> outermost = type;
+                while (outermost.isNestedType()) {
+                    outermost = (TypeDeclaration<?>) outermost.getParentNode().get();
+                }
+                if (outermost.isTopLevelType() && type.getFullyQualifiedName().isPresent()) {
+                    return type.getFullyQualifiedName().get();
+                }
+                return positionOf(parent, callerClass);
+            }
+            child = parent;
+            parent = parent.getParentNode().orElse(null);
+        }
+        return callerClass;
+    }
+
+    private static String positionOf(Node node, String callerClass) {
+        return node.getBegin().map(position -> callerClass + '@' + position.line + ':' + position.column).orElse(null);
+    }
+
+    private String resolveDeclaringClass(MethodCallExpr call) {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        try {
+            SymbolReference<ResolvedMethodDeclaration> method = facade.solve(call);
+            if (method.isSolved()) {
+                metrics.counter("resolve.solved").increment();
+                return method.getCorrespondingDeclaration().declaringType().getQualifiedName();
+            }
+        } catch (RuntimeException | StackOverflowError e) {
+            // Symbole introuvable (bibliothèque absente des sources) ou construction non gérée
+        }
+        metrics.counter("resolve.failures").increment();
+        return null;
+    }
+
+    /**
+     * Racines des sources : pour chaque répertoire contenant des fichiers Java, le package
+     * déclaré par l'un d'eux indique combien de niveaux remonter
+     * @param javaFiles Fichiers du projet
+     * @return Les racines distinctes (par exemple src/main/java)
+     */
+    public static Set<Path> sourceRootsOf(List<File> javaFiles) {
+        Set<Path> roots = new LinkedHashSet<>();
+        Set<Path> visitedDirectories = new HashSet<>();
+        for (File file : javaFiles) {
+            Path directory = file.toPath().toAbsolutePath().normalize().getParent();
+            if (directory == null || !visitedDirectories.add(directory)) continue;
+            Path root = directory;
+            String packageName = readPackage(file);
+            if (packageName != null) {
+                Path packagePath = directory.getFileSystem().getPath("", packageName.split("\\."));
+                if (directory.endsWith(packagePath)) {
+                    for (int i = 0; i < packagePath.getNameCount(); i++) {
+                        root = root.getParent();
+                    }
+                }
+            }
+            roots.add(root);
+        }
+        return roots;
+    }
+
+    private static String readPackage(File file) {
+        try (BufferedReader in = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                Matcher matcher = PACKAGE_DECLARATION.matcher(line);
+                if (matcher.find()) return matcher.group(1);
+                // La déclaration précède toute déclaration de type
+                if (line.contains("class ") || line.contains("interface ") || line.contains("enum ")) return null;
+            }
+        } catch (IOException e) {
+            // Fichier illisible : il sera signalé lors de l'analyse
+        }
+        return null;
+    }
+}
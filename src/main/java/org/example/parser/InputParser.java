@@ -15,6 +15,9 @@ public class InputParser extends VoidVisitorAdapter<Void> {
     // Graphe des appels à remplir pendant l'analyse
     private final CallGraph callGraph;
 
+    // Nom qualifié de la classe en cours de visite (null hors de toute classe)
+    private String currentClass;
+
     /**
      * Constructeur du parseur.
      * @param callGraph Le graphe des appels à remplir pendant l'analyse
@@ -32,14 +35,22 @@ public class InputParser extends VoidVisitorAdapter<Void> {
      */
     @Override
     public void visit(ClassOrInterfaceDeclaration classOrInterface, Void arg) {
-        // Récupère le nom de la classe/interface
-        String className = classOrInterface.getNameAsString();
+        // Récupère le nom qualifié de la classe/interface
+        String className = MethodCallCollector.qualifiedNameOf(classOrInterface, currentClass);
 
-        // Enregistre la classe dans le graphe des appels
-        callGraph.addClass(className);
+        // Enregistre la classe dans le graphe des appels, avec son package
+        className = callGraph.addClass(className);
+        MethodCallCollector.recordLocation(callGraph, classOrInterface, className);
 
-        // Continue la visite des éléments enfants (méthodes, champs, etc.)
-        super.visit(classOrInterface, arg);
+        // Continue la visite des éléments enfants (méthodes, champs, etc.) ;
+        // la classe englobante est rétablie ensuite
+        String enclosingClass = currentClass;
+        currentClass = className;
+        try {
+            super.visit(classOrInterface, arg);
+        } finally {
+            currentClass = enclosingClass;
+        }
     }
 
     /**
@@ -55,16 +66,15 @@ public class InputParser extends VoidVisitorAdapter<Void> {
      */
     @Override
     public void visit(MethodDeclaration method, Void arg) {
-        // Recherche la classe contenante en remontant l'arbre AST
-        String callerClass = method.findAncestor(ClassOrInterfaceDeclaration.class)
-                .map(ClassOrInterfaceDeclaration::getNameAsString)
-                .orElse("UnknownClass"); // Valeur par défaut si la classe n'est pas trouvée
+        // La classe contenante est la classe en cours de visite
+        String callerClass = currentClass != null ? currentClass
+                : "UnknownClass"; // Valeur par défaut si la classe n'est pas trouvée
 
         // Récupère le nom de la méthode
         String methodName = method.getNameAsString();
 
-        // Enregistre la méthode comme appartenant à sa classe
-        callGraph.addMethod(callerClass, methodName);
+        // Enregistre la méthode (et ses paramètres) comme appartenant à sa classe
+        callGraph.addMethod(callerClass, methodName, MethodCallCollector.parameterListOf(method));
 
         // Recherche et analyse tous les appels de méthodes dans le corps de la méthode
         method.findAll(MethodCallExpr.class).forEach(methodCall -> {
@@ -1,10 +1,14 @@
 package org.example.parser;
 
+import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.type.Type;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import org.example.graph.CallGraph;
+import org.example.monitoring.EventLog;
 
 /**
  * Collecteur qui analyse le code source Java pour identifier et enregistrer
@@ -14,13 +18,31 @@ public class MethodCallCollector extends VoidVisitorAdapter<Void> {
     // Le graphe qui stockera toutes les relations d'appels collectées
     private final CallGraph callGraph;
 
+    // Résolution des appels vers leur classe déclarante (null : attribution par nom seulement)
+    private final CallResolver resolver;
+
+    // Nom qualifié de la classe en cours de visite (null hors de toute classe)
+    private String currentClass;
+
     /**
      * Constructeur du collecteur.
      *
      * @param callGraph Le graphe des appels à remplir pendant la collecte
      */
     public MethodCallCollector(CallGraph callGraph) {
+        this(callGraph, null);
+    }
+
+    /**
+     * Constructeur du collecteur avec résolution des appels.
+     * Les unités de compilation visitées doivent provenir de {@link CallResolver#newParser()}.
+     *
+     * @param callGraph Le graphe des appels à remplir pendant la collecte
+     * @param resolver Le solveur propre au thread d'analyse, ou null
+     */
+    public MethodCallCollector(CallGraph callGraph, CallResolver resolver) {
         this.callGraph = callGraph;
+        this.resolver = resolver;
     }
 
     /**
@@ -32,17 +54,24 @@ public class MethodCallCollector extends VoidVisitorAdapter<Void> {
      */
     @Override
     public void visit(ClassOrInterfaceDeclaration classOrInterface, Void arg) {
-        // Extrait le nom de la classe
-        String className = classOrInterface.getNameAsString();
+        // Extrait le nom qualifié de la classe
+        String className = qualifiedNameOf(classOrInterface, currentClass);
 
-        // Enregistre la classe dans le graphe
-        callGraph.addClass(className);
+        // Enregistre la classe dans le graphe, avec son package et son module de construction
+        className = callGraph.addClass(className);
+        recordLocation(callGraph, classOrInterface, className);
 
-        // Log pour le debugging
-        System.out.println("Classe détectée : " + className);
+        // Log pour le debugging (niveau debug : sans coût lorsqu'il est désactivé)
+        EventLog.debug("Classe détectée : %s", className);
 
-        // Continue la visite des éléments enfants
-        super.visit(classOrInterface, arg);
+        // Continue la visite des éléments enfants ; la classe englobante est rétablie ensuite
+        String enclosingClass = currentClass;
+        currentClass = className;
+        try {
+            super.visit(classOrInterface, arg);
+        } finally {
+            currentClass = enclosingClass;
+        }
     }
 
     /**
@@ -56,16 +85,14 @@ public class MethodCallCollector extends VoidVisitorAdapter<Void> {
      */
     @Override
     public void visit(MethodDeclaration method, Void arg) {
-        // Trouve la classe qui contient cette méthode
-        String callerClass = method.findAncestor(ClassOrInterfaceDeclaration.class)
-                .map(ClassOrInterfaceDeclaration::getNameAsString)
-                .orElse("UnknownClass");
+        // La classe qui contient cette méthode est la classe en cours de visite
+        String callerClass = currentClass != null ? currentClass : "UnknownClass";
 
-        // Récupère le nom de la méthode
+        // Récupère le nom et la signature de la méthode
         String methodName = method.getNameAsString();
 
         // Enregistre la méthode dans sa classe
-        callGraph.addMethod(callerClass, methodName);
+        callGraph.addMethod(callerClass, methodName, parameterListOf(method));
 
         // Log commenté pour la définition de méthode
         //System.out.println("Méthode définie : " + callerClass + "." + methodName);
@@ -76,6 +103,16 @@ public class MethodCallCollector extends VoidVisitorAdapter<Void> {
             String calledMethodName = methodCall.getNameAsString();
             callGraph.addMethodCall(callerClass, calledMethodName);
 
+            // Avec la résolution, l'appel est aussi attribué à la classe qui déclare la méthode
+            if (resolver != null) {
+                String declaringClass = resolver.resolve(methodCall, callerClass);
+                if (declaringClass != null) {
+                    callGraph.addResolvedCall(callerClass, declaringClass, calledMethodName);
+                } else {
+                    callGraph.addUnresolvedCall(callerClass, calledMethodName);
+                }
+            }
+
             // Log commenté pour les appels de méthodes
             //System.out.println("Méthode appelée par " + callerClass + ": " + calledMethodName);
         });
@@ -83,4 +120,60 @@ public class MethodCallCollector extends VoidVisitorAdapter<Void> {
         // Continue la visite des éléments enfants
         super.visit(method, arg);
     }
-}
\ No newline at end of file
+
+    /**
+     * Enregistre le package (déclaration package de l'unité de compilation) et le module
+     * de construction (d'après le chemin du fichier source) d'une classe.
+     *
+     * @param callGraph Le graphe des appels
+     * @param classOrInterface La déclaration de la classe
+     * @param className Le nom sous lequel la classe est enregistrée
+     */
+    static void recordLocation(CallGraph callGraph, ClassOrInterfaceDeclaration classOrInterface, String className) {
+        classOrInterface.findCompilationUnit().ifPresent(unit -> callGraph.setClassLocation(className,
+                unit.getPackageDeclaration().map(declaration -> declaration.getNameAsString()).orElse(""),
+                BuildModules.moduleOf(unit.getStorage().map(CompilationUnit.Storage::getPath))));
+    }
+
+    /**
+     * Nom qualifié d'une classe (« org.example.graph.CallGraph », « Externe.Interne » pour une
+     * classe imbriquée). Une classe locale, sans nom qualifié, est nommée d'après sa classe englobante.
+     *
+     * @param classOrInterface La déclaration de la classe
+     * @param enclosingClass Le nom qualifié de la classe englobante, ou null
+     */
+    static String qualifiedNameOf(ClassOrInterfaceDeclaration classOrInterface, String enclosingClass) {
+        return classOrInterface.getFullyQualifiedName().orElseGet(() -> enclosingClass != null
+                ? enclosingClass + "." + classOrInterface.getNameAsString()
+                : classOrInterface.getNameAsString());
+    }
+
+    /**
+     * Liste des paramètres d'une méthode avec les noms simples de leurs types, sans arguments
+     * de type, par exemple « (String,List) » ; un paramètre variable est noté comme un tableau.
+     *
+     * @param method La déclaration de méthode
+     */
+    static String parameterListOf(MethodDeclaration method) {
+        if (method.getParameters().isEmpty()) return "()";
+        StringBuilder signature = new StringBuilder().append('(');
+        for (int i = 0; i < method.getParameters().size(); i++) {
+            Parameter parameter = method.getParameter(i);
+            if (i > 0) signature.append(',');
+            appendSimpleType(signature, parameter.getType());
+            if (parameter.isVarArgs()) signature.append("[]");
+        }
+        return signature.append(')').toString();
+    }
+
+    private static void appendSimpleType(StringBuilder signature, Type type) {
+        if (type.isArrayType()) {
+            appendSimpleType(signature, type.asArrayType().getComponentType());
+            signature.append("[]");
+        } else if (type.isClassOrInterfaceType()) {
+            signature.append(type.asClassOrInterfaceType().getNameAsString());
+        } else {
+            signature.append(type.asString());
+        }
+    }
+}
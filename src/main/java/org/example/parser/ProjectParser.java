@@ -0,0 +1,248 @@
+package org.example.parser;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import org.example.graph.CallGraph;
+import org.example.monitoring.FileParseEvent;
+import org.example.monitoring.GraphMergeEvent;
+import org.example.monitoring.EventLog;
+import org.example.monitoring.MetricsRegistry;
+import org.example.monitoring.ProgressMeter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Analyse l'ensemble des fichiers Java d'un projet avec JavaParser.
+ * Les fichiers sont répartis entre plusieurs threads ; chaque thread remplit
+ * son propre graphe d'appels (avec son propre parseur), puis les graphes
+ * partiels sont fusionnés, ce qui évite toute synchronisation pendant l'analyse.
+ */
+public class ProjectParser {
+    // Nombre de threads d'analyse
+    private final int parallelism;
+    // Cache partagé des résolutions d'appels (null : attribution par nom seulement)
+    private ResolutionCache resolutionCache;
+    // Racines des sources utilisées par les solveurs de symboles
+    private Set<Path> sourceRoots = Collections.emptySet();
+
+    /**
+     * @param parallelism Nombre de threads d'analyse (1 pour une analyse séquentielle)
+     */
+    public ProjectParser(int parallelism) {
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    /**
+     * Active la résolution des appels vers leur classe déclarante pour {@link #parse(List)} :
+     * chaque thread d'analyse utilise son propre solveur de symboles et tous partagent
+     * un cache borné des résolutions.
+     * @param cacheCapacity Nombre maximal d'entrées du cache partagé
+     * @return Le cache, dont les statistiques peuvent être consultées après l'analyse
+     */
+    public ResolutionCache enableCallResolution(int cacheCapacity) {
+        resolutionCache = new ResolutionCache(cacheCapacity);
+        return resolutionCache;
+    }
+
+    /**
+     * Liste récursivement les fichiers .java d'un répertoire
+     * @param directory Répertoire racine du projet
+     * @return Liste des fichiers Java trouvés
+     */
+    public static List<File> listJavaFiles(File directory) {
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            return paths.filter(path -> path.toString().endsWith(".java") && Files.isRegularFile(path))
+                    .map(Path::toFile)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            System.err.println("Erreur lors du parcours de " + directory + ": " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Analyse les fichiers et construit le graphe d'appels du projet
+     * @param javaFiles Fichiers à analyser
+     * @return Le graphe d'appels fusionné
+     */
+    public CallGraph parse(List<File> javaFiles) {
+        ProgressMeter progress = EventLog.progress("Analyse", "fichiers", javaFiles.size());
+        if (resolutionCache != null) {
+            sourceRoots = CallResolver.sourceRootsOf(javaFiles);
+        }
+        if (parallelism == 1) {
+            CallGraph callGraph = parseSlice(javaFiles, 0, 1, progress);
+            progress.done();
+            return callGraph;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<CallGraph>> partials = new ArrayList<>();
+            for (int worker = 0; worker < parallelism; worker++) {
+                final int offset = worker;
+                partials.add(executor.submit(() -> parseSlice(javaFiles, offset, parallelism, progress)));
+            }
+
+            CallGraph callGraph = new CallGraph();
+            MetricsRegistry.Timer mergeTimer = MetricsRegistry.getDefault().timer("graph.merge");
+            for (Future<CallGraph> partial : partials) {
+                CallGraph partialGraph = partial.get();
+                GraphMergeEvent event = new GraphMergeEvent();
+                event.begin();
+                long start = mergeTimer.start();
+                callGraph.merge(partialGraph);
+                mergeTimer.stop(start);
+                if (event.shouldCommit()) {
+                    event.mergedClasses = partialGraph.getAllClasses().size();
+                    event.totalClasses = callGraph.getAllClasses().size();
+                    event.commit();
+                }
+            }
+            progress.done();
+            return callGraph;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analyse interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur lors de l'analyse du projet", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Analyse un fichier sur {@code stride} à partir de {@code offset} dans un graphe partiel
+     */
+    private CallGraph parseSlice(List<File> javaFiles, int offset, int stride, ProgressMeter progress) {
+        CallGraph partial = new CallGraph();
+        JavaParser parser;
+        MethodCallCollector collector;
+        if (resolutionCache != null) {
+            // Solveur propre au thread : ses structures internes ne sont pas thread-safe
+            CallResolver resolver = new CallResolver(sourceRoots, resolutionCache);
+            parser = resolver.newParser();
+            collector = new MethodCallCollector(partial, resolver);
+        } else {
+            parser = new JavaParser();
+            collector = new MethodCallCollector(partial);
+        }
+        for (int i = offset; i < javaFiles.size(); i += stride) {
+            parseFile(parser, javaFiles.get(i), collector);
+            progress.step();
+        }
+        return partial;
+    }
+
+    /**
+     * Analyse des fichiers dans le thread appelant (par exemple une tâche d'un pool partagé)
+     * @param javaFiles Fichiers à analyser
+     * @return Le graphe d'appels de ces fichiers
+     */
+    public static CallGraph parseSequentially(List<File> javaFiles) {
+        CallGraph graph = new CallGraph();
+        JavaParser parser = new JavaParser();
+        MethodCallCollector collector = new MethodCallCollector(graph);
+        for (File file : javaFiles) {
+            parseFile(parser, file, collector);
+        }
+        return graph;
+    }
+
+    /**
+     * Analyse chaque fichier dans son propre graphe d'appels, ce qui permet ensuite
+     * de remplacer la contribution d'un seul fichier (analyse incrémentale)
+     * @param javaFiles Fichiers à analyser
+     * @return Le graphe d'appels de chaque fichier
+     */
+    public Map<File, CallGraph> parseEach(List<File> javaFiles) {
+        Map<File, CallGraph> graphs = new ConcurrentHashMap<>();
+        ProgressMeter progress = EventLog.progress("Analyse", "fichiers", javaFiles.size());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int worker = 0; worker < parallelism; worker++) {
+                final int offset = worker;
+                tasks.add(executor.submit(() -> {
+                    JavaParser parser = new JavaParser();
+                    for (int i = offset; i < javaFiles.size(); i += parallelism) {
+                        CallGraph graph = new CallGraph();
+                        parseFile(parser, javaFiles.get(i), new MethodCallCollector(graph));
+                        graphs.put(javaFiles.get(i), graph);
+                        progress.step();
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            progress.done();
+            return graphs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analyse interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erreur lors de l'analyse du projet", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Analyse un fichier et transmet son unité de compilation au collecteur
+     */
+    private static void parseFile(JavaParser parser, File file, MethodCallCollector collector) {
+        long start = beginFileParse();
+        FileParseEvent event = new FileParseEvent();
+        event.begin();
+        try {
+            ParseResult<CompilationUnit> result = parser.parse(file);
+            if (result.getResult().isPresent()) {
+                result.getResult().get().accept(collector, null);
+            } else {
+                MetricsRegistry.getDefault().counter("parse.errors").increment();
+                EventLog.error("Erreur lors de l'analyse de %s: %s", file.getName(), result.getProblems().toString());
+            }
+        } catch (IOException e) {
+            MetricsRegistry.getDefault().counter("parse.errors").increment();
+            EventLog.error("Erreur lors de l'analyse de %s: %s", file.getName(), e.getMessage());
+        }
+        endFileParse(event, file, start);
+    }
+
+    /**
+     * Début de l'analyse d'un fichier pour les métriques
+     * @return L'instant de départ à passer à {@link #endFileParse}
+     */
+    public static long beginFileParse() {
+        return MetricsRegistry.getDefault().timer("parse.file").start();
+    }
+
+    /**
+     * Fin de l'analyse d'un fichier : enregistre les métriques et l'événement JFR (déjà commencé)
+     */
+    public static void endFileParse(FileParseEvent event, File file, long start) {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        metrics.timer("parse.file").stop(start);
+        metrics.counter("parse.files").increment();
+        long bytes = file.length();
+        metrics.histogram("parse.file.bytes").record(bytes);
+        if (event.shouldCommit()) {
+            event.path = file.getPath();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
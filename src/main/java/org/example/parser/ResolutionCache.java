@@ -0,0 +1,119 @@
+package org.example.parser;
+
+import org.example.monitoring.MetricsRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache partagé entre les threads d'analyse des résolutions d'appels :
+ * (type de la cible, méthode, nombre d'arguments) -> classe déclarant la méthode.
+ *
+ * Le cache est borné et découpé en segments indépendants (chacun une LinkedHashMap en
+ * ordre d'accès, protégée par son propre verrou), si bien que les threads ne se gênent
+ * que lorsqu'ils touchent le même segment ; l'entrée la moins récemment utilisée
+ * d'un segment plein est évincée. Les succès et les échecs sont comptés pour le rapport.
+ */
+public final class ResolutionCache {
+    // Valeur enregistrée pour une résolution impossible (pour ne pas la retenter)
+    public static final String UNRESOLVED = "";
+
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * Segment LRU borné
+     */
+    private static final class Segment extends LinkedHashMap<String, String> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity Nombre maximal d'entrées (réparties entre les segments)
+     */
+    public ResolutionCache(int capacity) {
+        this.capacity = Math.max(capacity, SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(this.capacity / SEGMENT_COUNT);
+        }
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * @return La classe déclarante, {@link #UNRESOLVED}, ou null si la clé est absente
+     */
+    public String get(String key) {
+        Segment segment = segmentFor(key);
+        String value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            MetricsRegistry.getDefault().counter("resolve.cache.hits").increment();
+        } else {
+            misses.increment();
+            MetricsRegistry.getDefault().counter("resolve.cache.misses").increment();
+        }
+        return value;
+    }
+
+    public void put(String key, String declaringClass) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, declaringClass);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Proportion des recherches trouvées dans le cache (0 si aucune recherche)
+     */
+    public double getHitRate() {
+        long found = hits.sum();
+        long total = found + misses.sum();
+        return total == 0 ? 0 : (double) found / total;
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.synthetic;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Répartition réelle des classes d'un projet synthétique (fichier ground_truth.tsv),
+ * utilisée pour mesurer la qualité d'un clustering.
+ */
+public class GroundTruth {
+    // Module implanté de chaque classe
+    private final Map<String, Integer> moduleByClass;
+
+    public GroundTruth(Map<String, Integer> moduleByClass) {
+        this.moduleByClass = moduleByClass;
+    }
+
+    /**
+     * Lit un fichier « classe TAB module » écrit par {@link SyntheticProjectGenerator}
+     */
+    public static GroundTruth read(File file) throws IOException {
+        Map<String, Integer> moduleByClass = new HashMap<>();
+        try (BufferedReader in = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab < 0) continue;
+                moduleByClass.put(line.substring(0, tab), Integer.parseInt(line.substring(tab + 1).trim()));
+            }
+        }
+        return new GroundTruth(moduleByClass);
+    }
+
+    public int size() {
+        return moduleByClass.size();
+    }
+
+    /**
+     * Information mutuelle normalisée (NMI, normalisation par la moyenne des entropies)
+     * entre la répartition réelle et une partition obtenue par clustering.
+     * Les classes absentes de la partition forment chacune leur propre groupe ;
+     * les classes inconnues de la vérité terrain sont ignorées.
+     * @param partition Groupes de classes obtenus
+     * @return Une valeur entre 0 (indépendance) et 1 (partitions identiques)
+     */
+    public double normalizedMutualInformation(List<? extends Set<String>> partition) {
+        // Groupe obtenu pour chaque classe connue
+        Map<String, Integer> groupByClass = new HashMap<>();
+        for (int group = 0; group < partition.size(); group++) {
+            for (String className : partition.get(group)) {
+                if (moduleByClass.containsKey(className)) {
+                    groupByClass.put(className, group);
+                }
+            }
+        }
+        int nextGroup = partition.size();
+        for (String className : moduleByClass.keySet()) {
+            if (!groupByClass.containsKey(className)) {
+                groupByClass.put(className, nextGroup++);
+            }
+        }
+
+        // Table de contingence creuse (module, groupe) -> effectif
+        Map<Long, Integer> joint = new HashMap<>();
+        Map<Integer, Integer> moduleSizes = new HashMap<>();
+        Map<Integer, Integer> groupSizes = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : moduleByClass.entrySet()) {
+            int module = entry.getValue();
+            int group = groupByClass.get(entry.getKey());
+            joint.merge(((long) module << 32) | group, 1, Integer::sum);
+            moduleSizes.merge(module, 1, Integer::sum);
+            groupSizes.merge(group, 1, Integer::sum);
+        }
+
+        double n = moduleByClass.size();
+        double mutualInformation = 0;
+        for (Map.Entry<Long, Integer> cell : joint.entrySet()) {
+            int module = (int) (cell.getKey() >>> 32);
+            int group = (int) (long) cell.getKey();
+            double count = cell.getValue();
+            mutualInformation += count / n * Math.log(count * n / ((double) moduleSizes.get(module) * groupSizes.get(group)));
+        }
+        double entropy = (entropy(moduleSizes.values(), n) + entropy(groupSizes.values(), n)) / 2;
+        // Deux partitions triviales identiques (un seul groupe) sont parfaitement corrélées
+        return entropy > 0 ? mutualInformation / entropy : 1.0;
+    }
+
+    private static double entropy(Collection<Integer> sizes, double n) {
+        double entropy = 0;
+        for (int size : sizes) {
+            double p = size / n;
+            entropy -= p * Math.log(p);
+        }
+        return entropy;
+    }
+}
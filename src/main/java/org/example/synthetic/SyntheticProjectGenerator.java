@@ -0,0 +1,226 @@
+package org.example.synthetic;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Génère un projet Java synthétique pour tester l'analyse à grande échelle (de 1 000 à 200 000 classes).
+ * Les classes sont réparties entre des modules implantés (un paquetage synthetic.mK par module) :
+ * chaque appel vise une classe du même module avec la probabilité {@code intraModuleProbability},
+ * sinon une classe quelconque. La répartition réelle est écrite dans ground_truth.tsv
+ * (une ligne « nom qualifié de la classe, module » par classe) pour évaluer la qualité du clustering.
+ *
+ * Les méthodes sont statiques et appelées par leur nom qualifié, ce qui permet à Spoon
+ * de résoudre chaque appel ; leurs noms (cImJ) sont uniques, donc le couplage par nom est exact.
+ * Rien n'est conservé en mémoire : la classe i appartient au module i % moduleCount.
+ */
+public class SyntheticProjectGenerator {
+    /**
+     * Distribution du nombre d'appels émis par chaque méthode
+     */
+    public enum FanOutDistribution {
+        // Exactement la moyenne demandée
+        FIXED,
+        // Loi géométrique de moyenne donnée
+        GEOMETRIC,
+        // Loi de puissance (exposant 2,5) de moyenne donnée : quelques méthodes appellent beaucoup
+        POWER_LAW
+    }
+
+    // Nom du fichier de vérité terrain écrit à la racine du projet généré
+    public static final String GROUND_TRUTH_FILE = "ground_truth.tsv";
+    // Exposant de la loi de puissance
+    private static final double POWER_LAW_EXPONENT = 2.5;
+    // Nombre maximum d'appels par méthode
+    private static final int MAX_FAN_OUT = 1000;
+
+    private final int classCount;
+    private final int methodsPerClass;
+    private final int moduleCount;
+    private final double meanFanOut;
+    private final FanOutDistribution distribution;
+    private final double intraModuleProbability;
+    private final long seed;
+
+    /**
+     * @param classCount Nombre de classes
+     * @param methodsPerClass Nombre de méthodes par classe
+     * @param moduleCount Nombre de modules implantés
+     * @param meanFanOut Nombre moyen d'appels par méthode
+     * @param distribution Distribution du nombre d'appels
+     * @param intraModuleProbability Probabilité qu'un appel reste dans le module de l'appelant
+     * @param seed Graine du générateur aléatoire (même graine, même projet)
+     */
+    public SyntheticProjectGenerator(int classCount, int methodsPerClass, int moduleCount, double meanFanOut,
+                                     FanOutDistribution distribution, double intraModuleProbability, long seed) {
+        if (classCount < 1 || methodsPerClass < 1 || moduleCount < 1 || moduleCount > classCount) {
+            throw new IllegalArgumentException("Il faut au moins une classe, une méthode et entre 1 et "
+                    + classCount + " modules");
+        }
+        if (meanFanOut < 0 || intraModuleProbability < 0 || intraModuleProbability > 1) {
+            throw new IllegalArgumentException("Nombre moyen d'appels ou probabilité intra-module invalide");
+        }
+        this.classCount = classCount;
+        this.methodsPerClass = methodsPerClass;
+        this.moduleCount = moduleCount;
+        this.meanFanOut = meanFanOut;
+        this.distribution = distribution;
+        this.intraModuleProbability = intraModuleProbability;
+        this.seed = seed;
+    }
+
+    /**
+     * Module implanté d'une classe
+     */
+    public int moduleOf(int classIndex) {
+        return classIndex % moduleCount;
+    }
+
+    public static String className(int classIndex) {
+        return "C" + classIndex;
+    }
+
+    public static String moduleName(int module) {
+        return "m" + module;
+    }
+
+    /**
+     * Écrit le projet dans {@code outputDirectory}/src et la vérité terrain dans
+     * {@code outputDirectory}/ground_truth.tsv
+     * @param outputDirectory Répertoire de destination (créé si nécessaire)
+     * @return Le nombre d'appels générés
+     */
+    public long generate(File outputDirectory) throws IOException {
+        File sourceRoot = new File(outputDirectory, "src/synthetic");
+        for (int module = 0; module < moduleCount; module++) {
+            Files.createDirectories(new File(sourceRoot, moduleName(module)).toPath());
+        }
+
+        Random random = new Random(seed);
+        long callCount = 0;
+        StringBuilder source = new StringBuilder();
+        try (Writer groundTruth = new BufferedWriter(new FileWriter(
+                new File(outputDirectory, GROUND_TRUTH_FILE), StandardCharsets.UTF_8))) {
+            for (int i = 0; i < classCount; i++) {
+                source.setLength(0);
+                callCount += writeClass(i, random, source);
+                File file = new File(sourceRoot, moduleName(moduleOf(i)) + "/" + className(i) + ".java");
+                try (Writer out = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
+                    out.append(source);
+                }
+                groundTruth.write("synthetic." + moduleName(moduleOf(i)) + "." + className(i)
+                        + "\t" + moduleOf(i) + "\n");
+            }
+        }
+        return callCount;
+    }
+
+    /**
+     * Écrit le code source de la classe {@code classIndex}
+     * @return Le nombre d'appels émis par la classe
+     */
+    private int writeClass(int classIndex, Random random, StringBuilder source) {
+        int calls = 0;
+        source.append("package synthetic.").append(moduleName(moduleOf(classIndex))).append(";\n\n");
+        source.append("public class ").append(className(classIndex)).append(" {\n");
+        for (int j = 0; j < methodsPerClass; j++) {
+            source.append("    public static void c").append(classIndex).append('m').append(j).append("() {\n");
+            int fanOut = sampleFanOut(random);
+            for (int call = 0; call < fanOut; call++) {
+                int target = sampleTarget(classIndex, random);
+                source.append("        synthetic.").append(moduleName(moduleOf(target))).append('.')
+                        .append(className(target)).append(".c").append(target).append('m')
+                        .append(random.nextInt(methodsPerClass)).append("();\n");
+            }
+            calls += fanOut;
+            source.append("    }\n");
+        }
+        source.append("}\n");
+        return calls;
+    }
+
+    private int sampleFanOut(Random random) {
+        switch (distribution) {
+            case GEOMETRIC: {
+                // Nombre d'échecs avant un succès de probabilité 1 / (moyenne + 1)
+                double p = 1.0 / (meanFanOut + 1);
+                return (int) Math.min(Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p)), MAX_FAN_OUT);
+            }
+            case POWER_LAW: {
+                // Pareto continue de minimum xMin : moyenne = xMin * (a - 1) / (a - 2)
+                double xMin = meanFanOut * (POWER_LAW_EXPONENT - 2) / (POWER_LAW_EXPONENT - 1);
+                double value = xMin * Math.pow(1 - random.nextDouble(), -1 / (POWER_LAW_EXPONENT - 1));
+                return (int) Math.min(Math.round(value), MAX_FAN_OUT);
+            }
+            default:
+                return (int) Math.round(meanFanOut);
+        }
+    }
+
+    /**
+     * Tire la classe appelée : dans le module de l'appelant ou n'importe où
+     */
+    private int sampleTarget(int classIndex, Random random) {
+        if (random.nextDouble() < intraModuleProbability) {
+            int module = moduleOf(classIndex);
+            // Les classes du module sont module, module + moduleCount, ...
+            int moduleSize = (classCount - module + moduleCount - 1) / moduleCount;
+            return module + moduleCount * random.nextInt(moduleSize);
+        }
+        return random.nextInt(classCount);
+    }
+
+    public static void main(String[] args) {
+        String output = null;
+        int classes = 1000;
+        int methods = 5;
+        int modules = 20;
+        double fanOut = 3;
+        FanOutDistribution distribution = FanOutDistribution.POWER_LAW;
+        double intra = 0.8;
+        long seed = 42L;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("valeur manquante pour " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--output": output = value; break;
+                    case "--classes": classes = Integer.parseInt(value); break;
+                    case "--methods": methods = Integer.parseInt(value); break;
+                    case "--modules": modules = Integer.parseInt(value); break;
+                    case "--fan-out": fanOut = Double.parseDouble(value); break;
+                    case "--distribution": distribution = FanOutDistribution.valueOf(value.toUpperCase().replace('-', '_')); break;
+                    case "--intra": intra = Double.parseDouble(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    default: throw new IllegalArgumentException("option inconnue " + args[i]);
+                }
+            }
+            if (output == null) {
+                throw new IllegalArgumentException("--output est obligatoire");
+            }
+            SyntheticProjectGenerator generator =
+                    new SyntheticProjectGenerator(classes, methods, modules, fanOut, distribution, intra, seed);
+            long start = System.currentTimeMillis();
+            long calls = generator.generate(new File(output));
+            System.out.println(classes + " classes, " + calls + " appels générés dans " + output
+                    + " en " + (System.currentTimeMillis() - start) + " ms");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            System.err.println("Usage : SyntheticProjectGenerator --output <répertoire> [--classes n] [--methods n]"
+                    + " [--modules n] [--fan-out moyenne] [--distribution fixed|geometric|power-law]"
+                    + " [--intra probabilité] [--seed n]");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la génération : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -8,12 +8,12 @@ import guru.nidi.graphviz.engine.Graphviz;
 import guru.nidi.graphviz.model.MutableGraph;
 import guru.nidi.graphviz.model.MutableNode;
 import org.example.graph.Pair;
+import org.example.metrics.ZeroFilledCoupling;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
-import java.util.HashSet;
 import static guru.nidi.graphviz.model.Factory.*;
 
 /**
@@ -23,17 +23,37 @@ import static guru.nidi.graphviz.model.Factory.*;
  */
 public class CouplingGraphVisualizer {
 
+    // Version des paramètres de rendu (à modifier si l'apparence du graphe change)
+    private static final String RENDER_SETTINGS = "v1|width=1000";
+
+    /**
+     * Génère le graphe de couplage, ou le copie depuis le cache de rendus
+     * si les mêmes données ont déjà été rendues avec les mêmes paramètres
+     * @param couplingMatrix Matrice des couplages entre classes
+     * @param outputPath Chemin du fichier à générer (.png, .dot ou .svg)
+     */
     public static void generateCouplingGraph(Map<Pair<String, String>, Double> couplingMatrix, String outputPath) {
+        String key = RenderCache.couplingGraphKey(couplingMatrix, RENDER_SETTINGS);
+        RenderCache.getDefault().render(key, outputPath, () -> renderCouplingGraph(couplingMatrix, outputPath));
+    }
+
+    private static void renderCouplingGraph(Map<Pair<String, String>, Double> couplingMatrix, String outputPath) {
+        // Les formats DOT et SVG sont écrits en flux, sans moteur Graphviz
+        if (outputPath.endsWith(".dot")) {
+            StreamingGraphWriter.writeDot(couplingMatrix, outputPath);
+            return;
+        }
+        if (outputPath.endsWith(".svg")) {
+            StreamingGraphWriter.writeSvg(couplingMatrix, outputPath);
+            return;
+        }
+
         try {
             MutableGraph graph = mutGraph("Coupling Graph").setDirected(true);
             graph.graphAttrs().add(Label.of("Graphe de couplage pondéré"));
 
             // Collecter toutes les classes uniques
-            Set<String> classes = new HashSet<>();
-            couplingMatrix.keySet().forEach(pair -> {
-                classes.add(pair.getFirst());
-                classes.add(pair.getSecond());
-            });
+            Set<String> classes = ZeroFilledCoupling.classesOf(couplingMatrix);
 
             // Créer les nœuds
             Map<String, MutableNode> nodes = new java.util.HashMap<>();
@@ -46,8 +66,9 @@ public class CouplingGraphVisualizer {
             }
 
             // Ajouter les arêtes avec les poids
-            for (Map.Entry<Pair<String, String>, Double> entry : couplingMatrix.entrySet()) {
-                if (entry.getValue() > 0) {  // Ne montrer que les couplages non nuls
+            for (Map.Entry<Pair<String, String>, Double> entry
+                    : ZeroFilledCoupling.storedCouplingsOf(couplingMatrix).entrySet()) {
+                if (entry.getValue() != null && entry.getValue() > 0) {  // Ne montrer que les couplages non nuls
                     String from = entry.getKey().getFirst();
                     String to = entry.getKey().getSecond();
                     double weight = entry.getValue();
@@ -3,13 +3,16 @@ package org.example.visualization;
 import guru.nidi.graphviz.attribute.*;
 import guru.nidi.graphviz.engine.Format;
 import guru.nidi.graphviz.engine.Graphviz;
-import guru.nidi.graphviz.model.LinkSource;
 import guru.nidi.graphviz.model.MutableGraph;
 import guru.nidi.graphviz.model.MutableNode;
 import org.example.clustering.HierarchicalClustering.Cluster;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static guru.nidi.graphviz.model.Factory.*;
@@ -17,10 +20,42 @@ import static guru.nidi.graphviz.model.Factory.*;
 /**
  * Classe pour générer une représentation visuelle d'un dendrogramme
  * montrant la hiérarchie des clusters de classes.
+ * Le parcours de l'arbre est itératif (pile explicite) : un dendrogramme
+ * dégénéré en chaîne ne provoque pas de débordement de pile. Les nœuds ont des
+ * identifiants numériques et les étiquettes des nœuds internes n'indiquent que
+ * leur taille, si bien que la sortie est linéaire en nombre de feuilles.
  */
 public class DendrogramVisualizer {
-
+    // Espacement horizontal entre deux feuilles dans le SVG (en pixels)
+    private static final double LEAF_SPACING = 14.0;
+    // Hauteur de la zone de tracé de l'arbre dans le SVG (en pixels)
+    private static final double TREE_HEIGHT = 600.0;
+    // Place réservée aux noms des classes sous l'arbre (en pixels)
+    private static final double LABEL_HEIGHT = 200.0;
+    // Marge autour du dessin (en pixels)
+    private static final double MARGIN = 40.0;
+
+    // Version des paramètres de rendu (à modifier si l'apparence du dendrogramme change)
+    private static final String RENDER_SETTINGS = "v1|1200x800";
+
+    /**
+     * Génère le dendrogramme, ou le copie depuis le cache de rendus
+     * si le même arbre a déjà été rendu avec les mêmes paramètres
+     * @param root Racine du dendrogramme
+     * @param outputPath Chemin du fichier à générer (.png ou .svg)
+     */
     public static void generateDendrogram(Cluster root, String outputPath) {
+        String key = RenderCache.dendrogramKey(root, RENDER_SETTINGS);
+        RenderCache.getDefault().render(key, outputPath, () -> renderDendrogram(root, outputPath));
+    }
+
+    private static void renderDendrogram(Cluster root, String outputPath) {
+        // Le format SVG est écrit directement, sans moteur Graphviz
+        if (outputPath.endsWith(".svg")) {
+            generateDendrogramSvg(root, outputPath);
+            return;
+        }
+
         try {
             MutableGraph graph = mutGraph("Dendrogram").setDirected(true);
 
@@ -29,8 +64,8 @@ public class DendrogramVisualizer {
 
             graph.graphAttrs().add("rankdir", "TB");
 
-            // Générer les nœuds et les liens récursivement
-            generateClusterNode(root, graph, new HashMap<>());
+            // Générer les nœuds et les liens
+            generateClusterNodes(root, graph);
 
             // Générer le fichier
             Graphviz.fromGraph(graph)
@@ -47,44 +82,157 @@ public class DendrogramVisualizer {
         }
     }
 
-    private static MutableNode generateClusterNode(
-            Cluster cluster,
-            MutableGraph graph,
-            Map<Set<String>, MutableNode> nodeMap) {
-
-        if (cluster == null) return null;
+    /**
+     * Crée les nœuds et les liens du dendrogramme par un parcours en profondeur itératif
+     */
+    private static void generateClusterNodes(Cluster root, MutableGraph graph) {
+        if (root == null) return;
+
+        int[] nextId = {0};
+        Deque<Map.Entry<Cluster, MutableNode>> stack = new ArrayDeque<>();
+        stack.push(new AbstractMap.SimpleEntry<>(root, createClusterNode(root, graph, nextId)));
+
+        while (!stack.isEmpty()) {
+            Map.Entry<Cluster, MutableNode> current = stack.pop();
+            Cluster cluster = current.getKey();
+            MutableNode node = current.getValue();
+
+            // Crée les nœuds enfants et les relie au nœud courant
+            for (Cluster child : new Cluster[]{cluster.getLeftChild(), cluster.getRightChild()}) {
+                if (child == null) continue;
+                MutableNode childNode = createClusterNode(child, graph, nextId);
+                node.addLink(to(childNode).with(Style.SOLID));
+                stack.push(new AbstractMap.SimpleEntry<>(child, childNode));
+            }
+        }
+    }
 
-        // Créer ou récupérer le nœud pour ce cluster
-        String nodeId = String.join("_", cluster.getClasses());
-        String nodeLabel = cluster.getClasses().size() == 1 ?
+    private static MutableNode createClusterNode(Cluster cluster, MutableGraph graph, int[] nextId) {
+        // Identifiant numérique compact et étiquette de taille constante
+        String nodeId = "c" + nextId[0]++;
+        boolean leaf = cluster.size() == 1;
+        String nodeLabel = leaf ?
                 cluster.getClasses().iterator().next() :
-                String.format("Cluster\n(%.3f)\n%s",
+                String.format("Cluster\n(%.3f)\n%d classes",
                         cluster.getMergeCoupling(),
-                        cluster.getClasses());
+                        cluster.size());
 
         MutableNode node = mutNode(nodeId).add(Label.of(nodeLabel));
 
         // Ajouter le style selon le type de nœud
-        if (cluster.getClasses().size() == 1) {
+        if (leaf) {
             node.add(Style.FILLED, Color.rgb(200, 200, 255));
         } else {
             node.add(Style.FILLED, Color.rgb(255, 200, 200));
         }
 
         graph.add(node);
-        nodeMap.put(cluster.getClasses(), node);
+        return node;
+    }
 
-        // Générer récursivement les nœuds enfants
-        if (cluster.getLeftChild() != null) {
-            MutableNode leftNode = generateClusterNode(cluster.getLeftChild(), graph, nodeMap);
-            node.addLink(to(leftNode).with(Style.SOLID));
+    /**
+     * Écrit le dendrogramme au format SVG. Les feuilles sont alignées dans l'ordre
+     * du dendrogramme et chaque fusion est tracée à une hauteur d'autant plus élevée
+     * que son couplage est faible (la hauteur est rendue monotone le long de l'arbre).
+     * @param root Racine du dendrogramme
+     * @param outputPath Chemin du fichier SVG à générer
+     */
+    public static void generateDendrogramSvg(Cluster root, String outputPath) {
+        if (root == null) return;
+
+        // Parcours postfixe itératif : les enfants sont numérotés avant leur parent
+        List<Cluster> postOrder = new ArrayList<>();
+        Deque<Cluster> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Cluster cluster = stack.pop();
+            postOrder.add(cluster);
+            if (cluster.getLeftChild() != null) stack.push(cluster.getLeftChild());
+            if (cluster.getRightChild() != null) stack.push(cluster.getRightChild());
         }
+        Collections.reverse(postOrder);
 
-        if (cluster.getRightChild() != null) {
-            MutableNode rightNode = generateClusterNode(cluster.getRightChild(), graph, nodeMap);
-            node.addLink(to(rightNode).with(Style.SOLID));
+        double maxCoupling = 0;
+        for (Cluster cluster : postOrder) {
+            maxCoupling = Math.max(maxCoupling, cluster.getMergeCoupling());
         }
 
-        return node;
+        // Positions : x = ordre des feuilles (moyenne des enfants), hauteur = distance de fusion
+        Map<Cluster, Integer> ids = new IdentityHashMap<>(postOrder.size() * 2);
+        double[] x = new double[postOrder.size()];
+        double[] height = new double[postOrder.size()];
+        double maxHeight = 0;
+        // Dans l'ordre postfixe, les feuilles sont rencontrées de gauche à droite
+        int leafIndex = 0;
+        for (int i = 0; i < postOrder.size(); i++) {
+            Cluster cluster = postOrder.get(i);
+            ids.put(cluster, i);
+            Cluster left = cluster.getLeftChild();
+            Cluster right = cluster.getRightChild();
+            if (left == null && right == null) {
+                x[i] = leafIndex++;
+                height[i] = 0;
+            } else {
+                int l = left != null ? ids.get(left) : ids.get(right);
+                int r = right != null ? ids.get(right) : ids.get(left);
+                x[i] = (x[l] + x[r]) / 2;
+                height[i] = Math.max(maxCoupling - cluster.getMergeCoupling(), Math.max(height[l], height[r]));
+                maxHeight = Math.max(maxHeight, height[i]);
+            }
+        }
+        double scale = maxHeight > 0 ? TREE_HEIGHT / maxHeight : 0;
+        double width = 2 * MARGIN + Math.max(leafIndex, 1) * LEAF_SPACING;
+        double baseline = MARGIN + TREE_HEIGHT;
+        double totalHeight = baseline + LABEL_HEIGHT;
+
+        try (Writer out = new BufferedWriter(new FileWriter(outputPath, StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + fmt(width) + "\" height=\"" + fmt(totalHeight)
+                    + "\" viewBox=\"0 0 " + fmt(width) + " " + fmt(totalHeight) + "\">\n");
+            out.write("<title>Dendrogramme</title>\n");
+
+            // Liaisons : un trait horizontal à la hauteur de fusion et deux traits verticaux
+            out.write("<g stroke=\"#a00\" stroke-width=\"1\" fill=\"none\">\n");
+            for (int i = 0; i < postOrder.size(); i++) {
+                Cluster cluster = postOrder.get(i);
+                if (cluster.getLeftChild() == null || cluster.getRightChild() == null) continue;
+
+                int l = ids.get(cluster.getLeftChild());
+                int r = ids.get(cluster.getRightChild());
+                double y = baseline - height[i] * scale;
+                double xl = MARGIN + (x[l] + 0.5) * LEAF_SPACING;
+                double xr = MARGIN + (x[r] + 0.5) * LEAF_SPACING;
+                out.write("<path d=\"M" + fmt(xl) + " " + fmt(baseline - height[l] * scale)
+                        + "V" + fmt(y) + "H" + fmt(xr) + "V" + fmt(baseline - height[r] * scale)
+                        + "\"><title>" + cluster.size() + " classes, couplage "
+                        + String.format("%.3f", cluster.getMergeCoupling()) + "</title></path>\n");
+            }
+            out.write("</g>\n");
+
+            // Noms des classes sous chaque feuille
+            out.write("<g font-family=\"sans-serif\" font-size=\"10\">\n");
+            for (int i = 0; i < postOrder.size(); i++) {
+                Cluster cluster = postOrder.get(i);
+                if (cluster.getLeftChild() != null || cluster.getRightChild() != null) continue;
+
+                double lx = MARGIN + (x[i] + 0.5) * LEAF_SPACING;
+                double ly = baseline + 6;
+                out.write("<text x=\"" + fmt(lx) + "\" y=\"" + fmt(ly) + "\" transform=\"rotate(90 " + fmt(lx) + " "
+                        + fmt(ly) + ")\">" + StreamingGraphWriter.escapeXml(cluster.getClasses().iterator().next())
+                        + "</text>\n");
+            }
+            out.write("</g>\n");
+            out.write("</svg>\n");
+
+            System.out.println("Dendrogramme généré : " + outputPath);
+
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la génération du dendrogramme : " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static String fmt(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,203 @@
+package org.example.visualization;
+
+import org.example.graph.Pair;
+import org.example.metrics.ZeroFilledCoupling;
+
+import java.util.*;
+
+/**
+ * Rendu du graphe de couplage à plusieurs niveaux de détail, pour que le temps
+ * de rendu reste borné quelle que soit la taille du projet :
+ * - élagage : seules les k arêtes les plus fortes de chaque classe sont conservées
+ *   (sélection par un tas borné à k éléments)
+ * - regroupement : les classes sont fusionnées en modules (ou en packages)
+ *   pour produire un graphe de vue d'ensemble
+ * - exploration : un graphe détaillé est produit pour chaque module
+ * Chaque graphe produit garde au plus {@link #MAX_NODES_PER_VIEW} nœuds (les plus couplés),
+ * si bien qu'un module très grand ne produit pas non plus de rendu démesuré. Une matrice
+ * complétée par des zéros n'est parcourue que sur ses couplages calculés.
+ */
+public class LevelOfDetailRenderer {
+    // Nombre maximum de nœuds d'un graphe (vue d'ensemble ou exploration)
+    public static final int MAX_NODES_PER_VIEW = 100;
+
+    /**
+     * Conserve, pour chaque classe appelante, ses k couplages non nuls les plus forts
+     * @param couplingMatrix Matrice des couplages entre classes
+     * @param k Nombre maximum d'arêtes sortantes conservées par classe
+     * @return Matrice élaguée (au plus k entrées par classe appelante)
+     */
+    public static Map<Pair<String, String>, Double> topKEdgesPerNode(
+            Map<Pair<String, String>, Double> couplingMatrix, int k) {
+        // Un tas min par classe : la racine est l'arête la plus faible conservée
+        Map<String, PriorityQueue<Map.Entry<Pair<String, String>, Double>>> heaps = new HashMap<>();
+        for (Map.Entry<Pair<String, String>, Double> entry
+                : ZeroFilledCoupling.storedCouplingsOf(couplingMatrix).entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) continue;
+
+            PriorityQueue<Map.Entry<Pair<String, String>, Double>> heap = heaps.computeIfAbsent(
+                    entry.getKey().getFirst(),
+                    key -> new PriorityQueue<>(k + 1, Map.Entry.comparingByValue()));
+            if (heap.size() < k) {
+                heap.add(entry);
+            } else if (k > 0 && entry.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        Map<Pair<String, String>, Double> pruned = new HashMap<>();
+        for (PriorityQueue<Map.Entry<Pair<String, String>, Double>> heap : heaps.values()) {
+            for (Map.Entry<Pair<String, String>, Double> entry : heap) {
+                pruned.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return pruned;
+    }
+
+    /**
+     * Conserve les couplages entre les maxNodes nœuds les plus couplés (somme des couplages
+     * entrants et sortants), sélectionnés par un tas borné à maxNodes éléments
+     * @param couplingMatrix Matrice des couplages
+     * @param maxNodes Nombre maximum de nœuds conservés
+     * @return Matrice restreinte aux nœuds conservés
+     */
+    public static Map<Pair<String, String>, Double> topNodesByWeight(
+            Map<Pair<String, String>, Double> couplingMatrix, int maxNodes) {
+        Map<Pair<String, String>, Double> stored = ZeroFilledCoupling.storedCouplingsOf(couplingMatrix);
+        Map<String, Double> weights = new HashMap<>();
+        for (Map.Entry<Pair<String, String>, Double> entry : stored.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) continue;
+            weights.merge(entry.getKey().getFirst(), entry.getValue(), Double::sum);
+            weights.merge(entry.getKey().getSecond(), entry.getValue(), Double::sum);
+        }
+        if (weights.size() <= maxNodes) return couplingMatrix;
+
+        // Tas min : la racine est le nœud le moins couplé parmi ceux conservés
+        PriorityQueue<Map.Entry<String, Double>> heap =
+                new PriorityQueue<>(maxNodes + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<String, Double> weight : weights.entrySet()) {
+            if (heap.size() < maxNodes) {
+                heap.add(weight);
+            } else if (maxNodes > 0 && weight.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(weight);
+            }
+        }
+        Set<String> kept = new HashSet<>();
+        for (Map.Entry<String, Double> weight : heap) {
+            kept.add(weight.getKey());
+        }
+
+        Map<Pair<String, String>, Double> restricted = new HashMap<>();
+        for (Map.Entry<Pair<String, String>, Double> entry : stored.entrySet()) {
+            if (kept.contains(entry.getKey().getFirst()) && kept.contains(entry.getKey().getSecond())) {
+                restricted.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return restricted;
+    }
+
+    /**
+     * Regroupe les classes en modules : le couplage entre deux modules est la somme
+     * des couplages entre leurs classes ; les couplages internes à un module sont ignorés.
+     * @param couplingMatrix Matrice des couplages entre classes
+     * @param classToModule Module de chaque classe (les classes absentes sont ignorées)
+     * @return Matrice des couplages entre modules
+     */
+    public static Map<Pair<String, String>, Double> collapseToModules(
+            Map<Pair<String, String>, Double> couplingMatrix, Map<String, String> classToModule) {
+        Map<Pair<String, String>, Double> collapsed = new HashMap<>();
+        for (Map.Entry<Pair<String, String>, Double> entry
+                : ZeroFilledCoupling.storedCouplingsOf(couplingMatrix).entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0) continue;
+
+            String from = classToModule.get(entry.getKey().getFirst());
+            String to = classToModule.get(entry.getKey().getSecond());
+            if (from == null || to == null || from.equals(to)) continue;
+            collapsed.merge(new Pair<>(from, to), entry.getValue(), Double::sum);
+        }
+        return collapsed;
+    }
+
+    /**
+     * Associe chaque classe à son package (préfixe avant le dernier point du nom).
+     * Les classes désignées par leur nom simple sont rattachées au package par défaut.
+     * @param couplingMatrix Matrice des couplages entre classes
+     * @return Package de chaque classe
+     */
+    public static Map<String, String> packagesOf(Map<Pair<String, String>, Double> couplingMatrix) {
+        Map<String, String> packages = new HashMap<>();
+        for (String className : ZeroFilledCoupling.classesOf(couplingMatrix)) {
+            packages.computeIfAbsent(className, LevelOfDetailRenderer::packageOf);
+        }
+        return packages;
+    }
+
+    private static String packageOf(String className) {
+        int lastDot = className.lastIndexOf('.');
+        return lastDot > 0 ? className.substring(0, lastDot) : "(défaut)";
+    }
+
+    /**
+     * Associe chaque classe au module identifié qui la contient ("Module i")
+     * @param modules Modules identifiés par le clustering
+     * @return Module de chaque classe
+     */
+    public static Map<String, String> modulesOf(List<Set<String>> modules) {
+        Map<String, String> classToModule = new HashMap<>();
+        for (int i = 0; i < modules.size(); i++) {
+            for (String className : modules.get(i)) {
+                classToModule.put(className, "Module " + (i + 1));
+            }
+        }
+        return classToModule;
+    }
+
+    /**
+     * Génère la vue d'ensemble par module puis un graphe détaillé élagué par module ;
+     * chaque graphe est limité à {@link #MAX_NODES_PER_VIEW} nœuds.
+     * Les fichiers produits sont {prefix}_modules{extension} et {prefix}_{module}{extension} ;
+     * l'extension choisit le format (.png via Graphviz, .dot ou .svg en flux).
+     * @param couplingMatrix Matrice des couplages entre classes
+     * @param classToModule Module (ou package) de chaque classe
+     * @param k Nombre maximum d'arêtes sortantes conservées par nœud
+     * @param outputPrefix Préfixe des fichiers générés
+     * @param extension Extension des fichiers générés (par exemple ".svg")
+     * @return Chemins des fichiers générés
+     */
+    public static List<String> render(Map<Pair<String, String>, Double> couplingMatrix,
+                                      Map<String, String> classToModule,
+                                      int k, String outputPrefix, String extension) {
+        List<String> outputs = new ArrayList<>();
+
+        // Vue d'ensemble : un nœud par module
+        String overviewPath = outputPrefix + "_modules" + extension;
+        CouplingGraphVisualizer.generateCouplingGraph(
+                topKEdgesPerNode(topNodesByWeight(collapseToModules(couplingMatrix, classToModule),
+                        MAX_NODES_PER_VIEW), k), overviewPath);
+        outputs.add(overviewPath);
+
+        // Répartit les couplages internes par module, en une seule passe
+        Map<String, Map<Pair<String, String>, Double>> internalByModule = new TreeMap<>();
+        for (Map.Entry<Pair<String, String>, Double> entry
+                : ZeroFilledCoupling.storedCouplingsOf(couplingMatrix).entrySet()) {
+            String from = classToModule.get(entry.getKey().getFirst());
+            String to = classToModule.get(entry.getKey().getSecond());
+            if (from != null && from.equals(to)) {
+                internalByModule.computeIfAbsent(from, key -> new HashMap<>())
+                        .put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Exploration : un graphe détaillé élagué par module
+        for (Map.Entry<String, Map<Pair<String, String>, Double>> module : internalByModule.entrySet()) {
+            String fileName = module.getKey().replaceAll("[^A-Za-z0-9_.-]", "_");
+            String modulePath = outputPrefix + "_" + fileName + extension;
+            CouplingGraphVisualizer.generateCouplingGraph(
+                    topKEdgesPerNode(topNodesByWeight(module.getValue(), MAX_NODES_PER_VIEW), k), modulePath);
+            outputs.add(modulePath);
+        }
+        return outputs;
+    }
+}
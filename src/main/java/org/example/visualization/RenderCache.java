@@ -0,0 +1,234 @@
+package org.example.visualization;
+
+import org.example.clustering.HierarchicalClustering.Cluster;
+import org.example.graph.Hashing;
+import org.example.graph.Pair;
+import org.example.metrics.ZeroFilledCoupling;
+import org.example.monitoring.EventLog;
+import org.example.monitoring.MetricsRegistry;
+import org.example.monitoring.RenderEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Cache des rendus indexé par le contenu : la clé d'un rendu est un hachage stable
+ * des données visualisées et des paramètres de rendu. Une demande identique est servie
+ * par simple copie du fichier en cache. La taille du cache est bornée : les rendus
+ * les moins récemment utilisés (date de modification) sont supprimés en premier.
+ */
+public class RenderCache {
+    // Cache par défaut, dans le répertoire courant
+    private static final RenderCache DEFAULT = new RenderCache(new File(".render-cache"), 256L * 1024 * 1024);
+
+    // Répertoire contenant les rendus en cache
+    private final File directory;
+    // Taille maximale du cache en octets
+    private final long maxBytes;
+
+    /**
+     * @param directory Répertoire du cache (créé si nécessaire)
+     * @param maxBytes Taille maximale du cache en octets
+     */
+    public RenderCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    public static RenderCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Produit le fichier de sortie, depuis le cache si possible, sinon en exécutant le rendu
+     * puis en conservant son résultat dans le cache.
+     * @param key Clé du rendu (voir {@link #couplingGraphKey} et {@link #dendrogramKey})
+     * @param outputPath Chemin du fichier à produire
+     * @param renderer Rendu à exécuter en cas d'absence dans le cache
+     * @return true si le rendu a été servi depuis le cache
+     */
+    public boolean render(String key, String outputPath, Runnable renderer) {
+        String extension = extensionOf(outputPath);
+        String kind = extension.isEmpty() ? "autre" : extension.substring(1);
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        long start = metrics.timer("render." + kind).start();
+
+        boolean cacheHit = renderThroughCache(key, outputPath, renderer);
+
+        metrics.timer("render." + kind).stop(start);
+        metrics.counter(cacheHit ? "render.cache.hits" : "render.cache.misses").increment();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.outputPath = outputPath;
+            event.cacheHit = cacheHit;
+            event.commit();
+        }
+        return cacheHit;
+    }
+
+    private boolean renderThroughCache(String key, String outputPath, Runnable renderer) {
+        File output = new File(outputPath);
+        File cached = new File(directory, key + extensionOf(outputPath));
+
+        synchronized (this) {
+            if (cached.isFile()) {
+                try {
+                    Files.copy(cached.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    // Marque le rendu comme récemment utilisé
+                    cached.setLastModified(System.currentTimeMillis());
+                    EventLog.info("Rendu servi depuis le cache : %s", outputPath);
+                    return true;
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de la lecture du cache de rendu : " + e.getMessage());
+                }
+            }
+        }
+
+        // Un ancien fichier de sortie ne doit pas être pris pour le résultat d'un rendu échoué
+        if (output.exists() && !output.delete()) {
+            System.err.println("Impossible de remplacer le fichier : " + outputPath);
+        }
+        renderer.run();
+        if (!output.isFile()) return false;
+
+        synchronized (this) {
+            try {
+                Files.createDirectories(directory.toPath());
+                File tmp = new File(directory, key + ".tmp");
+                Files.copy(output.toPath(), tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                Files.move(tmp.toPath(), cached.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                evict();
+            } catch (IOException e) {
+                System.err.println("Erreur lors de l'écriture du cache de rendu : " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Supprime les rendus les moins récemment utilisés jusqu'à respecter la taille maximale
+     */
+    private void evict() {
+        File[] files = directory.listFiles(File::isFile);
+        if (files == null) return;
+
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (total <= maxBytes) break;
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private static String extensionOf(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf(File.separatorChar) ? path.substring(dot) : "";
+    }
+
+    /**
+     * Calcule la clé d'un graphe de couplage. Le hachage ne dépend pas de l'ordre
+     * d'itération de la matrice : chaque entrée est hachée puis combinée de façon commutative.
+     * Une matrice complétée par des zéros ({@link ZeroFilledCoupling}) est hachée sur ses
+     * classes et ses couplages non nuls, sans parcourir toutes les paires.
+     * @param couplingMatrix Matrice des couplages visualisée
+     * @param settings Description des paramètres de rendu
+     * @return Clé hexadécimale du rendu
+     */
+    public static String couplingGraphKey(Map<Pair<String, String>, Double> couplingMatrix, String settings) {
+        if (couplingMatrix instanceof ZeroFilledCoupling) {
+            return zeroFilledCouplingKey((ZeroFilledCoupling) couplingMatrix, settings);
+        }
+        long sum = 0;
+        long xor = 0;
+        for (Map.Entry<Pair<String, String>, Double> entry : couplingMatrix.entrySet()) {
+            long hash = entryHash(entry);
+            sum += hash;
+            xor ^= Hashing.mix(hash + 0x632be59bd9b4e019L);
+        }
+        return toKey("coupling", settings, Hashing.mix(sum + couplingMatrix.size()), xor);
+    }
+
+    /**
+     * Variante de {@link #couplingGraphKey} pour une matrice complétée par des zéros : les
+     * classes et les couplages non nuls suffisent à la décrire
+     */
+    private static String zeroFilledCouplingKey(ZeroFilledCoupling couplingMatrix, String settings) {
+        long sum = 0;
+        long xor = 0;
+        for (String className : couplingMatrix.getClasses()) {
+            long hash = hash64(className);
+            sum += hash;
+            xor ^= Hashing.mix(hash + 0x632be59bd9b4e019L);
+        }
+        for (Map.Entry<Pair<String, String>, Double> entry : couplingMatrix.getStoredCouplings().entrySet()) {
+            if (entry.getValue() != null && entry.getValue() == 0) continue;
+            long hash = entryHash(entry);
+            sum += hash;
+            xor ^= Hashing.mix(hash + 0x632be59bd9b4e019L);
+        }
+        return toKey("coupling-zero-filled", settings, Hashing.mix(sum + couplingMatrix.size()), xor);
+    }
+
+    private static long entryHash(Map.Entry<Pair<String, String>, Double> entry) {
+        long hash = hash64(entry.getKey().getFirst());
+        hash = Hashing.mix(hash * 31 + hash64(entry.getKey().getSecond()));
+        return Hashing.mix(hash * 31
+                + Double.doubleToLongBits(entry.getValue() == null ? Double.NaN : entry.getValue()));
+    }
+
+    /**
+     * Calcule la clé d'un dendrogramme à partir de sa structure (parcours préfixe itératif),
+     * des noms des feuilles et des couplages de fusion.
+     * @param root Racine du dendrogramme
+     * @param settings Description des paramètres de rendu
+     * @return Clé hexadécimale du rendu
+     */
+    public static String dendrogramKey(Cluster root, String settings) {
+        long first = 0x9e3779b97f4a7c15L;
+        long second = 0;
+        Deque<Cluster> stack = new ArrayDeque<>();
+        if (root != null) stack.push(root);
+        while (!stack.isEmpty()) {
+            Cluster cluster = stack.pop();
+            long hash;
+            if (cluster.getLeftChild() == null && cluster.getRightChild() == null) {
+                hash = hash64(cluster.getClasses().iterator().next());
+            } else {
+                hash = Hashing.mix(Double.doubleToLongBits(cluster.getMergeCoupling()) + cluster.size());
+                if (cluster.getRightChild() != null) stack.push(cluster.getRightChild());
+                if (cluster.getLeftChild() != null) stack.push(cluster.getLeftChild());
+            }
+            first = Hashing.mix(first * 31 + hash);
+            second = Hashing.mix(second ^ (hash + 0x632be59bd9b4e019L));
+        }
+        return toKey("dendrogram", settings, first, second);
+    }
+
+    private static String toKey(String kind, String settings, long first, long second) {
+        long settingsHash = hash64(kind + "|" + settings);
+        return String.format("%016x%016x%016x", settingsHash, first, second);
+    }
+
+    /**
+     * Hachage 64 bits (FNV-1a) d'une chaîne, stable d'une exécution à l'autre
+     */
+    private static long hash64(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return Hashing.mix(hash);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.visualization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * File de rendus asynchrones pour les visualisations.
+ * Les rendus (graphes de couplage, dendrogrammes) sont soumis à un exécuteur dédié
+ * et se déroulent pendant que l'analyse et le clustering continuent.
+ * L'exécuteur n'a qu'un seul thread : le moteur Graphviz n'est pas conçu pour
+ * des rendus concurrents, et les rendus sont ainsi traités dans l'ordre de soumission.
+ * Les données passées à un rendu ne doivent plus être modifiées après la soumission.
+ */
+public class RenderPipeline {
+    // Exécuteur dédié aux rendus (thread démon : ne bloque pas l'arrêt de la JVM)
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "render-pipeline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Rendus soumis et pas encore attendus
+    private static final List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+    /**
+     * Soumet un rendu à l'exécuteur dédié
+     * @param description Description du rendu (pour les messages d'erreur)
+     * @param job Rendu à exécuter
+     * @return Le futur représentant la fin du rendu
+     */
+    public static CompletableFuture<Void> submit(String description, Runnable job) {
+        CompletableFuture<Void> future = CompletableFuture.runAsync(job, executor)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        System.err.println("Erreur lors du rendu (" + description + ") : " + error.getMessage());
+                    }
+                });
+        synchronized (pending) {
+            pending.add(future);
+        }
+        return future;
+    }
+
+    /**
+     * Attend la fin de tous les rendus soumis jusqu'ici
+     */
+    public static void awaitAll() {
+        List<CompletableFuture<Void>> toWait;
+        synchronized (pending) {
+            toWait = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (CompletableFuture<Void> future : toWait) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // Déjà signalé lors de la fin du rendu
+            }
+        }
+    }
+
+    /**
+     * @return Le nombre de rendus soumis et pas encore terminés
+     */
+    public static int pendingCount() {
+        synchronized (pending) {
+            pending.removeIf(CompletableFuture::isDone);
+            return pending.size();
+        }
+    }
+}
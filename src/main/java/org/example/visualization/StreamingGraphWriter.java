@@ -0,0 +1,158 @@
+package org.example.visualization;
+
+import org.example.graph.Pair;
+import org.example.metrics.ZeroFilledCoupling;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Écrit le graphe de couplage directement dans un fichier DOT ou SVG, sans passer
+ * par le modèle objet de graphviz-java ni par un moteur de rendu.
+ * Les nœuds et les arêtes sont écrits au fil de l'eau : seule la position de chaque
+ * classe est conservée en mémoire, et les couplages nuls sont ignorés à la lecture (une
+ * matrice complétée par des zéros n'est parcourue que sur ses couplages calculés).
+ * Pour le SVG, les classes sont disposées sur un cercle (disposition calculée en O(n)),
+ * ce qui permet de traiter des graphes de plusieurs dizaines de milliers de nœuds.
+ */
+public class StreamingGraphWriter {
+    // Espacement minimal entre deux nœuds sur le cercle (en pixels)
+    private static final double NODE_SPACING = 14.0;
+    // Marge autour du cercle (en pixels)
+    private static final double MARGIN = 120.0;
+
+    /**
+     * Écrit le graphe de couplage au format DOT
+     * @param couplingMatrix Matrice des couplages entre classes
+     * @param outputPath Chemin du fichier DOT à générer
+     */
+    public static void writeDot(Map<Pair<String, String>, Double> couplingMatrix, String outputPath) {
+        try (Writer out = new BufferedWriter(new FileWriter(outputPath, StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("digraph \"Coupling Graph\" {\n");
+            out.write("  label=\"Graphe de couplage pondéré\";\n");
+            out.write("  node [style=filled, fillcolor=\"#c8c8ff\"];\n");
+
+            // Nœuds : chaque classe n'est écrite qu'une seule fois
+            Map<String, Integer> written = new HashMap<>();
+            for (String className : ZeroFilledCoupling.classesOf(couplingMatrix)) {
+                writeDotNode(out, className, written);
+            }
+
+            // Arêtes : seuls les couplages non nuls sont écrits
+            for (Map.Entry<Pair<String, String>, Double> entry
+                    : ZeroFilledCoupling.storedCouplingsOf(couplingMatrix).entrySet()) {
+                Double weight = entry.getValue();
+                // Ignore les couplages nuls, absents ou non numériques (NaN)
+                if (weight == null || !(weight > 0)) continue;
+
+                int blue = Math.max(0, Math.min(255, 255 - (int) (weight * 200)));
+                out.write("  n" + written.get(entry.getKey().getFirst())
+                        + " -> n" + written.get(entry.getKey().getSecond())
+                        + " [label=\"" + String.format(Locale.ROOT, "%.3f", weight) + "\""
+                        + ", color=\"" + String.format("#0000%02x", blue) + "\""
+                        + ", penwidth=" + String.format(Locale.ROOT, "%.2f", 1 + weight * 5) + "];\n");
+            }
+            out.write("}\n");
+
+            System.out.println("Graphe de couplage généré : " + outputPath);
+
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la génération du graphe : " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeDotNode(Writer out, String className, Map<String, Integer> written) throws IOException {
+        if (written.containsKey(className)) return;
+        int id = written.size();
+        written.put(className, id);
+        out.write("  n" + id + " [label=\"" + escapeDot(className) + "\"];\n");
+    }
+
+    /**
+     * Écrit le graphe de couplage au format SVG, avec une disposition circulaire précalculée
+     * @param couplingMatrix Matrice des couplages entre classes
+     * @param outputPath Chemin du fichier SVG à générer
+     */
+    public static void writeSvg(Map<Pair<String, String>, Double> couplingMatrix, String outputPath) {
+        // Indexe les classes : la position d'une classe se déduit de son indice
+        Map<String, Integer> index = new HashMap<>();
+        for (String className : ZeroFilledCoupling.classesOf(couplingMatrix)) {
+            index.putIfAbsent(className, index.size());
+        }
+        int n = Math.max(index.size(), 1);
+        double radius = Math.max(200.0, n * NODE_SPACING / (2 * Math.PI));
+        double center = radius + MARGIN;
+        double size = 2 * center;
+
+        try (Writer out = new BufferedWriter(new FileWriter(outputPath, StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + fmt(size) + "\" height=\"" + fmt(size)
+                    + "\" viewBox=\"0 0 " + fmt(size) + " " + fmt(size) + "\">\n");
+            out.write("<title>Graphe de couplage pondéré</title>\n");
+
+            // Arêtes d'abord, pour que les nœuds soient dessinés par-dessus
+            out.write("<g fill=\"none\" stroke-opacity=\"0.6\">\n");
+            for (Map.Entry<Pair<String, String>, Double> entry
+                    : ZeroFilledCoupling.storedCouplingsOf(couplingMatrix).entrySet()) {
+                Double weight = entry.getValue();
+                // Ignore les couplages nuls, absents ou non numériques (NaN)
+                if (weight == null || !(weight > 0)) continue;
+
+                int from = index.get(entry.getKey().getFirst());
+                int to = index.get(entry.getKey().getSecond());
+                int blue = Math.max(0, Math.min(255, 255 - (int) (weight * 200)));
+                out.write("<line x1=\"" + fmt(x(from, n, radius, center)) + "\" y1=\"" + fmt(y(from, n, radius, center))
+                        + "\" x2=\"" + fmt(x(to, n, radius, center)) + "\" y2=\"" + fmt(y(to, n, radius, center))
+                        + "\" stroke=\"" + String.format("#0000%02x", blue) + "\" stroke-width=\"" + fmt(1 + weight * 5)
+                        + "\"><title>" + escapeXml(entry.getKey().getFirst()) + " -> " + escapeXml(entry.getKey().getSecond())
+                        + " : " + String.format(Locale.ROOT, "%.3f", weight) + "</title></line>\n");
+            }
+            out.write("</g>\n");
+
+            // Nœuds et étiquettes
+            out.write("<g font-family=\"sans-serif\" font-size=\"10\">\n");
+            for (Map.Entry<String, Integer> entry : index.entrySet()) {
+                int i = entry.getValue();
+                double cx = x(i, n, radius, center);
+                double cy = y(i, n, radius, center);
+                out.write("<circle cx=\"" + fmt(cx) + "\" cy=\"" + fmt(cy) + "\" r=\"5\" fill=\"#c8c8ff\" stroke=\"#000\"/>");
+                out.write("<text x=\"" + fmt(cx + 7) + "\" y=\"" + fmt(cy + 3) + "\">" + escapeXml(entry.getKey()) + "</text>\n");
+            }
+            out.write("</g>\n");
+            out.write("</svg>\n");
+
+            System.out.println("Graphe de couplage généré : " + outputPath);
+
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la génération du graphe : " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static double x(int i, int n, double radius, double center) {
+        return center + radius * Math.cos(2 * Math.PI * i / n);
+    }
+
+    private static double y(int i, int n, double radius, double center) {
+        return center + radius * Math.sin(2 * Math.PI * i / n);
+    }
+
+    private static String fmt(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    static String escapeDot(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
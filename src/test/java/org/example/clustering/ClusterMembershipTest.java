@@ -0,0 +1,70 @@
+package org.example.clustering;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterMembershipTest {
+
+    private static List<String> chain(ClusterMembership membership, int head, int size) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0, id = head; i < size; i++, id = membership.next(id)) {
+            names.add(membership.nameOf(id));
+        }
+        return names;
+    }
+
+    @Test
+    void identifiersFollowTheOrderOfTheNames() {
+        ClusterMembership membership = new ClusterMembership(List.of("A", "B", "C"));
+
+        assertEquals(3, membership.size());
+        assertEquals(0, membership.idOf("A"));
+        assertEquals(2, membership.idOf("C"));
+        assertEquals(-1, membership.idOf("Inconnue"));
+        assertEquals("B", membership.nameOf(1));
+        for (int id = 0; id < 3; id++) {
+            assertEquals(id, membership.find(id));
+            assertEquals(-1, membership.next(id));
+        }
+    }
+
+    @Test
+    void unionJoinsSetsAndChainsLeaves() {
+        ClusterMembership membership = new ClusterMembership(List.of("A", "B", "C", "D", "E"));
+
+        // (A B) puis (C D E), enfin (A B) + (C D E)
+        membership.union(0, 1);
+        membership.union(2, 3);
+        membership.union(3, 4);
+        assertEquals(membership.find(0), membership.find(1));
+        assertEquals(membership.find(2), membership.find(4));
+        assertNotEquals(membership.find(0), membership.find(2));
+        assertEquals(List.of("A", "B"), chain(membership, 0, 2));
+        assertEquals(List.of("C", "D", "E"), chain(membership, 2, 3));
+
+        int root = membership.union(1, 2);
+        for (int id = 0; id < 5; id++) {
+            assertEquals(root, membership.find(id));
+        }
+        assertEquals(List.of("A", "B", "C", "D", "E"), chain(membership, 0, 5));
+        assertEquals(-1, membership.next(4));
+    }
+
+    @Test
+    void smallerSetJoinsTheLargerOne() {
+        ClusterMembership membership = new ClusterMembership(List.of("A", "B", "C", "D"));
+        membership.union(1, 2);
+        int root = membership.union(2, 3);
+
+        // Le singleton D rejoint l'ensemble {B, C}, dont la racine est conservée
+        assertEquals(membership.find(1), root);
+        // La chaîne de gauche peut être le plus petit ensemble : la racine reste celle du plus grand
+        int merged = membership.union(0, 1);
+        assertEquals(root, merged);
+        assertEquals(List.of("A", "B", "C", "D"), chain(membership, 0, 4));
+    }
+}
@@ -0,0 +1,228 @@
+package org.example.clustering;
+
+import org.example.graph.Pair;
+import org.example.metrics.ZeroFilledCoupling;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalClusteringTest {
+
+    /**
+     * Couplages aléatoires multiples de 1/64 : toutes les sommes sont exactes, l'ordre des
+     * additions ne peut donc pas changer l'ordre des fusions
+     * @param density Probabilité qu'une paire soit en relation (1 : toutes les paires, souvent nulles)
+     */
+    static Map<Pair<String, String>, Double> randomCoupling(int classCount, double density, long seed) {
+        Random random = new Random(seed);
+        Map<Pair<String, String>, Double> coupling = new HashMap<>();
+        for (int a = 0; a < classCount; a++) {
+            for (int b = 0; b < classCount; b++) {
+                if (a == b || random.nextDouble() >= density) continue;
+                double value = random.nextInt(3) == 0 ? random.nextInt(64) / 64.0 : 0;
+                coupling.put(new Pair<>("C" + a, "C" + b), value);
+            }
+        }
+        return coupling;
+    }
+
+    static List<String> history(HierarchicalClustering clustering) {
+        List<String> steps = new ArrayList<>();
+        for (HierarchicalClustering.ClusteringStep step : clustering.getClusteringHistory()) {
+            steps.add(new TreeSet<>(step.getCluster1().getClasses()) + " + "
+                    + new TreeSet<>(step.getCluster2().getClasses()) + " @ " + step.getCoupling());
+        }
+        return steps;
+    }
+
+    private static void assertSameMergeOrder(Map<Pair<String, String>, Double> coupling) {
+        HierarchicalClustering dense = new HierarchicalClustering(coupling);
+        dense.performClustering(0.0, 1);
+        // Aucune copie dense : couplages rangés par ligne et recherche par classes
+        HierarchicalClustering sparse = new HierarchicalClustering(coupling, 0);
+        sparse.performClustering(0.0, 1);
+
+        assertFalse(dense.getClusteringHistory().isEmpty());
+        assertEquals(history(dense), history(sparse));
+        assertEquals(dense.getTotalCoupling(), sparse.getTotalCoupling(), 1e-12);
+    }
+
+    @Test
+    void denseAndSparseLinkageMergeInTheSameOrder() {
+        assertSameMergeOrder(randomCoupling(40, 0.3, 1));
+    }
+
+    @Test
+    void sparseLinkageRowsFollowManyMergesOnALargeSparseGraph() {
+        // Peu de voisins par classe : les lignes creuses grandissent, fusionnent et perdent des voisins
+        assertSameMergeOrder(randomCoupling(300, 0.02, 7));
+    }
+
+    @Test
+    void sparseCopyOfACompleteMatrixSkipsZerosWithoutChangingMerges() {
+        // Toutes les paires sont présentes, la plupart nulles : les zéros ne sont pas rangés
+        assertSameMergeOrder(randomCoupling(40, 1.0, 2));
+    }
+
+    @Test
+    void zeroFilledMatrixMergesLikeTheCompleteMatrix() {
+        Map<Pair<String, String>, Double> complete = randomCoupling(40, 1.0, 6);
+        Map<Pair<String, String>, Double> nonZero = new HashMap<>();
+        Set<String> classes = new HashSet<>();
+        complete.forEach((pair, coupling) -> {
+            classes.add(pair.getFirst());
+            classes.add(pair.getSecond());
+            if (coupling != 0) nonZero.put(pair, coupling);
+        });
+        ZeroFilledCoupling zeroFilled = new ZeroFilledCoupling(classes, nonZero);
+
+        HierarchicalClustering reference = new HierarchicalClustering(complete);
+        reference.performClustering(0.0, 1);
+        for (long budget : new long[]{Long.MAX_VALUE, 0}) {
+            HierarchicalClustering clustering = new HierarchicalClustering(zeroFilled, budget);
+            clustering.performClustering(0.0, 1);
+            assertEquals(history(reference), history(clustering));
+            assertEquals(reference.getTotalCoupling(), clustering.getTotalCoupling(), 1e-12);
+        }
+    }
+
+    @Test
+    void mergedClustersHoldTheClassesOfBothChildren() {
+        HierarchicalClustering clustering = new HierarchicalClustering(randomCoupling(25, 0.4, 4));
+        List<HierarchicalClustering.Cluster> modules = clustering.performClustering(0.0, 1);
+
+        for (HierarchicalClustering.ClusteringStep step : clustering.getClusteringHistory()) {
+            Set<String> expected = new HashSet<>(step.getCluster1().getClasses());
+            expected.addAll(step.getCluster2().getClasses());
+            HierarchicalClustering.Cluster result = step.getResultCluster();
+            assertEquals(expected, new HashSet<>(result.getClasses()));
+            assertEquals(expected.size(), result.size());
+            for (String className : result.getClasses()) {
+                assertNotNull(clustering.findCluster(className));
+            }
+        }
+
+        Set<String> covered = new HashSet<>();
+        for (HierarchicalClustering.Cluster module : modules) {
+            for (String className : module.getClasses()) {
+                assertTrue(covered.add(className), "classe dans deux modules : " + className);
+                assertSame(module, clustering.findCluster(className));
+            }
+        }
+        assertEquals(25, covered.size());
+    }
+
+    @Test
+    void maxModulesAndThresholdStopTheMerges() {
+        Map<Pair<String, String>, Double> coupling = randomCoupling(30, 0.5, 3);
+        HierarchicalClustering clustering = new HierarchicalClustering(coupling);
+
+        assertEquals(5, clustering.performClustering(0.0, 5).size());
+        for (HierarchicalClustering.ClusteringStep step : clustering.getClusteringHistory()) {
+            assertTrue(step.getCoupling() >= 0.0);
+        }
+        List<HierarchicalClustering.Cluster> strict = clustering.performClustering(0.5, 1);
+        for (HierarchicalClustering.ClusteringStep step : clustering.getClusteringHistory()) {
+            assertTrue(step.getCoupling() >= 0.5);
+        }
+        assertEquals(30 - clustering.getClusteringHistory().size(), strict.size());
+    }
+
+    @Test
+    void memberViewsKeepTheirClassesAcrossRuns() {
+        HierarchicalClustering clustering = new HierarchicalClustering(randomCoupling(20, 0.5, 5));
+        List<HierarchicalClustering.Cluster> first = clustering.performClustering(0.0, 3);
+        List<Set<String>> before = new ArrayList<>();
+        for (HierarchicalClustering.Cluster cluster : first) {
+            before.add(new HashSet<>(cluster.getClasses()));
+        }
+
+        clustering.performClustering(0.0, 1);
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(before.get(i), new HashSet<>(first.get(i).getClasses()));
+        }
+    }
+
+    @Test
+    void cancelledRunResumesFromItsCheckpointToTheUninterruptedResult(@TempDir File directory) {
+        Map<Pair<String, String>, Double> coupling = randomCoupling(60, 0.3, 8);
+        HierarchicalClustering reference = new HierarchicalClustering(coupling);
+        reference.performClustering(0.0, 4);
+
+        for (long budget : new long[]{Long.MAX_VALUE, 0}) {
+            File checkpoint = new File(directory, "clustering-" + budget + ".checkpoint");
+            HierarchicalClustering interrupted = new HierarchicalClustering(coupling, budget);
+            interrupted.enableCheckpoints(checkpoint, 1000);
+            interrupted.setProgressListener((mergesDone, maxMerges, bestCoupling, etaMillis) -> {
+                if (mergesDone == 20) interrupted.cancel();
+            });
+            interrupted.performClustering(0.0, 4);
+            assertTrue(interrupted.isCancelled());
+            assertEquals(20, interrupted.getClusteringHistory().size());
+            assertTrue(checkpoint.isFile());
+
+            // Nouvelle exécution : les 20 fusions sont rejouées, puis le clustering continue
+            HierarchicalClustering resumed = new HierarchicalClustering(coupling, budget);
+            resumed.enableCheckpoints(checkpoint, 1000);
+            List<Integer> firstReported = new ArrayList<>();
+            resumed.setProgressListener((mergesDone, maxMerges, bestCoupling, etaMillis) -> {
+                if (firstReported.isEmpty()) firstReported.add(mergesDone);
+            });
+            List<HierarchicalClustering.Cluster> modules = resumed.performClustering(0.0, 4);
+
+            assertFalse(resumed.isCancelled());
+            assertEquals(List.of(21), firstReported);
+            assertEquals(history(reference), history(resumed));
+            assertEquals(4, modules.size());
+            assertFalse(checkpoint.exists(), "un clustering terminé supprime son point de reprise");
+        }
+    }
+
+    @Test
+    void preMergedRunResumesFromItsCheckpointToTheUninterruptedResult(@TempDir File directory) {
+        Map<Pair<String, String>, Double> coupling = randomCoupling(60, 0.3, 9);
+        // Groupes fusionnés d'office, y compris des classes sans couplage entre elles
+        List<List<String>> groups = List.of(List.of("C3", "C17", "C42"), List.of("C8", "C59"));
+        HierarchicalClustering reference = new HierarchicalClustering(coupling);
+        reference.setPreMergedGroups(groups);
+        reference.performClustering(0.01, 4);
+        int preMerges = 3;
+        assertTrue(history(reference).size() > preMerges + 20);
+
+        for (long budget : new long[]{Long.MAX_VALUE, 0}) {
+            File checkpoint = new File(directory, "premerged-" + budget + ".checkpoint");
+            HierarchicalClustering interrupted = new HierarchicalClustering(coupling, budget);
+            interrupted.setPreMergedGroups(groups);
+            interrupted.enableCheckpoints(checkpoint, 1000);
+            interrupted.setProgressListener((mergesDone, maxMerges, bestCoupling, etaMillis) -> {
+                if (interrupted.getClusteringHistory().size() == preMerges + 20) interrupted.cancel();
+            });
+            interrupted.performClustering(0.01, 4);
+            assertTrue(interrupted.isCancelled());
+            assertEquals(preMerges + 20, interrupted.getClusteringHistory().size());
+            assertEquals(history(reference).subList(0, preMerges + 20), history(interrupted));
+            assertTrue(checkpoint.isFile());
+
+            // Les fusions d'office sont refaites, le point de reprise rejoue les suivantes
+            HierarchicalClustering resumed = new HierarchicalClustering(coupling, budget);
+            resumed.setPreMergedGroups(groups);
+            resumed.enableCheckpoints(checkpoint, 1000);
+            List<Integer> firstReported = new ArrayList<>();
+            resumed.setProgressListener((mergesDone, maxMerges, bestCoupling, etaMillis) -> {
+                if (firstReported.isEmpty()) firstReported.add(resumed.getClusteringHistory().size());
+            });
+            List<HierarchicalClustering.Cluster> modules = resumed.performClustering(0.01, 4);
+
+            assertFalse(resumed.isCancelled());
+            assertEquals(List.of(preMerges + 21), firstReported);
+            assertEquals(history(reference), history(resumed));
+            assertEquals(reference.getClusteringHistory().size(), resumed.getClusteringHistory().size());
+            assertFalse(checkpoint.exists(), "un clustering terminé supprime son point de reprise");
+            assertTrue(modules.size() >= 4);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentMapTest {
+
+    /**
+     * Clé dont le hachage est choisi : permet de forcer des collisions complètes (même hachage)
+     * et des préfixes de hachage communs sur plusieurs niveaux du trie
+     */
+    private static final class Key {
+        final int id;
+        final int hash;
+
+        Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "Key" + id + "#" + Integer.toHexString(hash);
+        }
+    }
+
+    /**
+     * Clés aléatoires : un tiers partage l'un de quatre hachages (collisions complètes), un tiers
+     * ne diffère que par les bits de poids fort (chemins profonds), le reste est quelconque
+     */
+    private static Key randomKey(Random random, int keyRange) {
+        int id = random.nextInt(keyRange);
+        switch (id % 3) {
+            case 0: return new Key(id, id % 4);
+            case 1: return new Key(id, (id & 0x7f) << 25);
+            default: return new Key(id, (int) Hashing.mix(id));
+        }
+    }
+
+    private static void assertSameContent(Map<Key, Integer> expected, PersistentMap<Key, Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual.toMap());
+        for (Map.Entry<Key, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), actual.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void randomUpdatesMatchAHashMap() {
+        Random random = new Random(11);
+        Map<Key, Integer> expected = new HashMap<>();
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (int step = 0; step < 20_000; step++) {
+            Key key = randomKey(random, 3000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                int value = random.nextInt(5);
+                expected.put(key, value);
+                map = map.plus(key, value);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            if (step % 2000 == 0) {
+                assertSameContent(expected, map);
+            }
+        }
+        assertSameContent(expected, map);
+
+        // Vidage complet : la map redevient vide
+        for (Key key : new ArrayList<>(expected.keySet())) {
+            map = map.minus(key);
+        }
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void earlierVersionsAreNotModified() {
+        Random random = new Random(12);
+        List<PersistentMap<Key, Integer>> versions = new ArrayList<>();
+        List<Map<Key, Integer>> snapshots = new ArrayList<>();
+        Map<Key, Integer> expected = new HashMap<>();
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (int step = 0; step < 3000; step++) {
+            Key key = randomKey(random, 500);
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, step);
+                map = map.plus(key, step);
+            }
+            if (step % 100 == 0) {
+                versions.add(map);
+                snapshots.add(new HashMap<>(expected));
+            }
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            assertSameContent(snapshots.get(i), versions.get(i));
+        }
+    }
+
+    @Test
+    void diffReportsExactlyTheChangedEntries() {
+        Random random = new Random(13);
+        List<PersistentMap<Key, Integer>> versions = new ArrayList<>();
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        versions.add(map);
+        for (int version = 0; version < 60; version++) {
+            // Quelques modifications par version, parfois sans effet (même valeur, clé absente)
+            int changes = 1 + random.nextInt(version % 10 == 0 ? 400 : 20);
+            for (int i = 0; i < changes; i++) {
+                Key key = randomKey(random, 2000);
+                map = random.nextInt(4) == 0 ? map.minus(key) : map.plus(key, random.nextInt(3));
+            }
+            versions.add(map);
+        }
+
+        for (int trial = 0; trial < 200; trial++) {
+            PersistentMap<Key, Integer> before = versions.get(random.nextInt(versions.size()));
+            PersistentMap<Key, Integer> after = versions.get(random.nextInt(versions.size()));
+            Map<Key, Integer> oldEntries = before.toMap();
+            Map<Key, Integer> newEntries = after.toMap();
+
+            Map<Key, List<Integer>> expected = new HashMap<>();
+            Set<Key> keys = new HashSet<>(oldEntries.keySet());
+            keys.addAll(newEntries.keySet());
+            for (Key key : keys) {
+                if (!Objects.equals(oldEntries.get(key), newEntries.get(key))) {
+                    expected.put(key, Arrays.asList(oldEntries.get(key), newEntries.get(key)));
+                }
+            }
+
+            Map<Key, List<Integer>> reported = new HashMap<>();
+            after.diff(before, (key, oldValue, newValue) ->
+                    assertNull(reported.put(key, Arrays.asList(oldValue, newValue)), "clé signalée deux fois"));
+            assertEquals(expected, reported);
+        }
+    }
+
+    @Test
+    void diffOfAVersionWithItselfIsEmpty() {
+        PersistentMap<Key, Integer> map = PersistentMap.empty();
+        for (int i = 0; i < 1000; i++) {
+            map = map.plus(new Key(i, i % 7), i);
+        }
+        List<Key> reported = new ArrayList<>();
+        map.diff(map, (key, oldValue, newValue) -> reported.add(key));
+        assertTrue(reported.isEmpty());
+
+        // Une valeur remplacée par une valeur égale n'est pas une différence
+        PersistentMap<Key, Integer> same = map.plus(new Key(3, 3), 3);
+        same.diff(map, (key, oldValue, newValue) -> reported.add(key));
+        assertTrue(reported.isEmpty());
+    }
+}
@@ -0,0 +1,204 @@
+package org.example.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StronglyConnectedComponentsTest {
+
+    /**
+     * Graphe construit à partir d'arcs donnés par paires de noms (poids 1 sauf indication)
+     */
+    private static ClassDependencyGraph graph(String[] names, String[][] edges, double[] weights) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int v = 0; v < names.length; v++) {
+            index.put(names[v], v);
+        }
+        int[] sources = new int[edges.length];
+        int[] targets = new int[edges.length];
+        for (int e = 0; e < edges.length; e++) {
+            sources[e] = index.get(edges[e][0]);
+            targets[e] = index.get(edges[e][1]);
+        }
+        if (weights == null) {
+            weights = new double[edges.length];
+            Arrays.fill(weights, 1.0);
+        }
+        return ClassDependencyGraph.fromEdges(names, sources, targets, weights, edges.length);
+    }
+
+    /**
+     * Chaîne 0 → 1 → … → n-1, refermée par l'arc n-1 → 0 si demandé
+     */
+    private static ClassDependencyGraph chain(int n, boolean closed) {
+        String[] names = new String[n];
+        for (int v = 0; v < n; v++) {
+            names[v] = "N" + v;
+        }
+        int edgeCount = closed ? n : n - 1;
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            sources[e] = e;
+            targets[e] = (e + 1) % n;
+            weights[e] = 1.0;
+        }
+        return ClassDependencyGraph.fromEdges(names, sources, targets, weights, edgeCount);
+    }
+
+    private static Set<Set<String>> componentSets(ClassDependencyGraph graph, StronglyConnectedComponents scc) {
+        Set<Set<String>> sets = new HashSet<>();
+        for (int c = 0; c < scc.componentCount(); c++) {
+            Set<String> members = new TreeSet<>();
+            for (int i = 0; i < scc.size(c); i++) {
+                members.add(graph.name(scc.member(c, i)));
+            }
+            sets.add(members);
+        }
+        return sets;
+    }
+
+    /**
+     * Chaque arc entre deux composantes va d'un numéro plus grand vers un plus petit
+     * (numérotation en ordre topologique inverse)
+     */
+    private static void assertReverseTopologicalOrder(ClassDependencyGraph graph, StronglyConnectedComponents scc) {
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                int from = scc.componentOf(v);
+                int to = scc.componentOf(graph.target(e));
+                assertTrue(from >= to, graph.name(v) + " -> " + graph.name(graph.target(e)));
+            }
+        }
+    }
+
+    @Test
+    void findsTheKnownComponentsOfASmallGraph() {
+        String[] names = {"A", "B", "C", "D", "E", "F", "G", "H"};
+        ClassDependencyGraph graph = graph(names, new String[][]{
+                {"A", "B"}, {"B", "C"}, {"C", "A"},   // cycle A-B-C
+                {"C", "D"}, {"D", "E"}, {"E", "D"},   // cycle D-E, atteint depuis C
+                {"F", "A"}, {"F", "F"},               // F seul (boucle ignorée)
+                {"G", "H"}, {"H", "G"}, {"H", "E"}    // cycle G-H vers D-E
+        }, null);
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(graph);
+
+        assertEquals(4, scc.componentCount());
+        assertEquals(Set.of(Set.of("A", "B", "C"), Set.of("D", "E"), Set.of("F"), Set.of("G", "H")),
+                componentSets(graph, scc));
+        assertReverseTopologicalOrder(graph, scc);
+
+        // Graphe condensé : un nœud par composante, nommé d'après son premier membre, sans cycle
+        ClassDependencyGraph condensed = scc.condense(graph);
+        assertEquals(4, condensed.nodeCount());
+        assertEquals(3, condensed.edgeCount());
+        assertEquals(1.0, condensed.weight(condensed.node("A"), condensed.node("D")));
+        assertEquals(1.0, condensed.weight(condensed.node("F"), condensed.node("A")));
+        assertEquals(1.0, condensed.weight(condensed.node("G"), condensed.node("D")));
+        StronglyConnectedComponents condensedComponents = new StronglyConnectedComponents(condensed);
+        assertEquals(4, condensedComponents.componentCount());
+    }
+
+    @Test
+    void matchesMutualReachabilityOnRandomGraphs() {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            int n = 30;
+            String[] names = new String[n];
+            for (int v = 0; v < n; v++) {
+                names[v] = "N" + v;
+            }
+            int edgeCount = 45;
+            int[] sources = new int[edgeCount];
+            int[] targets = new int[edgeCount];
+            double[] weights = new double[edgeCount];
+            boolean[][] reach = new boolean[n][n];
+            for (int e = 0; e < edgeCount; e++) {
+                sources[e] = random.nextInt(n);
+                targets[e] = random.nextInt(n);
+                weights[e] = 1.0;
+                reach[sources[e]][targets[e]] = true;
+            }
+            // Fermeture transitive (Floyd-Warshall) comme référence
+            for (int v = 0; v < n; v++) {
+                reach[v][v] = true;
+            }
+            for (int k = 0; k < n; k++) {
+                for (int i = 0; i < n; i++) {
+                    if (!reach[i][k]) continue;
+                    for (int j = 0; j < n; j++) {
+                        if (reach[k][j]) reach[i][j] = true;
+                    }
+                }
+            }
+
+            ClassDependencyGraph graph = ClassDependencyGraph.fromEdges(names, sources, targets, weights, edgeCount);
+            StronglyConnectedComponents scc = new StronglyConnectedComponents(graph);
+            for (int u = 0; u < n; u++) {
+                for (int v = 0; v < n; v++) {
+                    int a = graph.node(names[u]);
+                    int b = graph.node(names[v]);
+                    assertEquals(reach[u][v] && reach[v][u], scc.componentOf(a) == scc.componentOf(b),
+                            names[u] + " / " + names[v]);
+                }
+            }
+            assertReverseTopologicalOrder(graph, scc);
+        }
+    }
+
+    @Test
+    void handlesLongChainsWithoutOverflowingTheStack() {
+        int n = 200_000;
+        // Une seule composante : le parcours descend à la profondeur n
+        ClassDependencyGraph ring = chain(n, true);
+        StronglyConnectedComponents ringComponents = new StronglyConnectedComponents(ring);
+        assertEquals(1, ringComponents.componentCount());
+        assertEquals(n, ringComponents.size(0));
+
+        // Chaîne ouverte : n composantes, la fin de la chaîne numérotée en premier
+        ClassDependencyGraph open = chain(n, false);
+        StronglyConnectedComponents openComponents = new StronglyConnectedComponents(open);
+        assertEquals(n, openComponents.componentCount());
+        assertReverseTopologicalOrder(open, openComponents);
+        assertEquals(0, openComponents.componentOf(open.node("N" + (n - 1))));
+        assertEquals(n - 1, openComponents.componentOf(open.node("N0")));
+
+        DependencyCycles cycles = new DependencyCycles(ring);
+        assertEquals(1, cycles.getCycles().size());
+        assertEquals(n, cycles.getCycles().get(0).getEdgeCount());
+        assertTrue(new DependencyCycles(open).getCycles().isEmpty());
+    }
+
+    @Test
+    void cyclesAreRankedByWeightThenBySize() {
+        String[] names = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J"};
+        ClassDependencyGraph graph = graph(names, new String[][]{
+                {"A", "B"}, {"B", "A"},                 // poids 2 + 3 = 5
+                {"C", "D"}, {"D", "E"}, {"E", "C"},     // poids 1 + 1 + 0.5 = 2.5
+                {"F", "G"}, {"G", "F"}, {"F", "G"},     // arcs fusionnés : 4 + 4 + 1 = 9
+                {"H", "I"}, {"I", "H"}, {"I", "J"},     // poids 1 + 1.5 = 2.5, moins de membres que C-D-E
+                {"B", "C"}                              // arc entre cycles, hors de tout cycle
+        }, new double[]{2, 3, 1, 1, 0.5, 4, 4, 1, 1, 1.5, 7, 10});
+        DependencyCycles cycles = new DependencyCycles(graph);
+
+        List<DependencyCycles.Cycle> ranked = cycles.getCycles();
+        assertEquals(4, ranked.size());
+        assertEquals(Set.of("F", "G"), new HashSet<>(ranked.get(0).getMembers()));
+        assertEquals(9.0, ranked.get(0).getWeight());
+        assertEquals(2, ranked.get(0).getEdgeCount());
+        assertEquals(Set.of("A", "B"), new HashSet<>(ranked.get(1).getMembers()));
+        assertEquals(5.0, ranked.get(1).getWeight());
+        assertEquals(Set.of("C", "D", "E"), new HashSet<>(ranked.get(2).getMembers()));
+        assertEquals(2.5, ranked.get(2).getWeight());
+        assertEquals(3, ranked.get(2).getEdgeCount());
+        assertEquals(Set.of("H", "I"), new HashSet<>(ranked.get(3).getMembers()));
+        assertEquals(2.5, ranked.get(3).getWeight());
+
+        // J n'appartient à aucun cycle
+        assertEquals(9, cycles.getNodesInCycles());
+        assertEquals(5, cycles.getComponents().componentCount());
+    }
+}
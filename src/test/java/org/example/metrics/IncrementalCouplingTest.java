@@ -0,0 +1,94 @@
+package org.example.metrics;
+
+import org.example.graph.CallGraph;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalCouplingTest {
+
+    /**
+     * Graphe d'un fichier déclarant une seule classe : quelques méthodes et quelques appels
+     * tirés parmi un petit ensemble de noms, pour que les classes partagent des relations
+     */
+    private static CallGraph fileGraph(String className, Random random) {
+        CallGraph graph = new CallGraph();
+        graph.addClass(className);
+        for (int i = 0; i < 3; i++) {
+            graph.addMethod(className, "m" + random.nextInt(40));
+        }
+        for (int i = 0; i < 4; i++) {
+            graph.addMethodCall(className, "m" + random.nextInt(40));
+        }
+        return graph;
+    }
+
+    private static CallGraph merged(Map<String, CallGraph> fileGraphs) {
+        CallGraph callGraph = new CallGraph();
+        for (CallGraph fileGraph : fileGraphs.values()) {
+            callGraph.merge(fileGraph);
+        }
+        return callGraph;
+    }
+
+    private static void assertSameAsRecompute(IncrementalCoupling updated, CallGraph callGraph) {
+        IncrementalCoupling recomputed = new IncrementalCoupling();
+        recomputed.recompute(callGraph);
+        assertEquals(recomputed.getTotalRelations(), updated.getTotalRelations());
+        assertEquals(recomputed.getNormalizedCoupling(), updated.getNormalizedCoupling());
+    }
+
+    @Test
+    void updateAfterEditsMatchesAFullRecompute() {
+        Random random = new Random(3);
+        Map<String, CallGraph> fileGraphs = new TreeMap<>();
+        for (int i = 0; i < 30; i++) {
+            fileGraphs.put("C" + i, fileGraph("C" + i, random));
+        }
+        IncrementalCoupling coupling = new IncrementalCoupling();
+        coupling.recompute(merged(fileGraphs));
+
+        int nextClass = 30;
+        for (int round = 0; round < 20; round++) {
+            Set<String> changed = new HashSet<>();
+            // Modification de deux fichiers existants
+            for (int i = 0; i < 2; i++) {
+                String edited = new ArrayList<>(fileGraphs.keySet()).get(random.nextInt(fileGraphs.size()));
+                fileGraphs.put(edited, fileGraph(edited, random));
+                changed.add(edited);
+            }
+            // Ajout d'une classe, et suppression d'une autre un tour sur deux
+            String added = "C" + nextClass++;
+            fileGraphs.put(added, fileGraph(added, random));
+            changed.add(added);
+            if (round % 2 == 0) {
+                String removed = new ArrayList<>(fileGraphs.keySet()).get(random.nextInt(fileGraphs.size()));
+                fileGraphs.remove(removed);
+                changed.add(removed);
+            }
+
+            CallGraph callGraph = merged(fileGraphs);
+            coupling.update(callGraph, changed);
+            assertSameAsRecompute(coupling, callGraph);
+        }
+        assertTrue(coupling.getTotalRelations() > 0);
+    }
+
+    @Test
+    void updateWithoutChangesKeepsTheCoupling() {
+        Random random = new Random(5);
+        Map<String, CallGraph> fileGraphs = new TreeMap<>();
+        for (int i = 0; i < 10; i++) {
+            fileGraphs.put("C" + i, fileGraph("C" + i, random));
+        }
+        CallGraph callGraph = merged(fileGraphs);
+        IncrementalCoupling coupling = new IncrementalCoupling();
+        coupling.recompute(callGraph);
+
+        assertEquals(0, coupling.update(callGraph, Collections.emptySet()));
+        assertSameAsRecompute(coupling, callGraph);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuildModulesTest {
+
+    @Test
+    void addedAndRemovedBuildFilesAreSeenAfterInvalidation(@TempDir Path root) throws IOException {
+        Path project = Files.createDirectories(root.resolve("project"));
+        Files.createFile(project.resolve("pom.xml"));
+        Path core = Files.createDirectories(project.resolve("core/src/main/java/demo"));
+        Path source = Files.createFile(core.resolve("A.java"));
+        assertEquals("project", BuildModules.moduleOf(source));
+
+        // Nouveau module : le cache répond encore l'ancien tant qu'il n'est pas invalidé
+        Path coreBuild = Files.createFile(project.resolve("core/build.gradle"));
+        assertTrue(BuildModules.isBuildFile(coreBuild));
+        assertEquals("project", BuildModules.moduleOf(source));
+        BuildModules.invalidate(coreBuild.getParent());
+        assertEquals("core", BuildModules.moduleOf(source));
+
+        // Module supprimé : la classe revient au module parent
+        Files.delete(coreBuild);
+        BuildModules.invalidate(coreBuild.getParent());
+        assertEquals("project", BuildModules.moduleOf(source));
+        assertFalse(BuildModules.isBuildFile(source));
+    }
+}